@@ -0,0 +1,39 @@
+package kr.or.exmaple.kafkaBench;
+
+import org.openjdk.jmh.Main;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 벤치마크 실행 진입점
+ * 
+ * JMH 명령행 옵션을 그대로 받되, 결과 형식(-rf)과 파일(-rff)을 지정하지 않으면
+ * JSON 형식으로 jmh-result-{버전}.json에 저장합니다.
+ * 릴리즈별 결과 파일을 비교하여 성능 회귀를 추적할 수 있습니다.
+ * 
+ * 사용 예:
+ * <pre>
+ * java -jar kafka-bench/target/benchmarks.jar                  # 전체 실행
+ * java -jar kafka-bench/target/benchmarks.jar ParseBenchmark   # 특정 벤치마크만 실행
+ * java -jar kafka-bench/target/benchmarks.jar -prof gc         # 할당량(B/op) 함께 측정
+ * </pre>
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        List<String> jmhArgs = new ArrayList<>(List.of(args));
+        if (!jmhArgs.contains("-rf")) {
+            jmhArgs.add("-rf");
+            jmhArgs.add("json");
+        }
+        if (!jmhArgs.contains("-rff")) {
+            String version = BenchmarkMain.class.getPackage().getImplementationVersion();
+            jmhArgs.add("-rff");
+            jmhArgs.add("jmh-result-" + (version != null ? version : "dev") + ".json");
+        }
+        Main.main(jmhArgs.toArray(String[]::new));
+    }
+}
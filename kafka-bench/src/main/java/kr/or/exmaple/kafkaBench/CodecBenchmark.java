@@ -0,0 +1,95 @@
+package kr.or.exmaple.kafkaBench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import kr.or.exmaple.kafkaCommon.codec.PayloadCodec;
+import kr.or.exmaple.kafkaCommon.codec.PayloadCodecs;
+import kr.or.exmaple.kafkaCommon.codec.PayloadFormat;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 메시지 본문 코덱(app.codec.format) 비교
+ * 
+ * - encode: 프로듀서 경로 (JsonNode → 본문 바이트)
+ * - decode: 컨슈머 경로 (본문 바이트 → JsonNode)
+ * 
+ * 형식별 본문 크기는 encode 결과에 보조 지표(encodedBytes)로 함께 기록됩니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+
+    /**
+     * 메시지 크기 (JSON 기준 바이트)
+     */
+    @Param({"300", "2000", "16000"})
+    public int payloadBytes;
+
+    /**
+     * 본문 형식
+     */
+    @Param({"JSON", "CBOR", "SMILE"})
+    public PayloadFormat format;
+
+    private PayloadCodec codec;
+
+    private JsonNode message;
+
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        PayloadCodecs codecs = new PayloadCodecs();
+        codec = codecs.get(format);
+        message = codecs.get(PayloadFormat.JSON).decode(Payloads.json(payloadBytes));
+        encoded = codec.encode(message);
+    }
+
+    @Benchmark
+    public byte[] encode(Sizes sizes) throws IOException {
+        return codec.encode(message);
+    }
+
+    @Benchmark
+    public JsonNode decode() throws IOException {
+        return codec.decode(encoded);
+    }
+
+    /**
+     * 인코딩한 본문 크기 (필드는 반복마다 0으로 초기화되므로 메서드로 보조 지표에 기록)
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Sizes {
+
+        private long encoded;
+
+        @Setup
+        public void setUp(CodecBenchmark benchmark) {
+            encoded = benchmark.encoded.length;
+        }
+
+        public long encodedBytes() {
+            return encoded;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package kr.or.exmaple.kafkaBench;
+
+import com.github.luben.zstd.ZstdCompressCtx;
+import com.github.luben.zstd.ZstdDecompressCtx;
+import com.github.luben.zstd.ZstdDictTrainer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.or.exmaple.kafkaCommon.compression.ZstdDictionaries;
+import kr.or.exmaple.kafkaCommon.compression.ZstdDictionaryDeserializer;
+import kr.or.exmaple.kafkaCommon.compression.ZstdDictionarySerializer;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 메시지 단위 zstd 압축: 사전 없이 vs 학습한 사전(app.compression)
+ * 
+ * 사전은 값만 다른 같은 구조의 메시지(시드별 Payloads)로 학습하고,
+ * 측정은 학습에 쓰지 않은 메시지로 합니다.
+ * 
+ * - compress / decompress: 압축만 (사전 여부 비교, 둘 다 컨텍스트를 재사용)
+ * - serialize / deserialize: ZstdDictionarySerializer/Deserializer (헤더, 메트릭 포함)
+ * 
+ * 방식별 원본/압축 크기는 compress 결과에 보조 지표(messageBytes, compressedBytes)로 함께 기록됩니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompressionBenchmark {
+
+    private static final int LEVEL = 3;
+
+    /**
+     * 메시지 크기 (JSON 기준 바이트)
+     */
+    @Param({"300", "2000"})
+    public int payloadBytes;
+
+    /**
+     * 학습한 사전 사용 여부
+     */
+    @Param({"false", "true"})
+    public boolean dictionary;
+
+    private Path directory;
+
+    private byte[] message;
+
+    private byte[] compressed;
+
+    private RecordHeaders headers;
+
+    private ZstdDictionarySerializer serializer;
+
+    private ZstdDictionaryDeserializer deserializer;
+
+    private ZstdDictionaries dictionaries;
+
+    private final ZstdCompressCtx plainCompress = new ZstdCompressCtx().setLevel(LEVEL);
+
+    private final ZstdDecompressCtx plainDecompress = new ZstdDecompressCtx();
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("zstd-dictionaries");
+        dictionaries = new ZstdDictionaries(directory, LEVEL);
+        if (dictionary) {
+            ZstdDictTrainer trainer = new ZstdDictTrainer(1024 * 1024, 16 * 1024);
+            for (long seed = 1; trainer.addSample(Payloads.json(payloadBytes, seed)); seed++) {
+                // 버퍼가 찰 때까지 표본 추가
+            }
+            dictionaries.add(trainer.trainSamples());
+        }
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        serializer = new ZstdDictionarySerializer(dictionaries, null, registry);
+        deserializer = new ZstdDictionaryDeserializer(dictionaries, registry);
+
+        message = Payloads.json(payloadBytes, 0);
+        compressed = dictionary ? dictionaries.active().compress(message) : plainCompress.compress(message);
+        headers = new RecordHeaders();
+        serializer.serialize("sample.batch.topic", headers, message);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public byte[] compress(Sizes sizes) {
+        return dictionary ? dictionaries.active().compress(message) : plainCompress.compress(message);
+    }
+
+    @Benchmark
+    public byte[] decompress() {
+        return dictionary ? dictionaries.active().decompress(compressed) : plainDecompress.decompress(compressed, message.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize("sample.batch.topic", new RecordHeaders(), message);
+    }
+
+    @Benchmark
+    public byte[] deserialize() {
+        return deserializer.deserialize("sample.batch.topic", headers, dictionary ? compressed : message);
+    }
+
+    /**
+     * 원본과 압축한 메시지 크기 (필드는 반복마다 0으로 초기화되므로 메서드로 보조 지표에 기록)
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Sizes {
+
+        private long message;
+
+        private long compressed;
+
+        @Setup
+        public void setUp(CompressionBenchmark benchmark) {
+            message = benchmark.message.length;
+            compressed = benchmark.compressed.length;
+        }
+
+        public long messageBytes() {
+            return message;
+        }
+
+        public long compressedBytes() {
+            return compressed;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package kr.or.exmaple.kafkaBench;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import kr.or.exmaple.kafkaProducer.support.ApiTranIdInjector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 프로듀서 api_tran_id 추가(enrichment) 경로 비교
+ * 
+ * - mapBind: ProducerController와 같은 방식 (Map 바인딩 → UUID 추가 → writeValueAsString)
+ * - passThrough: PassThroughProducerController 방식 (ApiTranIdInjector로 원본 바이트에 삽입)
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnrichmentBenchmark {
+
+    private static final TypeReference<LinkedHashMap<String, Object>> MAP_TYPE = new TypeReference<>() {
+    };
+
+    /**
+     * 요청 본문 크기 (바이트)
+     */
+    @Param({"300", "2000", "16000"})
+    public int payloadBytes;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final ApiTranIdInjector injector = new ApiTranIdInjector();
+
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        body = Payloads.json(payloadBytes);
+    }
+
+    @Benchmark
+    public String mapBind() throws Exception {
+        Map<String, Object> jsonData = objectMapper.readValue(body, MAP_TYPE);
+        jsonData.put("api_tran_id", UUID.randomUUID().toString());
+        return objectMapper.writeValueAsString(jsonData);
+    }
+
+    @Benchmark
+    public ApiTranIdInjector.Result passThrough() {
+        return injector.inject(body, UUID.randomUUID().toString());
+    }
+}
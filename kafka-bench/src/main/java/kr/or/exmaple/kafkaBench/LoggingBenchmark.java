@@ -0,0 +1,144 @@
+package kr.or.exmaple.kafkaBench;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import kr.or.exmaple.kafkaCommon.logging.PayloadLogProperties;
+import kr.or.exmaple.kafkaCommon.logging.PayloadLogSampler;
+import net.logstash.logback.composite.loggingevent.ArgumentsJsonProvider;
+import net.logstash.logback.composite.loggingevent.LogLevelJsonProvider;
+import net.logstash.logback.composite.loggingevent.LoggerNameJsonProvider;
+import net.logstash.logback.composite.loggingevent.LoggingEventFormattedTimestampJsonProvider;
+import net.logstash.logback.composite.loggingevent.MdcJsonProvider;
+import net.logstash.logback.composite.loggingevent.MessageJsonProvider;
+import net.logstash.logback.composite.loggingevent.StackTraceJsonProvider;
+import net.logstash.logback.encoder.LoggingEventCompositeJsonEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 메시지당 로그의 리스너 스레드 처리량 비교
+ * 
+ * logback-spring.xml과 같은 provider 구성의 JSON 인코더로, 레코드 리스너가 메시지마다 남기는 로그
+ * (수신/완료는 DEBUG, 본문은 INFO)를 4개 스레드에서 동시에 기록합니다. 출력은 버립니다.
+ * 
+ * - SYNC_FULL: 동기 JSON appender, 모든 메시지의 전체 본문 (기존 설정)
+ * - ASYNC_FULL: 비동기 appender (큐가 차면 대기), 모든 메시지의 전체 본문
+ * - ASYNC_SAMPLED: 비동기 appender (큐가 차면 버림), 초당 개수와 길이를 제한한 본문 (PayloadLogSampler 기본값)
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class LoggingBenchmark {
+
+    private static final String PAYLOAD = "{\"name\":\"김철수\",\"age\":30,\"address\":{\"city\":\"서울\",\"district\":\"강남구\"},"
+            + "\"items\":[{\"id\":1,\"qty\":2},{\"id\":2,\"qty\":5}],\"memo\":\"" + "x".repeat(160) + "\","
+            + "\"api_tran_id\":\"550e8400-e29b-41d4-a716-446655440000\"}";
+
+    public enum Appenders {
+        SYNC_FULL, ASYNC_FULL, ASYNC_SAMPLED
+    }
+
+    @Param({"SYNC_FULL", "ASYNC_FULL", "ASYNC_SAMPLED"})
+    public Appenders appenders;
+
+    private LoggerContext context;
+
+    private Logger log;
+
+    private PayloadLogSampler sampler;
+
+    @Setup
+    public void setUp() {
+        context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        Appender<ILoggingEvent> appender = jsonAppender(context);
+        if (appenders != Appenders.SYNC_FULL) {
+            boolean neverBlock = appenders == Appenders.ASYNC_SAMPLED;
+            AsyncAppender asyncAppender = new AsyncAppender();
+            asyncAppender.setContext(context);
+            asyncAppender.setQueueSize(8192);
+            asyncAppender.setNeverBlock(neverBlock);
+            asyncAppender.setDiscardingThreshold(neverBlock ? -1 : 0);
+            asyncAppender.setIncludeCallerData(false);
+            asyncAppender.addAppender(appender);
+            asyncAppender.start();
+            appender = asyncAppender;
+        }
+        log = context.getLogger("benchmark");
+        log.setLevel(Level.INFO);
+        log.addAppender(appender);
+
+        PayloadLogProperties properties = new PayloadLogProperties();
+        if (appenders != Appenders.ASYNC_SAMPLED) {
+            properties.setMaxPerSecond(0);
+            properties.setMaxLength(0);
+        }
+        sampler = new PayloadLogSampler(properties);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.stop();
+    }
+
+    /**
+     * 메시지 하나의 로그 (KafkaRecordListener와 MessageReceiveService와 같은 호출)
+     */
+    @Benchmark
+    public void logMessage() {
+        log.debug("Received single message from topic: {}", "sample.record.topic");
+        if (sampler.sample()) {
+            log.info("Processed single message: {}", sampler.preview(PAYLOAD));
+        }
+        log.debug("Completed processing single message from {}", "sample.record.topic");
+    }
+
+    /**
+     * logback-spring.xml과 같은 provider 구성의 JSON appender (출력은 버림)
+     */
+    private static Appender<ILoggingEvent> jsonAppender(LoggerContext context) {
+        LoggingEventCompositeJsonEncoder encoder = new LoggingEventCompositeJsonEncoder();
+        encoder.setContext(context);
+        encoder.getProviders().addProvider(new LoggingEventFormattedTimestampJsonProvider());
+        encoder.getProviders().addProvider(new LogLevelJsonProvider());
+        encoder.getProviders().addProvider(new LoggerNameJsonProvider());
+        encoder.getProviders().addProvider(new MessageJsonProvider());
+        encoder.getProviders().addProvider(new MdcJsonProvider());
+        encoder.getProviders().addProvider(new ArgumentsJsonProvider());
+        encoder.getProviders().addProvider(new StackTraceJsonProvider());
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+        return appender;
+    }
+}
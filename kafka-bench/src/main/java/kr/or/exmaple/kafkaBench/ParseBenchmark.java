@@ -0,0 +1,161 @@
+package kr.or.exmaple.kafkaBench;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.or.exmaple.kafkaCommon.codec.FieldProjection;
+import kr.or.exmaple.kafkaCommon.codec.PayloadCodecs;
+import kr.or.exmaple.kafkaCommon.codec.ProjectedRecord;
+import kr.or.exmaple.kafkaCommon.dedup.DedupProperties;
+import kr.or.exmaple.kafkaCommon.dedup.IdempotencyCache;
+import kr.or.exmaple.kafkaCommon.logging.PayloadLogProperties;
+import kr.or.exmaple.kafkaCommon.logging.PayloadLogSampler;
+import kr.or.exmaple.kafkaCommon.metrics.KafkaMetrics;
+import kr.or.exmaple.kafkaCommon.metrics.KafkaMetricsProperties;
+import kr.or.exmaple.kafkaCommon.retry.FailedRecordPublisher;
+import kr.or.exmaple.kafkaConsume.config.ConsumerProperties;
+import kr.or.exmaple.kafkaConsume.service.MessageReceiveService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 컨슈머 메시지 파싱 경로 비교
+ * 
+ * - tree: MessageReceiveService와 같은 readTree (JsonNode 트리 생성)
+ * - streaming: JsonParser로 토큰만 순회 (객체 생성 없음, 검증만)
+ * - databind: 메시지 구조에 맞춘 record로 바인딩
+ * - projection: FieldProjection으로 선언한 필드(api_tran_id, key)만 읽고 나머지는 건너뜀
+ * - processMessage / processMessages: 실제 MessageReceiveService 경로
+ *   (본문 로그는 끄고 파싱과 메트릭 기록만 측정, payloadMode로 bytes/string,
+ *   parseMode로 tree/projection 비교)
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark {
+
+    /**
+     * 메시지 크기 (바이트)
+     */
+    @Param({"300", "2000", "16000"})
+    public int payloadBytes;
+
+    /**
+     * MessageReceiveService 본문 파싱 방식
+     */
+    @Param({"BYTES", "STRING"})
+    public ConsumerProperties.PayloadMode payloadMode;
+
+    /**
+     * MessageReceiveService 필드 읽기 방식
+     */
+    @Param({"TREE", "PROJECTION"})
+    public ConsumerProperties.ParseMode parseMode;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final FieldProjection projection = FieldProjection.of("api_tran_id", "key");
+
+    private final ProjectedRecord projectedRecord = projection.newRecord();
+
+    private byte[] payload;
+
+    private ConsumerRecord<String, byte[]> record;
+
+    private List<ConsumerRecord<String, byte[]>> batch;
+
+    private MessageReceiveService messageReceiveService;
+
+    @Setup
+    public void setUp() {
+        payload = Payloads.json(payloadBytes);
+        record = new ConsumerRecord<>("sample.batch.topic", 0, 0L, "user-1", payload);
+
+        // application.yml의 max.poll.records와 같은 배치 크기
+        batch = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            batch.add(new ConsumerRecord<>("sample.batch.topic", 0, i, "user-" + i, payload));
+        }
+
+        ConsumerProperties consumerProperties = new ConsumerProperties();
+        consumerProperties.setPayloadMode(payloadMode);
+        consumerProperties.setParseMode(parseMode);
+        PayloadLogProperties payloadLogProperties = new PayloadLogProperties();
+        payloadLogProperties.setEnabled(false);
+        // 같은 본문을 반복 처리하므로 중복 제거를 끄고 파싱 경로만 측정
+        DedupProperties dedupProperties = new DedupProperties();
+        dedupProperties.setEnabled(false);
+        messageReceiveService = new MessageReceiveService(consumerProperties,
+                new KafkaMetrics(new SimpleMeterRegistry(), new KafkaMetricsProperties()),
+                new PayloadLogSampler(payloadLogProperties),
+                new IdempotencyCache(dedupProperties, new SimpleMeterRegistry()),
+                new PayloadCodecs(),
+                projection,
+                new StaticListableBeanFactory().getBeanProvider(FailedRecordPublisher.class));
+    }
+
+    @Benchmark
+    public JsonNode tree() throws Exception {
+        return objectMapper.readTree(payload);
+    }
+
+    @Benchmark
+    public int streaming() throws Exception {
+        int tokens = 0;
+        try (JsonParser parser = objectMapper.getFactory().createParser(payload)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token == JsonToken.VALUE_STRING) {
+                    // 문자열 값 디코딩 비용 포함 (실제 처리에서 값을 읽는 경우와 동일)
+                    tokens += parser.getTextLength();
+                }
+                tokens++;
+            }
+        }
+        return tokens;
+    }
+
+    @Benchmark
+    public Payloads.Message databind() throws Exception {
+        return objectMapper.readValue(payload, Payloads.Message.class);
+    }
+
+    @Benchmark
+    public ProjectedRecord projection() throws Exception {
+        try (JsonParser parser = objectMapper.createParser(payload)) {
+            return projection.read(parser, projectedRecord);
+        }
+    }
+
+    @Benchmark
+    public void processMessage() {
+        messageReceiveService.processMessage(record);
+    }
+
+    @Benchmark
+    public void processMessages() {
+        messageReceiveService.processMessages(batch);
+    }
+}
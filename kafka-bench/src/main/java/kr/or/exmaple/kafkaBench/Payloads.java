@@ -0,0 +1,74 @@
+package kr.or.exmaple.kafkaBench;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 벤치마크용 JSON 메시지 생성기
+ * 
+ * 클라이언트가 /putdata로 보내는 형태(사용자 정보, 주소, 주문 목록)를 본떠
+ * 지정한 크기 이상이 될 때까지 주문을 추가합니다.
+ * 같은 크기에 대해서는 항상 같은 내용을 생성합니다 (고정 시드).
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+public final class Payloads {
+
+    private Payloads() {
+    }
+
+    /**
+     * 최소 minBytes 바이트 이상인 JSON 객체 생성 (UTF-8)
+     */
+    public static byte[] json(int minBytes) {
+        return json(minBytes, 42);
+    }
+
+    /**
+     * 최소 minBytes 바이트 이상인 JSON 객체 생성 (UTF-8)
+     * 구조는 같고 값만 시드에 따라 달라짐 (사전 학습용 표본)
+     */
+    public static byte[] json(int minBytes, long seed) {
+        Random random = new Random(seed);
+        StringBuilder json = new StringBuilder(minBytes + 256);
+        json.append("{\"key\":\"user-").append(random.nextInt(10_000)).append('"')
+                .append(",\"name\":\"김철수\",\"age\":").append(20 + random.nextInt(50))
+                .append(",\"email\":\"chulsoo.kim@example.com\"")
+                .append(",\"address\":{\"city\":\"서울\",\"district\":\"강남구\",\"zip\":\"06236\"}")
+                .append(",\"orders\":[");
+
+        // 닫는 부분(약 40바이트)을 고려하여 목표 크기에 도달할 때까지 주문 추가
+        int count = 0;
+        do {
+            if (count > 0) {
+                json.append(',');
+            }
+            json.append("{\"orderId\":\"ORD-").append(100_000 + random.nextInt(900_000)).append('"')
+                    .append(",\"sku\":\"SKU-").append(random.nextInt(100_000)).append('"')
+                    .append(",\"qty\":").append(1 + random.nextInt(9))
+                    .append(",\"price\":").append(random.nextInt(100_000)).append('.').append(random.nextInt(100))
+                    .append(",\"tags\":[\"express\",\"gift\"]}");
+            count++;
+        } while (json.toString().getBytes(StandardCharsets.UTF_8).length + 40 < minBytes);
+
+        json.append("],\"memo\":\"문 앞에 놓아주세요\"}");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * databind 비교용 메시지 구조
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Message(String key, String name, int age, String email, Address address,
+                          List<Order> orders, String memo) {
+    }
+
+    public record Address(String city, String district, String zip) {
+    }
+
+    public record Order(String orderId, String sku, int qty, double price, List<String> tags) {
+    }
+}
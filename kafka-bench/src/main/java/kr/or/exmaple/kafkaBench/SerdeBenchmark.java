@@ -0,0 +1,95 @@
+package kr.or.exmaple.kafkaBench;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kafka String / byte[] SerDe 경로 비교
+ * 
+ * 프로듀서: JSON 직렬화 후 Kafka Serializer를 거쳐 전송 바이트가 되기까지
+ * - producerString: writeValueAsString → StringSerializer
+ * - producerBytes: writeValueAsBytes → ByteArraySerializer
+ * 
+ * 컨슈머: 수신 바이트가 JsonNode가 되기까지
+ * - consumerString: StringDeserializer → readTree(String)
+ * - consumerBytes: ByteArrayDeserializer → readTree(byte[])
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerdeBenchmark {
+
+    private static final String TOPIC = "sample.batch.topic";
+
+    /**
+     * 메시지 크기 (바이트)
+     */
+    @Param({"300", "2000", "16000"})
+    public int payloadBytes;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final StringSerializer stringSerializer = new StringSerializer();
+
+    private final ByteArraySerializer byteArraySerializer = new ByteArraySerializer();
+
+    private final StringDeserializer stringDeserializer = new StringDeserializer();
+
+    private final ByteArrayDeserializer byteArrayDeserializer = new ByteArrayDeserializer();
+
+    private Map<String, Object> message;
+
+    private byte[] wire;
+
+    @Setup
+    public void setUp() throws Exception {
+        wire = Payloads.json(payloadBytes);
+        message = objectMapper.readValue(wire, new TypeReference<LinkedHashMap<String, Object>>() {
+        });
+    }
+
+    @Benchmark
+    public byte[] producerString() throws Exception {
+        return stringSerializer.serialize(TOPIC, objectMapper.writeValueAsString(message));
+    }
+
+    @Benchmark
+    public byte[] producerBytes() throws Exception {
+        return byteArraySerializer.serialize(TOPIC, objectMapper.writeValueAsBytes(message));
+    }
+
+    @Benchmark
+    public JsonNode consumerString() throws Exception {
+        return objectMapper.readTree(stringDeserializer.deserialize(TOPIC, wire));
+    }
+
+    @Benchmark
+    public JsonNode consumerBytes() throws Exception {
+        return objectMapper.readTree(byteArrayDeserializer.deserialize(TOPIC, wire));
+    }
+}
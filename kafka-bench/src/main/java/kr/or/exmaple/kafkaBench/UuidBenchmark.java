@@ -0,0 +1,71 @@
+package kr.or.exmaple.kafkaBench;
+
+import kr.or.exmaple.kafkaProducer.support.TimeOrderedUuidGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * api_tran_id 생성 비용 측정
+ * 
+ * UUID.randomUUID()는 공유 SecureRandom을 사용하므로
+ * 단일 스레드와 동시 요청(4 스레드) 상황을 함께 측정합니다.
+ * 
+ * app.producer.tran-id-format의 두 구현을 같은 조건으로 비교합니다.
+ * - randomUuid*: uuid-v4 (RandomUuidGenerator와 같은 호출)
+ * - timeOrderedUuid*: uuid-v7 (TimeOrderedUuidGenerator, 스레드별 상태)
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UuidBenchmark {
+
+    private final TimeOrderedUuidGenerator timeOrderedGenerator = new TimeOrderedUuidGenerator();
+
+    @Benchmark
+    public UUID randomUuid() {
+        return UUID.randomUUID();
+    }
+
+    @Benchmark
+    public String randomUuidString() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String randomUuidStringContended() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public UUID timeOrderedUuid() {
+        return timeOrderedGenerator.nextUuid();
+    }
+
+    @Benchmark
+    public String timeOrderedUuidString() {
+        return timeOrderedGenerator.nextId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String timeOrderedUuidStringContended() {
+        return timeOrderedGenerator.nextId();
+    }
+}
@@ -0,0 +1,186 @@
+package kr.or.exmaple.kafkaCommon.codec;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 메시지 본문에서 필요한 필드만 읽는 프로젝션
+ * 
+ * readTree는 본문의 모든 필드를 JsonNode 트리로 만들지만, 처리에 필요한 필드는
+ * api_tran_id, key 등 몇 개뿐입니다. 이 클래스는 선언한 필드 경로만 스트리밍 파서(JsonParser)로 읽어
+ * 재사용하는 ProjectedRecord에 담고, 나머지 값과 하위 객체/배열은 skipChildren()으로
+ * 객체를 만들지 않고 건너뜁니다. 선언한 필드를 모두 찾은 뒤에도 본문의 나머지는 끝까지 건너뛰며
+ * 토큰 단위로 확인하므로, 잘못된 본문은 readTree와 같이 IOException으로 실패합니다.
+ * 같은 필드가 여러 번 있으면 readTree와 같이 마지막 값을 담습니다
+ * (프로듀서의 ApiTranIdInjector는 클라이언트가 보낸 api_tran_id 뒤에 새 값을 덧붙임).
+ * 
+ * 필드 경로:
+ * - 최상위 필드는 이름 그대로 (api_tran_id)
+ * - 하위 객체의 필드는 점으로 연결 (address.city)
+ * - 값이 문자열/숫자/불리언이면 텍스트로, 객체/배열이면 해당 부분만 JsonNode로 담음
+ * - 한 경로가 다른 경로의 하위 필드이면 (address, address.city) 값을 한 번만 읽을 수 있으므로 허용하지 않음
+ * 
+ * 파서만 바꾸면 되므로 JSON, CBOR, Smile 본문 모두 같은 방식으로 읽습니다.
+ * 불변 객체이므로 여러 스레드에서 공유할 수 있습니다 (ProjectedRecord는 스레드마다 따로 사용).
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+public final class FieldProjection {
+
+    private final List<String> paths;
+
+    private final Map<String, Integer> indexes = new HashMap<>();
+
+    private final Node root = new Node();
+
+    private FieldProjection(List<String> paths) {
+        this.paths = paths;
+        for (int i = 0; i < paths.size(); i++) {
+            String path = paths.get(i);
+            if (indexes.putIfAbsent(path, i) != null) {
+                throw new IllegalArgumentException("Duplicate projection field: " + path);
+            }
+            Node node = root;
+            for (String name : path.split("\\.")) {
+                if (node.index >= 0) {
+                    throw new IllegalArgumentException("Overlapping projection fields: " + paths.get(node.index) + ", " + path);
+                }
+                node = node.children.computeIfAbsent(name, ignored -> new Node());
+                node.fields.add(i);
+            }
+            if (!node.children.isEmpty()) {
+                throw new IllegalArgumentException("Overlapping projection fields: " + path + ", " + paths.get(node.first()));
+            }
+            node.index = i;
+        }
+    }
+
+    /**
+     * 읽을 필드 경로로 프로젝션 생성
+     * 
+     * @param paths 필드 경로 (하위 필드는 점으로 연결)
+     * @throws IllegalArgumentException 같은 경로가 두 번 있거나 한 경로가 다른 경로의 하위 필드인 경우
+     */
+    public static FieldProjection of(Collection<String> paths) {
+        return new FieldProjection(List.copyOf(paths));
+    }
+
+    public static FieldProjection of(String... paths) {
+        return of(List.of(paths));
+    }
+
+    /**
+     * 선언한 필드 경로 (인덱스 순서)
+     */
+    public List<String> paths() {
+        return paths;
+    }
+
+    public int size() {
+        return paths.size();
+    }
+
+    /**
+     * 필드 경로의 인덱스
+     * 
+     * @return 선언하지 않은 경로면 -1
+     */
+    public int indexOf(String path) {
+        Integer index = indexes.get(path);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * 이 프로젝션의 결과를 담을 ProjectedRecord 생성 (스레드마다 하나씩 만들어 재사용)
+     */
+    public ProjectedRecord newRecord() {
+        return new ProjectedRecord(this);
+    }
+
+    /**
+     * 본문에서 선언한 필드만 읽어 into에 담음 (into의 이전 값은 지워짐)
+     * 
+     * @param parser 본문을 가리키는 파서 (아직 첫 토큰을 읽지 않은 상태, close는 호출자가 담당)
+     * @param into 결과를 담을 ProjectedRecord
+     * @return into
+     * @throws IOException 본문이 JSON 객체가 아니거나 형식에 맞지 않는 경우
+     */
+    public ProjectedRecord read(JsonParser parser, ProjectedRecord into) throws IOException {
+        into.reset();
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected a JSON object");
+        }
+        readObject(parser, root, into);
+        return into;
+    }
+
+    /**
+     * 객체 하나를 끝(END_OBJECT)까지 읽으며 선언한 필드만 담음
+     * 
+     * 같은 필드가 다시 나오면 앞의 값을 버리고 새 값을 담으며, 하위 객체가 다시 나오면
+     * 앞 객체에서 읽은 하위 필드를 지운 뒤 새 객체에서 다시 읽습니다 (readTree의 마지막 값 우선과 동일).
+     */
+    private void readObject(JsonParser parser, Node node, ProjectedRecord into) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+            // 필드 이름은 파서의 심볼 테이블에서 재사용되는 문자열이므로 조회 시 새로 만들어지지 않음
+            Node child = node.children.get(parser.currentName());
+            JsonToken value = parser.nextToken();
+            if (child == null) {
+                parser.skipChildren();
+            } else if (child.index >= 0) {
+                into.set(child.index, capture(parser, value));
+            } else {
+                child.fields.forEach(into::clear);
+                if (value == JsonToken.START_OBJECT) {
+                    readObject(parser, child, into);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        if (token != JsonToken.END_OBJECT) {
+            throw new JsonParseException(parser, "Unexpected token in JSON object: " + token);
+        }
+    }
+
+    private static Object capture(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (value.isStructStart()) {
+            return parser.readValueAsTree();
+        }
+        return parser.getText();
+    }
+
+    /**
+     * 필드 경로 트리의 노드 (index가 0 이상이면 읽을 필드)
+     */
+    private static final class Node {
+
+        private final Map<String, Node> children = new HashMap<>();
+
+        /**
+         * 이 노드와 그 아래에서 읽을 필드의 인덱스 (같은 이름의 하위 객체가 다시 나오면 지움)
+         */
+        private final List<Integer> fields = new ArrayList<>();
+
+        private int index = -1;
+
+        /**
+         * 이 노드 아래에서 읽을 필드 하나의 인덱스 (겹치는 경로를 알릴 때 사용)
+         */
+        private int first() {
+            return index >= 0 ? index : children.values().iterator().next().first();
+        }
+    }
+}
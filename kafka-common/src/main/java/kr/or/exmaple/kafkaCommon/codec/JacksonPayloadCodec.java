@@ -0,0 +1,47 @@
+package kr.or.exmaple.kafkaCommon.codec;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+
+/**
+ * Jackson 데이터 형식(JSON, CBOR, Smile) 기반 코덱
+ * 
+ * 형식마다 JsonFactory만 다른 ObjectMapper를 사용하므로
+ * 인코딩/디코딩 결과의 데이터 모델(JsonNode)은 형식과 관계없이 같습니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+public class JacksonPayloadCodec implements PayloadCodec {
+
+    private final String name;
+
+    private final ObjectMapper objectMapper;
+
+    public JacksonPayloadCodec(String name, ObjectMapper objectMapper) {
+        this.name = name;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public byte[] encode(Object value) throws IOException {
+        return objectMapper.writeValueAsBytes(value);
+    }
+
+    @Override
+    public JsonNode decode(byte[] payload) throws IOException {
+        return objectMapper.readTree(payload);
+    }
+
+    @Override
+    public JsonParser createParser(byte[] payload) throws IOException {
+        return objectMapper.createParser(payload);
+    }
+}
@@ -0,0 +1,52 @@
+package kr.or.exmaple.kafkaCommon.codec;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+
+/**
+ * 메시지 본문 인코딩/디코딩 방식
+ * 
+ * 프로듀서는 설정된 코덱(app.codec.format)으로 본문을 인코딩하고 코덱 이름을
+ * 레코드 헤더(PayloadCodecs.HEADER)에 기록합니다. 컨슈머는 헤더를 보고 레코드마다
+ * 코덱을 골라 디코딩하므로, 한 토픽에 여러 형식이 섞여 있어도 처리할 수 있습니다.
+ * 
+ * 구현체는 여러 스레드에서 동시에 사용되므로 스레드 안전해야 합니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+public interface PayloadCodec {
+
+    /**
+     * 헤더에 기록되는 코덱 이름 (json, cbor, smile)
+     */
+    String name();
+
+    /**
+     * 객체(Map, JsonNode 등)를 본문 바이트로 인코딩
+     * 
+     * @param value 인코딩할 값
+     * @return 인코딩된 본문
+     * @throws IOException 인코딩 실패 시
+     */
+    byte[] encode(Object value) throws IOException;
+
+    /**
+     * 본문 바이트를 JsonNode로 디코딩
+     * 
+     * @param payload 인코딩된 본문
+     * @return 디코딩된 JsonNode
+     * @throws IOException 본문이 이 형식에 맞지 않는 경우
+     */
+    JsonNode decode(byte[] payload) throws IOException;
+
+    /**
+     * 본문 바이트를 읽는 스트리밍 파서 생성 (트리를 만들지 않고 필요한 필드만 읽을 때 사용)
+     * 
+     * @param payload 인코딩된 본문
+     * @return 본문을 가리키는 파서 (사용 후 close 필요)
+     * @throws IOException 파서를 만들 수 없는 경우
+     */
+    JsonParser createParser(byte[] payload) throws IOException;
+}
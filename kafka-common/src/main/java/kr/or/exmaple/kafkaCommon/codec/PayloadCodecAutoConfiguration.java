@@ -0,0 +1,31 @@
+package kr.or.exmaple.kafkaCommon.codec;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * 메시지 본문 코덱 자동 구성
+ * 
+ * - PayloadCodecs: 컨슈머가 레코드 헤더로 코덱을 고를 때 사용
+ * - PayloadCodec: 프로듀서가 인코딩에 사용할 코덱 (app.codec.format)
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@AutoConfiguration
+@EnableConfigurationProperties(PayloadCodecProperties.class)
+public class PayloadCodecAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public PayloadCodecs payloadCodecs() {
+        return new PayloadCodecs();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public PayloadCodec payloadCodec(PayloadCodecs payloadCodecs, PayloadCodecProperties properties) {
+        return payloadCodecs.get(properties.getFormat());
+    }
+}
@@ -0,0 +1,24 @@
+package kr.or.exmaple.kafkaCommon.codec;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 메시지 본문 코덱 설정
+ * 
+ * application.yml의 app.codec 하위 설정과 바인딩됩니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.codec")
+public class PayloadCodecProperties {
+
+    /**
+     * 프로듀서가 본문을 인코딩할 형식
+     * 컨슈머는 레코드 헤더로 형식을 판단하므로 이 설정을 사용하지 않음
+     */
+    private PayloadFormat format = PayloadFormat.JSON;
+}
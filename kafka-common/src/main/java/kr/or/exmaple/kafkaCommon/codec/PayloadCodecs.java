@@ -0,0 +1,97 @@
+package kr.or.exmaple.kafkaCommon.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 형식별 코덱 모음과 레코드 헤더 기반 코덱 선택
+ * 
+ * 헤더 값은 코덱 이름의 UTF-8 바이트이며, 레코드마다 문자열을 만들지 않도록
+ * 미리 인코딩해 둔 이름 바이트와 직접 비교합니다.
+ * 
+ * 헤더가 없는 레코드는 JSON으로 간주하므로, 코덱 도입 전에 생산된 메시지와
+ * 새 형식의 메시지가 한 토픽에 섞여 있어도 모두 디코딩할 수 있습니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+public class PayloadCodecs {
+
+    /**
+     * 코덱 이름을 담는 레코드 헤더 키
+     */
+    public static final String HEADER = "payload-codec";
+
+    private final PayloadCodec[] codecs = new PayloadCodec[PayloadFormat.values().length];
+
+    private final byte[][] headerValues = new byte[PayloadFormat.values().length][];
+
+    private final byte[][] contentTypes = new byte[PayloadFormat.values().length][];
+
+    public PayloadCodecs() {
+        register(PayloadFormat.JSON, new ObjectMapper());
+        register(PayloadFormat.CBOR, new ObjectMapper(new CBORFactory()));
+        register(PayloadFormat.SMILE, new ObjectMapper(new SmileFactory()));
+    }
+
+    /**
+     * 형식에 해당하는 코덱
+     */
+    public PayloadCodec get(PayloadFormat format) {
+        return codecs[format.ordinal()];
+    }
+
+    /**
+     * 헤더에 기록할 코덱 이름 바이트 (공유 배열이므로 수정하지 말 것)
+     */
+    public byte[] headerValue(PayloadCodec codec) {
+        for (int i = 0; i < codecs.length; i++) {
+            if (codecs[i] == codec) {
+                return headerValues[i];
+            }
+        }
+        return codec.name().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * content-type 헤더에 기록할 미디어 타입 바이트 (공유 배열이므로 수정하지 말 것)
+     * 
+     * @return 등록되지 않은 코덱이면 application/octet-stream
+     */
+    public byte[] contentTypeValue(PayloadCodec codec) {
+        for (int i = 0; i < codecs.length; i++) {
+            if (codecs[i] == codec) {
+                return contentTypes[i];
+            }
+        }
+        return "application/octet-stream".getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 레코드 헤더 값으로 코덱 선택
+     * 
+     * @param headerValue payload-codec 헤더 값 (헤더가 없으면 null)
+     * @return 헤더가 가리키는 코덱 (헤더가 없으면 JSON)
+     * @throws IllegalArgumentException 알 수 없는 코덱 이름인 경우
+     */
+    public PayloadCodec forHeaderValue(byte[] headerValue) {
+        if (headerValue == null) {
+            return get(PayloadFormat.JSON);
+        }
+        for (int i = 0; i < headerValues.length; i++) {
+            if (Arrays.equals(headerValues[i], headerValue)) {
+                return codecs[i];
+            }
+        }
+        throw new IllegalArgumentException("Unknown payload codec: " + new String(headerValue, StandardCharsets.UTF_8));
+    }
+
+    private void register(PayloadFormat format, ObjectMapper objectMapper) {
+        codecs[format.ordinal()] = new JacksonPayloadCodec(format.codecName(), objectMapper);
+        headerValues[format.ordinal()] = format.codecName().getBytes(StandardCharsets.UTF_8);
+        contentTypes[format.ordinal()] = format.contentType().getBytes(StandardCharsets.UTF_8);
+    }
+}
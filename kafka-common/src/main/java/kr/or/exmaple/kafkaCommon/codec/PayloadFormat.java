@@ -0,0 +1,46 @@
+package kr.or.exmaple.kafkaCommon.codec;
+
+import java.util.Locale;
+
+/**
+ * 지원하는 메시지 본문 형식
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+public enum PayloadFormat {
+
+    /**
+     * JSON 텍스트 (UTF-8) - 헤더가 없는 기존 메시지도 이 형식으로 간주
+     */
+    JSON("application/json"),
+
+    /**
+     * CBOR (RFC 8949) 바이너리
+     */
+    CBOR("application/cbor"),
+
+    /**
+     * Jackson Smile 바이너리 (반복되는 필드 이름/짧은 문자열 참조로 크기를 줄임)
+     */
+    SMILE("application/x-jackson-smile");
+
+    private final String contentType;
+
+    PayloadFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    /**
+     * 헤더에 기록되는 코덱 이름
+     */
+    public String codecName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * content-type 헤더에 기록되는 미디어 타입
+     */
+    public String contentType() {
+        return contentType;
+    }
+}
@@ -0,0 +1,112 @@
+package kr.or.exmaple.kafkaCommon.codec;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+import java.util.Arrays;
+
+/**
+ * FieldProjection으로 읽은 필드 값을 담는 재사용 객체
+ * 
+ * 메시지마다 새로 만들지 않고 FieldProjection.read()가 값을 지우고 다시 채웁니다.
+ * 스레드 안전하지 않으므로 스레드마다 하나씩 사용하며, 다음 메시지를 읽기 전까지만 값이 유효합니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+public final class ProjectedRecord {
+
+    private final FieldProjection projection;
+
+    private final Object[] values;
+
+    private final boolean[] present;
+
+    ProjectedRecord(FieldProjection projection) {
+        this.projection = projection;
+        this.values = new Object[projection.size()];
+        this.present = new boolean[projection.size()];
+    }
+
+    /**
+     * 필드 값 (문자열/숫자/불리언은 텍스트, 객체/배열은 JsonNode)
+     * 
+     * @return 본문에 없거나 null이면 null
+     * @throws IllegalArgumentException 프로젝션에 선언하지 않은 경로인 경우
+     */
+    public Object value(String path) {
+        return values[index(path)];
+    }
+
+    /**
+     * 필드 값의 텍스트 (객체/배열이면 JSON 문자열)
+     * 
+     * @return 본문에 없거나 null이면 null
+     * @throws IllegalArgumentException 프로젝션에 선언하지 않은 경로인 경우
+     */
+    public String text(String path) {
+        Object value = values[index(path)];
+        return value != null ? value.toString() : null;
+    }
+
+    /**
+     * 본문에 필드가 있었는지 여부 (값이 null이어도 true)
+     */
+    public boolean has(String path) {
+        return present[index(path)];
+    }
+
+    void reset() {
+        Arrays.fill(values, null);
+        Arrays.fill(present, false);
+    }
+
+    void set(int index, Object value) {
+        values[index] = value;
+        present[index] = true;
+    }
+
+    void clear(int index) {
+        values[index] = null;
+        present[index] = false;
+    }
+
+    private int index(String path) {
+        int index = projection.indexOf(path);
+        if (index < 0) {
+            throw new IllegalArgumentException("Field is not part of the projection: " + path);
+        }
+        return index;
+    }
+
+    /**
+     * 읽은 필드만 JSON 객체로 표시 (로그용)
+     * 
+     * 필드 경로와 텍스트 값은 JSON 문자열로 이스케이프하므로 값에 따옴표나 줄바꿈이 있어도 올바른 JSON입니다.
+     * (숫자/불리언도 텍스트로 읽었으므로 문자열로 표시, 객체/배열은 JsonNode의 JSON 그대로)
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("{");
+        for (int i = 0; i < values.length; i++) {
+            if (!present[i]) {
+                continue;
+            }
+            if (text.length() > 1) {
+                text.append(',');
+            }
+            quote(text, projection.paths().get(i)).append(':');
+            Object value = values[i];
+            if (value instanceof String string) {
+                quote(text, string);
+            } else {
+                text.append(value);
+            }
+        }
+        return text.append('}').toString();
+    }
+
+    private static StringBuilder quote(StringBuilder text, String value) {
+        text.append('"');
+        JsonStringEncoder.getInstance().quoteAsString(value, text);
+        return text.append('"');
+    }
+}
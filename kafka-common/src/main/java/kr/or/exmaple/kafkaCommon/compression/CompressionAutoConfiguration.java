@@ -0,0 +1,78 @@
+package kr.or.exmaple.kafkaCommon.compression;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import kr.or.exmaple.kafkaCommon.header.HeaderRecordFilter;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaConsumerFactoryCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+
+/**
+ * 사전 기반 zstd 압축 자동 구성
+ * 
+ * - ZstdDictionaries: dictionary-dir의 사전을 시작 시 읽어 둠
+ * - 컨슈머: 값을 ByteArrayDeserializer로 받는 ConsumerFactory를 ZstdDictionaryDeserializer로 교체
+ *   (헤더가 없는 레코드는 그대로 전달하므로 app.compression.enabled와 무관하게 적용,
+ *   헤더 필터(app.filter)가 있으면 걸러질 레코드는 해제하지 않음)
+ * - 프로듀서(app.compression.enabled=true): ZstdDictionarySerializer와 DictionaryTrainer 등록
+ *   byte[] 값을 보내는 KafkaTemplate에 Serializer를 연결하는 것은 프로듀서 애플리케이션의 몫
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@AutoConfiguration(after = {MetricsAutoConfiguration.class, CompositeMeterRegistryAutoConfiguration.class})
+@ConditionalOnBean(MeterRegistry.class)
+@EnableConfigurationProperties(CompressionProperties.class)
+public class CompressionAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ZstdDictionaries zstdDictionaries(CompressionProperties properties) {
+        ZstdDictionaries dictionaries = new ZstdDictionaries(properties.getDictionaryDir(), properties.getLevel());
+        dictionaries.load();
+        return dictionaries;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "app.compression", name = "enabled", havingValue = "true")
+    @ConditionalOnProperty(prefix = "app.compression.training", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public DictionaryTrainer dictionaryTrainer(ZstdDictionaries dictionaries, CompressionProperties properties,
+                                               MeterRegistry meterRegistry) {
+        return new DictionaryTrainer(dictionaries, properties.getTraining(), meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "app.compression", name = "enabled", havingValue = "true")
+    public ZstdDictionarySerializer zstdDictionarySerializer(ZstdDictionaries dictionaries, ObjectProvider<DictionaryTrainer> trainer,
+                                                             MeterRegistry meterRegistry) {
+        return new ZstdDictionarySerializer(dictionaries, trainer.getIfAvailable(), meterRegistry);
+    }
+
+    @Bean
+    @SuppressWarnings("unchecked")
+    public DefaultKafkaConsumerFactoryCustomizer zstdDictionaryConsumerFactoryCustomizer(ZstdDictionaries dictionaries,
+                                                                                         MeterRegistry meterRegistry,
+                                                                                         ObjectProvider<HeaderRecordFilter> headerFilter) {
+        HeaderRecordFilter filter = headerFilter.getIfAvailable();
+        ZstdDictionaryDeserializer deserializer = filter != null
+                ? new ZstdDictionaryDeserializer(dictionaries, meterRegistry, filter::matches)
+                : new ZstdDictionaryDeserializer(dictionaries, meterRegistry);
+        return consumerFactory -> {
+            Object configured = consumerFactory.getConfigurationProperties().get(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG);
+            String className = configured instanceof Class<?> type ? type.getName() : String.valueOf(configured);
+            if (ByteArrayDeserializer.class.getName().equals(className)) {
+                ((DefaultKafkaConsumerFactory<Object, byte[]>) consumerFactory).setValueDeserializer(deserializer);
+            }
+        };
+    }
+}
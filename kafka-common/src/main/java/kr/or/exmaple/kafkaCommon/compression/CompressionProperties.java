@@ -0,0 +1,78 @@
+package kr.or.exmaple.kafkaCommon.compression;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * 사전(dictionary) 기반 zstd 압축 설정
+ * 
+ * application.yml의 app.compression 하위 설정과 바인딩됩니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.compression")
+public class CompressionProperties {
+
+    /**
+     * 프로듀서가 byte[] 본문을 사전으로 압축할지 여부
+     * 컨슈머는 이 설정과 무관하게 zstd-dictionary 헤더가 있는 레코드를 해제함
+     */
+    private boolean enabled = false;
+
+    /**
+     * zstd 압축 레벨 (1~22, 높을수록 작지만 느림)
+     */
+    private int level = 3;
+
+    /**
+     * 사전 파일(&lt;버전&gt;.dict) 디렉터리
+     * 프로듀서가 학습한 사전을 컨슈머가 읽을 수 있도록 같은 디렉터리(공유 볼륨)를 지정
+     */
+    private Path dictionaryDir = Path.of("zstd-dictionaries");
+
+    /**
+     * 프로듀서의 사전 학습 설정
+     */
+    private Training training = new Training();
+
+    /**
+     * 사전 학습 설정
+     */
+    @Getter
+    @Setter
+    public static class Training {
+
+        /**
+         * 전송하는 본문을 표본으로 모아 사전을 학습할지 여부
+         * false면 디렉터리에 있는 사전만 사용
+         */
+        private boolean enabled = true;
+
+        /**
+         * N개 메시지마다 하나를 표본으로 수집
+         */
+        private int sampleEvery = 10;
+
+        /**
+         * 학습에 사용할 표본 버퍼 크기 (가득 차면 학습)
+         */
+        private DataSize sampleBytes = DataSize.ofMegabytes(1);
+
+        /**
+         * 학습할 사전 크기
+         */
+        private DataSize dictionarySize = DataSize.ofKilobytes(16);
+
+        /**
+         * 사전을 학습한 뒤 다음 학습을 위한 표본 수집을 시작하기까지의 간격
+         */
+        private Duration retrainInterval = Duration.ofHours(24);
+    }
+}
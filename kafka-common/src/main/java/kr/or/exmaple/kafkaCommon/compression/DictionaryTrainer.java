@@ -0,0 +1,123 @@
+package kr.or.exmaple.kafkaCommon.compression;
+
+import com.github.luben.zstd.ZstdDictTrainer;
+import com.github.luben.zstd.ZstdException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 전송 본문 표본으로 zstd 사전을 학습
+ * 
+ * sample-every개 메시지마다 하나를 표본 버퍼에 모으고, 버퍼가 sample-bytes만큼 차면
+ * 별도 스레드에서 사전을 학습해 ZstdDictionaries에 다음 버전으로 저장합니다.
+ * 학습 후 retrain-interval 동안은 표본을 모으지 않으며, 그 뒤 다시 모아 새 버전을 학습합니다.
+ * 
+ * 사전이 아직 없는 동안 프로듀서는 압축하지 않고 보내므로, 처음 배포할 때도 별도 준비 없이
+ * 첫 학습이 끝나는 시점부터 압축이 시작됩니다.
+ * 
+ * 메트릭:
+ * - custom-kafka-compression-dictionary-trained: 학습에 성공한 사전 수
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@Slf4j
+public class DictionaryTrainer implements DisposableBean {
+
+    private final ZstdDictionaries dictionaries;
+
+    private final CompressionProperties.Training training;
+
+    private final LongSupplier nanoClock;
+
+    private final AtomicLong offered = new AtomicLong();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("zstd-dictionary-trainer-"));
+
+    private final Counter trained;
+
+    private ZstdDictTrainer samples;
+
+    /**
+     * 이 시각(nanoTime) 전에는 표본을 모으지 않음
+     */
+    private volatile long samplingResumesAt;
+
+    private volatile boolean inProgress;
+
+    public DictionaryTrainer(ZstdDictionaries dictionaries, CompressionProperties.Training training, MeterRegistry meterRegistry) {
+        this(dictionaries, training, meterRegistry, System::nanoTime);
+    }
+
+    DictionaryTrainer(ZstdDictionaries dictionaries, CompressionProperties.Training training, MeterRegistry meterRegistry,
+                      LongSupplier nanoClock) {
+        this.dictionaries = dictionaries;
+        this.training = training;
+        this.nanoClock = nanoClock;
+        this.trained = Counter.builder("custom-kafka-compression-dictionary-trained")
+                .description("zstd dictionaries trained from sampled payloads")
+                .register(meterRegistry);
+        this.samples = newSamples();
+        // 이미 사전이 있으면 바로 재학습하지 않고 한 주기를 기다림
+        this.samplingResumesAt = dictionaries.active() == null ? nanoClock.getAsLong() : nanoClock.getAsLong() + training.getRetrainInterval().toNanos();
+    }
+
+    /**
+     * 전송할(압축 전) 본문을 표본 후보로 전달
+     */
+    public void offer(byte[] payload) {
+        if (inProgress || offered.incrementAndGet() % training.getSampleEvery() != 0
+                || nanoClock.getAsLong() - samplingResumesAt < 0) {
+            return;
+        }
+        synchronized (this) {
+            if (inProgress || samples.addSample(payload)) {
+                return;
+            }
+            // 버퍼가 가득 참: 모은 표본으로 학습
+            inProgress = true;
+            ZstdDictTrainer full = samples;
+            samples = newSamples();
+            executor.execute(() -> train(full));
+        }
+    }
+
+    /**
+     * 학습이 진행 중인지 여부
+     */
+    public boolean isTraining() {
+        return inProgress;
+    }
+
+    private void train(ZstdDictTrainer full) {
+        try {
+            ZstdDictionary dictionary = dictionaries.add(full.trainSamples());
+            trained.increment();
+            samplingResumesAt = nanoClock.getAsLong() + training.getRetrainInterval().toNanos();
+            log.info("Trained zstd dictionary version {}", dictionary.version());
+        } catch (ZstdException e) {
+            // 표본이 너무 적거나 서로 비슷하지 않으면 학습에 실패하며, 새 표본으로 다시 시도함
+            log.warn("Failed to train zstd dictionary; collecting new samples", e);
+        } catch (RuntimeException e) {
+            log.error("Failed to store zstd dictionary", e);
+        } finally {
+            inProgress = false;
+        }
+    }
+
+    private ZstdDictTrainer newSamples() {
+        return new ZstdDictTrainer((int) training.getSampleBytes().toBytes(), (int) training.getDictionarySize().toBytes());
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,143 @@
+package kr.or.exmaple.kafkaCommon.compression;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 버전별 zstd 사전 저장소
+ * 
+ * 사전은 dictionary-dir 아래 &lt;버전&gt;.dict 파일로 저장되며, 시작 시 모든 버전을 읽어 둡니다.
+ * 프로듀서는 가장 높은 버전(active)으로 압축하고, 컨슈머는 레코드 헤더의 버전으로 사전을 찾으므로
+ * 새 사전을 학습한 뒤에도 이전 버전으로 압축된 메시지를 계속 해제할 수 있습니다.
+ * 
+ * 다른 프로세스(프로듀서)가 학습한 사전은 처음 보는 버전의 레코드가 들어올 때 디렉터리를 다시 읽어 가져옵니다.
+ * 사전 파일은 지우지 않으므로, 오래된 버전은 해당 메시지의 보존 기간이 지난 뒤 직접 정리합니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@Slf4j
+public class ZstdDictionaries {
+
+    /**
+     * 압축에 사용한 사전 버전을 담는 레코드 헤더 키 (헤더가 없으면 압축되지 않은 본문)
+     */
+    public static final String HEADER = "zstd-dictionary";
+
+    private static final Pattern FILE_NAME = Pattern.compile("(\\d+)\\.dict");
+
+    private final Path directory;
+
+    private final int level;
+
+    private final Map<Integer, ZstdDictionary> versions = new ConcurrentHashMap<>();
+
+    private volatile ZstdDictionary active;
+
+    public ZstdDictionaries(Path directory, int level) {
+        this.directory = directory;
+        this.level = level;
+    }
+
+    /**
+     * 디렉터리의 사전 파일을 모두 읽고 가장 높은 버전을 active로 지정
+     * 이미 읽은 버전은 건너뜀
+     */
+    public synchronized void load() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.dict")) {
+            for (Path file : files) {
+                Matcher matcher = FILE_NAME.matcher(file.getFileName().toString());
+                if (!matcher.matches()) {
+                    continue;
+                }
+                int version = Integer.parseInt(matcher.group(1));
+                if (!versions.containsKey(version)) {
+                    register(new ZstdDictionary(version, Files.readAllBytes(file), level));
+                    log.info("Loaded zstd dictionary version {} from {}", version, file);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load zstd dictionaries from " + directory, e);
+        }
+    }
+
+    /**
+     * 압축에 사용할 사전 (사전이 하나도 없으면 null)
+     */
+    public ZstdDictionary active() {
+        return active;
+    }
+
+    /**
+     * zstd-dictionary 헤더 값으로 사전 조회
+     * 
+     * 처음 보는 버전이면 디렉터리를 다시 읽은 뒤 조회합니다.
+     * 
+     * @throws IllegalArgumentException 디렉터리에도 해당 버전의 사전이 없는 경우
+     */
+    public ZstdDictionary forHeaderValue(byte[] headerValue) {
+        int version = Integer.parseInt(new String(headerValue, StandardCharsets.UTF_8));
+        ZstdDictionary dictionary = versions.get(version);
+        if (dictionary == null) {
+            load();
+            dictionary = versions.get(version);
+        }
+        if (dictionary == null) {
+            throw new IllegalArgumentException("Unknown zstd dictionary version " + version + " (not found in " + directory + ")");
+        }
+        return dictionary;
+    }
+
+    /**
+     * 새로 학습한 사전을 다음 버전으로 저장하고 active로 지정
+     * 
+     * 임시 파일에 쓴 뒤 이름을 바꾸므로 다른 프로세스가 쓰다 만 파일을 읽지 않으며,
+     * 같은 디렉터리를 쓰는 다른 프로듀서가 먼저 그 버전을 저장했다면 다음 버전으로 다시 시도합니다.
+     * 
+     * @param dictionary 학습한 사전 바이트
+     * @return 저장된 사전
+     */
+    public synchronized ZstdDictionary add(byte[] dictionary) {
+        load();
+        try {
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, "training-", ".tmp");
+            Files.write(temp, dictionary);
+            int version = versions.keySet().stream().mapToInt(Integer::intValue).max().orElse(0) + 1;
+            while (true) {
+                try {
+                    // 대상이 있으면 덮어쓰지 않고 FileAlreadyExistsException (같은 파일 시스템 안에서는 rename)
+                    Files.move(temp, directory.resolve(version + ".dict"));
+                    break;
+                } catch (FileAlreadyExistsException e) {
+                    version++;
+                }
+            }
+            ZstdDictionary added = new ZstdDictionary(version, dictionary, level);
+            register(added);
+            return added;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store zstd dictionary in " + directory, e);
+        }
+    }
+
+    private void register(ZstdDictionary dictionary) {
+        versions.put(dictionary.version(), dictionary);
+        if (active == null || dictionary.version() > active.version()) {
+            active = dictionary;
+        }
+    }
+}
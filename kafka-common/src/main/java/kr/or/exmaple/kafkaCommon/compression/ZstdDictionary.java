@@ -0,0 +1,91 @@
+package kr.or.exmaple.kafkaCommon.compression;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdCompressCtx;
+import com.github.luben.zstd.ZstdDecompressCtx;
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 버전이 붙은 zstd 사전 하나
+ * 
+ * 사전을 미리 digest한 압축/해제용 객체를 보관하여 메시지마다 사전을 다시 읽지 않습니다.
+ * 
+ * zstd 컨텍스트는 만드는 비용이 수백 바이트 메시지를 압축하는 비용보다 크므로
+ * 사전을 적재한 컨텍스트를 풀에 보관해 재사용합니다. 컨텍스트는 스레드 안전하지 않아
+ * 사용하는 동안만 풀에서 꺼내며, 풀 크기는 동시에 압축/해제하는 스레드 수를 넘지 않습니다.
+ * (스레드마다 보관하는 ThreadLocal과 달리 가상 스레드에서도 컨텍스트가 늘어나지 않음)
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+public final class ZstdDictionary {
+
+    private final int version;
+
+    private final byte[] headerValue;
+
+    private final ZstdDictCompress compressDictionary;
+
+    private final ZstdDictDecompress decompressDictionary;
+
+    private final Queue<ZstdCompressCtx> compressContexts = new ConcurrentLinkedQueue<>();
+
+    private final Queue<ZstdDecompressCtx> decompressContexts = new ConcurrentLinkedQueue<>();
+
+    ZstdDictionary(int version, byte[] dictionary, int level) {
+        this.version = version;
+        this.headerValue = Integer.toString(version).getBytes(StandardCharsets.UTF_8);
+        this.compressDictionary = new ZstdDictCompress(dictionary, level);
+        this.decompressDictionary = new ZstdDictDecompress(dictionary);
+    }
+
+    /**
+     * 사전 버전 (학습할 때마다 1씩 증가)
+     */
+    public int version() {
+        return version;
+    }
+
+    /**
+     * zstd-dictionary 헤더에 기록할 버전 바이트 (공유 배열이므로 수정하지 말 것)
+     */
+    public byte[] headerValue() {
+        return headerValue;
+    }
+
+    public byte[] compress(byte[] data) {
+        ZstdCompressCtx context = compressContexts.poll();
+        if (context == null) {
+            context = new ZstdCompressCtx().loadDict(compressDictionary);
+        }
+        try {
+            return context.compress(data);
+        } finally {
+            compressContexts.offer(context);
+        }
+    }
+
+    /**
+     * @throws SerializationException zstd 프레임이 아니거나 원본 크기가 기록되지 않은 경우
+     */
+    public byte[] decompress(byte[] data) {
+        long originalSize = Zstd.getFrameContentSize(data);
+        if (originalSize < 0 || originalSize > Integer.MAX_VALUE) {
+            throw new SerializationException("Not a zstd frame with a known content size (dictionary " + version + ")");
+        }
+        ZstdDecompressCtx context = decompressContexts.poll();
+        if (context == null) {
+            context = new ZstdDecompressCtx().loadDict(decompressDictionary);
+        }
+        try {
+            return context.decompress(data, (int) originalSize);
+        } finally {
+            decompressContexts.offer(context);
+        }
+    }
+}
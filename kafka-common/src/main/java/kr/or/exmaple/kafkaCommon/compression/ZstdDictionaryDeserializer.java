@@ -0,0 +1,79 @@
+package kr.or.exmaple.kafkaCommon.compression;
+
+import com.github.luben.zstd.ZstdException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * zstd-dictionary 헤더가 있는 byte[] 값을 해당 버전의 사전으로 해제하는 Deserializer
+ * 
+ * 헤더가 없는 레코드는 그대로 돌려주므로 ByteArrayDeserializer를 대신하여 항상 사용할 수 있으며,
+ * 압축 도입 전의 메시지와 압축된 메시지가 한 토픽에 섞여 있어도 모두 읽을 수 있습니다.
+ * 
+ * 리스너에 전달되지 않을 레코드(헤더 필터와 일치하는 레코드)는 해제하지 않고 압축된 그대로 돌려줍니다.
+ * 
+ * 상태가 없으므로 하나의 인스턴스를 여러 컨슈머가 함께 사용합니다 (close는 아무것도 하지 않음).
+ * 
+ * 메트릭:
+ * - custom-kafka-compression-decode: 메시지 하나를 해제하는 데 걸린 시간
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+public class ZstdDictionaryDeserializer implements Deserializer<byte[]> {
+
+    private final ZstdDictionaries dictionaries;
+
+    private final Timer decodeTimer;
+
+    /**
+     * 해제를 건너뛸 레코드 판정 (헤더 기준)
+     */
+    private final Predicate<Headers> skip;
+
+    public ZstdDictionaryDeserializer(ZstdDictionaries dictionaries, MeterRegistry meterRegistry) {
+        this(dictionaries, meterRegistry, headers -> false);
+    }
+
+    /**
+     * @param skip 헤더만 보고 해제하지 않을 레코드 판정 (예: HeaderRecordFilter::matches)
+     */
+    public ZstdDictionaryDeserializer(ZstdDictionaries dictionaries, MeterRegistry meterRegistry, Predicate<Headers> skip) {
+        this.dictionaries = dictionaries;
+        this.skip = skip;
+        this.decodeTimer = Timer.builder("custom-kafka-compression-decode")
+                .description("Time to decompress one message with the zstd dictionary")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public byte[] deserialize(String topic, byte[] data) {
+        return data;
+    }
+
+    /**
+     * @throws SerializationException 헤더의 사전 버전을 찾을 수 없거나 해제에 실패한 경우
+     */
+    @Override
+    public byte[] deserialize(String topic, Headers headers, byte[] data) {
+        Header header = headers.lastHeader(ZstdDictionaries.HEADER);
+        if (header == null || data == null || skip.test(headers)) {
+            return data;
+        }
+
+        long start = System.nanoTime();
+        try {
+            byte[] decompressed = dictionaries.forHeaderValue(header.value()).decompress(data);
+            decodeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return decompressed;
+        } catch (IllegalArgumentException | ZstdException e) {
+            throw new SerializationException("Cannot decompress record from " + topic, e);
+        }
+    }
+}
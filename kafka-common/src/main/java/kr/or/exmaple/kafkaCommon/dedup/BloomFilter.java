@@ -0,0 +1,70 @@
+package kr.or.exmaple.kafkaCommon.dedup;
+
+/**
+ * 64비트 fingerprint를 저장하는 고정 크기 Bloom 필터
+ * 
+ * 예상 원소 수와 오탐률로 비트 수와 해시 함수 수를 정하고,
+ * fingerprint의 상위/하위 32비트로 double hashing(h1 + i * h2)하여 비트 위치를 구합니다.
+ * 
+ * 스레드 안전하지 않으며 IdempotencyCache의 잠금 안에서만 사용합니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+class BloomFilter {
+
+    private final long[] words;
+
+    private final long bitCount;
+
+    private final int hashCount;
+
+    private int insertions;
+
+    BloomFilter(int expectedInsertions, double falsePositiveRate) {
+        // m = -n ln p / (ln 2)^2, k = m / n ln 2
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.words = new long[(int) Math.max(1, (bits + 63) >>> 6)];
+        this.bitCount = (long) words.length << 6;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    /**
+     * fingerprint 추가
+     */
+    void put(long fingerprint) {
+        int h1 = (int) fingerprint;
+        int h2 = (int) (fingerprint >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = index(h1 + i * h2);
+            words[(int) (bit >>> 6)] |= 1L << bit;
+        }
+        insertions++;
+    }
+
+    /**
+     * fingerprint가 추가된 적이 있을 수 있는지 확인 (false면 확실히 없음)
+     */
+    boolean mightContain(long fingerprint) {
+        int h1 = (int) fingerprint;
+        int h2 = (int) (fingerprint >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = index(h1 + i * h2);
+            if ((words[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int insertions() {
+        return insertions;
+    }
+
+    long sizeInBytes() {
+        return (long) words.length * Long.BYTES;
+    }
+
+    private long index(int combined) {
+        return (combined & 0x7fffffffL) % bitCount;
+    }
+}
@@ -0,0 +1,29 @@
+package kr.or.exmaple.kafkaCommon.dedup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * 중복 메시지 판정 캐시 자동 구성
+ * 
+ * app.dedup.enabled=false면 캐시는 등록되지만 모든 메시지를 처음 본 메시지로 판정합니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@AutoConfiguration(after = {MetricsAutoConfiguration.class, CompositeMeterRegistryAutoConfiguration.class})
+@ConditionalOnBean(MeterRegistry.class)
+@EnableConfigurationProperties(DedupProperties.class)
+public class DedupAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public IdempotencyCache idempotencyCache(DedupProperties properties, MeterRegistry meterRegistry) {
+        return new IdempotencyCache(properties, meterRegistry);
+    }
+}
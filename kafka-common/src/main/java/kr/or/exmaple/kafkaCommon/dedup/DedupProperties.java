@@ -0,0 +1,52 @@
+package kr.or.exmaple.kafkaCommon.dedup;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 중복 메시지 제거(idempotency) 설정
+ * 
+ * application.yml의 app.dedup 하위 설정과 바인딩됩니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.dedup")
+public class DedupProperties {
+
+    /**
+     * 중복 제거 사용 여부 (false면 모든 메시지를 처리)
+     */
+    private boolean enabled = false;
+
+    /**
+     * 정확히 기억하는 최근 구간의 길이
+     * 리밸런스 후 재전달은 대부분 이 구간 안에서 일어남
+     */
+    private Duration window = Duration.ofMinutes(5);
+
+    /**
+     * 최근 구간에 보관할 최대 ID 수 (초과 시 오래된 ID부터 Bloom 필터로만 기억)
+     */
+    private int maxWindowEntries = 100_000;
+
+    /**
+     * Bloom 필터 세대 교체 주기
+     * 최근 구간을 벗어난 ID는 최소 이 기간, 최대 두 배 기간 동안 기억됨
+     */
+    private Duration bloomPeriod = Duration.ofHours(1);
+
+    /**
+     * Bloom 필터 한 세대에 넣을 예상 ID 수 (초과하면 주기 전이라도 세대 교체)
+     */
+    private int bloomExpectedInsertions = 2_000_000;
+
+    /**
+     * 최근 구간을 벗어난 새 ID를 중복으로 잘못 판정할 확률 상한 (현재 + 이전 세대 합계)
+     */
+    private double falsePositiveRate = 0.001;
+}
@@ -0,0 +1,260 @@
+package kr.or.exmaple.kafkaCommon.dedup;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * 메모리 사용량이 고정된 메시지 ID 중복 판정 캐시
+ * 
+ * Kafka는 리밸런스나 커밋 실패 후 이미 처리한 메시지를 다시 전달할 수 있습니다.
+ * 이 캐시는 api_tran_id 같은 메시지 ID를 기억해 두었다가 같은 ID가 다시 오면 중복으로 판정합니다.
+ * 
+ * 두 단계로 기억합니다:
+ * - 최근 구간(window): ID의 64비트 fingerprint를 들어온 순서대로 보관하여 정확히 판정
+ *   window 시간이 지나거나 max-window-entries를 넘으면 오래된 것부터 제거됨
+ * - Bloom 필터: 최근 구간을 벗어난 ID를 고정 크기 비트 배열로 기억 (최근 구간에서 제거될 때 기록)
+ *   현재/이전 두 세대를 유지하고 bloom-period마다(또는 예상 ID 수를 넘으면) 세대를 교체
+ * 
+ * 따라서 메모리는 최근 구간 항목 수와 Bloom 필터 두 세대 크기로 제한되며, 시간당 수백만 ID가
+ * 들어와도 늘어나지 않습니다. 최근 구간을 벗어난 새 ID는 false-positive-rate 이하의 확률로
+ * 중복으로 잘못 판정될 수 있습니다 (두 세대 합계가 이 값을 넘지 않도록 세대별 오탐률을 절반으로 잡음).
+ * 
+ * 메트릭:
+ * - custom-kafka-dedup-hit (source=window|bloom): 중복으로 판정된 메시지 수
+ * - custom-kafka-dedup-miss: 처음 본 메시지 수
+ * - custom-kafka-dedup-eviction (reason=expired|size): 최근 구간에서 제거된 ID 수
+ * - custom-kafka-dedup-bloom-rotation: Bloom 필터 세대 교체 횟수
+ * - custom-kafka-dedup-window-size: 최근 구간에 보관 중인 ID 수
+ * 
+ * 여러 워커 스레드에서 동시에 호출할 수 있도록 판정과 기록을 하나의 잠금 안에서 수행합니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+public class IdempotencyCache {
+
+    private final DedupProperties properties;
+
+    private final LongSupplier nanoClock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * fingerprint → 최근 구간 만료 시각(nanoTime), 들어온 순서 유지
+     */
+    private final LinkedHashMap<Long, Long> window = new LinkedHashMap<>();
+
+    private final long windowNanos;
+
+    private final long bloomPeriodNanos;
+
+    private BloomFilter currentBloom;
+
+    private BloomFilter previousBloom;
+
+    private long bloomRotatedAt;
+
+    private final Counter windowHits;
+
+    private final Counter bloomHits;
+
+    private final Counter misses;
+
+    private final Counter expiredEvictions;
+
+    private final Counter sizeEvictions;
+
+    private final Counter bloomRotations;
+
+    public IdempotencyCache(DedupProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    IdempotencyCache(DedupProperties properties, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.properties = properties;
+        this.nanoClock = nanoClock;
+        this.windowNanos = properties.getWindow().toNanos();
+        this.bloomPeriodNanos = properties.getBloomPeriod().toNanos();
+        this.currentBloom = newBloom();
+        this.previousBloom = newBloom();
+        this.bloomRotatedAt = nanoClock.getAsLong();
+
+        this.windowHits = hitCounter("window", meterRegistry);
+        this.bloomHits = hitCounter("bloom", meterRegistry);
+        this.misses = Counter.builder("custom-kafka-dedup-miss")
+                .description("Messages seen for the first time")
+                .register(meterRegistry);
+        this.expiredEvictions = evictionCounter("expired", meterRegistry);
+        this.sizeEvictions = evictionCounter("size", meterRegistry);
+        this.bloomRotations = Counter.builder("custom-kafka-dedup-bloom-rotation")
+                .description("Bloom filter generation rotations")
+                .register(meterRegistry);
+        Gauge.builder("custom-kafka-dedup-window-size", this, IdempotencyCache::windowSize)
+                .description("Message IDs held in the exact recent window")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 메시지 ID가 이미 처리된 ID인지 판정하고, 처음 본 ID면 기억
+     * 
+     * 판정과 기록이 한 번에 일어나므로 같은 ID가 동시에 들어와도 하나만 false를 받습니다.
+     * 중복 제거가 꺼져 있거나 ID가 없으면 항상 false를 돌려줍니다.
+     * 
+     * @param id 메시지 ID (api_tran_id)
+     * @return 이미 처리된 ID면 true
+     */
+    public boolean isDuplicate(String id) {
+        if (!properties.isEnabled() || id == null) {
+            return false;
+        }
+        long fingerprint = fingerprint(id);
+        lock.lock();
+        try {
+            long now = nanoClock.getAsLong();
+            evictExpired(now);
+            rotateBloomIfDue(now);
+
+            if (window.containsKey(fingerprint)) {
+                windowHits.increment();
+                return true;
+            }
+            if (currentBloom.mightContain(fingerprint) || previousBloom.mightContain(fingerprint)) {
+                bloomHits.increment();
+                return true;
+            }
+
+            window.put(fingerprint, now + windowNanos);
+            if (window.size() > properties.getMaxWindowEntries()) {
+                removeEldest();
+                sizeEvictions.increment();
+            }
+            misses.increment();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * isDuplicate로 기억한 ID를 잊음 (처리에 실패하여 같은 메시지를 다시 받아야 하는 경우)
+     * 
+     * 최근 구간에 있는 ID만 잊을 수 있습니다. 이미 Bloom 필터로 옮겨진 ID는 남지만,
+     * 처리 직후에 호출하는 용도이므로 최근 구간(window)을 벗어나는 일은 없습니다.
+     * 
+     * @param id 메시지 ID (api_tran_id, null이면 무시)
+     */
+    public void forget(String id) {
+        if (!properties.isEnabled() || id == null) {
+            return;
+        }
+        long fingerprint = fingerprint(id);
+        lock.lock();
+        try {
+            window.remove(fingerprint);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 최근 구간에 보관 중인 ID 수
+     */
+    public int windowSize() {
+        lock.lock();
+        try {
+            return window.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Bloom 필터 두 세대가 차지하는 메모리 (바이트)
+     */
+    public long bloomSizeInBytes() {
+        lock.lock();
+        try {
+            return currentBloom.sizeInBytes() + previousBloom.sizeInBytes();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void evictExpired(long now) {
+        Iterator<Map.Entry<Long, Long>> entries = window.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<Long, Long> eldest = entries.next();
+            if (eldest.getValue() - now > 0) {
+                return;
+            }
+            entries.remove();
+            currentBloom.put(eldest.getKey());
+            expiredEvictions.increment();
+        }
+    }
+
+    private void removeEldest() {
+        Iterator<Map.Entry<Long, Long>> entries = window.entrySet().iterator();
+        currentBloom.put(entries.next().getKey());
+        entries.remove();
+    }
+
+    /**
+     * 주기가 지났거나 현재 세대가 예상 ID 수를 넘으면 세대 교체
+     * 이전 세대는 버리고 현재 세대가 이전 세대가 됨
+     */
+    private void rotateBloomIfDue(long now) {
+        if (now - bloomRotatedAt < bloomPeriodNanos
+                && currentBloom.insertions() < properties.getBloomExpectedInsertions()) {
+            return;
+        }
+        previousBloom = currentBloom;
+        currentBloom = newBloom();
+        bloomRotatedAt = now;
+        bloomRotations.increment();
+    }
+
+    private BloomFilter newBloom() {
+        // 현재 + 이전 두 세대를 모두 조회하므로 합계 오탐률이 설정값을 넘지 않도록 절반씩 배정
+        return new BloomFilter(properties.getBloomExpectedInsertions(), properties.getFalsePositiveRate() / 2);
+    }
+
+    /**
+     * ID 문자열의 64비트 fingerprint (FNV-1a + MurmurHash3 fmix64)
+     * 최근 구간에 ID 문자열 대신 long 하나만 보관하기 위해 사용
+     */
+    static long fingerprint(String id) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : id.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static Counter hitCounter(String source, MeterRegistry meterRegistry) {
+        return Counter.builder("custom-kafka-dedup-hit")
+                .description("Messages skipped as duplicates")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+
+    private static Counter evictionCounter(String reason, MeterRegistry meterRegistry) {
+        return Counter.builder("custom-kafka-dedup-eviction")
+                .description("Message IDs dropped from the exact recent window")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,52 @@
+package kr.or.exmaple.kafkaCommon.header;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.ssl.SslBundles;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+
+import java.util.Map;
+
+/**
+ * 헤더 기반 레코드 필터 자동 구성 (app.filter.enabled=true)
+ * 
+ * RecordFilterStrategy 빈으로 등록되므로 Spring Boot가 자동 구성하는
+ * kafkaListenerContainerFactory의 모든 리스너(레코드/배치)에 적용됩니다.
+ * route 규칙이 있으면 spring.kafka.producer 설정에 키는 String, 본문은 byte[] 그대로 보내는
+ * Serializer를 적용한 전달용 프로듀서를 만듭니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@AutoConfiguration(after = {MetricsAutoConfiguration.class, CompositeMeterRegistryAutoConfiguration.class})
+@ConditionalOnBean(MeterRegistry.class)
+@ConditionalOnProperty(prefix = "app.filter", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(HeaderFilterProperties.class)
+public class HeaderFilterAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public HeaderRecordFilter headerRecordFilter(HeaderFilterProperties properties, MeterRegistry meterRegistry,
+                                                 ObjectProvider<KafkaProperties> kafkaProperties,
+                                                 ObjectProvider<SslBundles> sslBundles) {
+        DefaultKafkaProducerFactory<Object, Object> routeProducerFactory = null;
+        if (properties.hasRoutes()) {
+            Map<String, Object> configs = kafkaProperties.getObject().buildProducerProperties(sslBundles.getIfAvailable());
+            configs.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+            configs.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+            routeProducerFactory = new DefaultKafkaProducerFactory<>(configs);
+        }
+        return new HeaderRecordFilter(properties, routeProducerFactory, meterRegistry);
+    }
+}
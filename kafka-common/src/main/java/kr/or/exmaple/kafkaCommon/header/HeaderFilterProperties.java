@@ -0,0 +1,84 @@
+package kr.or.exmaple.kafkaCommon.header;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 헤더 기반 레코드 필터/라우터 설정
+ * 
+ * application.yml의 app.filter 하위 설정과 바인딩됩니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.filter")
+public class HeaderFilterProperties {
+
+    /**
+     * 필터 사용 여부 (false면 모든 레코드를 리스너에 전달)
+     */
+    private boolean enabled = false;
+
+    /**
+     * 필터 규칙 (위에서부터 검사하여 처음 일치한 규칙의 동작을 적용, 일치하는 규칙이 없으면 리스너에 전달)
+     */
+    private List<Rule> rules = new ArrayList<>();
+
+    /**
+     * route 동작의 규칙이 있는지 여부 (전달용 프로듀서가 필요한지 판단)
+     */
+    public boolean hasRoutes() {
+        return rules.stream().anyMatch(rule -> rule.getAction() == Action.ROUTE);
+    }
+
+    /**
+     * 규칙과 일치한 레코드의 처리 방식
+     */
+    public enum Action {
+
+        /**
+         * 리스너에 전달하지 않고 버림 (offset은 다른 레코드와 함께 커밋됨)
+         */
+        DROP,
+
+        /**
+         * 리스너에 전달하지 않고 본문과 헤더를 그대로 topic으로 전송
+         */
+        ROUTE
+    }
+
+    @Getter
+    @Setter
+    public static class Rule {
+
+        /**
+         * 검사할 헤더 이름 (예: content-type, key)
+         */
+        private String header;
+
+        /**
+         * 일치로 판단할 헤더 값 (비워두면 헤더가 있기만 하면 일치)
+         */
+        private List<String> values = new ArrayList<>();
+
+        /**
+         * true면 조건을 뒤집음 (헤더 값이 values에 없거나 헤더가 없으면 일치)
+         */
+        private boolean negate = false;
+
+        /**
+         * 일치한 레코드의 처리 방식
+         */
+        private Action action = Action.DROP;
+
+        /**
+         * route 동작에서 레코드를 보낼 토픽
+         */
+        private String topic;
+    }
+}
@@ -0,0 +1,215 @@
+package kr.or.exmaple.kafkaCommon.header;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.adapter.RecordFilterStrategy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * 레코드 헤더만 보고 리스너에 전달할지 결정하는 필터/라우터
+ * 
+ * 리스너 컨테이너가 리스너를 호출하기 전에 실행되므로(RecordFilterStrategy),
+ * 걸러진 레코드는 본문 디코딩(코덱 파싱), 중복 판정, 메트릭 집계 등 메시지 처리 비용이 들지 않습니다.
+ * 헤더 값은 설정 값을 미리 인코딩해 둔 바이트와 직접 비교하므로 레코드마다 문자열을 만들지 않습니다.
+ * 
+ * 규칙은 위에서부터 검사하여 처음 일치한 규칙의 동작을 적용합니다.
+ * - drop: 리스너에 전달하지 않음
+ * - route: 리스너에 전달하지 않고 키, 본문(byte[]), 헤더를 그대로 지정한 토픽으로 전송
+ *   배치 안의 전송이 모두 브로커 응답을 받은 뒤에 리스너를 호출하므로, 전달에 실패하면
+ *   예외가 컨테이너의 에러 핸들러로 전달되어 배치가 다시 처리됩니다 (offset이 먼저 커밋되지 않음).
+ * 
+ * 압축된 메시지는 ZstdDictionaryDeserializer가 이 필터와 일치하는지 먼저 확인하여 해제하지 않고 넘기므로,
+ * 걸러질 레코드는 해제 비용도 들지 않고 route 시 압축된 원본 그대로 전송됩니다.
+ * 
+ * 메트릭:
+ * - custom-kafka-filter-matched: 규칙과 일치하여 걸러진 레코드 수 (header, action 태그)
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+public class HeaderRecordFilter implements RecordFilterStrategy<Object, Object>, DisposableBean {
+
+    private final Rule[] rules;
+
+    /**
+     * route 동작용 프로듀서 (route 규칙이 없으면 null)
+     */
+    private final ProducerFactory<Object, Object> routeProducerFactory;
+
+    private final KafkaTemplate<Object, Object> router;
+
+    /**
+     * @param routeProducerFactory route 규칙이 전송에 사용할 프로듀서 (키와 본문을 그대로 보낼 수 있는 Serializer 설정, route 규칙이 없으면 null)
+     * @throws IllegalArgumentException 헤더 이름이 없거나, route 규칙에 토픽 또는 프로듀서가 없는 경우
+     */
+    public HeaderRecordFilter(HeaderFilterProperties properties, ProducerFactory<Object, Object> routeProducerFactory,
+                              MeterRegistry meterRegistry) {
+        this.rules = new Rule[properties.getRules().size()];
+        for (int i = 0; i < rules.length; i++) {
+            HeaderFilterProperties.Rule rule = properties.getRules().get(i);
+            if (rule.getHeader() == null || rule.getHeader().isBlank()) {
+                throw new IllegalArgumentException("Filter rule " + i + " requires a header name");
+            }
+            if (rule.getAction() == HeaderFilterProperties.Action.ROUTE
+                    && (rule.getTopic() == null || rule.getTopic().isBlank() || routeProducerFactory == null)) {
+                throw new IllegalArgumentException("Filter rule " + i + " routes records and requires a topic and a producer");
+            }
+            rules[i] = new Rule(rule, meterRegistry);
+        }
+        this.routeProducerFactory = routeProducerFactory;
+        this.router = routeProducerFactory != null ? new KafkaTemplate<>(routeProducerFactory) : null;
+    }
+
+    /**
+     * 헤더가 어떤 규칙과 일치하는지 여부 (일치하면 리스너에 전달되지 않음)
+     */
+    public boolean matches(Headers headers) {
+        return match(headers) != null;
+    }
+
+    /**
+     * 레코드 리스너용 - route 규칙이면 전송이 브로커 응답을 받을 때까지 기다림
+     * 
+     * @return 리스너에 전달하지 않으면 true
+     */
+    @Override
+    public boolean filter(ConsumerRecord<Object, Object> record) {
+        Rule rule = match(record.headers());
+        if (rule == null) {
+            return false;
+        }
+        if (rule.topic != null) {
+            await(List.of(route(rule, record)));
+        }
+        rule.matched.increment();
+        return true;
+    }
+
+    /**
+     * 배치 리스너용 - route 규칙의 전송을 모두 보낸 뒤 한 번에 기다림
+     * 
+     * @return 리스너에 전달할 레코드 (걸러진 레코드가 없으면 records 그대로)
+     */
+    @Override
+    public List<ConsumerRecord<Object, Object>> filterBatch(List<ConsumerRecord<Object, Object>> records) {
+        List<ConsumerRecord<Object, Object>> accepted = new ArrayList<>(records.size());
+        List<CompletableFuture<?>> routed = new ArrayList<>();
+        for (ConsumerRecord<Object, Object> record : records) {
+            Rule rule = match(record.headers());
+            if (rule == null) {
+                accepted.add(record);
+                continue;
+            }
+            if (rule.topic != null) {
+                routed.add(route(rule, record));
+            }
+            rule.matched.increment();
+        }
+        await(routed);
+        return accepted.size() == records.size() ? records : accepted;
+    }
+
+    @Override
+    public void destroy() {
+        if (routeProducerFactory != null) {
+            routeProducerFactory.reset();
+        }
+    }
+
+    private Rule match(Headers headers) {
+        for (Rule rule : rules) {
+            if (rule.matches(headers)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private CompletableFuture<?> route(Rule rule, ConsumerRecord<Object, Object> record) {
+        // 컨슈머 레코드의 헤더는 전송 시 읽기 전용으로 바뀌므로 복사해서 사용
+        return router.send(new ProducerRecord<>(rule.topic, null, record.key(), record.value(),
+                new RecordHeaders(record.headers().toArray())));
+    }
+
+    /**
+     * @throws KafkaException route 전송이 하나라도 실패한 경우
+     */
+    private static void await(List<CompletableFuture<?>> routed) {
+        if (routed.isEmpty()) {
+            return;
+        }
+        try {
+            CompletableFuture.allOf(routed.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            throw new KafkaException("Failed to route filtered records", e.getCause());
+        }
+    }
+
+    /**
+     * 설정 값을 헤더 바이트 비교용으로 변환한 규칙
+     */
+    private static final class Rule {
+
+        private final String header;
+
+        private final byte[][] values;
+
+        private final boolean negate;
+
+        /**
+         * route 동작이면 전송할 토픽, drop이면 null
+         */
+        private final String topic;
+
+        private final Counter matched;
+
+        private Rule(HeaderFilterProperties.Rule rule, MeterRegistry meterRegistry) {
+            this.header = rule.getHeader();
+            this.values = rule.getValues().stream()
+                    .map(value -> value.getBytes(StandardCharsets.UTF_8))
+                    .toArray(byte[][]::new);
+            this.negate = rule.isNegate();
+            this.topic = rule.getAction() == HeaderFilterProperties.Action.ROUTE ? rule.getTopic() : null;
+            this.matched = Counter.builder("custom-kafka-filter-matched")
+                    .description("Records kept from the listener by a header filter rule")
+                    .tag("header", header)
+                    .tag("action", rule.getAction().name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry);
+        }
+
+        private boolean matches(Headers headers) {
+            Header found = headers.lastHeader(header);
+            return hit(found == null ? null : found.value()) != negate;
+        }
+
+        private boolean hit(byte[] value) {
+            if (value == null) {
+                return false;
+            }
+            if (values.length == 0) {
+                return true;
+            }
+            for (byte[] expected : values) {
+                if (Arrays.equals(expected, value)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
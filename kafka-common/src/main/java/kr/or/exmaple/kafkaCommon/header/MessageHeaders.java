@@ -0,0 +1,99 @@
+package kr.or.exmaple.kafkaCommon.header;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeader;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * 프로듀서가 모든 메시지에 기록하는 메타데이터 헤더
+ * 
+ * 본문에 있는 값 중 라우팅과 필터링에 쓰이는 값을 헤더에도 기록하여,
+ * 컨슈머가 본문을 디코딩하지 않고 헤더 조회만으로 레코드를 고를 수 있게 합니다.
+ * 값은 모두 UTF-8 문자열입니다.
+ * 
+ * 헤더 목록:
+ * - api_tran_id: 요청마다 발급한 트랜잭션 ID (본문의 api_tran_id와 같은 값)
+ * - produced-at: 프로듀서가 전송을 요청한 시각 (epoch 밀리초)
+ * - produced-at-micros: 같은 시각의 epoch 마이크로초 (컨슈머의 전송 → 수신 지연 측정용)
+ * - content-type: 본문 미디어 타입 (application/json, application/cbor, application/x-jackson-smile)
+ * - key: 요청 본문의 "key" 필드 값 (Key와 함께 전송한 경우에만)
+ * - key-salt: hot key를 여러 파티션으로 나누어 보낸 경우의 salt (0부터, 이 헤더가 있으면 같은 Key가 다른 파티션에도 있으므로
+ *   Key 단위 순서가 파티션 사이에서는 보장되지 않음)
+ * 
+ * 본문 코덱(payload-codec)과 압축 사전(zstd-dictionary) 헤더는 각각 PayloadCodecs, ZstdDictionaries에 정의되어 있습니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+public final class MessageHeaders {
+
+    public static final String API_TRAN_ID = "api_tran_id";
+
+    public static final String PRODUCED_AT = "produced-at";
+
+    public static final String PRODUCED_AT_MICROS = "produced-at-micros";
+
+    public static final String CONTENT_TYPE = "content-type";
+
+    public static final String KEY = "key";
+
+    public static final String KEY_SALT = "key-salt";
+
+    private MessageHeaders() {
+    }
+
+    /**
+     * UTF-8 문자열 값을 가진 헤더 생성
+     */
+    public static Header header(String name, String value) {
+        return new RecordHeader(name, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 헤더 값을 UTF-8 문자열로 조회 (같은 이름이 여러 개면 마지막 값)
+     * 
+     * @return 헤더가 없거나 값이 null이면 null
+     */
+    public static String text(Headers headers, String name) {
+        Header header = headers.lastHeader(name);
+        return header == null || header.value() == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 현재 시각 (epoch 마이크로초, produced-at-micros 값)
+     */
+    public static long currentTimeMicros() {
+        Instant now = Instant.now();
+        return now.getEpochSecond() * 1_000_000 + now.getNano() / 1_000;
+    }
+
+    /**
+     * 레코드를 전송 요청한 시각 (epoch 마이크로초)
+     * 
+     * produced-at-micros 헤더가 없으면(이 헤더를 기록하기 전의 프로듀서나 다른 프로듀서가 보낸 레코드) 레코드 timestamp(밀리초)를 사용합니다.
+     * 헤더 값은 문자열로 바꾸지 않고 바이트에서 바로 읽습니다.
+     * 
+     * @return 알 수 없으면 -1
+     */
+    public static long producedAtMicros(ConsumerRecord<?, ?> record) {
+        Header header = record.headers().lastHeader(PRODUCED_AT_MICROS);
+        byte[] value = header == null ? null : header.value();
+        if (value != null && value.length > 0 && value.length <= 18) {
+            long micros = 0;
+            for (byte digit : value) {
+                if (digit < '0' || digit > '9') {
+                    micros = -1;
+                    break;
+                }
+                micros = micros * 10 + (digit - '0');
+            }
+            if (micros >= 0) {
+                return micros;
+            }
+        }
+        return record.timestamp() >= 0 ? record.timestamp() * 1_000 : -1;
+    }
+}
@@ -0,0 +1,112 @@
+package kr.or.exmaple.kafkaCommon.lag;
+
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 컨슈머 그룹의 파티션별 커밋 offset과 끝 offset 조회
+ * 
+ * AdminClient로 브로커에 묻기 때문에 컨슈머 스레드와 무관하게 어느 스레드에서나 호출할 수 있고,
+ * 컨슈머가 멈춰 있거나 파티션이 할당되지 않은 동안에도 lag을 알 수 있습니다.
+ * AdminClient는 처음 조회할 때 만들어 재사용합니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+public class ConsumerLagReader implements DisposableBean {
+
+    private final Supplier<Map<String, Object>> adminConfigs;
+
+    private final Duration timeout;
+
+    private Admin admin;
+
+    /**
+     * @param adminConfigs AdminClient 설정 (처음 조회할 때 한 번 호출)
+     * @param timeout 브로커 조회 한 번의 제한 시간
+     */
+    public ConsumerLagReader(Supplier<Map<String, Object>> adminConfigs, Duration timeout) {
+        this.adminConfigs = adminConfigs;
+        this.timeout = timeout;
+    }
+
+    /**
+     * 구독 토픽의 모든 파티션에 대한 컨슈머 그룹의 위치
+     * 
+     * @param groupId 컨슈머 그룹
+     * @param topics 구독 토픽
+     * @return 파티션 → 커밋 offset과 끝 offset
+     * @throws KafkaException 브로커 조회에 실패했거나 제한 시간을 넘긴 경우
+     */
+    public Map<TopicPartition, PartitionLag> read(String groupId, Collection<String> topics) {
+        try {
+            Admin client = admin();
+            long millis = timeout.toMillis();
+            Map<String, TopicDescription> descriptions = client.describeTopics(topics).allTopicNames().get(millis, TimeUnit.MILLISECONDS);
+            Map<TopicPartition, OffsetSpec> latest = new HashMap<>();
+            descriptions.values().forEach(description -> description.partitions().forEach(partition ->
+                    latest.put(new TopicPartition(description.name(), partition.partition()), OffsetSpec.latest())));
+
+            Map<TopicPartition, OffsetAndMetadata> committed = client.listConsumerGroupOffsets(groupId)
+                    .partitionsToOffsetAndMetadata().get(millis, TimeUnit.MILLISECONDS);
+            Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> ends = client.listOffsets(latest).all()
+                    .get(millis, TimeUnit.MILLISECONDS);
+
+            Map<TopicPartition, PartitionLag> lags = new HashMap<>();
+            ends.forEach((partition, end) -> {
+                OffsetAndMetadata offset = committed.get(partition);
+                lags.put(partition, new PartitionLag(offset == null ? -1 : offset.offset(), end.offset()));
+            });
+            return lags;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KafkaException("Interrupted while reading lag of " + groupId, e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new KafkaException("Failed to read lag of " + groupId + " on " + topics, e);
+        }
+    }
+
+    private synchronized Admin admin() {
+        if (admin == null) {
+            admin = Admin.create(adminConfigs.get());
+        }
+        return admin;
+    }
+
+    @Override
+    public synchronized void destroy() {
+        if (admin != null) {
+            admin.close(timeout);
+        }
+    }
+
+    /**
+     * 파티션 하나의 컨슈머 그룹 위치
+     * 
+     * @param committed 커밋 offset (커밋한 적 없으면 -1)
+     * @param end 끝 offset (다음에 쓰일 offset)
+     */
+    public record PartitionLag(long committed, long end) {
+
+        /**
+         * 커밋하지 않은 레코드 수 (커밋한 적 없는 파티션은 auto.offset.reset에 따라 시작 위치가 달라지므로 0)
+         */
+        public long lag() {
+            return committed < 0 ? 0 : Math.max(0, end - committed);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package kr.or.exmaple.kafkaCommon.lag;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 리스너 컨테이너의 컨슈머 그룹 lag을 주기적으로 수집하여 파티션별 메트릭으로 발행
+ * 
+ * interval마다 등록된 리스너 컨테이너의 컨슈머 그룹과 구독 토픽을 모아 ConsumerLagReader로 조회합니다.
+ * (토픽 패턴이나 파티션을 직접 지정한 컨테이너는 제외)
+ * 
+ * 소진 예상 시간은 lag / 처리 속도이며, 처리 속도는 수집 사이 커밋 offset 증가량의 지수 이동 평균입니다.
+ * 새로 들어오는 레코드는 고려하지 않으므로 "지금 속도로 밀린 레코드를 처리하는 데 걸리는 시간"입니다.
+ * - lag이 0이면 0
+ * - 처리 속도를 아직 모르면(첫 수집) NaN
+ * - lag이 있는데 커밋이 멈췄으면 +Inf (컨슈머가 멈췄거나 처리가 막힌 상태)
+ * 
+ * 메트릭:
+ * - custom-kafka-consumer-lag (group, topic, partition): 커밋 offset 기준 lag
+ * - custom-kafka-consumer-lag-drain (group, topic, partition): 소진 예상 시간 (초)
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@Slf4j
+public class ConsumerLagSampler implements DisposableBean {
+
+    /**
+     * 처리 속도 지수 이동 평균의 가중치
+     */
+    private static final double ALPHA = 0.3;
+
+    private final ConsumerLagReader reader;
+
+    private final ObjectProvider<KafkaListenerEndpointRegistry> listenerRegistry;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("consumer-lag-sampler-"));
+
+    /**
+     * 컨슈머 그룹 → 파티션 → 상태
+     */
+    private final Map<String, Map<TopicPartition, PartitionState>> states = new ConcurrentHashMap<>();
+
+    public ConsumerLagSampler(ConsumerLagReader reader, ObjectProvider<KafkaListenerEndpointRegistry> listenerRegistry,
+                              LagProperties properties, MeterRegistry meterRegistry) {
+        this.reader = reader;
+        this.listenerRegistry = listenerRegistry;
+        this.meterRegistry = meterRegistry;
+        long interval = properties.getInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::sample, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 수집 한 번: 컨슈머 그룹별로 구독 토픽의 lag 조회
+     */
+    private void sample() {
+        KafkaListenerEndpointRegistry registry = listenerRegistry.getIfAvailable();
+        if (registry == null) {
+            return;
+        }
+        Map<String, Set<String>> topicsByGroup = new TreeMap<>();
+        for (MessageListenerContainer container : registry.getListenerContainers()) {
+            String[] topics = container.getContainerProperties().getTopics();
+            if (container.getGroupId() != null && topics != null && topics.length > 0) {
+                topicsByGroup.computeIfAbsent(container.getGroupId(), ignored -> new LinkedHashSet<>()).addAll(Arrays.asList(topics));
+            }
+        }
+        topicsByGroup.forEach((groupId, topics) -> {
+            try {
+                update(groupId, reader.read(groupId, topics), System.nanoTime());
+            } catch (Exception e) {
+                log.warn("Failed to sample lag of consumer group {}: {}", groupId, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 조회한 위치로 파티션별 lag과 소진 예상 시간 갱신
+     */
+    void update(String groupId, Map<TopicPartition, ConsumerLagReader.PartitionLag> lags, long nowNanos) {
+        Map<TopicPartition, PartitionState> group = states.computeIfAbsent(groupId, ignored -> new ConcurrentHashMap<>());
+        lags.forEach((partition, lag) -> group.computeIfAbsent(partition, key -> new PartitionState(groupId, key)).update(lag, nowNanos));
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * 파티션 하나의 lag과 처리 속도
+     */
+    private final class PartitionState {
+
+        private volatile long lag;
+
+        private volatile double drainSeconds = Double.NaN;
+
+        /**
+         * 커밋 offset 증가 속도 (초당 레코드, 모르면 -1)
+         */
+        private double rate = -1;
+
+        private long lastCommitted = -1;
+
+        private long lastNanos;
+
+        private PartitionState(String groupId, TopicPartition partition) {
+            String partitionTag = Integer.toString(partition.partition());
+            Gauge.builder("custom-kafka-consumer-lag", this, state -> state.lag)
+                    .description("Records not yet committed by the consumer group")
+                    .tag("group", groupId)
+                    .tag("topic", partition.topic())
+                    .tag("partition", partitionTag)
+                    .register(meterRegistry);
+            Gauge.builder("custom-kafka-consumer-lag-drain", this, state -> state.drainSeconds)
+                    .description("Estimated time to work off the current lag at the recent commit rate")
+                    .tag("group", groupId)
+                    .tag("topic", partition.topic())
+                    .tag("partition", partitionTag)
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+        }
+
+        private void update(ConsumerLagReader.PartitionLag position, long nowNanos) {
+            // 커밋 offset이 뒤로 가면(offset 재설정) 속도를 처음부터 다시 잼
+            if (lastCommitted >= 0 && position.committed() >= lastCommitted && nowNanos > lastNanos) {
+                double sample = (position.committed() - lastCommitted) / ((nowNanos - lastNanos) / 1e9);
+                rate = rate < 0 ? sample : rate + ALPHA * (sample - rate);
+            } else if (position.committed() < lastCommitted) {
+                rate = -1;
+            }
+            lastCommitted = position.committed();
+            lastNanos = nowNanos;
+
+            lag = position.lag();
+            if (lag == 0) {
+                drainSeconds = 0;
+            } else if (rate < 0) {
+                drainSeconds = Double.NaN;
+            } else {
+                drainSeconds = rate == 0 ? Double.POSITIVE_INFINITY : lag / rate;
+            }
+        }
+    }
+}
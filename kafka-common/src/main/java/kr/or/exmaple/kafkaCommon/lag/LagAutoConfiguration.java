@@ -0,0 +1,47 @@
+package kr.or.exmaple.kafkaCommon.lag;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.ssl.SslBundles;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+
+/**
+ * 컨슈머 lag 조회/수집 자동 구성
+ * 
+ * ConsumerLagReader는 항상 등록되며(처음 조회할 때 AdminClient 생성), 다른 기능(예: 동시성 자동 조정)도 같은 인스턴스를 사용합니다.
+ * app.lag.enabled=true면 리스너 컨테이너의 lag을 주기적으로 수집하는 ConsumerLagSampler를 등록합니다.
+ * AdminClient 설정은 spring.kafka.admin(없으면 공통 spring.kafka) 설정을 사용합니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@AutoConfiguration(after = {MetricsAutoConfiguration.class, CompositeMeterRegistryAutoConfiguration.class, KafkaAutoConfiguration.class})
+@EnableConfigurationProperties(LagProperties.class)
+public class LagAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ConsumerLagReader consumerLagReader(LagProperties properties, ObjectProvider<KafkaProperties> kafkaProperties,
+                                               ObjectProvider<SslBundles> sslBundles) {
+        return new ConsumerLagReader(() -> kafkaProperties.getObject().buildAdminProperties(sslBundles.getIfAvailable()),
+                properties.getTimeout());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(MeterRegistry.class)
+    @ConditionalOnProperty(prefix = "app.lag", name = "enabled", havingValue = "true")
+    public ConsumerLagSampler consumerLagSampler(ConsumerLagReader reader, ObjectProvider<KafkaListenerEndpointRegistry> listenerRegistry,
+                                                 LagProperties properties, MeterRegistry meterRegistry) {
+        return new ConsumerLagSampler(reader, listenerRegistry, properties, meterRegistry);
+    }
+}
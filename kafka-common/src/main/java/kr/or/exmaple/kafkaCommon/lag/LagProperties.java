@@ -0,0 +1,35 @@
+package kr.or.exmaple.kafkaCommon.lag;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 컨슈머 lag 수집 설정
+ * 
+ * application.yml의 app.lag 하위 설정과 바인딩됩니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.lag")
+public class LagProperties {
+
+    /**
+     * 리스너 컨테이너의 컨슈머 그룹 lag을 주기적으로 수집하여 메트릭으로 발행할지 여부
+     */
+    private boolean enabled = false;
+
+    /**
+     * 수집 주기
+     */
+    private Duration interval = Duration.ofSeconds(15);
+
+    /**
+     * 브로커 조회(offset, 토픽 메타데이터) 한 번의 제한 시간
+     */
+    private Duration timeout = Duration.ofSeconds(5);
+}
@@ -0,0 +1,33 @@
+package kr.or.exmaple.kafkaCommon.logging;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 메시지 본문(payload) 로깅 설정
+ * 
+ * application.yml의 app.logging.payload 하위 설정과 바인딩됩니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.logging.payload")
+public class PayloadLogProperties {
+
+    /**
+     * 본문을 포함한 INFO 로그 출력 여부
+     */
+    private boolean enabled = true;
+
+    /**
+     * 초당 출력할 본문 로그 최대 개수 (0 이하면 제한 없음)
+     */
+    private int maxPerSecond = 100;
+
+    /**
+     * 로그에 남길 본문 최대 길이 (문자열은 문자 수, byte[]는 바이트 수, 0 이하면 자르지 않음)
+     */
+    private int maxLength = 1024;
+}
@@ -0,0 +1,95 @@
+package kr.or.exmaple.kafkaCommon.logging;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 메시지 본문 로깅 샘플러
+ * 
+ * 메시지마다 본문 전체를 INFO로 남기면 부하 상황에서 JSON 로그 인코딩이
+ * 가장 큰 CPU 소비처가 됩니다. 이 클래스는 본문을 포함한 로그를
+ * 초당 max-per-second 개로 제한하고, 출력할 본문은 max-length로 자릅니다.
+ * 
+ * 사용 예:
+ * <pre>
+ * if (payloadLog.sample()) {
+ *     log.info("Received data: {}", payloadLog.preview(jsonData));
+ * }
+ * </pre>
+ * 
+ * preview()는 실제로 로그 메시지를 만들 때(toString) 한 번만 자르므로,
+ * 로그 레벨에 의해 버려지는 경우에는 비용이 들지 않습니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+public class PayloadLogSampler {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final PayloadLogProperties properties;
+
+    /**
+     * 현재 1초 구간 번호 (System.nanoTime / 1초)
+     */
+    private final AtomicLong window = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * 현재 구간에서 허용한 본문 로그 수
+     */
+    private final AtomicInteger count = new AtomicInteger();
+
+    public PayloadLogSampler(PayloadLogProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * 이번 본문 로그를 남길지 결정
+     * 
+     * @return 본문 로깅이 켜져 있고 이번 1초 구간의 허용 개수가 남아 있으면 true
+     */
+    public boolean sample() {
+        if (!properties.isEnabled()) {
+            return false;
+        }
+        int limit = properties.getMaxPerSecond();
+        if (limit <= 0) {
+            return true;
+        }
+
+        long now = System.nanoTime() / NANOS_PER_SECOND;
+        long current = window.get();
+        if (now != current && window.compareAndSet(current, now)) {
+            count.set(0);
+        }
+        return count.incrementAndGet() <= limit;
+    }
+
+    /**
+     * 로그 출력용 본문 (max-length로 자름)
+     */
+    public Object preview(Object payload) {
+        return new Preview(payload, properties.getMaxLength());
+    }
+
+    /**
+     * max-length를 넘는 본문을 자르고 원래 크기를 덧붙여 출력
+     */
+    private record Preview(Object payload, int maxLength) {
+
+        @Override
+        public String toString() {
+            if (payload instanceof byte[] bytes) {
+                if (maxLength <= 0 || bytes.length <= maxLength) {
+                    return new String(bytes, StandardCharsets.UTF_8);
+                }
+                return new String(bytes, 0, maxLength, StandardCharsets.UTF_8) + "...(" + bytes.length + " bytes)";
+            }
+            String text = String.valueOf(payload);
+            if (maxLength <= 0 || text.length() <= maxLength) {
+                return text;
+            }
+            return text.substring(0, maxLength) + "...(" + text.length() + " chars)";
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package kr.or.exmaple.kafkaCommon.logging;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * 본문 로깅 샘플러 자동 구성
+ * 
+ * 비동기 appender(큐 크기, 버림 정책)는 각 모듈의 logback-spring.xml에서
+ * app.logging.async 설정을 읽어 구성합니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@AutoConfiguration
+@EnableConfigurationProperties(PayloadLogProperties.class)
+public class PayloadLoggingAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public PayloadLogSampler payloadLogSampler(PayloadLogProperties properties) {
+        return new PayloadLogSampler(properties);
+    }
+}
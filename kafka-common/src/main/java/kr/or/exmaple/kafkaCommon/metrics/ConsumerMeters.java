@@ -0,0 +1,34 @@
+package kr.or.exmaple.kafkaCommon.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 토픽 하나에 대한 컨슈머 메트릭 묶음
+ * 
+ * @param consumed 수신 메시지 수 (custom-kafka-consume)
+ * @param batchSize 배치 리스너가 한 번에 받은 메시지 수 (custom-kafka-batch-size)
+ * @param process 리스너 호출 하나(배치 또는 단건)를 처리하는 데 걸린 시간 (custom-kafka-process)
+ * @param parse 메시지 하나를 JSON으로 파싱하는 데 걸린 시간 (custom-kafka-parse)
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+public record ConsumerMeters(Counter consumed, DistributionSummary batchSize, Timer process, Timer parse) {
+
+    /**
+     * 처리 시작 시각(System.nanoTime)부터 지금까지를 처리 시간으로 기록
+     */
+    public void recordProcess(long startNanos) {
+        process.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 파싱 시작 시각(System.nanoTime)부터 지금까지를 파싱 시간으로 기록
+     */
+    public void recordParse(long startNanos) {
+        parse.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+}
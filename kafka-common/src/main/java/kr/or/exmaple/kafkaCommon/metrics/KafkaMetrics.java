@@ -0,0 +1,141 @@
+package kr.or.exmaple.kafkaCommon.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 토픽별 Kafka 메트릭 캐시
+ * 
+ * meterRegistry.counter(name, "topic", topic) 방식은 호출할 때마다 태그 배열 할당,
+ * Meter.Id 생성과 레지스트리 조회가 일어납니다. 이 클래스는 토픽별 미터를 한 번만
+ * 등록해 두고, 메시지 경로에서는 ConcurrentHashMap 조회 한 번으로 같은 인스턴스를
+ * 돌려줍니다.
+ * 
+ * app.metrics.producer-topics / consumer-topics에 지정한 토픽은 시작 시 미리 등록되므로
+ * 첫 메시지에서도 등록 비용이 들지 않고, 메시지가 없어도 0 값으로 노출됩니다.
+ * 목록에 없는 토픽은 처음 사용할 때 등록됩니다.
+ * 
+ * 파티션별 지연 시간 메트릭(partition)은 파티션 수를 미리 알 수 없으므로 처음 수신할 때 등록됩니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+public class KafkaMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    private final KafkaMetricsProperties properties;
+
+    private final Map<String, ProducerMeters> producerMeters = new ConcurrentHashMap<>();
+
+    private final Map<String, ConsumerMeters> consumerMeters = new ConcurrentHashMap<>();
+
+    /**
+     * 토픽 → 파티션 번호 → 지연 시간 메트릭 (파티션 번호가 128 미만이면 Integer 캐시를 쓰므로 조회할 때 할당 없음)
+     */
+    private final Map<String, Map<Integer, PartitionMeters>> partitionMeters = new ConcurrentHashMap<>();
+
+    public KafkaMetrics(MeterRegistry meterRegistry, KafkaMetricsProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+        properties.getProducerTopics().forEach(this::producer);
+        properties.getConsumerTopics().forEach(this::consumer);
+    }
+
+    /**
+     * 토픽의 프로듀서 메트릭 조회 (없으면 등록)
+     */
+    public ProducerMeters producer(String topic) {
+        ProducerMeters meters = producerMeters.get(topic);
+        return meters != null ? meters : producerMeters.computeIfAbsent(topic, this::registerProducerMeters);
+    }
+
+    /**
+     * 토픽의 컨슈머 메트릭 조회 (없으면 등록)
+     */
+    public ConsumerMeters consumer(String topic) {
+        ConsumerMeters meters = consumerMeters.get(topic);
+        return meters != null ? meters : consumerMeters.computeIfAbsent(topic, this::registerConsumerMeters);
+    }
+
+    /**
+     * 토픽 파티션의 컨슈머 지연 시간 메트릭 조회 (없으면 등록)
+     */
+    public PartitionMeters partition(String topic, int partition) {
+        Map<Integer, PartitionMeters> partitions = partitionMeters.get(topic);
+        if (partitions == null) {
+            partitions = partitionMeters.computeIfAbsent(topic, ignored -> new ConcurrentHashMap<>());
+        }
+        PartitionMeters meters = partitions.get(partition);
+        return meters != null ? meters : partitions.computeIfAbsent(partition, ignored -> registerPartitionMeters(topic, partition));
+    }
+
+    private ProducerMeters registerProducerMeters(String topic) {
+        return new ProducerMeters(
+                Counter.builder("custom-kafka-produce")
+                        .description("Messages handed to the Kafka producer")
+                        .tag("topic", topic)
+                        .register(meterRegistry),
+                Counter.builder("custom-kafka-produce-failed")
+                        .description("Messages the broker did not acknowledge")
+                        .tag("topic", topic)
+                        .register(meterRegistry),
+                timer("custom-kafka-send-ack", "Time from send to broker acknowledgement", topic));
+    }
+
+    private ConsumerMeters registerConsumerMeters(String topic) {
+        return new ConsumerMeters(
+                Counter.builder("custom-kafka-consume")
+                        .description("Messages received by the listener")
+                        .tag("topic", topic)
+                        .register(meterRegistry),
+                DistributionSummary.builder("custom-kafka-batch-size")
+                        .description("Records delivered per batch listener call")
+                        .tag("topic", topic)
+                        .publishPercentileHistogram(properties.isPercentileHistogram())
+                        .publishPercentiles(properties.getPercentiles())
+                        .register(meterRegistry),
+                timer("custom-kafka-process", "Time spent in one listener call", topic),
+                timer("custom-kafka-parse", "Time spent parsing one message", topic));
+    }
+
+    private PartitionMeters registerPartitionMeters(String topic, int partition) {
+        String partitionTag = Integer.toString(partition);
+        return new PartitionMeters(
+                latencyTimer("custom-kafka-produce-to-consume", "Time from the producer's send request to the listener receiving the record",
+                        topic, partitionTag),
+                latencyTimer("custom-kafka-consume-to-processed", "Time from the listener receiving a record to finishing it",
+                        topic, partitionTag));
+    }
+
+    /**
+     * 파티션별 지연 시간 타이머
+     * 
+     * lag이 쌓이면 전송 → 수신 지연이 분 단위까지 늘어나므로 기본 히스토그램 범위(최대 30초)보다 넓게 잡습니다.
+     */
+    private Timer latencyTimer(String name, String description, String topic, String partition) {
+        return Timer.builder(name)
+                .description(description)
+                .tag("topic", topic)
+                .tag("partition", partition)
+                .publishPercentileHistogram(properties.isPercentileHistogram())
+                .publishPercentiles(properties.getPercentiles())
+                .minimumExpectedValue(Duration.ofNanos(100_000))
+                .maximumExpectedValue(Duration.ofMinutes(10))
+                .register(meterRegistry);
+    }
+
+    private Timer timer(String name, String description, String topic) {
+        return Timer.builder(name)
+                .description(description)
+                .tag("topic", topic)
+                .publishPercentileHistogram(properties.isPercentileHistogram())
+                .publishPercentiles(properties.getPercentiles())
+                .register(meterRegistry);
+    }
+}
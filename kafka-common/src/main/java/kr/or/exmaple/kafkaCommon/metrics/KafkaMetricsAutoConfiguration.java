@@ -0,0 +1,30 @@
+package kr.or.exmaple.kafkaCommon.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Kafka 메트릭 자동 구성
+ * 
+ * kafka-common을 의존성으로 추가한 모든 애플리케이션에 KafkaMetrics 빈을 등록합니다.
+ * MeterRegistry가 만들어진 뒤에 적용되도록 Micrometer 자동 구성 이후로 순서를 지정합니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@AutoConfiguration(after = {MetricsAutoConfiguration.class, CompositeMeterRegistryAutoConfiguration.class})
+@ConditionalOnBean(MeterRegistry.class)
+@EnableConfigurationProperties(KafkaMetricsProperties.class)
+public class KafkaMetricsAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public KafkaMetrics kafkaMetrics(MeterRegistry meterRegistry, KafkaMetricsProperties properties) {
+        return new KafkaMetrics(meterRegistry, properties);
+    }
+}
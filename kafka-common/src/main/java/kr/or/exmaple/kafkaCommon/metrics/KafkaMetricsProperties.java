@@ -0,0 +1,43 @@
+package kr.or.exmaple.kafkaCommon.metrics;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Kafka 메트릭 설정
+ * 
+ * application.yml의 app.metrics 하위 설정과 바인딩됩니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.metrics")
+public class KafkaMetricsProperties {
+
+    /**
+     * 애플리케이션 시작 시 프로듀서 메트릭을 미리 등록할 토픽 목록
+     */
+    private List<String> producerTopics = new ArrayList<>();
+
+    /**
+     * 애플리케이션 시작 시 컨슈머 메트릭을 미리 등록할 토픽 목록
+     */
+    private List<String> consumerTopics = new ArrayList<>();
+
+    /**
+     * Timer/DistributionSummary의 히스토그램 버킷 발행 여부
+     * Prometheus에서 histogram_quantile로 여러 인스턴스를 합쳐 백분위를 계산할 때 사용
+     */
+    private boolean percentileHistogram = false;
+
+    /**
+     * 애플리케이션에서 직접 계산해 발행할 백분위 (예: 0.5, 0.95, 0.99)
+     * 비워두면 계산하지 않음 (기록 시 비용 없음)
+     */
+    private double[] percentiles = {};
+}
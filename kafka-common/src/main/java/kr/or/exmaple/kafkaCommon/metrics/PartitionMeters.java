@@ -0,0 +1,39 @@
+package kr.or.exmaple.kafkaCommon.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import kr.or.exmaple.kafkaCommon.header.MessageHeaders;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 파티션 하나에 대한 컨슈머 지연 시간 메트릭 묶음
+ * 
+ * @param produceToConsume 프로듀서의 전송 요청부터 리스너가 레코드를 받기까지 (custom-kafka-produce-to-consume)
+ * @param consumeToProcessed 리스너가 레코드를 받고부터 처리를 마치기까지 (custom-kafka-consume-to-processed)
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+public record PartitionMeters(Timer produceToConsume, Timer consumeToProcessed) {
+
+    /**
+     * 레코드의 전송 요청 시각(produced-at-micros)부터 수신 시각까지를 기록
+     * 
+     * 프로듀서와 컨슈머의 시계가 달라 음수가 되면 0으로 기록합니다.
+     * 
+     * @param receivedMicros 수신 시각 (MessageHeaders.currentTimeMicros)
+     */
+    public void recordProduceToConsume(ConsumerRecord<?, ?> record, long receivedMicros) {
+        long producedAt = MessageHeaders.producedAtMicros(record);
+        if (producedAt >= 0) {
+            produceToConsume.record(Math.max(0, receivedMicros - producedAt), TimeUnit.MICROSECONDS);
+        }
+    }
+
+    /**
+     * 수신 시각(System.nanoTime)부터 지금까지를 처리 완료 시간으로 기록
+     */
+    public void recordConsumeToProcessed(long receivedNanos) {
+        consumeToProcessed.record(System.nanoTime() - receivedNanos, TimeUnit.NANOSECONDS);
+    }
+}
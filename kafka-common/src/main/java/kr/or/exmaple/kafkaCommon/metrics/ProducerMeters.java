@@ -0,0 +1,25 @@
+package kr.or.exmaple.kafkaCommon.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 토픽 하나에 대한 프로듀서 메트릭 묶음
+ * 
+ * @param produced 전송 요청 수 (custom-kafka-produce)
+ * @param failed 전송 실패 수 (custom-kafka-produce-failed)
+ * @param sendAck 전송 요청부터 브로커 응답(ack)까지 걸린 시간 (custom-kafka-send-ack)
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+public record ProducerMeters(Counter produced, Counter failed, Timer sendAck) {
+
+    /**
+     * 전송 시작 시각(System.nanoTime)부터 지금까지를 ack 지연 시간으로 기록
+     */
+    public void recordAck(long startNanos) {
+        sendAck.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,41 @@
+package kr.or.exmaple.kafkaCommon.retry;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+
+/**
+ * DLT 재주입 (GET/POST /actuator/dlt)
+ * 
+ * - GET: 마지막 재주입의 상태
+ * - POST {"topic": "sample.record.topic", "maxRecords": 100, "rate": 20}: DLT의 레코드를 원본 토픽으로 재주입
+ *   (topic은 원본 토픽이나 DLT 이름, maxRecords와 rate를 생략하면 app.retry.replay 설정값)
+ * 
+ * management.endpoints.web.exposure.include에 dlt를 추가해야 웹으로 노출됩니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@Endpoint(id = "dlt")
+public class DltEndpoint {
+
+    private final DltReplayer replayer;
+
+    private final RetryProperties.Replay defaults;
+
+    public DltEndpoint(DltReplayer replayer, RetryProperties.Replay defaults) {
+        this.replayer = replayer;
+        this.defaults = defaults;
+    }
+
+    @ReadOperation
+    public DltReplayer.Status status() {
+        return replayer.status();
+    }
+
+    @WriteOperation
+    public DltReplayer.Status replay(String topic, @Nullable Integer maxRecords, @Nullable Double rate) {
+        return replayer.replay(topic, maxRecords != null ? maxRecords : defaults.getMaxRecords(),
+                rate != null ? rate : defaults.getRate());
+    }
+}
@@ -0,0 +1,246 @@
+package kr.or.exmaple.kafkaCommon.retry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import kr.or.exmaple.kafkaCommon.header.MessageHeaders;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * DLT의 레코드를 원본 토픽으로 정해진 속도로 재주입
+ * 
+ * 원인을 고친 뒤 DLT에 쌓인 레코드를 다시 처리할 때 사용합니다 (DltEndpoint).
+ * 한 번에 하나의 재주입만 별도 스레드에서 실행되며, 재주입을 시작한 시점에 DLT에 있던 레코드까지만 보냅니다
+ * (재주입한 레코드가 다시 실패해 DLT로 돌아와도 같은 재주입에서 또 보내지 않음).
+ * 
+ * - 위치: replay.group-id 컨슈머 그룹에 커밋하므로 다음 재주입은 이어서 시작됨
+ * - 속도: 초당 rate개를 넘지 않도록 레코드 사이 간격을 둠 (원본 토픽 컨슈머에 갑자기 부하가 몰리지 않도록)
+ * - 헤더: retry-attempt, retry-due-at을 빼서 재시도 단계를 처음부터 다시 거치게 하고, replayed-at을 추가
+ *   (original-*, failure-* 헤더는 남겨 두므로 다시 실패해도 처음 위치를 알 수 있음)
+ * - 커밋: poll한 레코드를 모두 보내고 브로커 응답을 받은 뒤에 커밋
+ * 
+ * 메트릭:
+ * - custom-kafka-dlt-replayed (topic): 원본 토픽으로 재주입한 레코드 수
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@Slf4j
+public class DltReplayer implements DisposableBean {
+
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(1);
+
+    private final RetryTopics retryTopics;
+
+    private final Supplier<Map<String, Object>> consumerConfigs;
+
+    private final ProducerFactory<String, byte[]> producerFactory;
+
+    private final KafkaTemplate<String, byte[]> template;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("dlt-replay-"));
+
+    private volatile Job job;
+
+    /**
+     * @param consumerConfigs DLT를 읽을 컨슈머 설정 (재주입마다 호출, group.id와 offset 커밋 설정 포함)
+     * @param producerFactory 키는 String, 본문은 byte[] 그대로 보내는 프로듀서
+     */
+    public DltReplayer(RetryTopics retryTopics, Supplier<Map<String, Object>> consumerConfigs,
+                       ProducerFactory<String, byte[]> producerFactory, MeterRegistry meterRegistry) {
+        this.retryTopics = retryTopics;
+        this.consumerConfigs = consumerConfigs;
+        this.producerFactory = producerFactory;
+        this.template = new KafkaTemplate<>(producerFactory);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 재주입 시작
+     * 
+     * @param topic DLT 또는 원본 토픽 이름 (원본 토픽이면 그 DLT)
+     * @param maxRecords 이번에 재주입할 최대 레코드 수
+     * @param ratePerSecond 초당 최대 재주입 레코드 수
+     * @return 시작한 재주입의 상태
+     * @throws IllegalArgumentException 개수나 속도가 0 이하인 경우
+     * @throws IllegalStateException 이미 재주입이 실행 중인 경우
+     */
+    public synchronized Status replay(String topic, int maxRecords, double ratePerSecond) {
+        if (maxRecords <= 0 || ratePerSecond <= 0) {
+            throw new IllegalArgumentException("Replay requires a positive record count and rate: " + maxRecords + ", " + ratePerSecond);
+        }
+        if (job != null && job.finishedAt == null) {
+            throw new IllegalStateException("Replay of " + job.dltTopic + " is still running");
+        }
+        String originalTopic = retryTopics.originalTopic(topic);
+        Job started = new Job(retryTopics.dltTopic(originalTopic), originalTopic, maxRecords, ratePerSecond);
+        job = started;
+        executor.execute(() -> run(started));
+        return started.status();
+    }
+
+    /**
+     * 마지막 재주입의 상태
+     * 
+     * @return 재주입한 적이 없으면 null
+     */
+    public Status status() {
+        Job current = job;
+        return current == null ? null : current.status();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+        producerFactory.reset();
+    }
+
+    private void run(Job job) {
+        Counter replayed = Counter.builder("custom-kafka-dlt-replayed")
+                .description("Dead-letter records re-injected into their original topic")
+                .tag("topic", job.originalTopic)
+                .register(meterRegistry);
+        try (Consumer<String, byte[]> consumer = new KafkaConsumer<>(consumerConfigs.get(), new StringDeserializer(),
+                new ByteArrayDeserializer())) {
+            List<TopicPartition> partitions = new ArrayList<>();
+            consumer.partitionsFor(job.dltTopic).forEach(info -> partitions.add(new TopicPartition(info.topic(), info.partition())));
+            consumer.assign(partitions);
+            Map<TopicPartition, Long> ends = consumer.endOffsets(partitions);
+
+            long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / job.ratePerSecond);
+            long nextSend = System.nanoTime();
+            while (job.replayed < job.maxRecords && !caughtUp(consumer, ends) && !Thread.currentThread().isInterrupted()) {
+                List<CompletableFuture<?>> sends = new ArrayList<>();
+                Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+                for (ConsumerRecord<String, byte[]> record : consumer.poll(POLL_TIMEOUT)) {
+                    TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+                    if (job.replayed + sends.size() >= job.maxRecords) {
+                        break;
+                    }
+                    // 재주입을 시작한 뒤에 들어온 레코드는 커밋하지 않고 다음 재주입에 남겨 둠
+                    if (record.offset() >= ends.get(partition)) {
+                        continue;
+                    }
+                    // 초당 rate개를 넘지 않도록 이전 전송에서 간격만큼 지난 뒤에 보냄
+                    long wait = nextSend - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    nextSend = Math.max(nextSend, System.nanoTime()) + intervalNanos;
+                    sends.add(template.send(replayRecord(job, record)));
+                    offsets.put(partition, new OffsetAndMetadata(record.offset() + 1));
+                }
+                CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).join();
+                if (!offsets.isEmpty()) {
+                    consumer.commitSync(offsets);
+                }
+                job.replayed += sends.size();
+                replayed.increment(sends.size());
+            }
+            log.info("Replayed {} records from {} to {}", job.replayed, job.dltTopic, job.originalTopic);
+        } catch (Exception e) {
+            job.error = e.toString();
+            log.error("Replay of {} failed after {} records", job.dltTopic, job.replayed, e);
+        } finally {
+            job.finishedAt = Instant.now();
+        }
+    }
+
+    /**
+     * 재주입을 시작한 시점의 끝 offset까지 모두 읽었는지 여부
+     */
+    private static boolean caughtUp(Consumer<?, ?> consumer, Map<TopicPartition, Long> ends) {
+        for (Map.Entry<TopicPartition, Long> end : ends.entrySet()) {
+            if (consumer.position(end.getKey()) < end.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static ProducerRecord<String, byte[]> replayRecord(Job job, ConsumerRecord<String, byte[]> record) {
+        RecordHeaders headers = new RecordHeaders();
+        for (Header header : record.headers()) {
+            if (!header.key().equals(RetryHeaders.RETRY_ATTEMPT) && !header.key().equals(RetryHeaders.RETRY_DUE_AT)
+                    && !header.key().equals(RetryHeaders.REPLAYED_AT)) {
+                headers.add(header);
+            }
+        }
+        headers.add(MessageHeaders.header(RetryHeaders.REPLAYED_AT, Long.toString(System.currentTimeMillis())));
+        String destination = MessageHeaders.text(record.headers(), RetryHeaders.ORIGINAL_TOPIC);
+        return new ProducerRecord<>(destination != null ? destination : job.originalTopic, null, record.key(), record.value(), headers);
+    }
+
+    /**
+     * 재주입 상태
+     * 
+     * @param topic 읽는 DLT
+     * @param replayed 지금까지 재주입한 레코드 수
+     * @param finishedAt 끝난 시각 (실행 중이면 null)
+     * @param error 실패한 경우 원인 (성공했거나 실행 중이면 null)
+     */
+    public record Status(String topic, int maxRecords, double ratePerSecond, long replayed, Instant startedAt,
+                         Instant finishedAt, String error) {
+    }
+
+    /**
+     * 재주입 한 번의 진행 상황 (replayed는 재주입 스레드만 씀)
+     */
+    private static final class Job {
+
+        private final String dltTopic;
+
+        private final String originalTopic;
+
+        private final int maxRecords;
+
+        private final double ratePerSecond;
+
+        private final Instant startedAt = Instant.now();
+
+        private volatile long replayed;
+
+        private volatile Instant finishedAt;
+
+        private volatile String error;
+
+        private Job(String dltTopic, String originalTopic, int maxRecords, double ratePerSecond) {
+            this.dltTopic = dltTopic;
+            this.originalTopic = originalTopic;
+            this.maxRecords = maxRecords;
+            this.ratePerSecond = ratePerSecond;
+        }
+
+        private Status status() {
+            return new Status(dltTopic, maxRecords, ratePerSecond, replayed, startedAt, finishedAt, error);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package kr.or.exmaple.kafkaCommon.retry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import kr.or.exmaple.kafkaCommon.compression.ZstdDictionaries;
+import kr.or.exmaple.kafkaCommon.header.MessageHeaders;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 처리에 실패한 레코드를 다음 재시도 토픽이나 DLT로 전송
+ * 
+ * 리스너는 실패한 레코드를 여기에 넘기고 바로 다음 레코드로 넘어가므로, 실패한 레코드가
+ * 원본 파티션을 막지 않습니다 (재시도는 재시도 토픽에서 따로 기다렸다가 처리됨).
+ * 
+ * 보낼 곳:
+ * - 재시도할 수 있는 실패이고 남은 단계가 있으면: 다음 단계의 재시도 토픽 (retry-attempt + 1, retry-due-at = 지금 + 단계 대기 시간)
+ * - 재시도할 수 없는 실패(본문 파싱 실패 등)이거나 모든 단계를 거쳤으면: DLT
+ * 
+ * 키, 본문, 헤더는 그대로 보내고 실패 정보와 처음 실패한 위치를 헤더로 추가합니다 (RetryHeaders).
+ * 본문은 이미 압축이 해제된 상태이므로 zstd-dictionary 헤더는 빼고 보냅니다.
+ * 브로커 응답을 받은 뒤에 돌아오므로, 리스너가 offset을 커밋하기 전에 실패한 레코드가 보관됩니다.
+ * 응답은 send-timeout(컨슈머의 max.poll.interval.ms 이하)까지만 기다리며, 넘으면 전송 실패로 처리합니다.
+ * 
+ * 메트릭:
+ * - custom-kafka-failed-records (topic, destination): 원본 토픽별로 재시도 토픽/DLT로 보낸 레코드 수
+ *   (app.retry.topics의 토픽은 시작 시 미리 등록, 목록에 없는 토픽은 처음 보낼 때 등록)
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@Slf4j
+public class FailedRecordPublisher implements DisposableBean {
+
+    /**
+     * 원본 레코드에서 복사하지 않는 헤더 (새로 기록하거나 더 이상 맞지 않는 헤더)
+     */
+    private static final Set<String> REPLACED_HEADERS = Set.of(RetryHeaders.RETRY_ATTEMPT, RetryHeaders.RETRY_DUE_AT,
+            RetryHeaders.FAILURE_EXCEPTION, RetryHeaders.FAILURE_REASON, RetryHeaders.FAILED_AT, ZstdDictionaries.HEADER);
+
+    private final RetryTopics retryTopics;
+
+    private final ProducerFactory<String, byte[]> producerFactory;
+
+    private final KafkaTemplate<String, byte[]> template;
+
+    private final int maxReasonLength;
+
+    private final Duration sendTimeout;
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 보낸 토픽(재시도 토픽/DLT) → 보낸 레코드 수
+     */
+    private final Map<String, Counter> sentCounters = new ConcurrentHashMap<>();
+
+    /**
+     * @param producerFactory 키는 String, 본문은 byte[] 그대로 보내는 프로듀서
+     * @param maxReasonLength failure-reason 헤더에 남길 예외 메시지 최대 길이
+     * @param sendTimeout 브로커 응답을 기다리는 최대 시간
+     */
+    public FailedRecordPublisher(RetryTopics retryTopics, ProducerFactory<String, byte[]> producerFactory, int maxReasonLength,
+                                 Duration sendTimeout, MeterRegistry meterRegistry) {
+        this.retryTopics = retryTopics;
+        this.producerFactory = producerFactory;
+        this.template = new KafkaTemplate<>(producerFactory);
+        this.maxReasonLength = maxReasonLength;
+        this.sendTimeout = sendTimeout;
+        this.meterRegistry = meterRegistry;
+        for (String topic : retryTopics.topics()) {
+            for (int tier = 0; tier < retryTopics.tiers(); tier++) {
+                sentCounter(topic, retryTopics.retryTopic(topic, tier));
+            }
+            sentCounter(topic, retryTopics.dltTopic(topic));
+        }
+    }
+
+    /**
+     * 실패한 레코드를 다음 재시도 토픽이나 DLT로 보내고 브로커 응답을 기다림
+     * 
+     * @param record 처리에 실패한 레코드 (원본 토픽 또는 재시도 토픽의 레코드)
+     * @param cause 실패 원인
+     * @param retryable 다시 처리하면 성공할 수 있는 실패인지 여부 (false면 바로 DLT)
+     * @return 보낸 토픽
+     * @throws KafkaException 전송에 실패한 경우
+     */
+    public String publish(ConsumerRecord<String, byte[]> record, Exception cause, boolean retryable) {
+        String originalTopic = MessageHeaders.text(record.headers(), RetryHeaders.ORIGINAL_TOPIC);
+        RecordHeaders headers = new RecordHeaders();
+        for (Header header : record.headers()) {
+            if (!REPLACED_HEADERS.contains(header.key())) {
+                headers.add(header);
+            }
+        }
+        if (originalTopic == null) {
+            originalTopic = record.topic();
+            headers.add(MessageHeaders.header(RetryHeaders.ORIGINAL_TOPIC, record.topic()));
+            headers.add(MessageHeaders.header(RetryHeaders.ORIGINAL_PARTITION, Integer.toString(record.partition())));
+            headers.add(MessageHeaders.header(RetryHeaders.ORIGINAL_OFFSET, Long.toString(record.offset())));
+        }
+
+        long now = System.currentTimeMillis();
+        int attempt = RetryHeaders.attempt(record.headers());
+        String destination;
+        if (retryable && attempt < retryTopics.tiers()) {
+            destination = retryTopics.retryTopic(originalTopic, attempt);
+            headers.add(MessageHeaders.header(RetryHeaders.RETRY_ATTEMPT, Integer.toString(attempt + 1)));
+            headers.add(MessageHeaders.header(RetryHeaders.RETRY_DUE_AT, Long.toString(now + retryTopics.delay(attempt).toMillis())));
+        } else {
+            destination = retryTopics.dltTopic(originalTopic);
+            headers.add(MessageHeaders.header(RetryHeaders.RETRY_ATTEMPT, Integer.toString(attempt)));
+        }
+        headers.add(MessageHeaders.header(RetryHeaders.FAILURE_EXCEPTION, cause.getClass().getName()));
+        headers.add(MessageHeaders.header(RetryHeaders.FAILURE_REASON, reason(cause)));
+        headers.add(MessageHeaders.header(RetryHeaders.FAILED_AT, Long.toString(now)));
+
+        try {
+            template.send(new ProducerRecord<>(destination, null, record.key(), record.value(), headers))
+                    .get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw publishFailed(record, destination, e.getCause());
+        } catch (TimeoutException e) {
+            throw publishFailed(record, destination, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw publishFailed(record, destination, e);
+        }
+        sentCounter(originalTopic, destination).increment();
+        log.warn("Sent failed record {}-{}@{} to {} after attempt {}: {}", record.topic(), record.partition(), record.offset(),
+                destination, attempt, cause.toString());
+        return destination;
+    }
+
+    @Override
+    public void destroy() {
+        producerFactory.reset();
+    }
+
+    private static KafkaException publishFailed(ConsumerRecord<String, byte[]> record, String destination, Throwable cause) {
+        return new KafkaException("Failed to publish failed record " + record.topic() + "-" + record.partition() + "@"
+                + record.offset() + " to " + destination, cause);
+    }
+
+    /**
+     * 보낸 토픽의 카운터 조회 (없으면 등록)
+     */
+    private Counter sentCounter(String originalTopic, String destination) {
+        Counter counter = sentCounters.get(destination);
+        return counter != null ? counter : sentCounters.computeIfAbsent(destination, ignored ->
+                Counter.builder("custom-kafka-failed-records")
+                        .description("Failed records sent to a retry topic or the dead-letter topic")
+                        .tag("topic", originalTopic)
+                        .tag("destination", destination)
+                        .register(meterRegistry));
+    }
+
+    /**
+     * 예외 메시지 (없으면 클래스 이름, 최대 길이를 넘으면 자름)
+     */
+    private String reason(Exception cause) {
+        String message = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getName();
+        return message.length() > maxReasonLength ? message.substring(0, maxReasonLength) : message;
+    }
+}
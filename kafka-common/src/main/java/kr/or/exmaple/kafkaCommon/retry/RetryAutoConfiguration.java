@@ -0,0 +1,140 @@
+package kr.or.exmaple.kafkaCommon.retry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.ssl.SslBundles;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * 재시도 토픽 / DLT 자동 구성 (app.retry.enabled=true)
+ * 
+ * - RetryTopics: 재시도 토픽과 DLT 이름, 단계별 대기 시간 (재시도 리스너가 #{@retryTopics.retryTopics()}로 구독)
+ * - FailedRecordPublisher: 처리에 실패한 레코드를 다음 재시도 토픽이나 DLT로 전송
+ * - retryListenerContainerFactory: 재시도 리스너용 레코드 리스너 컨테이너 팩토리
+ *   (spring.kafka.listener.type과 관계없이 레코드 단위, 처리할 시각 전이면 파티션만 멈추는 RetryListenerErrorHandler)
+ * - 재시도 토픽과 DLT 생성 (KafkaAdmin, 이미 있으면 그대로 둠)
+ * - DltReplayer와 /actuator/dlt: DLT의 레코드를 원본 토픽으로 정해진 속도로 재주입
+ * 
+ * 프로듀서는 spring.kafka.producer 설정에 키는 String, 본문은 byte[] 그대로 보내는 Serializer를 적용하고,
+ * 재주입 컨슈머는 spring.kafka.consumer 설정에 replay.group-id와 수동 커밋을 적용합니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@AutoConfiguration(after = {MetricsAutoConfiguration.class, CompositeMeterRegistryAutoConfiguration.class, KafkaAutoConfiguration.class})
+@ConditionalOnBean(MeterRegistry.class)
+@ConditionalOnProperty(prefix = "app.retry", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(RetryProperties.class)
+public class RetryAutoConfiguration {
+
+    /**
+     * 재시도 리스너의 @KafkaListener containerFactory
+     */
+    public static final String CONTAINER_FACTORY = "retryListenerContainerFactory";
+
+    /**
+     * Kafka 컨슈머의 max.poll.interval.ms 기본값
+     */
+    private static final long DEFAULT_MAX_POLL_INTERVAL_MS = 300_000;
+
+    @Bean
+    @ConditionalOnMissingBean
+    public RetryTopics retryTopics(RetryProperties properties) {
+        return new RetryTopics(properties.getTopics(), properties.getDelays());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public FailedRecordPublisher failedRecordPublisher(RetryTopics retryTopics, RetryProperties properties, MeterRegistry meterRegistry,
+                                                       ObjectProvider<KafkaProperties> kafkaProperties,
+                                                       ObjectProvider<SslBundles> sslBundles) {
+        return new FailedRecordPublisher(retryTopics, producerFactory(kafkaProperties, sslBundles), properties.getMaxReasonLength(),
+                sendTimeout(properties, kafkaProperties, sslBundles), meterRegistry);
+    }
+
+    /**
+     * send-timeout과 컨슈머의 max.poll.interval.ms 중 짧은 시간 (리스너 스레드가 poll 간격을 넘겨 그룹에서 빠지지 않도록)
+     */
+    private static Duration sendTimeout(RetryProperties properties, ObjectProvider<KafkaProperties> kafkaProperties,
+                                        ObjectProvider<SslBundles> sslBundles) {
+        Object maxPollInterval = kafkaProperties.getObject().buildConsumerProperties(sslBundles.getIfAvailable())
+                .get(ConsumerConfig.MAX_POLL_INTERVAL_MS_CONFIG);
+        Duration pollInterval = Duration.ofMillis(maxPollInterval != null
+                ? Long.parseLong(maxPollInterval.toString()) : DEFAULT_MAX_POLL_INTERVAL_MS);
+        return properties.getSendTimeout().compareTo(pollInterval) < 0 ? properties.getSendTimeout() : pollInterval;
+    }
+
+    @Bean(CONTAINER_FACTORY)
+    @ConditionalOnMissingBean(name = CONTAINER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> retryListenerContainerFactory(
+            ObjectProvider<ConsumerFactory<Object, Object>> consumerFactory, RetryListenerErrorHandler retryListenerErrorHandler,
+            RetryProperties properties) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory.getObject());
+        factory.setBatchListener(false);
+        factory.setConcurrency(properties.getConcurrency());
+        factory.setCommonErrorHandler(retryListenerErrorHandler);
+        return factory;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public RetryListenerErrorHandler retryListenerErrorHandler() {
+        return new RetryListenerErrorHandler();
+    }
+
+    @Bean
+    public KafkaAdmin.NewTopics retryNewTopics(RetryTopics retryTopics, RetryProperties properties) {
+        return new KafkaAdmin.NewTopics(retryTopics.allTopics().stream()
+                .map(topic -> TopicBuilder.name(topic).partitions(properties.getPartitions()).build())
+                .toArray(NewTopic[]::new));
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public DltReplayer dltReplayer(RetryTopics retryTopics, RetryProperties properties, MeterRegistry meterRegistry,
+                                   ObjectProvider<KafkaProperties> kafkaProperties, ObjectProvider<SslBundles> sslBundles) {
+        return new DltReplayer(retryTopics, () -> {
+            Map<String, Object> configs = kafkaProperties.getObject().buildConsumerProperties(sslBundles.getIfAvailable());
+            configs.put(ConsumerConfig.GROUP_ID_CONFIG, properties.getReplay().getGroupId());
+            configs.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+            configs.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+            return configs;
+        }, producerFactory(kafkaProperties, sslBundles), meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public DltEndpoint dltEndpoint(DltReplayer dltReplayer, RetryProperties properties) {
+        return new DltEndpoint(dltReplayer, properties.getReplay());
+    }
+
+    private static DefaultKafkaProducerFactory<String, byte[]> producerFactory(ObjectProvider<KafkaProperties> kafkaProperties,
+                                                                               ObjectProvider<SslBundles> sslBundles) {
+        Map<String, Object> configs = kafkaProperties.getObject().buildProducerProperties(sslBundles.getIfAvailable());
+        configs.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configs.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        return new DefaultKafkaProducerFactory<>(configs);
+    }
+}
@@ -0,0 +1,79 @@
+package kr.or.exmaple.kafkaCommon.retry;
+
+import kr.or.exmaple.kafkaCommon.header.MessageHeaders;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Headers;
+
+/**
+ * 재시도 토픽과 DLT로 보낸 레코드에 기록하는 헤더
+ * 
+ * 값은 MessageHeaders와 같이 모두 UTF-8 문자열입니다.
+ * 
+ * 헤더 목록:
+ * - original-topic, original-partition, original-offset: 처음 실패한 레코드의 위치 (재시도를 거쳐도 바뀌지 않음)
+ * - retry-attempt: 지금까지 재시도 토픽으로 보낸 횟수 (원본 토픽의 레코드는 헤더 없음 = 0)
+ * - retry-due-at: 재시도 토픽의 레코드를 처리할 시각 (epoch 밀리초)
+ * - failure-exception, failure-reason: 마지막 실패의 예외 클래스와 메시지
+ * - failed-at: 마지막 실패 시각 (epoch 밀리초)
+ * - replayed-at: DLT에서 원본 토픽으로 재주입한 시각 (epoch 밀리초)
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+public final class RetryHeaders {
+
+    public static final String ORIGINAL_TOPIC = "original-topic";
+
+    public static final String ORIGINAL_PARTITION = "original-partition";
+
+    public static final String ORIGINAL_OFFSET = "original-offset";
+
+    public static final String RETRY_ATTEMPT = "retry-attempt";
+
+    public static final String RETRY_DUE_AT = "retry-due-at";
+
+    public static final String FAILURE_EXCEPTION = "failure-exception";
+
+    public static final String FAILURE_REASON = "failure-reason";
+
+    public static final String FAILED_AT = "failed-at";
+
+    public static final String REPLAYED_AT = "replayed-at";
+
+    private RetryHeaders() {
+    }
+
+    /**
+     * 재시도 토픽을 거쳤거나 DLT에서 재주입된 레코드인지 여부
+     * 
+     * 이런 레코드는 원본 토픽에서 이미 중복 판정을 거친 뒤 실패한 것이므로 중복 판정 없이 처리해야 합니다.
+     */
+    public static boolean isRedelivery(ConsumerRecord<?, ?> record) {
+        return record.headers().lastHeader(ORIGINAL_OFFSET) != null;
+    }
+
+    /**
+     * 지금까지 재시도 토픽으로 보낸 횟수 (헤더가 없거나 숫자가 아니면 0)
+     */
+    public static int attempt(Headers headers) {
+        return (int) number(headers, RETRY_ATTEMPT, 0);
+    }
+
+    /**
+     * 처리할 시각 (epoch 밀리초, 헤더가 없거나 숫자가 아니면 0 = 바로 처리)
+     */
+    public static long dueAt(Headers headers) {
+        return number(headers, RETRY_DUE_AT, 0);
+    }
+
+    private static long number(Headers headers, String name, long defaultValue) {
+        String value = MessageHeaders.text(headers, name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
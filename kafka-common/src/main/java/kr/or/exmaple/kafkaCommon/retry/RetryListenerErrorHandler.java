@@ -0,0 +1,80 @@
+package kr.or.exmaple.kafkaCommon.retry;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.kafka.listener.BackOffHandler;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.listener.ListenerUtils;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 재시도 리스너 컨테이너의 에러 핸들러
+ * 
+ * - RetryNotDueException: 레코드를 다시 읽도록 되돌리고(seek) 해당 파티션만 처리할 시각까지 멈춤
+ *   (컨슈머 스레드는 잠들지 않으므로 같은 스레드의 다른 재시도 파티션은 계속 처리됨)
+ * - 그 밖의 예외(실패한 레코드를 다음 단계로 보내지 못한 경우 등): 1초 간격으로 9번 다시 시도한 뒤 에러 로그를 남기고 건너뜀
+ * 
+ * 실패한 레코드를 다음 단계로 넘기는 것은 리스너(FailedRecordPublisher)의 몫이므로 여기서는 재시도 토픽으로 보내지 않습니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@Slf4j
+public class RetryListenerErrorHandler extends DefaultErrorHandler implements DisposableBean {
+
+    private final PartitionPausingBackOffHandler backOffHandler;
+
+    public RetryListenerErrorHandler() {
+        this(new PartitionPausingBackOffHandler());
+    }
+
+    private RetryListenerErrorHandler(PartitionPausingBackOffHandler backOffHandler) {
+        super((record, e) -> log.error("Giving up on retry record {}-{}@{}", record.topic(), record.partition(), record.offset(), e),
+                new FixedBackOff(1000, 9), backOffHandler);
+        this.backOffHandler = backOffHandler;
+        // 처리할 시각 전이면 횟수 제한 없이 기다림 (대기 시간은 예외에 담긴 남은 시간을 사용)
+        setBackOffFunction((record, e) -> RetryNotDueException.find(e) != null
+                ? new FixedBackOff(0, FixedBackOff.UNLIMITED_ATTEMPTS) : null);
+    }
+
+    @Override
+    public void destroy() {
+        backOffHandler.scheduler.shutdownNow();
+    }
+
+    /**
+     * RetryNotDueException이면 파티션을 멈췄다가 처리할 시각에 재개, 그 밖에는 컨슈머 스레드에서 대기
+     */
+    private static final class PartitionPausingBackOffHandler implements BackOffHandler {
+
+        private final ScheduledExecutorService scheduler =
+                Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("retry-resume-"));
+
+        @Override
+        public void onNextBackOff(MessageListenerContainer container, Exception exception, long nextBackOff) {
+            RetryNotDueException notDue = RetryNotDueException.find(exception);
+            if (notDue != null && container != null) {
+                TopicPartition partition = notDue.getPartition();
+                // 다음 poll 전에 적용되며, 파티션을 잃었다가 다시 받아도 재개 요청은 무해함
+                container.pausePartition(partition);
+                scheduler.schedule(() -> container.resumePartition(partition), notDue.getRemainingMillis(), TimeUnit.MILLISECONDS);
+                return;
+            }
+            try {
+                if (container == null) {
+                    Thread.sleep(nextBackOff);
+                } else {
+                    ListenerUtils.stoppableSleep(container, nextBackOff);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package kr.or.exmaple.kafkaCommon.retry;
+
+import lombok.Getter;
+import org.apache.kafka.common.TopicPartition;
+
+/**
+ * 재시도 토픽의 레코드가 아직 처리할 시각(retry-due-at) 전임을 알리는 예외
+ * 
+ * 재시도 리스너가 던지면 RetryListenerErrorHandler가 레코드를 다시 읽도록 되돌리고
+ * 해당 파티션만 남은 시간 동안 멈춥니다 (다른 파티션과 원본 토픽은 계속 처리됨).
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@Getter
+public class RetryNotDueException extends RuntimeException {
+
+    private final TopicPartition partition;
+
+    /**
+     * 처리할 시각까지 남은 시간 (밀리초)
+     */
+    private final long remainingMillis;
+
+    public RetryNotDueException(TopicPartition partition, long offset, long remainingMillis) {
+        super("Record " + partition + "@" + offset + " is due in " + remainingMillis + "ms", null, false, false);
+        this.partition = partition;
+        this.remainingMillis = remainingMillis;
+    }
+
+    /**
+     * 예외 원인 사슬에서 RetryNotDueException 찾기 (리스너 예외는 컨테이너가 감싸서 전달함)
+     * 
+     * @return 없으면 null
+     */
+    public static RetryNotDueException find(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RetryNotDueException notDue) {
+                return notDue;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,83 @@
+package kr.or.exmaple.kafkaCommon.retry;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 재시도 토픽 / DLT 설정
+ * 
+ * application.yml의 app.retry 하위 설정과 바인딩됩니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.retry")
+public class RetryProperties {
+
+    /**
+     * 처리에 실패한 레코드를 재시도 토픽과 DLT로 보낼지 여부 (false면 실패를 로그로만 남기고 다음 레코드 처리)
+     */
+    private boolean enabled = false;
+
+    /**
+     * 재시도 토픽과 DLT를 둘 원본 토픽 (시작 시 토픽을 만들고 재시도 리스너가 구독)
+     */
+    private List<String> topics = new ArrayList<>();
+
+    /**
+     * 단계별 재시도 대기 시간 (단계마다 <토픽>.retry.<단계> 토픽 하나, 모두 실패하면 <토픽>.dlt)
+     */
+    private List<Duration> delays = new ArrayList<>(List.of(Duration.ofSeconds(1), Duration.ofSeconds(10), Duration.ofMinutes(1)));
+
+    /**
+     * 시작 시 만드는 재시도 토픽과 DLT의 파티션 수 (이미 있는 토픽은 바꾸지 않음)
+     */
+    private int partitions = 1;
+
+    /**
+     * 재시도 리스너의 컨슈머 스레드 수
+     */
+    private int concurrency = 1;
+
+    /**
+     * failure-reason 헤더에 남길 예외 메시지 최대 길이
+     */
+    private int maxReasonLength = 512;
+
+    /**
+     * 재시도 토픽이나 DLT로 보낸 뒤 브로커 응답을 기다리는 최대 시간
+     * (리스너 스레드에서 기다리므로 컨슈머의 max.poll.interval.ms를 넘으면 그 값으로 줄임)
+     */
+    private Duration sendTimeout = Duration.ofSeconds(30);
+
+    /**
+     * DLT 재주입 설정
+     */
+    private Replay replay = new Replay();
+
+    @Getter
+    @Setter
+    public static class Replay {
+
+        /**
+         * 재주입 위치를 커밋하는 컨슈머 그룹 (같은 레코드를 두 번 재주입하지 않음)
+         */
+        private String groupId = "dlt-replay";
+
+        /**
+         * 요청에 속도를 지정하지 않았을 때의 초당 재주입 레코드 수
+         */
+        private double rate = 50;
+
+        /**
+         * 요청에 개수를 지정하지 않았을 때 한 번에 재주입하는 최대 레코드 수
+         */
+        private int maxRecords = 1000;
+    }
+}
@@ -0,0 +1,105 @@
+package kr.or.exmaple.kafkaCommon.retry;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 원본 토픽별 재시도 토픽과 DLT 이름 및 단계별 대기 시간
+ * 
+ * 단계 n의 재시도 토픽은 <원본 토픽>.retry.<n>, DLT는 <원본 토픽>.dlt입니다.
+ * 한 재시도 토픽의 레코드는 모두 같은 시간을 기다리므로 파티션 안에서 처리할 시각 순서로 쌓입니다.
+ * 따라서 파티션의 첫 레코드가 아직 처리할 때가 아니면 그 뒤의 레코드도 모두 그렇고,
+ * 재시도 리스너는 그 파티션만 남은 시간 동안 멈추면 됩니다 (RetryNotDueException).
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+public class RetryTopics {
+
+    public static final String RETRY_SUFFIX = ".retry.";
+
+    public static final String DLT_SUFFIX = ".dlt";
+
+    private final List<String> topics;
+
+    private final List<Duration> delays;
+
+    public RetryTopics(List<String> topics, List<Duration> delays) {
+        this.topics = List.copyOf(topics);
+        this.delays = List.copyOf(delays);
+    }
+
+    /**
+     * 재시도 토픽과 DLT를 둘 원본 토픽
+     */
+    public List<String> topics() {
+        return topics;
+    }
+
+    /**
+     * 재시도 단계 수
+     */
+    public int tiers() {
+        return delays.size();
+    }
+
+    /**
+     * 단계의 대기 시간
+     */
+    public Duration delay(int tier) {
+        return delays.get(tier);
+    }
+
+    public String retryTopic(String topic, int tier) {
+        return topic + RETRY_SUFFIX + tier;
+    }
+
+    public String dltTopic(String topic) {
+        return topic + DLT_SUFFIX;
+    }
+
+    /**
+     * 설정한 원본 토픽의 모든 재시도 토픽 (재시도 리스너의 구독 토픽)
+     */
+    public List<String> retryTopics() {
+        List<String> retryTopics = new ArrayList<>(topics.size() * delays.size());
+        for (String topic : topics) {
+            for (int tier = 0; tier < delays.size(); tier++) {
+                retryTopics.add(retryTopic(topic, tier));
+            }
+        }
+        return retryTopics;
+    }
+
+    /**
+     * 설정한 원본 토픽의 모든 재시도 토픽과 DLT (시작 시 만들 토픽)
+     */
+    public List<String> allTopics() {
+        List<String> allTopics = retryTopics();
+        topics.forEach(topic -> allTopics.add(dltTopic(topic)));
+        return allTopics;
+    }
+
+    /**
+     * DLT 이름에서 원본 토픽 이름 (DLT 이름이 아니면 그대로)
+     */
+    public String originalTopic(String dltTopic) {
+        return dltTopic.endsWith(DLT_SUFFIX) ? dltTopic.substring(0, dltTopic.length() - DLT_SUFFIX.length()) : dltTopic;
+    }
+
+    /**
+     * 재시도 토픽의 레코드를 지금 처리해도 되는지 확인
+     * 
+     * @param nowMillis 현재 시각 (epoch 밀리초)
+     * @throws RetryNotDueException 아직 retry-due-at 전인 경우
+     */
+    public void checkDue(ConsumerRecord<?, ?> record, long nowMillis) {
+        long remaining = RetryHeaders.dueAt(record.headers()) - nowMillis;
+        if (remaining > 0) {
+            throw new RetryNotDueException(new TopicPartition(record.topic(), record.partition()), record.offset(), remaining);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package kr.or.exmaple.kafkaCommon.codec;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FieldProjectionTest {
+
+	private static final String PAYLOAD = """
+			{"key":"user-1","orders":[{"orderId":"ORD-1","tags":["gift"]}],"address":{"city":"서울","zip":"06236"},
+			 "age":30,"memo":null,"api_tran_id":"0199ef3a-6c2b-7a41-9d3e-5f1b2c7e8a90"}""";
+
+	private final PayloadCodecs payloadCodecs = new PayloadCodecs();
+
+	private final PayloadCodec json = payloadCodecs.get(PayloadFormat.JSON);
+
+	@Test
+	void readsDeclaredFieldsAndSkipsOthers() throws IOException {
+		FieldProjection projection = FieldProjection.of("api_tran_id", "key", "address.city", "age", "memo", "missing");
+
+		ProjectedRecord record = read(projection, json, PAYLOAD.getBytes(StandardCharsets.UTF_8));
+
+		assertThat(record.text("api_tran_id")).isEqualTo("0199ef3a-6c2b-7a41-9d3e-5f1b2c7e8a90");
+		assertThat(record.text("key")).isEqualTo("user-1");
+		assertThat(record.text("address.city")).isEqualTo("서울");
+		assertThat(record.text("age")).isEqualTo("30");
+		assertThat(record.has("memo")).isTrue();
+		assertThat(record.value("memo")).isNull();
+		assertThat(record.has("missing")).isFalse();
+	}
+
+	@Test
+	void capturesContainerValuesAsTree() throws IOException {
+		FieldProjection projection = FieldProjection.of("orders");
+
+		Object orders = read(projection, json, PAYLOAD.getBytes(StandardCharsets.UTF_8)).value("orders");
+
+		assertThat(orders).isInstanceOf(JsonNode.class);
+		assertThat(((JsonNode) orders).get(0).get("orderId").textValue()).isEqualTo("ORD-1");
+	}
+
+	@Test
+	void clearsPreviousValuesWhenReused() throws IOException {
+		FieldProjection projection = FieldProjection.of("api_tran_id", "key");
+		ProjectedRecord record = projection.newRecord();
+
+		read(projection, json, PAYLOAD.getBytes(StandardCharsets.UTF_8), record);
+		read(projection, json, "{\"key\":\"user-2\"}".getBytes(StandardCharsets.UTF_8), record);
+
+		assertThat(record.text("key")).isEqualTo("user-2");
+		assertThat(record.text("api_tran_id")).isNull();
+		assertThat(record).hasToString("{\"key\":\"user-2\"}");
+	}
+
+	@Test
+	void readsBinaryFormats() throws IOException {
+		FieldProjection projection = FieldProjection.of("api_tran_id", "address.zip");
+		Map<String, Object> value = Map.of("api_tran_id", "id-1", "address", Map.of("zip", "06236"), "tags", List.of("a", "b"));
+
+		for (PayloadFormat format : List.of(PayloadFormat.CBOR, PayloadFormat.SMILE)) {
+			PayloadCodec codec = payloadCodecs.get(format);
+			ProjectedRecord record = read(projection, codec, codec.encode(value));
+
+			assertThat(record.text("api_tran_id")).as(format.name()).isEqualTo("id-1");
+			assertThat(record.text("address.zip")).as(format.name()).isEqualTo("06236");
+		}
+	}
+
+	@Test
+	void rejectsNonObjectPayloadsAndUndeclaredFields() throws IOException {
+		FieldProjection projection = FieldProjection.of("key");
+
+		assertThatThrownBy(() -> read(projection, json, "[1, 2]".getBytes(StandardCharsets.UTF_8)))
+				.isInstanceOf(JsonParseException.class);
+		assertThatThrownBy(() -> projection.newRecord().text("api_tran_id"))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> FieldProjection.of("key", "key"))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void rejectsMalformedPayloadsAfterTheDeclaredFields() {
+		FieldProjection projection = FieldProjection.of("api_tran_id", "key");
+
+		// 선언한 필드를 모두 찾은 뒤의 잘못된 본문도 readTree와 같이 실패
+		for (String payload : List.of("{\"api_tran_id\":\"id-1\",\"key\":\"user-1\",\"tags\":[1,",
+				"{\"api_tran_id\":\"id-1\",\"key\":\"user-1\",\"age\":}",
+				"{\"api_tran_id\":\"id-1\",\"key\":\"user-1\"")) {
+			assertThatThrownBy(() -> read(projection, json, payload.getBytes(StandardCharsets.UTF_8)))
+					.as(payload)
+					.isInstanceOf(IOException.class);
+		}
+	}
+
+	@Test
+	void rejectsOverlappingPaths() {
+		assertThatThrownBy(() -> FieldProjection.of("address", "address.city"))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("address, address.city");
+		assertThatThrownBy(() -> FieldProjection.of("address.city", "address"))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("address, address.city");
+		assertThat(FieldProjection.of("address.city", "address.zip").size()).isEqualTo(2);
+	}
+
+	@Test
+	void keepsLastValueOfDuplicatedFieldsLikeReadTree() throws IOException {
+		FieldProjection projection = FieldProjection.of("api_tran_id", "key", "address.city", "address.zip");
+		// ApiTranIdInjector는 클라이언트가 보낸 api_tran_id 뒤에 서버가 만든 값을 덧붙임
+		byte[] payload = ("{\"api_tran_id\":\"client\",\"key\":\"user-1\",\"address\":{\"city\":\"서울\",\"zip\":\"06236\"},"
+				+ "\"address\":{\"city\":\"부산\"},\"api_tran_id\":\"server\"}").getBytes(StandardCharsets.UTF_8);
+
+		ProjectedRecord record = read(projection, json, payload);
+		JsonNode tree = new ObjectMapper().readTree(payload);
+
+		assertThat(record.text("api_tran_id")).isEqualTo("server").isEqualTo(tree.get("api_tran_id").textValue());
+		assertThat(record.text("address.city")).isEqualTo("부산").isEqualTo(tree.at("/address/city").textValue());
+		// 마지막 address 객체에 없는 하위 필드는 앞 객체의 값이 남지 않음
+		assertThat(record.has("address.zip")).isFalse();
+		assertThat(tree.at("/address/zip").isMissingNode()).isTrue();
+	}
+
+	@Test
+	void escapesValuesInToString() throws IOException {
+		FieldProjection projection = FieldProjection.of("key", "address");
+		byte[] payload = "{\"key\":\"a\\\"b\\nc\",\"address\":{\"city\":\"서울\"}}".getBytes(StandardCharsets.UTF_8);
+
+		String text = read(projection, json, payload).toString();
+
+		assertThat(text).isEqualTo("{\"key\":\"a\\\"b\\nc\",\"address\":{\"city\":\"서울\"}}");
+		assertThat(new ObjectMapper().readTree(text).get("key").textValue()).isEqualTo("a\"b\nc");
+	}
+
+	private static ProjectedRecord read(FieldProjection projection, PayloadCodec codec, byte[] payload) throws IOException {
+		return read(projection, codec, payload, projection.newRecord());
+	}
+
+	private static ProjectedRecord read(FieldProjection projection, PayloadCodec codec, byte[] payload,
+			ProjectedRecord into) throws IOException {
+		try (JsonParser parser = codec.createParser(payload)) {
+			return projection.read(parser, into);
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package kr.or.exmaple.kafkaCommon.codec;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PayloadCodecsTest {
+
+	private final PayloadCodecs codecs = new PayloadCodecs();
+
+	@ParameterizedTest
+	@EnumSource(PayloadFormat.class)
+	void roundTripsThroughHeader(PayloadFormat format) throws Exception {
+		Map<String, Object> message = message();
+		PayloadCodec codec = codecs.get(format);
+
+		byte[] payload = codec.encode(message);
+		PayloadCodec resolved = codecs.forHeaderValue(codecs.headerValue(codec));
+		JsonNode decoded = resolved.decode(payload);
+
+		assertThat(resolved).isSameAs(codec);
+		assertThat(resolved.name()).isEqualTo(format.name().toLowerCase());
+		assertThat(decoded.get("name").asText()).isEqualTo("김철수");
+		assertThat(decoded.get("orders").get(1).get("qty").asInt()).isEqualTo(2);
+		assertThat(decoded.get("api_tran_id").asText()).isEqualTo("tran-1");
+	}
+
+	@Test
+	void treatsMissingHeaderAsJson() throws Exception {
+		byte[] legacy = "{\"name\":\"김철수\"}".getBytes(StandardCharsets.UTF_8);
+
+		PayloadCodec codec = codecs.forHeaderValue(null);
+
+		assertThat(codec).isSameAs(codecs.get(PayloadFormat.JSON));
+		assertThat(codec.decode(legacy).get("name").asText()).isEqualTo("김철수");
+	}
+
+	@Test
+	void rejectsUnknownCodec() {
+		assertThatThrownBy(() -> codecs.forHeaderValue("avro".getBytes(StandardCharsets.UTF_8)))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("avro");
+	}
+
+	@Test
+	void binaryFormatsAreSmallerForFieldHeavyPayloads() throws Exception {
+		Map<String, Object> message = message();
+		int json = codecs.get(PayloadFormat.JSON).encode(message).length;
+
+		assertThat(codecs.get(PayloadFormat.CBOR).encode(message).length).isLessThan(json);
+		assertThat(codecs.get(PayloadFormat.SMILE).encode(message).length).isLessThan(json);
+	}
+
+	private static Map<String, Object> message() {
+		Map<String, Object> message = new LinkedHashMap<>();
+		message.put("name", "김철수");
+		message.put("age", 30);
+		message.put("orders", List.of(
+				Map.of("orderId", "ORD-100001", "sku", "SKU-1", "qty", 1, "price", 12000.5),
+				Map.of("orderId", "ORD-100002", "sku", "SKU-2", "qty", 2, "price", 8000.0),
+				Map.of("orderId", "ORD-100003", "sku", "SKU-3", "qty", 3, "price", 500.25)));
+		message.put("api_tran_id", "tran-1");
+		return message;
+	}
+}
@@ -0,0 +1,189 @@
+package kr.or.exmaple.kafkaCommon.compression;
+
+import com.github.luben.zstd.ZstdDictTrainer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+class ZstdDictionarySerdeTest {
+
+	private static final String TOPIC = "sample.batch.topic";
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private final Random random = new Random(42);
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void sendsUncompressedUntilDictionaryExists() {
+		ZstdDictionarySerializer serializer = new ZstdDictionarySerializer(dictionaries(), null, registry);
+		ZstdDictionaryDeserializer deserializer = new ZstdDictionaryDeserializer(dictionaries(), registry);
+		byte[] message = message();
+		RecordHeaders headers = new RecordHeaders();
+
+		byte[] sent = serializer.serialize(TOPIC, headers, message);
+
+		assertThat(sent).isSameAs(message);
+		assertThat(headers.lastHeader(ZstdDictionaries.HEADER)).isNull();
+		assertThat(deserializer.deserialize(TOPIC, headers, sent)).isSameAs(message);
+	}
+
+	@Test
+	void compressesWithTrainedDictionaryAndRecordsVersion() {
+		ZstdDictionaries producerDictionaries = dictionaries();
+		producerDictionaries.add(train());
+		ZstdDictionarySerializer serializer = new ZstdDictionarySerializer(producerDictionaries, null, registry);
+		ZstdDictionaryDeserializer deserializer = new ZstdDictionaryDeserializer(dictionaries(), registry);
+		byte[] message = message();
+		RecordHeaders headers = new RecordHeaders();
+
+		byte[] sent = serializer.serialize(TOPIC, headers, message);
+
+		assertThat(new String(headers.lastHeader(ZstdDictionaries.HEADER).value(), StandardCharsets.UTF_8)).isEqualTo("1");
+		assertThat(sent.length).isLessThan(message.length / 2);
+		assertThat(deserializer.deserialize(TOPIC, headers, sent)).isEqualTo(message);
+		assertThat(registry.get("custom-kafka-compression-ratio").summary().mean()).isGreaterThan(2);
+		assertThat(registry.get("custom-kafka-compression-decode").timer().count()).isEqualTo(1);
+	}
+
+	@Test
+	void sendsUncompressedWithoutHeaders() {
+		ZstdDictionaries producerDictionaries = dictionaries();
+		producerDictionaries.add(train());
+		ZstdDictionarySerializer serializer = new ZstdDictionarySerializer(producerDictionaries, null, registry);
+		ZstdDictionaryDeserializer deserializer = new ZstdDictionaryDeserializer(dictionaries(), registry);
+		byte[] message = message();
+
+		// 사전 버전을 기록할 헤더가 없으므로 사전이 있어도 압축하지 않음
+		byte[] sent = serializer.serialize(TOPIC, message);
+
+		assertThat(sent).isEqualTo(message);
+		assertThat(deserializer.deserialize(TOPIC, sent)).isEqualTo(message);
+		assertThat(deserializer.deserialize(TOPIC, new RecordHeaders(), sent)).isEqualTo(message);
+		assertThat(registry.get("custom-kafka-compression-encode").timer().count()).isZero();
+	}
+
+	@Test
+	void reusesCompressedBytesForSamePayloadAcrossTopics() {
+		ZstdDictionaries producerDictionaries = dictionaries();
+		producerDictionaries.add(train());
+		ZstdDictionarySerializer serializer = new ZstdDictionarySerializer(producerDictionaries, null, registry);
+		byte[] message = message();
+		RecordHeaders batchHeaders = new RecordHeaders();
+		RecordHeaders recordHeaders = new RecordHeaders();
+
+		byte[] batch = serializer.serialize(TOPIC, batchHeaders, message);
+		byte[] record = serializer.serialize("sample.record.topic", recordHeaders, message);
+
+		// fan-out 전송은 같은 본문 배열을 쓰므로 한 번만 압축하고 두 레코드 모두 사전 버전을 기록
+		assertThat(record).isSameAs(batch);
+		assertThat(recordHeaders.lastHeader(ZstdDictionaries.HEADER).value())
+				.isEqualTo(batchHeaders.lastHeader(ZstdDictionaries.HEADER).value());
+		assertThat(registry.get("custom-kafka-compression-encode").timer().count()).isEqualTo(1);
+
+		// 내용이 같아도 다른 배열이면 새로 압축
+		assertThat(serializer.serialize(TOPIC, new RecordHeaders(), message.clone())).isNotSameAs(batch);
+	}
+
+	@Test
+	void decodesOlderVersionsAfterRetrain() {
+		ZstdDictionaries producerDictionaries = dictionaries();
+		ZstdDictionaries consumerDictionaries = dictionaries();
+		ZstdDictionarySerializer serializer = new ZstdDictionarySerializer(producerDictionaries, null, registry);
+		ZstdDictionaryDeserializer deserializer = new ZstdDictionaryDeserializer(consumerDictionaries, registry);
+		byte[] message = message();
+
+		producerDictionaries.add(train());
+		RecordHeaders oldHeaders = new RecordHeaders();
+		byte[] old = serializer.serialize(TOPIC, oldHeaders, message);
+		producerDictionaries.add(train());
+		RecordHeaders newHeaders = new RecordHeaders();
+		byte[] current = serializer.serialize(TOPIC, newHeaders, message);
+
+		// 컨슈머는 시작 후에 생긴 두 버전을 처음 보는 헤더에서 디렉터리를 다시 읽어 가져옴
+		assertThat(new String(newHeaders.lastHeader(ZstdDictionaries.HEADER).value(), StandardCharsets.UTF_8)).isEqualTo("2");
+		assertThat(deserializer.deserialize(TOPIC, newHeaders, current)).isEqualTo(message);
+		assertThat(deserializer.deserialize(TOPIC, oldHeaders, old)).isEqualTo(message);
+	}
+
+	@Test
+	void rejectsUnknownDictionaryVersion() {
+		ZstdDictionaryDeserializer deserializer = new ZstdDictionaryDeserializer(dictionaries(), registry);
+		RecordHeaders headers = new RecordHeaders();
+		headers.add(ZstdDictionaries.HEADER, "7".getBytes(StandardCharsets.UTF_8));
+
+		assertThatThrownBy(() -> deserializer.deserialize(TOPIC, headers, message()))
+				.isInstanceOf(SerializationException.class)
+				.hasRootCauseMessage("Unknown zstd dictionary version 7 (not found in " + directory + ")");
+	}
+
+	@Test
+	void trainerActivatesDictionaryOnceSampleBufferIsFull() {
+		ZstdDictionaries dictionaries = dictionaries();
+		CompressionProperties.Training training = new CompressionProperties.Training();
+		training.setSampleEvery(2);
+		training.setSampleBytes(DataSize.ofKilobytes(64));
+		training.setDictionarySize(DataSize.ofKilobytes(4));
+		training.setRetrainInterval(Duration.ofHours(1));
+		DictionaryTrainer trainer = new DictionaryTrainer(dictionaries, training, registry);
+		ZstdDictionarySerializer serializer = new ZstdDictionarySerializer(dictionaries, trainer, registry);
+
+		try {
+			while (dictionaries.active() == null) {
+				serializer.serialize(TOPIC, new RecordHeaders(), message());
+				if (trainer.isTraining()) {
+					await().atMost(10, TimeUnit.SECONDS).until(() -> !trainer.isTraining());
+				}
+			}
+		} finally {
+			trainer.destroy();
+		}
+
+		RecordHeaders headers = new RecordHeaders();
+		serializer.serialize(TOPIC, headers, message());
+		assertThat(headers.lastHeader(ZstdDictionaries.HEADER)).isNotNull();
+		assertThat(directory.resolve("1.dict")).exists();
+		assertThat(registry.get("custom-kafka-compression-dictionary-trained").counter().count()).isEqualTo(1);
+	}
+
+	private ZstdDictionaries dictionaries() {
+		ZstdDictionaries dictionaries = new ZstdDictionaries(directory, 3);
+		dictionaries.load();
+		return dictionaries;
+	}
+
+	private byte[] train() {
+		ZstdDictTrainer trainer = new ZstdDictTrainer(64 * 1024, 4 * 1024);
+		while (trainer.addSample(message())) {
+			// 버퍼가 찰 때까지 표본 추가
+		}
+		return trainer.trainSamples();
+	}
+
+	/**
+	 * /putdata 요청과 같은 구조에 값만 다른 메시지
+	 */
+	private byte[] message() {
+		return ("{\"key\":\"user-" + random.nextInt(10_000) + "\",\"name\":\"김철수\",\"age\":" + (20 + random.nextInt(50))
+				+ ",\"email\":\"chulsoo.kim@example.com\",\"address\":{\"city\":\"서울\",\"district\":\"강남구\",\"zip\":\"06236\"}"
+				+ ",\"orders\":[{\"orderId\":\"ORD-" + (100_000 + random.nextInt(900_000)) + "\",\"sku\":\"SKU-" + random.nextInt(100_000)
+				+ "\",\"qty\":" + (1 + random.nextInt(9)) + ",\"price\":" + random.nextInt(100_000) + ".5,\"tags\":[\"express\",\"gift\"]}]"
+				+ ",\"api_tran_id\":\"0199ef3a-6c2b-7a41-9d3e-" + String.format("%012x", random.nextLong() & 0xffffffffffffL) + "\"}")
+				.getBytes(StandardCharsets.UTF_8);
+	}
+}
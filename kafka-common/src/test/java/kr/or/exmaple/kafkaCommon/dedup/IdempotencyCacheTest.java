@@ -0,0 +1,116 @@
+package kr.or.exmaple.kafkaCommon.dedup;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyCacheTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private final AtomicLong clock = new AtomicLong();
+
+	@Test
+	void detectsDuplicateInRecentWindow() {
+		IdempotencyCache cache = cache(properties());
+
+		assertThat(cache.isDuplicate("tran-1")).isFalse();
+		assertThat(cache.isDuplicate("tran-2")).isFalse();
+		assertThat(cache.isDuplicate("tran-1")).isTrue();
+
+		assertThat(registry.get("custom-kafka-dedup-miss").counter().count()).isEqualTo(2);
+		assertThat(registry.get("custom-kafka-dedup-hit").tag("source", "window").counter().count()).isEqualTo(1);
+		assertThat(registry.get("custom-kafka-dedup-window-size").gauge().value()).isEqualTo(2);
+	}
+
+	@Test
+	void remembersIdsEvictedFromWindowInBloomFilter() {
+		DedupProperties properties = properties();
+		properties.setMaxWindowEntries(2);
+		IdempotencyCache cache = cache(properties);
+
+		cache.isDuplicate("tran-1");
+		cache.isDuplicate("tran-2");
+		cache.isDuplicate("tran-3");
+
+		assertThat(cache.windowSize()).isEqualTo(2);
+		assertThat(cache.isDuplicate("tran-1")).isTrue();
+		assertThat(registry.get("custom-kafka-dedup-eviction").tag("reason", "size").counter().count()).isEqualTo(1);
+		assertThat(registry.get("custom-kafka-dedup-hit").tag("source", "bloom").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void expiresWindowAndForgetsAfterTwoBloomGenerations() {
+		IdempotencyCache cache = cache(properties());
+		cache.isDuplicate("tran-1");
+
+		clock.addAndGet(Duration.ofMinutes(6).toNanos());
+		assertThat(cache.isDuplicate("tran-1")).isTrue();
+		assertThat(cache.windowSize()).isZero();
+		assertThat(registry.get("custom-kafka-dedup-eviction").tag("reason", "expired").counter().count()).isEqualTo(1);
+
+		clock.addAndGet(Duration.ofHours(1).toNanos());
+		assertThat(cache.isDuplicate("tran-1")).isTrue();
+		clock.addAndGet(Duration.ofHours(1).toNanos());
+		assertThat(cache.isDuplicate("tran-1")).isFalse();
+		assertThat(registry.get("custom-kafka-dedup-bloom-rotation").counter().count()).isEqualTo(2);
+	}
+
+	@Test
+	void forgetsIdsStillInWindow() {
+		IdempotencyCache cache = cache(properties());
+
+		assertThat(cache.isDuplicate("tran-1")).isFalse();
+		cache.forget("tran-1");
+		assertThat(cache.isDuplicate("tran-1")).isFalse();
+		assertThat(cache.isDuplicate("tran-1")).isTrue();
+	}
+
+	@Test
+	void keepsFalsePositivesWithinBudget() {
+		DedupProperties properties = properties();
+		properties.setMaxWindowEntries(0);
+		properties.setBloomExpectedInsertions(50_000);
+		properties.setFalsePositiveRate(0.01);
+		IdempotencyCache cache = cache(properties);
+
+		int falsePositives = 0;
+		for (int i = 0; i < 50_000; i++) {
+			if (cache.isDuplicate(UUID.randomUUID().toString())) {
+				falsePositives++;
+			}
+		}
+
+		// 필터가 가득 찬 시점의 오탐률이 설정값이므로, 채워가는 동안의 평균은 그보다 낮아야 함
+		assertThat(falsePositives).isLessThan(500);
+	}
+
+	@Test
+	void treatsEverythingAsNewWhenDisabledOrIdMissing() {
+		DedupProperties properties = properties();
+		properties.setEnabled(false);
+		IdempotencyCache disabled = cache(properties);
+
+		assertThat(disabled.isDuplicate("tran-1")).isFalse();
+		assertThat(disabled.isDuplicate("tran-1")).isFalse();
+		assertThat(cache(properties()).isDuplicate(null)).isFalse();
+	}
+
+	private IdempotencyCache cache(DedupProperties properties) {
+		return new IdempotencyCache(properties, registry, clock::get);
+	}
+
+	private static DedupProperties properties() {
+		DedupProperties properties = new DedupProperties();
+		properties.setEnabled(true);
+		properties.setWindow(Duration.ofMinutes(5));
+		properties.setBloomPeriod(Duration.ofHours(1));
+		properties.setBloomExpectedInsertions(10_000);
+		return properties;
+	}
+}
@@ -0,0 +1,100 @@
+package kr.or.exmaple.kafkaCommon.header;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.mock.MockProducerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HeaderRecordFilterTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private final MockProducer<Object, Object> producer = new MockProducer(true, new StringSerializer(), new ByteArraySerializer());
+
+	@Test
+	void dropsMatchingRecordsAndKeepsOthers() {
+		HeaderRecordFilter filter = filter(rule(MessageHeaders.KEY, HeaderFilterProperties.Action.DROP, "load-test", "smoke-test"));
+		ConsumerRecord<Object, Object> test = record(0, MessageHeaders.header(MessageHeaders.KEY, "smoke-test"));
+		ConsumerRecord<Object, Object> user = record(1, MessageHeaders.header(MessageHeaders.KEY, "user-1"));
+		ConsumerRecord<Object, Object> unkeyed = record(2);
+
+		assertThat(filter.filterBatch(List.of(test, user, unkeyed))).containsExactly(user, unkeyed);
+		assertThat(meterRegistry.get("custom-kafka-filter-matched").tag("action", "drop").counter().count()).isEqualTo(1);
+
+		// 걸러진 레코드가 없으면 복사하지 않고 그대로 전달
+		List<ConsumerRecord<Object, Object>> untouched = List.of(user, unkeyed);
+		assertThat(filter.filterBatch(untouched)).isSameAs(untouched);
+	}
+
+	@Test
+	void routesRecordsWithKeyValueAndHeaders() {
+		HeaderFilterProperties.Rule rule = rule(MessageHeaders.CONTENT_TYPE, HeaderFilterProperties.Action.ROUTE, "application/cbor");
+		rule.setTopic("sample.cbor.topic");
+		HeaderRecordFilter filter = filter(rule);
+		ConsumerRecord<Object, Object> cbor = record(0, MessageHeaders.header(MessageHeaders.CONTENT_TYPE, "application/cbor"),
+				MessageHeaders.header(MessageHeaders.API_TRAN_ID, "tran-1"));
+
+		assertThat(filter.filter(cbor)).isTrue();
+
+		ProducerRecord<Object, Object> routed = producer.history().get(0);
+		assertThat(routed.topic()).isEqualTo("sample.cbor.topic");
+		assertThat(routed.key()).isEqualTo(cbor.key());
+		assertThat(routed.value()).isSameAs(cbor.value());
+		assertThat(MessageHeaders.text(routed.headers(), MessageHeaders.API_TRAN_ID)).isEqualTo("tran-1");
+	}
+
+	@Test
+	void negatedRuleMatchesOtherValuesAndMissingHeader() {
+		HeaderFilterProperties.Rule rule = rule(MessageHeaders.CONTENT_TYPE, HeaderFilterProperties.Action.DROP, "application/json");
+		rule.setNegate(true);
+		HeaderRecordFilter filter = filter(rule);
+
+		assertThat(filter.filter(record(0, MessageHeaders.header(MessageHeaders.CONTENT_TYPE, "application/json")))).isFalse();
+		assertThat(filter.filter(record(1, MessageHeaders.header(MessageHeaders.CONTENT_TYPE, "application/cbor")))).isTrue();
+		assertThat(filter.filter(record(2))).isTrue();
+	}
+
+	@Test
+	void rejectsInvalidRules() {
+		HeaderFilterProperties.Rule route = rule(MessageHeaders.KEY, HeaderFilterProperties.Action.ROUTE);
+
+		assertThatThrownBy(() -> filter(route)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> filter(rule(" ", HeaderFilterProperties.Action.DROP)))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private HeaderRecordFilter filter(HeaderFilterProperties.Rule... rules) {
+		HeaderFilterProperties properties = new HeaderFilterProperties();
+		properties.setRules(List.of(rules));
+		return new HeaderRecordFilter(properties, new MockProducerFactory<>(() -> producer), meterRegistry);
+	}
+
+	private static HeaderFilterProperties.Rule rule(String header, HeaderFilterProperties.Action action, String... values) {
+		HeaderFilterProperties.Rule rule = new HeaderFilterProperties.Rule();
+		rule.setHeader(header);
+		rule.setAction(action);
+		rule.setValues(List.of(values));
+		return rule;
+	}
+
+	private static ConsumerRecord<Object, Object> record(long offset, Header... headers) {
+		return new ConsumerRecord<>("sample.batch.topic", 0, offset, ConsumerRecord.NO_TIMESTAMP, TimestampType.NO_TIMESTAMP_TYPE,
+				ConsumerRecord.NULL_SIZE, ConsumerRecord.NULL_SIZE, "key-" + offset,
+				("{\"offset\":" + offset + "}").getBytes(StandardCharsets.UTF_8), new RecordHeaders(headers), Optional.empty());
+	}
+}
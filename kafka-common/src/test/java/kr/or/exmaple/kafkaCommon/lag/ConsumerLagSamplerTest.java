@@ -0,0 +1,79 @@
+package kr.or.exmaple.kafkaCommon.lag;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConsumerLagSamplerTest {
+
+	private static final TopicPartition PARTITION = new TopicPartition("sample.batch.topic", 0);
+
+	private static final long SECOND = Duration.ofSeconds(1).toNanos();
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private final ConsumerLagReader reader = new ConsumerLagReader(Map::of, Duration.ofSeconds(1));
+
+	private ConsumerLagSampler sampler;
+
+	@AfterEach
+	void tearDown() {
+		sampler.destroy();
+		reader.destroy();
+	}
+
+	@Test
+	void estimatesDrainTimeFromCommitRate() {
+		sampler = sampler();
+
+		// 첫 조회는 처리 속도를 모름
+		sampler.update("sample-consumer", Map.of(PARTITION, new ConsumerLagReader.PartitionLag(1_000, 3_000)), 0);
+		assertThat(gauge("custom-kafka-consumer-lag")).isEqualTo(2_000);
+		assertThat(gauge("custom-kafka-consumer-lag-drain")).isNaN();
+
+		// 10초에 1,000건 커밋 → 초당 100건, lag 1,500 → 15초
+		sampler.update("sample-consumer", Map.of(PARTITION, new ConsumerLagReader.PartitionLag(2_000, 3_500)), 10 * SECOND);
+		assertThat(gauge("custom-kafka-consumer-lag")).isEqualTo(1_500);
+		assertThat(gauge("custom-kafka-consumer-lag-drain")).isEqualTo(15);
+
+		// 커밋이 계속 멈추면 속도가 0에 가까워져 소진 예상 시간이 늘어남
+		for (int i = 2; i < 100; i++) {
+			sampler.update("sample-consumer", Map.of(PARTITION, new ConsumerLagReader.PartitionLag(2_000, 3_500)), i * 10 * SECOND);
+		}
+		assertThat(gauge("custom-kafka-consumer-lag-drain")).isGreaterThan(3_600);
+
+		sampler.update("sample-consumer", Map.of(PARTITION, new ConsumerLagReader.PartitionLag(3_500, 3_500)), 1_000 * SECOND);
+		assertThat(gauge("custom-kafka-consumer-lag-drain")).isZero();
+	}
+
+	@Test
+	void treatsUncommittedPartitionAsNoLag() {
+		sampler = sampler();
+
+		sampler.update("sample-consumer", Map.of(PARTITION, new ConsumerLagReader.PartitionLag(-1, 500)), 0);
+
+		assertThat(gauge("custom-kafka-consumer-lag")).isZero();
+		assertThat(gauge("custom-kafka-consumer-lag-drain")).isZero();
+	}
+
+	private ConsumerLagSampler sampler() {
+		LagProperties properties = new LagProperties();
+		properties.setInterval(Duration.ofHours(1));
+		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+		return new ConsumerLagSampler(reader, beanFactory.getBeanProvider(KafkaListenerEndpointRegistry.class), properties, registry);
+	}
+
+	private double gauge(String name) {
+		return registry.get(name)
+				.tag("group", "sample-consumer").tag("topic", PARTITION.topic()).tag("partition", "0")
+				.gauge().value();
+	}
+}
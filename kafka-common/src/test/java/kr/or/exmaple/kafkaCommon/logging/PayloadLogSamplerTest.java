@@ -0,0 +1,53 @@
+package kr.or.exmaple.kafkaCommon.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PayloadLogSamplerTest {
+
+	@Test
+	void limitsPayloadLogsPerSecond() {
+		PayloadLogProperties properties = new PayloadLogProperties();
+		properties.setMaxPerSecond(5);
+		PayloadLogSampler sampler = new PayloadLogSampler(properties);
+
+		int sampled = 0;
+		for (int i = 0; i < 100; i++) {
+			if (sampler.sample()) {
+				sampled++;
+			}
+		}
+
+		// 반복 중 1초 경계를 넘으면 다음 구간 허용분이 더해질 수 있음
+		assertThat(sampled).isBetween(5, 10);
+	}
+
+	@Test
+	void disabledOrUnlimited() {
+		PayloadLogProperties properties = new PayloadLogProperties();
+		properties.setEnabled(false);
+		assertThat(new PayloadLogSampler(properties).sample()).isFalse();
+
+		properties.setEnabled(true);
+		properties.setMaxPerSecond(0);
+		PayloadLogSampler unlimited = new PayloadLogSampler(properties);
+		for (int i = 0; i < 1000; i++) {
+			assertThat(unlimited.sample()).isTrue();
+		}
+	}
+
+	@Test
+	void truncatesPreview() {
+		PayloadLogProperties properties = new PayloadLogProperties();
+		properties.setMaxLength(8);
+		PayloadLogSampler sampler = new PayloadLogSampler(properties);
+
+		assertThat(sampler.preview("short").toString()).isEqualTo("short");
+		assertThat(sampler.preview("0123456789abcdef").toString()).isEqualTo("01234567...(16 chars)");
+		assertThat(sampler.preview("0123456789".getBytes(StandardCharsets.UTF_8)).toString()).isEqualTo("01234567...(10 bytes)");
+		assertThat(sampler.preview(null).toString()).isEqualTo("null");
+	}
+}
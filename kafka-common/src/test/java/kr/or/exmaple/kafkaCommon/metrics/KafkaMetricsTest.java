@@ -0,0 +1,76 @@
+package kr.or.exmaple.kafkaCommon.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.or.exmaple.kafkaCommon.header.MessageHeaders;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KafkaMetricsTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	@Test
+	void preRegistersConfiguredTopics() {
+		KafkaMetricsProperties properties = new KafkaMetricsProperties();
+		properties.setProducerTopics(List.of("sample.batch.topic"));
+		properties.setConsumerTopics(List.of("sample.record.topic"));
+
+		new KafkaMetrics(registry, properties);
+
+		assertThat(registry.find("custom-kafka-produce").tag("topic", "sample.batch.topic").counter()).isNotNull();
+		assertThat(registry.find("custom-kafka-send-ack").tag("topic", "sample.batch.topic").timer()).isNotNull();
+		assertThat(registry.find("custom-kafka-consume").tag("topic", "sample.record.topic").counter()).isNotNull();
+		assertThat(registry.find("custom-kafka-parse").tag("topic", "sample.record.topic").timer()).isNotNull();
+		assertThat(registry.find("custom-kafka-consume").tag("topic", "sample.batch.topic").counter()).isNull();
+	}
+
+	@Test
+	void returnsSameMetersForTopic() {
+		KafkaMetrics metrics = new KafkaMetrics(registry, new KafkaMetricsProperties());
+
+		ConsumerMeters meters = metrics.consumer("sample.batch.topic");
+		meters.consumed().increment(3);
+		meters.recordParse(System.nanoTime());
+
+		assertThat(metrics.consumer("sample.batch.topic")).isSameAs(meters);
+		assertThat(registry.get("custom-kafka-consume").tag("topic", "sample.batch.topic").counter().count()).isEqualTo(3);
+		assertThat(registry.get("custom-kafka-parse").tag("topic", "sample.batch.topic").timer().count()).isEqualTo(1);
+	}
+
+	@Test
+	void recordsPartitionLatencyFromProducedAtHeader() {
+		KafkaMetrics metrics = new KafkaMetrics(registry, new KafkaMetricsProperties());
+		long producedAt = MessageHeaders.currentTimeMicros();
+		ConsumerRecord<String, byte[]> stamped = record(producedAt - 1_000_000);
+		stamped.headers().add(MessageHeaders.header(MessageHeaders.PRODUCED_AT_MICROS, Long.toString(producedAt - 2_500)));
+		ConsumerRecord<String, byte[]> unstamped = record(producedAt / 1_000 - 40);
+
+		PartitionMeters meters = metrics.partition("sample.record.topic", 2);
+		meters.recordProduceToConsume(stamped, producedAt);
+		meters.recordProduceToConsume(unstamped, producedAt);
+		meters.recordConsumeToProcessed(System.nanoTime());
+
+		// 헤더가 있으면 마이크로초 헤더, 없으면 레코드 timestamp(밀리초) 기준
+		Timer produceToConsume = registry.get("custom-kafka-produce-to-consume")
+				.tag("topic", "sample.record.topic").tag("partition", "2").timer();
+		assertThat(metrics.partition("sample.record.topic", 2)).isSameAs(meters);
+		assertThat(produceToConsume.count()).isEqualTo(2);
+		assertThat(produceToConsume.max(TimeUnit.MICROSECONDS)).isBetween(40_000.0, 41_000.0);
+		assertThat(produceToConsume.totalTime(TimeUnit.MICROSECONDS) - produceToConsume.max(TimeUnit.MICROSECONDS)).isEqualTo(2_500);
+		assertThat(registry.get("custom-kafka-consume-to-processed").tag("partition", "2").timer().count()).isEqualTo(1);
+	}
+
+	private static ConsumerRecord<String, byte[]> record(long timestampMillis) {
+		return new ConsumerRecord<>("sample.record.topic", 2, 0, timestampMillis, TimestampType.CREATE_TIME, 0, 0,
+				"key", new byte[0], new RecordHeaders(), Optional.empty());
+	}
+}
@@ -0,0 +1,141 @@
+package kr.or.exmaple.kafkaCommon.retry;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.or.exmaple.kafkaCommon.compression.ZstdDictionaries;
+import kr.or.exmaple.kafkaCommon.header.MessageHeaders;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.mock.MockProducerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FailedRecordPublisherTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	/**
+	 * KafkaTemplate이 전송마다 닫는 프로듀서를 여러 번 쓰기 위해 close를 무시 (DefaultKafkaProducerFactory의 프로듀서와 같음)
+	 */
+	private final MockProducer<String, byte[]> producer = new MockProducer<>(true, new StringSerializer(), new ByteArraySerializer()) {
+		@Override
+		public void close(Duration timeout) {
+		}
+	};
+
+	private final RetryTopics retryTopics = new RetryTopics(List.of("sample.topic"), List.of(Duration.ofSeconds(1), Duration.ofSeconds(10)));
+
+	private final FailedRecordPublisher publisher = new FailedRecordPublisher(retryTopics,
+			new MockProducerFactory<>(() -> producer), 8, Duration.ofSeconds(5), meterRegistry);
+
+	@Test
+	void walksRetryTiersThenDeadLetterKeepingOriginalPosition() {
+		ConsumerRecord<String, byte[]> record = record("sample.topic", 2, 42,
+				MessageHeaders.header(MessageHeaders.API_TRAN_ID, "tran-1"),
+				MessageHeaders.header(ZstdDictionaries.HEADER, "3"));
+
+		long before = System.currentTimeMillis();
+		assertThat(publisher.publish(record, new IllegalStateException("database unavailable"), true)).isEqualTo("sample.topic.retry.0");
+		ProducerRecord<String, byte[]> first = producer.history().get(0);
+		assertThat(first.key()).isEqualTo("user-1");
+		assertThat(first.value()).isSameAs(record.value());
+		assertThat(text(first, RetryHeaders.ORIGINAL_TOPIC)).isEqualTo("sample.topic");
+		assertThat(text(first, RetryHeaders.ORIGINAL_PARTITION)).isEqualTo("2");
+		assertThat(text(first, RetryHeaders.ORIGINAL_OFFSET)).isEqualTo("42");
+		assertThat(text(first, RetryHeaders.RETRY_ATTEMPT)).isEqualTo("1");
+		assertThat(RetryHeaders.dueAt(first.headers())).isGreaterThanOrEqualTo(before + 1000);
+		assertThat(text(first, RetryHeaders.FAILURE_EXCEPTION)).isEqualTo(IllegalStateException.class.getName());
+		// 최대 길이(8)로 자름
+		assertThat(text(first, RetryHeaders.FAILURE_REASON)).isEqualTo("database");
+		assertThat(text(first, MessageHeaders.API_TRAN_ID)).isEqualTo("tran-1");
+		// 본문은 이미 해제되었으므로 압축 사전 헤더는 빠짐
+		assertThat(first.headers().lastHeader(ZstdDictionaries.HEADER)).isNull();
+
+		// 재시도 토픽에서 다시 실패하면 다음 단계, 단계를 모두 거치면 DLT (처음 위치는 그대로)
+		ConsumerRecord<String, byte[]> retried = record("sample.topic.retry.0", 0, 7, first.headers().toArray());
+		assertThat(RetryHeaders.isRedelivery(retried)).isTrue();
+		assertThat(publisher.publish(retried, new IllegalStateException("timeout"), true)).isEqualTo("sample.topic.retry.1");
+		ProducerRecord<String, byte[]> second = producer.history().get(1);
+		assertThat(text(second, RetryHeaders.RETRY_ATTEMPT)).isEqualTo("2");
+		assertThat(text(second, RetryHeaders.FAILURE_REASON)).isEqualTo("timeout");
+		assertThat(second.headers().headers(RetryHeaders.ORIGINAL_OFFSET)).hasSize(1);
+
+		ConsumerRecord<String, byte[]> last = record("sample.topic.retry.1", 1, 3, second.headers().toArray());
+		assertThat(publisher.publish(last, new IllegalStateException("timeout"), true)).isEqualTo("sample.topic.dlt");
+		ProducerRecord<String, byte[]> dead = producer.history().get(2);
+		assertThat(text(dead, RetryHeaders.ORIGINAL_TOPIC)).isEqualTo("sample.topic");
+		assertThat(text(dead, RetryHeaders.ORIGINAL_OFFSET)).isEqualTo("42");
+		assertThat(dead.headers().lastHeader(RetryHeaders.RETRY_DUE_AT)).isNull();
+
+		assertThat(meterRegistry.get("custom-kafka-failed-records").tag("destination", "sample.topic.dlt").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void preRegistersCountersForConfiguredTopics() {
+		assertThat(meterRegistry.get("custom-kafka-failed-records").tag("topic", "sample.topic").counters()).hasSize(3);
+		assertThat(meterRegistry.get("custom-kafka-failed-records").tag("destination", "sample.topic.retry.1").counter().count()).isZero();
+	}
+
+	@Test
+	void failsInsteadOfBlockingWhenTheBrokerDoesNotAnswer() {
+		MockProducer<String, byte[]> unanswered = new MockProducer<>(false, new StringSerializer(), new ByteArraySerializer()) {
+			@Override
+			public void close(Duration timeout) {
+			}
+		};
+		FailedRecordPublisher timingOut = new FailedRecordPublisher(retryTopics, new MockProducerFactory<>(() -> unanswered), 8,
+				Duration.ofMillis(50), meterRegistry);
+
+		assertThatThrownBy(() -> timingOut.publish(record("sample.topic", 0, 5), new IllegalStateException("timeout"), true))
+				.isInstanceOf(KafkaException.class)
+				.hasCauseInstanceOf(TimeoutException.class);
+	}
+
+	@Test
+	void sendsNonRetryableFailuresStraightToDeadLetter() {
+		ConsumerRecord<String, byte[]> record = record("sample.topic", 0, 5);
+
+		assertThat(publisher.publish(record, new JsonParseException(null, "Unexpected character"), false)).isEqualTo("sample.topic.dlt");
+		assertThat(text(producer.history().get(0), RetryHeaders.RETRY_ATTEMPT)).isEqualTo("0");
+	}
+
+	@Test
+	void rejectsRecordsBeforeTheirDueTime() {
+		RecordHeaders headers = new RecordHeaders();
+		headers.add(MessageHeaders.header(RetryHeaders.RETRY_DUE_AT, "10000"));
+		ConsumerRecord<String, byte[]> record = record("sample.topic.retry.0", 1, 9, headers.toArray());
+
+		assertThatThrownBy(() -> retryTopics.checkDue(record, 9000))
+				.isInstanceOfSatisfying(RetryNotDueException.class, e -> {
+					assertThat(e.getPartition().partition()).isEqualTo(1);
+					assertThat(e.getRemainingMillis()).isEqualTo(1000);
+				});
+		retryTopics.checkDue(record, 10000);
+		// retry-due-at 헤더가 없는 레코드는 바로 처리
+		retryTopics.checkDue(record("sample.topic.retry.0", 1, 10), 0);
+	}
+
+	private static ConsumerRecord<String, byte[]> record(String topic, int partition, long offset, Header... headers) {
+		return new ConsumerRecord<>(topic, partition, offset, 0L, TimestampType.CREATE_TIME, 0, 0, "user-1",
+				"{\"api_tran_id\":\"tran-1\"}".getBytes(StandardCharsets.UTF_8), new RecordHeaders(headers), Optional.empty());
+	}
+
+	private static String text(ProducerRecord<String, byte[]> record, String name) {
+		return MessageHeaders.text(record.headers(), name);
+	}
+}
@@ -11,7 +11,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * 
  * 주요 특징:
  * - 배치 처리: 여러 메시지를 List로 한 번에 받아서 처리
- * - max.poll.records: 10 설정으로 최대 10개 메시지씩 배치 처리
+ * - max.poll.records: 10 (app.consumer.adaptive 사용 시 lag에 따라 배치 크기 자동 조정)
  * - Consumer Group: sample-consumer
  * - 토픽: sample.batch.topic
  * - JSON 메시지 파싱 및 로깅
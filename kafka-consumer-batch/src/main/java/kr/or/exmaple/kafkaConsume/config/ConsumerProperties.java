@@ -0,0 +1,237 @@
+package kr.or.exmaple.kafkaConsume.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 컨슈머 애플리케이션 설정
+ * 
+ * application.yml의 app.consumer 하위 설정을 바인딩합니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@ConfigurationProperties(prefix = "app.consumer")
+@Getter
+@Setter
+public class ConsumerProperties {
+
+    /**
+     * 메시지 본문 파싱 방식
+     * 
+     * 리스너는 항상 ByteArrayDeserializer로 받은 byte[]를 전달받으며,
+     * 이 설정에 따라 MessageReceiveService의 파싱 방식이 달라집니다.
+     * 부하 상황에서 두 방식을 A/B 비교할 수 있도록 설정으로 전환합니다.
+     */
+    private PayloadMode payloadMode = PayloadMode.BYTES;
+
+    /**
+     * 메시지 본문에서 필드를 읽는 방식
+     */
+    private ParseMode parseMode = ParseMode.PROJECTION;
+
+    /**
+     * parse-mode: projection에서 읽을 필드 경로 (하위 객체의 필드는 점으로 연결, 예: address.city)
+     * 중복 판정에 사용하는 api_tran_id는 선언하지 않아도 항상 포함됨
+     */
+    private List<String> projectionFields = List.of("api_tran_id", "key");
+
+    /**
+     * 폴링한 배치를 처리하는 방식
+     */
+    private DispatchMode dispatchMode = DispatchMode.SEQUENTIAL;
+
+    /**
+     * 비동기 처리 방식에서 새 레코드가 없을 때 완료된 offset을 커밋하는 주기
+     * (리스너 컨테이너의 idle 이벤트 주기로 사용)
+     */
+    private Duration commitInterval = Duration.ofSeconds(1);
+
+    /**
+     * 비동기 처리 방식에서 파티션 회수(rebalance) 시 처리 중인 레코드의 완료를 기다리는 최대 시간
+     */
+    private Duration revokeTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Key 순서 보장 병렬 처리(dispatch-mode: key-ordered) 설정
+     */
+    private Parallel parallel = new Parallel();
+
+    /**
+     * 링 버퍼 파이프라인 처리(dispatch-mode: ring-buffer) 설정
+     */
+    private RingBuffer ringBuffer = new RingBuffer();
+
+    /**
+     * lag 기반 배치 크기 자동 조정 설정
+     */
+    private Adaptive adaptive = new Adaptive();
+
+    /**
+     * 메시지 본문 파싱 방식
+     */
+    public enum PayloadMode {
+
+        /**
+         * UTF-8 문자열로 디코딩한 뒤 파싱 (기존 StringDeserializer와 동일한 비용)
+         */
+        STRING,
+
+        /**
+         * 문자열 디코딩 없이 byte[]에서 바로 파싱
+         */
+        BYTES
+    }
+
+    /**
+     * 메시지 본문에서 필드를 읽는 방식
+     */
+    public enum ParseMode {
+
+        /**
+         * 본문 전체를 JsonNode 트리로 파싱 (readTree)
+         */
+        TREE,
+
+        /**
+         * projection-fields에 선언한 필드만 스트리밍 파서로 읽고 나머지는 건너뜀 (FieldProjection)
+         */
+        PROJECTION
+    }
+
+    /**
+     * 폴링한 배치를 처리하는 방식
+     */
+    public enum DispatchMode {
+
+        /**
+         * 리스너 스레드에서 배치를 순서대로 처리 (기본)
+         */
+        SEQUENTIAL,
+
+        /**
+         * 워커 풀에서 병렬 처리하되 같은 Key의 레코드는 같은 레인(lane)에서 순서대로 처리
+         */
+        KEY_ORDERED,
+
+        /**
+         * 리스너 스레드는 레코드를 링 버퍼에 넣기만 하고 처리 스레드가 꺼내 처리
+         * (버퍼가 high-watermark를 넘으면 컨테이너를 일시 정지)
+         */
+        RING_BUFFER
+    }
+
+    /**
+     * Key 순서 보장 병렬 처리 설정
+     */
+    @Getter
+    @Setter
+    public static class Parallel {
+
+        /**
+         * 워커 스레드 수
+         * 가상 스레드 모드에서는 무시되며 레인마다 가상 스레드가 처리함
+         */
+        private int workers = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * 레인 수 - 같은 Key는 항상 같은 레인에 배정되어 순서대로 처리됨
+         * 워커 수보다 크게 잡으면 느린 Key 하나가 다른 Key를 막는 일이 줄어듦
+         */
+        private int lanes = 64;
+
+        /**
+         * 동시에 처리 중(완료되지 않은)일 수 있는 최대 레코드 수
+         * 도달하면 리스너 컨테이너를 일시 정지하여 새 레코드를 받지 않음 (backpressure, poll은 계속됨)
+         */
+        private int maxInFlight = 1000;
+
+        /**
+         * 일시 정지 후 처리 중인 레코드가 이 값 이하로 줄면 컨테이너 재개 (max-in-flight보다 작게)
+         */
+        private int resumeInFlight = 500;
+    }
+
+    /**
+     * 링 버퍼 파이프라인 처리 설정
+     */
+    @Getter
+    @Setter
+    public static class RingBuffer {
+
+        /**
+         * 링 버퍼 크기 (시작 시 미리 할당, 2의 거듭제곱으로 올림)
+         * high-watermark에 한 번의 poll 크기(max.poll.records)를 더한 값보다 커야
+         * 리스너 스레드가 빈 슬롯을 기다리지 않음
+         */
+        private int capacity = 4096;
+
+        /**
+         * 대기 레코드 수가 이 값 이상이면 리스너 컨테이너를 일시 정지 (poll은 계속되어 그룹에서 빠지지 않음)
+         */
+        private int highWatermark = 3072;
+
+        /**
+         * 일시 정지 후 대기 레코드 수가 이 값 이하로 줄면 재개
+         */
+        private int lowWatermark = 1024;
+
+        /**
+         * 버퍼에서 레코드를 꺼내 처리하는 스레드 수
+         * 2 이상이면 같은 파티션의 레코드도 동시에 처리되어 처리 순서가 offset 순서와 달라질 수 있음
+         */
+        private int workers = Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * lag 기반 배치 크기 자동 조정 설정
+     * 
+     * 한 번의 poll은 max.poll.records(= max-batch-size)까지 받고, 디스패처에는 현재 배치 크기씩 나눠서 넘기며
+     * 나눈 배치마다 커밋합니다. lag이 쌓이면 배치 크기를 키우고 poll 사이 대기를 없애 따라잡고,
+     * lag이 없으면 배치를 줄여 디스패처 호출 한 번의 처리 시간과 커밋 간격을 줄입니다.
+     */
+    @Getter
+    @Setter
+    public static class Adaptive {
+
+        /**
+         * 자동 조정 사용 여부 (false면 poll한 배치를 그대로 디스패처에 넘김)
+         */
+        private boolean enabled = false;
+
+        /**
+         * 배치 크기 하한 (lag이 없을 때의 크기)
+         */
+        private int minBatchSize = 10;
+
+        /**
+         * 배치 크기 상한 (spring.kafka.consumer.properties.max.poll.records와 같게 설정)
+         */
+        private int maxBatchSize = 500;
+
+        /**
+         * 이 값 이상의 lag(할당된 파티션 합계)을 따라잡는 중으로 판단
+         */
+        private long lagThreshold = 1000;
+
+        /**
+         * 배치 하나의 처리 시간 목표 - 레코드당 처리 시간으로 나눈 값을 넘지 않도록 배치 크기를 제한
+         * (max.poll.interval.ms보다 충분히 작게 유지)
+         */
+        private Duration targetBatchTime = Duration.ofMillis(500);
+
+        /**
+         * 따라잡는 중일 때의 poll 사이 대기 시간 (리스너 컨테이너의 idleBetweenPolls)
+         */
+        private Duration minFetchWait = Duration.ZERO;
+
+        /**
+         * lag이 없을 때의 poll 사이 대기 시간 - 적은 레코드를 자주 poll/커밋하지 않고 모아서 처리
+         * (지연 시간이 최대 이 값만큼 늘어나므로 0이면 대기하지 않음)
+         */
+        private Duration maxFetchWait = Duration.ofMillis(20);
+    }
+}
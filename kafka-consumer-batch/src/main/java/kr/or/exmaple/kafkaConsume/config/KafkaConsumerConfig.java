@@ -0,0 +1,95 @@
+package kr.or.exmaple.kafkaConsume.config;
+
+import kr.or.exmaple.kafkaCommon.codec.FieldProjection;
+import kr.or.exmaple.kafkaConsume.dispatch.BatchDispatcher;
+import kr.or.exmaple.kafkaConsume.service.MessageReceiveService;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ContainerCustomizer;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.kafka.listener.ContainerProperties;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Kafka 컨슈머 설정
+ * 
+ * 컨슈머 애플리케이션 설정(app.consumer)을 활성화합니다.
+ * Kafka 컨슈머 자체 설정은 application.yml의 spring.kafka.consumer를 사용합니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@Configuration
+@EnableConfigurationProperties(ConsumerProperties.class)
+public class KafkaConsumerConfig {
+
+    /**
+     * 배치 리스너 컨테이너 ID (KafkaBatchListener의 @KafkaListener id)
+     */
+    public static final String BATCH_LISTENER_ID = "batchListener";
+
+    /**
+     * 재시도 리스너 컨테이너 ID (KafkaRetryListener의 @KafkaListener id, app.retry.enabled=true일 때만 등록)
+     */
+    public static final String RETRY_LISTENER_ID = "retryListener";
+
+    /**
+     * parse-mode: projection에서 메시지 본문을 읽을 필드 프로젝션 (app.consumer.projection-fields)
+     * 
+     * 중복 판정에 쓰는 api_tran_id는 설정에 빠져 있어도 포함합니다.
+     */
+    @Bean
+    public FieldProjection fieldProjection(ConsumerProperties consumerProperties) {
+        List<String> fields = new ArrayList<>(consumerProperties.getProjectionFields());
+        if (!fields.contains(MessageReceiveService.API_TRAN_ID)) {
+            fields.add(0, MessageReceiveService.API_TRAN_ID);
+        }
+        return FieldProjection.of(fields);
+    }
+
+    /**
+     * 배치 리스너 컨테이너 커스터마이저
+     * 
+     * 배치 크기 자동 조정(app.consumer.adaptive)을 사용하면
+     * - poll 사이 대기 시간의 초기값으로 max-fetch-wait를 적용 (이후에는 KafkaBatchListener가 조정)
+     * - KafkaBatchListener가 나눈 배치마다 커밋하므로 컨테이너의 커밋도 비동기로 전환 (commitAsync)
+     * 
+     * 디스패처가 offset을 직접 커밋하는 경우(key-ordered, ring-buffer 모드)
+     * - 컨테이너의 자동 커밋을 끄고 수동 커밋(AckMode.MANUAL)으로 전환
+     * - commit-interval마다 idle 이벤트를 발생시켜 새 레코드가 없어도 완료된 offset을 커밋
+     * - 파티션 회수 직전에 디스패처가 처리 중인 레코드를 정리하도록 위임
+     * 
+     * Spring Boot가 자동 구성하는 kafkaListenerContainerFactory에 적용됩니다.
+     */
+    @Bean
+    public ContainerCustomizer<Object, Object, ConcurrentMessageListenerContainer<Object, Object>> batchListenerContainerCustomizer(
+            BatchDispatcher dispatcher, ConsumerProperties consumerProperties) {
+        return container -> {
+            if (!BATCH_LISTENER_ID.equals(container.getListenerId())) {
+                return;
+            }
+            ContainerProperties containerProperties = container.getContainerProperties();
+            if (consumerProperties.getAdaptive().isEnabled()) {
+                containerProperties.setIdleBetweenPolls(consumerProperties.getAdaptive().getMaxFetchWait().toMillis());
+                containerProperties.setSyncCommits(false);
+            }
+            if (!dispatcher.commitsOffsets()) {
+                return;
+            }
+            containerProperties.setAckMode(ContainerProperties.AckMode.MANUAL);
+            containerProperties.setIdleEventInterval(consumerProperties.getCommitInterval().toMillis());
+            containerProperties.setConsumerRebalanceListener(new ConsumerAwareRebalanceListener() {
+                @Override
+                public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+                    dispatcher.onPartitionsRevoked(consumer, partitions);
+                }
+            });
+        };
+    }
+}
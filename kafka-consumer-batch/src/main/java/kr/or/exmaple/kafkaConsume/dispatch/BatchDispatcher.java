@@ -0,0 +1,67 @@
+package kr.or.exmaple.kafkaConsume.dispatch;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 폴링한 배치를 처리 방식에 맞게 넘겨주는 디스패처
+ * 
+ * app.consumer.dispatch-mode 설정에 따라 구현체 하나가 빈으로 등록됩니다.
+ * 
+ * 리스너 스레드 밖에서 비동기로 처리하는 구현체는 처리 완료된 레코드까지만
+ * 직접 offset을 커밋해야 하므로 commitsOffsets()가 true를 반환하며,
+ * 이 경우 리스너 컨테이너는 수동 커밋(AckMode.MANUAL)으로 설정됩니다.
+ * 
+ * 모든 메서드는 Kafka 컨슈머 스레드에서 호출되므로 전달받은 Consumer를
+ * 그대로 사용할 수 있습니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+public interface BatchDispatcher {
+
+    /**
+     * 폴링한 배치 처리 (또는 처리 요청)
+     * 
+     * @param records 폴링한 레코드 리스트
+     * @param consumer 현재 컨슈머 (컨슈머 스레드에서만 사용)
+     */
+    void dispatch(List<ConsumerRecord<String, byte[]>> records, Consumer<?, ?> consumer);
+
+    /**
+     * 디스패처가 offset을 직접 커밋하는지 여부
+     */
+    default boolean commitsOffsets() {
+        return false;
+    }
+
+    /**
+     * 한 번의 poll로 받은 레코드를 모두 dispatch한 뒤 호출됨
+     * 
+     * 헤더 필터(app.filter)로 걸러져 dispatch에 전달되지 않은 레코드의 offset도 커밋 대상에 넣는 데 사용합니다.
+     * 
+     * @param consumer 현재 컨슈머 (컨슈머 스레드에서만 사용)
+     */
+    default void onPollDispatched(Consumer<?, ?> consumer) {
+    }
+
+    /**
+     * 새 레코드가 없는 동안 주기적으로 호출됨 (완료된 offset 커밋용)
+     * 
+     * @param consumer 현재 컨슈머 (컨슈머 스레드에서만 사용)
+     */
+    default void onIdle(Consumer<?, ?> consumer) {
+    }
+
+    /**
+     * 파티션이 회수되기 직전에 호출됨
+     * 
+     * @param consumer 현재 컨슈머 (컨슈머 스레드에서만 사용)
+     * @param partitions 회수되는 파티션
+     */
+    default void onPartitionsRevoked(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+    }
+}
@@ -0,0 +1,370 @@
+package kr.or.exmaple.kafkaConsume.dispatch;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import kr.or.exmaple.kafkaConsume.config.ConsumerProperties;
+import kr.or.exmaple.kafkaConsume.config.KafkaConsumerConfig;
+import kr.or.exmaple.kafkaConsume.service.MessageReceiveService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Key 순서를 보장하는 병렬 배치 디스패처
+ * 
+ * 폴링한 배치를 리스너 스레드에서 순차 처리하는 대신, 레코드를 레인(lane)에 나눠 담고
+ * 워커 풀이 레인 단위로 처리합니다.
+ * 
+ * 처리 규칙:
+ * - 같은 Key의 레코드는 항상 같은 레인에 배정되고, 레인은 한 번에 하나의 워커만 처리하므로
+ *   Key별 순서가 보장됨
+ * - Key가 없는 레코드는 순서 보장 대상이 아니므로 레인에 라운드 로빈으로 분산
+ * - 느린 메시지는 자신의 레인만 지연시키고 다른 레인은 계속 처리됨
+ * - 처리 중인 레코드가 max-in-flight에 도달하면 리스너 컨테이너를 일시 정지(pause)하고,
+ *   워커가 resume-in-flight 이하로 줄이면 재개 (backpressure)
+ *   - 리스너 스레드는 기다리지 않으므로 느린 Key가 있어도 poll 간격이 max.poll.interval.ms를 넘지 않고,
+ *     일시 정지 중에도 idle 이벤트로 완료된 offset이 커밋됨
+ *   - 일시 정지는 다음 poll부터 적용되므로 처리 중 레코드 수는 poll 한 번만큼 max-in-flight를 넘을 수 있음
+ * 
+ * offset 커밋:
+ * - 리스너 컨테이너는 수동 커밋(AckMode.MANUAL)으로 동작하고, 이 디스패처가
+ *   OffsetTracker로 파티션별 연속 완료 구간의 끝까지만 commitAsync로 커밋
+ * - 커밋은 다음 배치 수신 시와 idle 이벤트(commit-interval) 시 컨슈머 스레드에서 수행
+ * - 헤더 필터(app.filter)로 걸러져 전달되지 않은 레코드는 poll 위치까지 처리한 것으로 보고 함께 커밋
+ * - 파티션 회수 시 레인에 남은 그 파티션의 레코드는 처리하지 않고 건너뛰며,
+ *   처리 중인 레코드만 revoke-timeout까지 기다린 뒤 commitSync (건너뛴 레코드는 새 소유자가 처리)
+ * 
+ * 처리 실패:
+ * - 처리 중 예외가 빠져나온 레코드(재시도 토픽이나 DLT로도 보내지 못한 경우)는 완료 표시하지 않으므로
+ *   그 offset 이후로는 커밋되지 않음
+ * - 다음 배치 수신 시나 idle 이벤트 시 컨슈머 스레드가 그 파티션을 실패한 offset으로 seek하여 다시 받고,
+ *   레인에 남은 그 파티션의 이후 레코드는 건너뜀 (다시 전달되므로 Key별 순서도 유지됨)
+ * 
+ * 가상 스레드 모드(spring.threads.virtual.enabled=true):
+ * - 고정 크기 워커 풀 대신 레인 처리마다 가상 스레드를 생성하며, workers 설정은 무시됨
+ * - 레인은 한 번에 하나의 스레드만 처리하므로 동시 처리 수의 상한은 레인 수
+ * 
+ * 메트릭:
+ * - custom-kafka-lane-queue-depth (lane): 레인별 대기 레코드 수
+ * - custom-kafka-lane-utilization: 처리 중인 워커 비율 (0~1)
+ * - custom-kafka-inflight-records: 처리 중인(커밋 전) 레코드 수
+ * - custom-kafka-inflight-paused: 컨테이너 일시 정지 여부 (1이면 정지 중)
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.consumer", name = "dispatch-mode", havingValue = "key-ordered")
+@Slf4j
+public class KeyOrderedBatchDispatcher implements BatchDispatcher, DisposableBean {
+
+    /**
+     * 레인 하나를 한 번 스케줄할 때 처리하는 최대 레코드 수
+     * 바쁜 레인이 워커를 독점하지 않도록 처리 후 다시 스케줄함
+     */
+    private static final int DRAIN_BATCH_SIZE = 32;
+
+    private final MessageReceiveService messageReceiveService;
+
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+
+    private final OffsetTracker offsetTracker = new OffsetTracker();
+
+    /**
+     * 파티션별 세대 (seek하거나 회수하면 이전 세대의 남은 레코드는 건너뜀)
+     */
+    private final PartitionGenerations generations = new PartitionGenerations(offsetTracker);
+
+    private final Lane[] lanes;
+
+    private final ExecutorService workerPool;
+
+    private final int workerCount;
+
+    private final int maxInFlight;
+
+    private final int resumeInFlight;
+
+    /**
+     * 레인에 넣은 뒤 처리가 끝나지 않은 레코드 수
+     */
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicBoolean paused = new AtomicBoolean();
+
+    /**
+     * 일시 정지/재개 전환을 직렬화하는 락
+     */
+    private final ReentrantLock watermarkLock = new ReentrantLock();
+
+    private final AtomicInteger busyWorkers = new AtomicInteger();
+
+    private final AtomicInteger keylessCursor = new AtomicInteger();
+
+    private final Duration revokeTimeout;
+
+    public KeyOrderedBatchDispatcher(MessageReceiveService messageReceiveService,
+                                     ConsumerProperties consumerProperties,
+                                     KafkaListenerEndpointRegistry listenerRegistry,
+                                     MeterRegistry meterRegistry,
+                                     Environment environment) {
+        ConsumerProperties.Parallel parallel = consumerProperties.getParallel();
+        boolean virtualThreads = Threading.VIRTUAL.isActive(environment);
+        this.messageReceiveService = messageReceiveService;
+        this.listenerRegistry = listenerRegistry;
+        this.workerCount = virtualThreads ? parallel.getLanes() : parallel.getWorkers();
+        this.maxInFlight = parallel.getMaxInFlight();
+        this.resumeInFlight = parallel.getResumeInFlight();
+        if (resumeInFlight < 0 || resumeInFlight >= maxInFlight) {
+            throw new IllegalArgumentException("In-flight limits must satisfy 0 <= resume-in-flight < max-in-flight: "
+                    + resumeInFlight + ", " + maxInFlight);
+        }
+        this.revokeTimeout = consumerProperties.getRevokeTimeout();
+        this.workerPool = virtualThreads
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("key-ordered-worker-", 0).factory())
+                : Executors.newFixedThreadPool(workerCount, new CustomizableThreadFactory("key-ordered-worker-"));
+
+        this.lanes = new Lane[parallel.getLanes()];
+        for (int i = 0; i < lanes.length; i++) {
+            Lane lane = new Lane();
+            lanes[i] = lane;
+            Gauge.builder("custom-kafka-lane-queue-depth", lane.depth, AtomicInteger::get)
+                    .tag("lane", String.valueOf(i))
+                    .register(meterRegistry);
+        }
+        Gauge.builder("custom-kafka-lane-utilization", busyWorkers, busy -> (double) busy.get() / workerCount)
+                .register(meterRegistry);
+        Gauge.builder("custom-kafka-inflight-records", inFlight, AtomicInteger::get)
+                .register(meterRegistry);
+        Gauge.builder("custom-kafka-inflight-paused", paused, flag -> flag.get() ? 1 : 0)
+                .description("1 while the listener container is paused by the max-in-flight limit")
+                .register(meterRegistry);
+
+        log.info("Key-ordered dispatcher started with {} {} workers, {} lanes, max {} in-flight records",
+                workerCount, virtualThreads ? "virtual" : "platform", lanes.length, maxInFlight);
+    }
+
+    /**
+     * 배치의 레코드를 레인에 배정하고, 이전까지 완료된 offset을 커밋
+     * 
+     * 처리에 실패한 파티션은 먼저 실패한 offset으로 seek하며, 이 배치에 담긴 그 파티션의 레코드는
+     * seek 이전에 받은 것이므로 배정하지 않습니다 (다음 poll에서 다시 받음).
+     * 처리 중 레코드가 max-in-flight에 도달하면 기다리지 않고 컨테이너를 일시 정지합니다.
+     */
+    @Override
+    public void dispatch(List<ConsumerRecord<String, byte[]>> records, Consumer<?, ?> consumer) {
+        Set<TopicPartition> rewound = generations.rewindFailed(consumer);
+        for (ConsumerRecord<String, byte[]> record : records) {
+            TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+            if (rewound.contains(partition)) {
+                continue;
+            }
+            offsetTracker.register(partition, record.offset());
+            inFlight.incrementAndGet();
+            laneFor(record).enqueue(new Task(record, partition, generations.current(partition)));
+        }
+        if (!paused.get() && inFlight.get() >= maxInFlight) {
+            updatePause();
+        }
+        commitCompleted(consumer);
+    }
+
+    @Override
+    public boolean commitsOffsets() {
+        return true;
+    }
+
+    /**
+     * 헤더 필터로 걸러진 레코드의 offset도 커밋되도록 poll 위치까지 커밋 구간을 넓힘 (다음 커밋에 반영)
+     */
+    @Override
+    public void onPollDispatched(Consumer<?, ?> consumer) {
+        offsetTracker.advanceToPositions(consumer);
+    }
+
+    @Override
+    public void onIdle(Consumer<?, ?> consumer) {
+        generations.rewindFailed(consumer);
+        commitCompleted(consumer);
+    }
+
+    /**
+     * 회수되는 파티션의 남은 레코드를 건너뛰도록 하고, 처리 중인 레코드를 기다린 뒤 완료된 구간까지 동기 커밋
+     * 
+     * 건너뛴 레코드는 완료 표시되지 않으므로 커밋은 처리한 구간의 끝에서 멈추고, 새 소유자가 그 뒤부터 처리합니다.
+     */
+    @Override
+    public void onPartitionsRevoked(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        if (!generations.revoke(partitions, revokeTimeout)) {
+            log.warn("Partitions {} revoked with records still in flight; they may be redelivered", partitions);
+        }
+
+        Map<TopicPartition, OffsetAndMetadata> committable = offsetTracker.takeCommittable(partitions);
+        if (!committable.isEmpty()) {
+            consumer.commitSync(committable);
+        }
+        offsetTracker.remove(partitions);
+    }
+
+    /**
+     * 마지막 커밋 이후 연속으로 완료된 offset 비동기 커밋
+     */
+    private void commitCompleted(Consumer<?, ?> consumer) {
+        Map<TopicPartition, OffsetAndMetadata> committable = offsetTracker.takeCommittable();
+        if (committable.isEmpty()) {
+            return;
+        }
+        consumer.commitAsync(committable, (offsets, e) -> {
+            if (e != null) {
+                log.warn("Failed to commit offsets {}", offsets, e);
+            }
+        });
+    }
+
+    /**
+     * 처리 중 레코드 수에 따라 컨테이너 일시 정지/재개
+     * 
+     * 리스너 스레드의 정지와 워커의 재개가 엇갈려 정지 상태로 남지 않도록 락 안에서 다시 확인합니다.
+     */
+    private void updatePause() {
+        watermarkLock.lock();
+        try {
+            int count = inFlight.get();
+            if (!paused.get() && count >= maxInFlight) {
+                paused.set(true);
+                container().pause();
+                log.info("{} records in flight, pausing {}", count, KafkaConsumerConfig.BATCH_LISTENER_ID);
+            } else if (paused.get() && count <= resumeInFlight) {
+                paused.set(false);
+                container().resume();
+                log.info("In-flight records drained to {}, resuming {}", count, KafkaConsumerConfig.BATCH_LISTENER_ID);
+            }
+        } finally {
+            watermarkLock.unlock();
+        }
+    }
+
+    private MessageListenerContainer container() {
+        return listenerRegistry.getListenerContainer(KafkaConsumerConfig.BATCH_LISTENER_ID);
+    }
+
+    private Lane laneFor(ConsumerRecord<String, byte[]> record) {
+        if (record.key() == null) {
+            return lanes[Math.floorMod(keylessCursor.getAndIncrement(), lanes.length)];
+        }
+        // String.hashCode 하위 비트 편중을 줄이기 위해 상위 비트를 섞음
+        int hash = record.key().hashCode();
+        return lanes[Math.floorMod(hash ^ (hash >>> 16), lanes.length)];
+    }
+
+    /**
+     * 레코드 하나 처리 후 완료 표시 (resume-in-flight 이하로 줄면 컨테이너 재개)
+     * 
+     * seek이나 회수로 건너뛸 레코드는 처리하지 않으며, 처리 중 예외가 빠져나오면 완료 표시하지 않고
+     * 파티션을 실패로 표시하여 다시 받도록 합니다.
+     */
+    private void process(Task task) {
+        ConsumerRecord<String, byte[]> record = task.record();
+        try {
+            if (!task.generation().begin(record.offset())) {
+                return;
+            }
+            boolean processed = false;
+            try {
+                messageReceiveService.processMessage(record);
+                processed = true;
+            } catch (Exception e) {
+                log.error("Failed to process record {}-{}@{}, it will be redelivered",
+                        record.topic(), record.partition(), record.offset(), e);
+                generations.fail(task.partition(), task.generation(), record.offset());
+            } finally {
+                task.generation().end(task.partition(), record.offset(), processed);
+            }
+        } finally {
+            if (inFlight.decrementAndGet() <= resumeInFlight && paused.get()) {
+                updatePause();
+            }
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        workerPool.shutdown();
+        if (!workerPool.awaitTermination(revokeTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            workerPool.shutdownNow();
+        }
+    }
+
+    /**
+     * 레인에 넣은 레코드와 배정 시점의 파티션 세대
+     */
+    private record Task(ConsumerRecord<String, byte[]> record, TopicPartition partition,
+                        PartitionGenerations.Generation generation) {
+    }
+
+    /**
+     * 순서대로 처리되는 레코드 큐
+     * 
+     * scheduled 플래그로 한 번에 하나의 워커만 레인을 처리하도록 보장합니다.
+     */
+    private final class Lane {
+
+        private final Queue<Task> queue = new ConcurrentLinkedQueue<>();
+
+        private final AtomicInteger depth = new AtomicInteger();
+
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        void enqueue(Task task) {
+            queue.offer(task);
+            depth.incrementAndGet();
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                workerPool.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            busyWorkers.incrementAndGet();
+            try {
+                Task task;
+                for (int i = 0; i < DRAIN_BATCH_SIZE && (task = queue.poll()) != null; i++) {
+                    depth.decrementAndGet();
+                    process(task);
+                }
+            } finally {
+                busyWorkers.decrementAndGet();
+                scheduled.set(false);
+                if (!queue.isEmpty()) {
+                    schedule();
+                }
+            }
+        }
+    }
+}
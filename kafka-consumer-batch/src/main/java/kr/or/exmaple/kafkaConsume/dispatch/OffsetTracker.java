@@ -0,0 +1,168 @@
+package kr.or.exmaple.kafkaConsume.dispatch;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.TimeoutException;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 비순차 완료 레코드의 커밋 가능 offset 추적기
+ * 
+ * 레코드가 병렬로 처리되면 완료 순서가 offset 순서와 달라집니다.
+ * 커밋은 "이 offset 이전은 모두 처리됨"을 뜻하므로, 파티션별로 아직 끝나지 않은
+ * offset 집합을 유지하고 가장 작은 미완료 offset(없으면 마지막 등록 offset + 1)까지만
+ * 커밋 대상으로 돌려줍니다. 즉, 연속으로 완료된 구간의 끝까지만 커밋됩니다.
+ * 
+ * register는 컨슈머 스레드, complete는 워커 스레드에서 호출되므로
+ * 파티션 단위로 동기화합니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+public class OffsetTracker {
+
+    private final Map<TopicPartition, PartitionOffsets> partitions = new ConcurrentHashMap<>();
+
+    /**
+     * 처리를 시작할 레코드 등록 (offset 순서대로 호출되어야 함)
+     */
+    public void register(TopicPartition partition, long offset) {
+        partitions.computeIfAbsent(partition, tp -> new PartitionOffsets()).register(offset);
+    }
+
+    /**
+     * 할당된 파티션마다 컨슈머의 다음에 읽을 위치(position) 앞까지를 처리할 레코드가 없는 구간으로 봄
+     * 
+     * 헤더 필터(app.filter)로 걸러진 레코드는 리스너에 전달되지 않아 등록되지 않으므로, 걸러진 레코드만 받은
+     * 파티션은 커밋이 멈춘 채 lag이 계속 늘어납니다. 폴링한 레코드를 모두 등록한 뒤 컨슈머 스레드에서 호출하면
+     * 등록하지 않은 offset은 건너뛰고, 처리 중인 레코드가 모두 완료된 뒤 poll 위치까지 커밋됩니다.
+     * 위치를 아직 모르는 파티션은 기다리지 않고 건너뜁니다.
+     */
+    public void advanceToPositions(Consumer<?, ?> consumer) {
+        for (TopicPartition partition : consumer.assignment()) {
+            long position;
+            try {
+                position = consumer.position(partition, Duration.ZERO);
+            } catch (TimeoutException e) {
+                continue;
+            }
+            partitions.computeIfAbsent(partition, tp -> new PartitionOffsets()).advance(position);
+        }
+    }
+
+    /**
+     * 처리 완료된 레코드 표시
+     */
+    public void complete(TopicPartition partition, long offset) {
+        PartitionOffsets offsets = partitions.get(partition);
+        if (offsets != null) {
+            offsets.complete(offset);
+        }
+    }
+
+    /**
+     * 마지막 커밋 이후 새로 커밋 가능해진 offset 조회
+     * 
+     * @return 파티션별 커밋할 offset (다음에 읽을 offset)
+     */
+    public Map<TopicPartition, OffsetAndMetadata> takeCommittable() {
+        return takeCommittable(partitions.keySet());
+    }
+
+    /**
+     * 지정한 파티션에 대해 마지막 커밋 이후 새로 커밋 가능해진 offset 조회
+     */
+    public Map<TopicPartition, OffsetAndMetadata> takeCommittable(Collection<TopicPartition> targets) {
+        Map<TopicPartition, OffsetAndMetadata> committable = new HashMap<>();
+        for (TopicPartition partition : targets) {
+            PartitionOffsets offsets = partitions.get(partition);
+            long next = offsets == null ? -1 : offsets.takeCommittable();
+            if (next >= 0) {
+                committable.put(partition, new OffsetAndMetadata(next));
+            }
+        }
+        return committable;
+    }
+
+    /**
+     * 지정한 파티션에 아직 처리 중인 레코드가 있는지 확인
+     */
+    public boolean hasPending(Collection<TopicPartition> targets) {
+        for (TopicPartition partition : targets) {
+            PartitionOffsets offsets = partitions.get(partition);
+            if (offsets != null && offsets.hasPending()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 파티션을 offset으로 되돌림 (처리에 실패한 레코드부터 다시 받기 위해 seek한 경우)
+     * 
+     * offset 이후의 레코드는 다시 전달되어 새로 등록되므로 추적 대상에서 빼고,
+     * 그 앞의 레코드가 모두 완료되면 offset까지만 커밋됩니다.
+     */
+    public void rewind(TopicPartition partition, long offset) {
+        PartitionOffsets offsets = partitions.get(partition);
+        if (offsets != null) {
+            offsets.rewind(offset);
+        }
+    }
+
+    /**
+     * 회수된 파티션의 추적 정보 제거
+     */
+    public void remove(Collection<TopicPartition> targets) {
+        targets.forEach(partitions::remove);
+    }
+
+    /**
+     * 파티션 하나의 offset 상태
+     */
+    private static final class PartitionOffsets {
+
+        private final TreeSet<Long> pending = new TreeSet<>();
+
+        private long nextOffset = -1;
+
+        private long committedOffset = -1;
+
+        synchronized void register(long offset) {
+            pending.add(offset);
+            nextOffset = Math.max(nextOffset, offset + 1);
+        }
+
+        synchronized void advance(long position) {
+            nextOffset = Math.max(nextOffset, position);
+        }
+
+        synchronized void complete(long offset) {
+            pending.remove(offset);
+        }
+
+        synchronized void rewind(long offset) {
+            pending.tailSet(offset, true).clear();
+            nextOffset = Math.min(nextOffset, offset);
+        }
+
+        synchronized boolean hasPending() {
+            return !pending.isEmpty();
+        }
+
+        synchronized long takeCommittable() {
+            long committable = pending.isEmpty() ? nextOffset : pending.first();
+            if (committable > committedOffset) {
+                committedOffset = committable;
+                return committable;
+            }
+            return -1;
+        }
+    }
+}
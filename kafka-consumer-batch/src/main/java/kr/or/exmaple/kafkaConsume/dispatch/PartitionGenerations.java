@@ -0,0 +1,203 @@
+package kr.or.exmaple.kafkaConsume.dispatch;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 워커 스레드에 넘긴 레코드를 처리할지 파티션 단위로 판정하는 세대(generation) 관리자
+ *
+ * 레코드는 넘긴 시점의 파티션 세대를 함께 가지고 있다가, 워커가 처리 직전에 begin()으로 건너뛸지 확인하고
+ * 처리 후 end()로 OffsetTracker에 완료를 표시합니다.
+ *
+ * - 처리 중 예외가 빠져나온 레코드(재시도 토픽이나 DLT로도 보내지 못한 경우)는 fail()로 표시하여
+ *   완료 표시하지 않고, 그 세대의 이후 offset 레코드도 건너뜀 (그 offset 이후로는 커밋되지 않음)
+ * - 컨슈머 스레드가 rewindFailed()로 실패한 파티션을 실패한 offset으로 seek하고 새 세대로 교체하므로,
+ *   다시 전달된 레코드는 새 세대로 처리됨
+ * - 파티션이 회수되면 revoke()로 남은 레코드를 모두 건너뛰고 처리 중인 레코드만 기다림 (건너뛴 레코드는 새 소유자가 처리)
+ *
+ * 건너뛸지 판정, 완료 표시, 되돌림이 세대의 모니터 안에서 일어나므로 되돌린 뒤에는
+ * 이전 세대의 레코드가 다시 전달된 같은 offset을 완료 표시하지 않습니다.
+ *
+ * @author Spring Boot Kafka Demo
+ */
+@Slf4j
+public class PartitionGenerations {
+
+    private final OffsetTracker offsetTracker;
+
+    /**
+     * 파티션별 현재 세대 (seek하거나 회수하면 이전 세대의 남은 레코드는 건너뜀)
+     */
+    private final Map<TopicPartition, Generation> generations = new ConcurrentHashMap<>();
+
+    /**
+     * 워커의 실패 표시와 컨슈머 스레드의 세대 교체를 직렬화하는 락
+     */
+    private final Object generationLock = new Object();
+
+    public PartitionGenerations(OffsetTracker offsetTracker) {
+        this.offsetTracker = offsetTracker;
+    }
+
+    /**
+     * 파티션의 현재 세대 (컨슈머 스레드에서 레코드를 넘길 때 호출)
+     */
+    public Generation current(TopicPartition partition) {
+        return generations.computeIfAbsent(partition, tp -> new Generation());
+    }
+
+    /**
+     * 레코드 처리 실패 표시 - 그 세대와 (세대가 바뀌었다면) 현재 세대 모두 offset 이후를 건너뜀
+     */
+    public void fail(TopicPartition partition, Generation generation, long offset) {
+        synchronized (generationLock) {
+            generation.fail(offset);
+            Generation current = generations.get(partition);
+            if (current != null && current != generation) {
+                current.fail(offset);
+            }
+        }
+    }
+
+    /**
+     * 처리에 실패한 파티션을 실패한 offset으로 seek하고 새 세대로 교체 (컨슈머 스레드)
+     *
+     * 이전 세대에서 실패한 offset 이후의 레코드는 워커에 남아 있어도 건너뛰며, 다시 전달되면 새로 등록됩니다.
+     *
+     * @return seek한 파티션 (같은 poll에서 받은 그 파티션의 레코드는 넘기지 않아야 함)
+     */
+    public Set<TopicPartition> rewindFailed(Consumer<?, ?> consumer) {
+        Map<TopicPartition, Long> failed = new HashMap<>();
+        synchronized (generationLock) {
+            generations.forEach((partition, generation) -> {
+                long offset = generation.rewind(partition);
+                if (offset != Generation.NONE) {
+                    failed.put(partition, offset);
+                }
+            });
+            failed.keySet().forEach(partition -> generations.put(partition, new Generation()));
+        }
+        failed.forEach((partition, offset) -> {
+            log.warn("Seeking {} back to failed offset {} for redelivery", partition, offset);
+            consumer.seek(partition, offset);
+        });
+        return Set.copyOf(failed.keySet());
+    }
+
+    /**
+     * 회수되는 파티션의 남은 레코드를 건너뛰도록 하고, 처리 중인 레코드가 끝날 때까지 timeout만큼 기다림
+     *
+     * @return 처리 중인 레코드가 모두 끝났으면 true
+     */
+    public boolean revoke(Collection<TopicPartition> partitions, Duration timeout) {
+        List<Generation> revoked = new ArrayList<>();
+        synchronized (generationLock) {
+            for (TopicPartition partition : partitions) {
+                Generation generation = generations.remove(partition);
+                if (generation != null) {
+                    generation.revoke();
+                    revoked.add(generation);
+                }
+            }
+        }
+
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (isRunning(revoked) && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return !isRunning(revoked);
+    }
+
+    private static boolean isRunning(List<Generation> generations) {
+        for (Generation generation : generations) {
+            if (generation.isRunning()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 파티션 하나의 세대 - 실패한 offset 이후나 회수된 뒤의 레코드를 건너뛰기 위한 상태
+     */
+    public final class Generation {
+
+        static final long NONE = Long.MAX_VALUE;
+
+        /**
+         * 이 offset 이상은 처리하지 않음 (실패하지 않았으면 NONE, 회수되면 Long.MIN_VALUE)
+         */
+        private long skipFrom = NONE;
+
+        /**
+         * 처리 중인 레코드 수
+         */
+        private int running;
+
+        private Generation() {
+        }
+
+        /**
+         * 레코드 처리 시작 (워커 스레드)
+         *
+         * @return 건너뛸 레코드면 false (end를 호출하지 않음)
+         */
+        public synchronized boolean begin(long offset) {
+            if (offset >= skipFrom) {
+                return false;
+            }
+            running++;
+            return true;
+        }
+
+        /**
+         * 레코드 처리 끝 - 처리에 성공했고 그 사이 건너뛸 구간이 되지 않았으면 완료 표시 (워커 스레드)
+         */
+        public synchronized void end(TopicPartition partition, long offset, boolean processed) {
+            running--;
+            if (processed && offset < skipFrom) {
+                offsetTracker.complete(partition, offset);
+            }
+        }
+
+        synchronized void fail(long offset) {
+            skipFrom = Math.min(skipFrom, offset);
+        }
+
+        synchronized void revoke() {
+            skipFrom = Long.MIN_VALUE;
+        }
+
+        synchronized boolean isRunning() {
+            return running > 0;
+        }
+
+        /**
+         * 실패한 세대면 추적 중인 offset을 실패한 offset으로 되돌림
+         *
+         * @return 되돌린 offset (실패하지 않았으면 NONE)
+         */
+        synchronized long rewind(TopicPartition partition) {
+            if (skipFrom == NONE) {
+                return NONE;
+            }
+            offsetTracker.rewind(partition, skipFrom);
+            return skipFrom;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package kr.or.exmaple.kafkaConsume.dispatch;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 미리 할당한 슬롯 배열을 재사용하는 고정 크기 링 버퍼
+ * 
+ * 여러 컨슈머 스레드가 넣고 여러 처리 스레드가 꺼낼 수 있으며, 락 없이 동작합니다.
+ * 슬롯마다 시퀀스 번호를 두어 슬롯이 채워졌는지(꺼낼 수 있음), 비었는지(넣을 수 있음)를 구분합니다.
+ * - 빈 슬롯 i의 시퀀스 = 다음에 이 슬롯에 넣을 위치
+ * - 채워진 슬롯 i의 시퀀스 = 넣은 위치 + 1
+ * 
+ * 요소를 꺼내면 슬롯을 비워 참조를 놓아 주므로, 버퍼가 붙잡는 메모리는
+ * 대기 중인 요소 수(최대 capacity)로 제한됩니다.
+ * 
+ * @param <E> 요소 타입
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+public final class RecordRingBuffer<E> {
+
+    private final Object[] slots;
+
+    private final AtomicLongArray sequences;
+
+    private final int mask;
+
+    /**
+     * 다음에 넣을 위치
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * 다음에 꺼낼 위치
+     */
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * @param capacity 최대 요소 수 (2의 거듭제곱으로 올림)
+     */
+    public RecordRingBuffer(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Ring buffer capacity must be between 1 and 2^30: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+        this.slots = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * 요소 추가
+     * 
+     * @return 버퍼가 가득 차서 넣지 못했으면 false
+     */
+    public boolean offer(E element) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long sequence = sequences.getAcquire(index);
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots[index] = element;
+                    sequences.setRelease(index, position + 1);
+                    return true;
+                }
+            } else if (sequence < position) {
+                // 한 바퀴 전 요소가 아직 꺼내지지 않음
+                return false;
+            }
+        }
+    }
+
+    /**
+     * 가장 오래된 요소 꺼내기
+     * 
+     * @return 비어 있으면 null
+     */
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        while (true) {
+            long position = head.get();
+            int index = (int) position & mask;
+            long sequence = sequences.getAcquire(index);
+            if (sequence == position + 1) {
+                if (head.compareAndSet(position, position + 1)) {
+                    E element = (E) slots[index];
+                    slots[index] = null;
+                    // 다음 바퀴에 이 슬롯에 넣을 위치로 되돌림
+                    sequences.setRelease(index, position + slots.length);
+                    return element;
+                }
+            } else if (sequence < position + 1) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * 대기 중인 요소 수 (동시에 넣고 꺼내는 중이면 근사값)
+     */
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, slots.length));
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * 최대 요소 수 (2의 거듭제곱으로 올린 값)
+     */
+    public int capacity() {
+        return slots.length;
+    }
+}
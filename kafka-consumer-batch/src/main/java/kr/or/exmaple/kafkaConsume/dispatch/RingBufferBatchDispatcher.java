@@ -0,0 +1,366 @@
+package kr.or.exmaple.kafkaConsume.dispatch;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import kr.or.exmaple.kafkaConsume.config.ConsumerProperties;
+import kr.or.exmaple.kafkaConsume.config.KafkaConsumerConfig;
+import kr.or.exmaple.kafkaConsume.service.MessageReceiveService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 폴링과 처리를 링 버퍼로 분리한 배치 디스패처
+ * 
+ * 리스너 스레드는 레코드를 미리 할당된 링 버퍼(RecordRingBuffer)에 넣기만 하고 바로 다음 poll로 돌아가며,
+ * 처리 스레드(workers)가 버퍼에서 꺼내 처리합니다. 처리가 느려도 poll 간격이 길어지지 않으므로
+ * max.poll.interval.ms 초과로 인한 리밸런스가 일어나지 않습니다.
+ * 
+ * 메모리 상한 (watermark):
+ * - 대기 레코드 수가 high-watermark 이상이 되면 리스너 컨테이너를 일시 정지(pause)하여 새 레코드를 받지 않음
+ *   (일시 정지 중에도 poll은 계속되므로 컨슈머 그룹에서 빠지지 않음)
+ * - 처리 스레드가 버퍼를 low-watermark 이하로 비우면 컨테이너를 재개(resume)
+ * - 일시 정지는 다음 poll부터 적용되므로 버퍼가 가득 찼을 때만 리스너 스레드가 빈 슬롯을 기다림
+ * 
+ * offset 커밋:
+ * - 리스너 컨테이너는 수동 커밋(AckMode.MANUAL)으로 동작하고, OffsetTracker로 파티션별
+ *   연속 완료 구간의 끝까지만 commitAsync로 커밋
+ * - 커밋은 다음 배치 수신 시와 idle 이벤트(commit-interval) 시 컨슈머 스레드에서 수행
+ * - 헤더 필터(app.filter)로 걸러져 전달되지 않은 레코드는 poll 위치까지 처리한 것으로 보고 함께 커밋
+ * - 파티션 회수 시 버퍼에 남은 그 파티션의 레코드는 처리하지 않고 건너뛰며,
+ *   처리 중인 레코드만 revoke-timeout까지 기다린 뒤 commitSync (건너뛴 레코드는 새 소유자가 처리)
+ * 
+ * 처리 실패:
+ * - 처리 중 예외가 빠져나온 레코드(재시도 토픽이나 DLT로도 보내지 못한 경우)는 완료 표시하지 않으므로
+ *   그 offset 이후로는 커밋되지 않음
+ * - 다음 배치 수신 시나 idle 이벤트 시 컨슈머 스레드가 그 파티션을 실패한 offset으로 seek하여 다시 받고,
+ *   버퍼에 남은 그 파티션의 이후 레코드는 건너뜀
+ * 
+ * 처리 스레드가 2개 이상이면 같은 파티션의 레코드도 동시에 처리되므로,
+ * Key별 처리 순서가 필요하면 key-ordered 모드를 사용합니다.
+ * 
+ * 메트릭:
+ * - custom-kafka-ring-buffer-depth: 버퍼에서 처리를 기다리는 레코드 수
+ * - custom-kafka-ring-buffer-paused: 컨테이너 일시 정지 여부 (1이면 정지 중)
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.consumer", name = "dispatch-mode", havingValue = "ring-buffer")
+@Slf4j
+public class RingBufferBatchDispatcher implements BatchDispatcher, DisposableBean {
+
+    /**
+     * 버퍼가 비었을 때 잠들기 전에 다시 확인하는 횟수
+     */
+    private static final int IDLE_SPINS = 100;
+
+    private final MessageReceiveService messageReceiveService;
+
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+
+    private final OffsetTracker offsetTracker = new OffsetTracker();
+
+    /**
+     * 파티션별 세대 (seek하거나 회수하면 이전 세대의 남은 레코드는 건너뜀)
+     */
+    private final PartitionGenerations generations = new PartitionGenerations(offsetTracker);
+
+    private final RecordRingBuffer<Task> buffer;
+
+    private final int highWatermark;
+
+    private final int lowWatermark;
+
+    private final Duration revokeTimeout;
+
+    private final ExecutorService workerPool;
+
+    private final AtomicBoolean paused = new AtomicBoolean();
+
+    /**
+     * 일시 정지/재개 전환을 직렬화하는 락
+     */
+    private final ReentrantLock watermarkLock = new ReentrantLock();
+
+    private volatile boolean running = true;
+
+    /**
+     * 버퍼가 비어 잠든 처리 스레드를 깨우기 위한 락 (잠들 때만 사용)
+     */
+    private final ReentrantLock idleLock = new ReentrantLock();
+
+    private final Condition notEmpty = idleLock.newCondition();
+
+    private volatile int sleepingWorkers;
+
+    public RingBufferBatchDispatcher(MessageReceiveService messageReceiveService,
+                                     ConsumerProperties consumerProperties,
+                                     KafkaListenerEndpointRegistry listenerRegistry,
+                                     MeterRegistry meterRegistry) {
+        ConsumerProperties.RingBuffer properties = consumerProperties.getRingBuffer();
+        this.messageReceiveService = messageReceiveService;
+        this.listenerRegistry = listenerRegistry;
+        this.buffer = new RecordRingBuffer<>(properties.getCapacity());
+        this.highWatermark = properties.getHighWatermark();
+        this.lowWatermark = properties.getLowWatermark();
+        this.revokeTimeout = consumerProperties.getRevokeTimeout();
+        if (lowWatermark < 0 || lowWatermark >= highWatermark || highWatermark > buffer.capacity()) {
+            throw new IllegalArgumentException("Ring buffer watermarks must satisfy 0 <= low-watermark < high-watermark <= capacity: "
+                    + lowWatermark + ", " + highWatermark + ", " + buffer.capacity());
+        }
+
+        Gauge.builder("custom-kafka-ring-buffer-depth", buffer, RecordRingBuffer::size)
+                .description("Records waiting in the ring buffer")
+                .register(meterRegistry);
+        Gauge.builder("custom-kafka-ring-buffer-paused", paused, flag -> flag.get() ? 1 : 0)
+                .description("1 while the listener container is paused by the ring buffer high watermark")
+                .register(meterRegistry);
+
+        int workers = properties.getWorkers();
+        this.workerPool = Executors.newFixedThreadPool(workers, new CustomizableThreadFactory("ring-buffer-worker-"));
+        for (int i = 0; i < workers; i++) {
+            workerPool.execute(this::work);
+        }
+
+        log.info("Ring buffer dispatcher started with {} workers, capacity {}, watermarks {}/{}",
+                workers, buffer.capacity(), lowWatermark, highWatermark);
+    }
+
+    /**
+     * 배치의 레코드를 버퍼에 넣고, 이전까지 완료된 offset을 커밋
+     * 
+     * 처리에 실패한 파티션은 먼저 실패한 offset으로 seek하며, 이 배치에 담긴 그 파티션의 레코드는
+     * seek 이전에 받은 것이므로 버퍼에 넣지 않습니다 (다음 poll에서 다시 받음).
+     */
+    @Override
+    public void dispatch(List<ConsumerRecord<String, byte[]>> records, Consumer<?, ?> consumer) {
+        Set<TopicPartition> rewound = generations.rewindFailed(consumer);
+        for (ConsumerRecord<String, byte[]> record : records) {
+            TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+            if (rewound.contains(partition)) {
+                continue;
+            }
+            offsetTracker.register(partition, record.offset());
+            publish(new Task(record, partition, generations.current(partition)));
+        }
+        wakeWorkers();
+        if (!paused.get() && buffer.size() >= highWatermark) {
+            updatePause();
+        }
+        commitCompleted(consumer);
+    }
+
+    @Override
+    public boolean commitsOffsets() {
+        return true;
+    }
+
+    /**
+     * 헤더 필터로 걸러진 레코드의 offset도 커밋되도록 poll 위치까지 커밋 구간을 넓힘 (다음 커밋에 반영)
+     */
+    @Override
+    public void onPollDispatched(Consumer<?, ?> consumer) {
+        offsetTracker.advanceToPositions(consumer);
+    }
+
+    @Override
+    public void onIdle(Consumer<?, ?> consumer) {
+        generations.rewindFailed(consumer);
+        commitCompleted(consumer);
+    }
+
+    /**
+     * 회수되는 파티션의 남은 레코드를 건너뛰도록 하고, 처리 중인 레코드를 기다린 뒤 완료된 구간까지 동기 커밋
+     * 
+     * 건너뛴 레코드는 완료 표시되지 않으므로 커밋은 처리한 구간의 끝에서 멈추고, 새 소유자가 그 뒤부터 처리합니다.
+     */
+    @Override
+    public void onPartitionsRevoked(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        if (!generations.revoke(partitions, revokeTimeout)) {
+            log.warn("Partitions {} revoked with records still in flight; they may be redelivered", partitions);
+        }
+
+        Map<TopicPartition, OffsetAndMetadata> committable = offsetTracker.takeCommittable(partitions);
+        if (!committable.isEmpty()) {
+            consumer.commitSync(committable);
+        }
+        offsetTracker.remove(partitions);
+    }
+
+    /**
+     * 버퍼에 레코드 추가 (가득 찼으면 처리 스레드가 슬롯을 비울 때까지 대기)
+     */
+    private void publish(Task task) {
+        while (!buffer.offer(task)) {
+            wakeWorkers();
+            LockSupport.parkNanos(100_000);
+            if (Thread.interrupted()) {
+                Thread.currentThread().interrupt();
+                throw new KafkaException("Interrupted while waiting for ring buffer capacity");
+            }
+        }
+    }
+
+    /**
+     * 마지막 커밋 이후 연속으로 완료된 offset 비동기 커밋
+     */
+    private void commitCompleted(Consumer<?, ?> consumer) {
+        Map<TopicPartition, OffsetAndMetadata> committable = offsetTracker.takeCommittable();
+        if (committable.isEmpty()) {
+            return;
+        }
+        consumer.commitAsync(committable, (offsets, e) -> {
+            if (e != null) {
+                log.warn("Failed to commit offsets {}", offsets, e);
+            }
+        });
+    }
+
+    /**
+     * 처리 스레드 루프 - 버퍼에서 레코드를 꺼내 처리하고, 비었으면 잠깐 기다렸다가 잠듦
+     */
+    private void work() {
+        int idle = 0;
+        while (running) {
+            Task task = buffer.poll();
+            if (task == null) {
+                if (++idle < IDLE_SPINS) {
+                    Thread.onSpinWait();
+                } else {
+                    awaitRecords();
+                    idle = 0;
+                }
+                continue;
+            }
+            idle = 0;
+            process(task);
+            if (paused.get() && buffer.size() <= lowWatermark) {
+                updatePause();
+            }
+        }
+    }
+
+    /**
+     * 버퍼 크기에 따라 컨테이너 일시 정지/재개
+     * 
+     * 리스너 스레드의 정지와 처리 스레드의 재개가 엇갈려 정지 상태로 남지 않도록 락 안에서 다시 확인합니다.
+     */
+    private void updatePause() {
+        watermarkLock.lock();
+        try {
+            int depth = buffer.size();
+            if (!paused.get() && depth >= highWatermark) {
+                paused.set(true);
+                container().pause();
+                log.info("Ring buffer reached {} records, pausing {}", depth, KafkaConsumerConfig.BATCH_LISTENER_ID);
+            } else if (paused.get() && depth <= lowWatermark) {
+                paused.set(false);
+                container().resume();
+                log.info("Ring buffer drained to {} records, resuming {}", depth, KafkaConsumerConfig.BATCH_LISTENER_ID);
+            }
+        } finally {
+            watermarkLock.unlock();
+        }
+    }
+
+    /**
+     * 레코드 하나 처리 후 완료 표시
+     * 
+     * seek이나 회수로 건너뛸 레코드는 처리하지 않으며, 처리 중 예외가 빠져나오면 완료 표시하지 않고
+     * 파티션을 실패로 표시하여 다시 받도록 합니다.
+     */
+    private void process(Task task) {
+        ConsumerRecord<String, byte[]> record = task.record();
+        if (!task.generation().begin(record.offset())) {
+            return;
+        }
+        boolean processed = false;
+        try {
+            messageReceiveService.processMessage(record);
+            processed = true;
+        } catch (Exception e) {
+            log.error("Failed to process record {}-{}@{}, it will be redelivered",
+                    record.topic(), record.partition(), record.offset(), e);
+            generations.fail(task.partition(), task.generation(), record.offset());
+        } finally {
+            task.generation().end(task.partition(), record.offset(), processed);
+        }
+    }
+
+    /**
+     * 버퍼에 레코드가 들어올 때까지 잠듦
+     * 
+     * sleepingWorkers를 늘린 뒤 버퍼를 다시 확인하므로, 그 사이에 들어온 레코드는
+     * 여기서 확인되거나 리스너 스레드의 wakeWorkers()가 깨움 (최대 100ms마다 다시 확인)
+     */
+    private void awaitRecords() {
+        idleLock.lock();
+        try {
+            sleepingWorkers++;
+            while (running && buffer.isEmpty()) {
+                notEmpty.await(100, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        } finally {
+            sleepingWorkers--;
+            idleLock.unlock();
+        }
+    }
+
+    private void wakeWorkers() {
+        if (sleepingWorkers > 0) {
+            idleLock.lock();
+            try {
+                notEmpty.signalAll();
+            } finally {
+                idleLock.unlock();
+            }
+        }
+    }
+
+    private MessageListenerContainer container() {
+        return listenerRegistry.getListenerContainer(KafkaConsumerConfig.BATCH_LISTENER_ID);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        wakeWorkers();
+        workerPool.shutdown();
+        if (!workerPool.awaitTermination(revokeTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            workerPool.shutdownNow();
+        }
+    }
+
+    /**
+     * 버퍼에 넣은 레코드와 넣은 시점의 파티션 세대
+     */
+    private record Task(ConsumerRecord<String, byte[]> record, TopicPartition partition,
+                        PartitionGenerations.Generation generation) {
+    }
+}
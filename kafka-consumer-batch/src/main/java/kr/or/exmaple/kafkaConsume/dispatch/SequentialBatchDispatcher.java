@@ -0,0 +1,30 @@
+package kr.or.exmaple.kafkaConsume.dispatch;
+
+import kr.or.exmaple.kafkaConsume.service.MessageReceiveService;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 리스너 스레드에서 배치를 순서대로 처리하는 기본 디스패처
+ * 
+ * 배치 처리가 끝나면 리스너 컨테이너가 배치 전체의 offset을 커밋합니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.consumer", name = "dispatch-mode", havingValue = "sequential", matchIfMissing = true)
+@RequiredArgsConstructor
+public class SequentialBatchDispatcher implements BatchDispatcher {
+
+    private final MessageReceiveService messageReceiveService;
+
+    @Override
+    public void dispatch(List<ConsumerRecord<String, byte[]>> records, Consumer<?, ?> consumer) {
+        messageReceiveService.processMessages(records);
+    }
+}
@@ -0,0 +1,146 @@
+package kr.or.exmaple.kafkaConsume.listener;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import kr.or.exmaple.kafkaConsume.config.ConsumerProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * lag과 배치 처리 시간에 따라 배치 크기와 poll 사이 대기 시간을 조정하는 컨트롤러
+ * 
+ * KafkaBatchListener가 poll마다 처리한 레코드 수, 처리 시간, 현재 lag을 알려주면
+ * 다음 poll에 적용할 값을 계산합니다.
+ * 
+ * 조정 규칙:
+ * - lag이 lag-threshold 이상 (따라잡는 중): 배치 크기를 두 배씩 키우고 poll 사이 대기를 min-fetch-wait로
+ * - lag이 lag-threshold 미만 (정상 상태): poll 사이 대기는 lag이 적을수록 max-fetch-wait에 가깝게,
+ *   배치 크기는 lag이 한 배치로 비울 수 있는 정도면 절반씩 줄여 min-batch-size로
+ *   (현재 배치 크기보다 lag이 크면 배치를 줄이면 밀리기만 하므로 두 배씩 키움)
+ * - 어느 경우든 배치 크기는 target-batch-time 안에 처리할 수 있는 레코드 수
+ *   (레코드당 처리 시간의 지수 이동 평균 기준)를 넘지 않음
+ * 
+ * lag은 컨슈머가 가져온 위치 기준(Consumer.currentLag)이므로 브로커 조회 없이 계산되며,
+ * 아직 위치를 모르는 파티션만 있으면(-1) lag에 따른 조정은 건너뜁니다.
+ * 
+ * 메트릭:
+ * - custom-kafka-adaptive-batch-size: 현재 배치 크기
+ * - custom-kafka-adaptive-fetch-wait: 현재 poll 사이 대기 시간 (밀리초)
+ * - custom-kafka-adaptive-lag: 마지막으로 관측한 lag
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@Component
+public class AdaptiveBatchSizer {
+
+    /**
+     * 레코드당 처리 시간 지수 이동 평균의 가중치
+     */
+    private static final double ALPHA = 0.2;
+
+    private final ConsumerProperties.Adaptive properties;
+
+    private volatile int batchSize;
+
+    private volatile long fetchWaitMillis;
+
+    private volatile long lag;
+
+    /**
+     * 레코드당 처리 시간 평균 (나노초, 아직 모르면 0)
+     */
+    private double nanosPerRecord;
+
+    public AdaptiveBatchSizer(ConsumerProperties consumerProperties, MeterRegistry meterRegistry) {
+        this.properties = consumerProperties.getAdaptive();
+        if (properties.getMinBatchSize() < 1 || properties.getMinBatchSize() > properties.getMaxBatchSize()) {
+            throw new IllegalArgumentException("Adaptive batch size bounds must satisfy 1 <= min-batch-size <= max-batch-size: "
+                    + properties.getMinBatchSize() + ", " + properties.getMaxBatchSize());
+        }
+        this.batchSize = properties.getMinBatchSize();
+        this.fetchWaitMillis = properties.getMaxFetchWait().toMillis();
+
+        Gauge.builder("custom-kafka-adaptive-batch-size", this, AdaptiveBatchSizer::batchSize)
+                .description("Batch size currently handed to the dispatcher")
+                .register(meterRegistry);
+        Gauge.builder("custom-kafka-adaptive-fetch-wait", this, sizer -> sizer.fetchWaitMillis)
+                .description("Idle time between polls currently applied to the listener container")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("custom-kafka-adaptive-lag", this, sizer -> sizer.lag)
+                .description("Consumer lag observed at the last poll")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 자동 조정 사용 여부
+     */
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * 디스패처에 한 번에 넘길 레코드 수
+     */
+    public int batchSize() {
+        return batchSize;
+    }
+
+    /**
+     * poll 사이 대기 시간
+     */
+    public Duration fetchWait() {
+        return Duration.ofMillis(fetchWaitMillis);
+    }
+
+    /**
+     * poll 한 번의 처리 결과를 반영하여 다음 배치 크기와 대기 시간 계산
+     * 
+     * @param records 처리한 레코드 수
+     * @param processNanos 처리에 걸린 시간 (나노초)
+     * @param currentLag 처리 후 할당된 파티션의 lag 합계 (모르면 -1)
+     */
+    public synchronized void update(int records, long processNanos, long currentLag) {
+        if (records > 0) {
+            double sample = (double) processNanos / records;
+            nanosPerRecord = nanosPerRecord == 0 ? sample : nanosPerRecord + ALPHA * (sample - nanosPerRecord);
+        }
+
+        int size = batchSize;
+        if (currentLag >= 0) {
+            lag = currentLag;
+            if (currentLag >= properties.getLagThreshold() || currentLag > size) {
+                size = (int) Math.min((long) size * 2, properties.getMaxBatchSize());
+            } else {
+                size = size / 2;
+            }
+            fetchWaitMillis = fetchWaitFor(currentLag);
+        }
+        batchSize = Math.max(properties.getMinBatchSize(), Math.min(size, timeBudget()));
+    }
+
+    /**
+     * target-batch-time 안에 처리할 수 있는 레코드 수 (모르면 max-batch-size)
+     */
+    private int timeBudget() {
+        if (nanosPerRecord <= 0) {
+            return properties.getMaxBatchSize();
+        }
+        double budget = properties.getTargetBatchTime().toNanos() / nanosPerRecord;
+        return (int) Math.min(budget, properties.getMaxBatchSize());
+    }
+
+    /**
+     * lag이 0이면 max-fetch-wait, lag-threshold 이상이면 min-fetch-wait, 그 사이는 선형으로
+     */
+    private long fetchWaitFor(long currentLag) {
+        long min = properties.getMinFetchWait().toMillis();
+        long max = properties.getMaxFetchWait().toMillis();
+        if (currentLag >= properties.getLagThreshold() || max <= min) {
+            return min;
+        }
+        double idleRatio = 1 - (double) currentLag / properties.getLagThreshold();
+        return min + Math.round((max - min) * idleRatio);
+    }
+}
@@ -1,13 +1,29 @@
 package kr.or.exmaple.kafkaConsume.listener;
 
-import io.micrometer.core.instrument.MeterRegistry;
-import kr.or.exmaple.kafkaConsume.service.MessageReceiveService;
+import kr.or.exmaple.kafkaCommon.header.MessageHeaders;
+import kr.or.exmaple.kafkaCommon.metrics.ConsumerMeters;
+import kr.or.exmaple.kafkaCommon.metrics.KafkaMetrics;
+import kr.or.exmaple.kafkaConsume.config.KafkaConsumerConfig;
+import kr.or.exmaple.kafkaConsume.dispatch.BatchDispatcher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.context.event.EventListener;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListenerContainer;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
 
 /**
  * Kafka 배치 메시지 리스너
@@ -22,14 +38,25 @@ import java.util.List;
  * 배치 리스너의 특징:
  * - application.yml의 listener.type: batch 설정에 의해 활성화
  * - max.poll.records 설정에 따라 한 번에 받는 메시지 수 결정
- * - List<String> 형태로 여러 메시지를 한 번에 수신
+ * - List<ConsumerRecord<String, byte[]>> 형태로 여러 메시지를 한 번에 수신
+ *   (ByteArrayDeserializer 사용 - 문자열 디코딩 없이 원본 바이트 전달)
  * - 네트워크 오버헤드 감소 및 처리 효율성 증대
  * - 트랜잭션 처리 시 일관성 보장에 유리
  * 
  * 설정 정보:
  * - 토픽: sample.batch.topic
  * - Consumer Group: sample-consumer
- * - 최대 배치 크기: 10개 (max.poll.records)
+ * - 최대 poll 크기: 10개 (max.poll.records)
+ * 
+ * 배치 처리 방식은 app.consumer.dispatch-mode로 선택합니다.
+ * - sequential: 리스너 스레드에서 순차 처리 (기본값)
+ * - key-ordered: Key별 순서를 지키며 워커 풀에서 병렬 처리
+ * - ring-buffer: 링 버퍼에 넣기만 하고 처리 스레드가 처리 (버퍼가 차면 컨테이너 일시 정지)
+ * 
+ * app.consumer.adaptive.enabled가 true이면 poll한 레코드를 AdaptiveBatchSizer가 정한 크기씩 나눠
+ * 디스패처에 넘깁니다. poll한 레코드는 버리거나 seek하지 않고 모두 처리하므로 max.poll.records는 배치 크기의
+ * 상한(max-batch-size)으로 설정하며, 배치 크기가 디스패처 호출 한 번의 처리량, 처리 시간, 커밋 단위를 결정합니다.
+ * 나눈 배치마다 처리한 크기와 시간, lag에 따라 다음 배치 크기와 poll 사이 대기 시간을 조정합니다.
  * 
  * @author Spring Boot Kafka Demo
  */
@@ -39,16 +66,26 @@ import java.util.List;
 public class KafkaBatchListener {
 
     /**
-     * 메시지 처리 서비스
+     * 배치 디스패처 (app.consumer.dispatch-mode에 따라 선택됨)
      * 생성자 주입을 통해 의존성 주입됨
      */
-    private final MessageReceiveService messageReceiveService;
+    private final BatchDispatcher dispatcher;
     
     /**
-     * Micrometer 메트릭 레지스트리
+     * 토픽별로 미리 등록된 Kafka 메트릭
      * Prometheus 메트릭 수집을 위해 사용
      */
-    private final MeterRegistry meterRegistry;
+    private final KafkaMetrics kafkaMetrics;
+
+    /**
+     * lag 기반 배치 크기 / poll 사이 대기 시간 조정
+     */
+    private final AdaptiveBatchSizer batchSizer;
+
+    /**
+     * 조정한 poll 사이 대기 시간을 리스너 컨테이너에 적용하기 위한 레지스트리
+     */
+    private final KafkaListenerEndpointRegistry listenerRegistry;
 
     /**
      * Kafka 배치 메시지 수신 리스너 메서드
@@ -58,30 +95,155 @@ public class KafkaBatchListener {
      * 
      * 배치 처리 과정:
      * 1. Kafka에서 최대 max.poll.records 개수만큼 메시지 수신
-     * 2. List<String> 형태로 여러 메시지를 한 번에 전달받음
+     * 2. List<ConsumerRecord<String, byte[]>> 형태로 여러 메시지를 한 번에 전달받음
      * 3. 수신한 배치 크기를 로깅
-     * 4. MessageReceiveService에 배치 처리 위임
+     * 4. BatchDispatcher에 배치 처리 위임 (자동 조정 시 현재 배치 크기씩 나눠서)
+     *    - 레코드마다 전송 요청 → 수신, 수신 → 처리 완료 지연을 파티션별로 기록
+     *      (key-ordered, ring-buffer 모드의 처리 완료는 워커에 넘긴 시점)
+     * 5. 나눈 배치마다 크기, 처리 시간과 lag으로 다음 배치 크기와 poll 사이 대기 시간 조정
      * 
      * 주의사항:
      * - 배치 내 하나의 메시지 처리 실패가 전체 배치를 실패시키지 않음
-     * - Consumer offset은 배치 전체 처리 완료 후 커밋됨
+     * - sequential 모드: Consumer offset은 배치 전체 처리 완료 후 커밋됨
+     *   (자동 조정 시에는 나눈 배치마다 비동기로 커밋, 마지막 배치는 컨테이너가 비동기로 커밋)
+     * - key-ordered, ring-buffer 모드: 디스패처가 처리 완료된 offset까지만 직접 커밋함
      * - 예외 발생 시 Spring Kafka의 에러 핸들링 정책에 따라 처리됨
+     * - 헤더 필터(app.filter)와 일치한 레코드는 배치에서 빠진 채로 전달됨 (HeaderRecordFilter, 빈 배치일 수 있음)
+     *   디스패처가 커밋하는 모드에서는 poll 위치까지 커밋하도록 알려 걸러진 레코드의 offset도 커밋됨
      * 
-     * @param messages Kafka에서 수신한 메시지 리스트 (JSON 문자열 배치)
+     * @param messages Kafka에서 수신한 레코드 리스트 (값은 JSON 바이트)
+     * @param consumer 현재 컨슈머 (디스패처의 offset 커밋용)
      */
-    @KafkaListener(topics = "sample.batch.topic", groupId = "sample-consumer")
-    public void listen(List<String> messages) {
+    @KafkaListener(id = KafkaConsumerConfig.BATCH_LISTENER_ID, topics = "sample.batch.topic", groupId = "sample-consumer")
+    public void listen(List<ConsumerRecord<String, byte[]>> messages, Consumer<?, ?> consumer) {
         // 배치 수신 로깅 - 처리 시작을 알림
         log.info("Received batch of {} messages from topic: sample.batch.topic", messages.size());
         
         // 메트릭 카운트 - 배치 사이즈만큼 증가
-        meterRegistry.counter("custom-kafka-consume", "topic", "sample.batch.topic").increment(messages.size());
-        
-        // 실제 비즈니스 로직은 서비스 레이어에 위임
-        // 관심사 분리(Separation of Concerns) 원칙 적용
-        messageReceiveService.processMessages(messages);
+        ConsumerMeters meters = kafkaMetrics.consumer("sample.batch.topic");
+        meters.consumed().increment(messages.size());
+
+        // 파티션별 지연 시간 - 전송 요청 → 수신 (produced-at-micros 헤더 기준, 배치의 수신 시각은 하나)
+        long receivedNanos = System.nanoTime();
+        long receivedMicros = MessageHeaders.currentTimeMicros();
+        for (ConsumerRecord<String, byte[]> message : messages) {
+            kafkaMetrics.partition(message.topic(), message.partition()).recordProduceToConsume(message, receivedMicros);
+        }
+
+        if (!batchSizer.isEnabled()) {
+            dispatch(messages, consumer, meters, receivedNanos);
+        } else {
+            // 현재 배치 크기씩 나눠 처리 (빈 배치도 디스패처와 조정기에 한 번은 전달)
+            Duration fetchWait = batchSizer.fetchWait();
+            int from = 0;
+            do {
+                int to = Math.min(messages.size(), from + batchSizer.batchSize());
+                List<ConsumerRecord<String, byte[]>> chunk = messages.subList(from, to);
+                long processNanos = dispatch(chunk, consumer, meters, receivedNanos);
+                // 마지막 배치는 리스너가 끝난 뒤 컨테이너가 커밋
+                if (!dispatcher.commitsOffsets() && to < messages.size()) {
+                    commitAsync(chunk, consumer);
+                }
+                // 이번 poll에서 아직 처리하지 않은 레코드도 lag에 포함
+                long lag = lag(consumer);
+                batchSizer.update(chunk.size(), processNanos, lag < 0 ? lag : lag + messages.size() - to);
+                from = to;
+            } while (from < messages.size());
+            if (!fetchWait.equals(batchSizer.fetchWait())) {
+                applyFetchWait(batchSizer.fetchWait());
+            }
+        }
+        dispatcher.onPollDispatched(consumer);
         
-        // 배치 처리 완료 로깅
-        log.info("Completed processing batch from sample.batch.topic");
+        // 배치 디스패치 완료 로깅
+        log.info("Completed dispatching batch from sample.batch.topic");
+    }
+
+    /**
+     * 배치 하나를 디스패처에 넘기고 배치 크기 분포와 처리 지연 시간 기록
+     * 
+     * 실제 비즈니스 로직은 서비스 레이어에 위임 (관심사 분리)
+     * key-ordered, ring-buffer 모드에서는 워커에 넘기기까지의 시간이 기록됩니다.
+     * 
+     * @return 디스패처 호출에 걸린 시간 (나노초)
+     */
+    private long dispatch(List<ConsumerRecord<String, byte[]>> batch, Consumer<?, ?> consumer,
+                          ConsumerMeters meters, long receivedNanos) {
+        meters.batchSize().record(batch.size());
+        long start = System.nanoTime();
+        dispatcher.dispatch(batch, consumer);
+        long processNanos = System.nanoTime() - start;
+        meters.recordProcess(start);
+        for (ConsumerRecord<String, byte[]> message : batch) {
+            kafkaMetrics.partition(message.topic(), message.partition()).recordConsumeToProcessed(receivedNanos);
+        }
+        return processNanos;
+    }
+
+    /**
+     * 처리한 배치의 다음 offset을 파티션별로 비동기 커밋 (sequential 모드에서 자동 조정을 사용할 때)
+     * 
+     * 같은 파티션의 레코드는 offset 순서로 들어 있으므로 파티션별로 마지막 레코드의 다음 offset을 커밋합니다.
+     * 커밋이 실패해도 이후 배치의 커밋이나 컨테이너 커밋이 더 큰 offset을 커밋하므로 로그만 남깁니다.
+     * 
+     * @param batch 처리를 마친 배치
+     */
+    private static void commitAsync(List<ConsumerRecord<String, byte[]>> batch, Consumer<?, ?> consumer) {
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+        for (ConsumerRecord<String, byte[]> record : batch) {
+            offsets.put(new TopicPartition(record.topic(), record.partition()), new OffsetAndMetadata(record.offset() + 1));
+        }
+        if (!offsets.isEmpty()) {
+            consumer.commitAsync(offsets, (committed, e) -> {
+                if (e != null) {
+                    log.warn("Failed to commit batch offsets {}: {}", committed, e.getMessage());
+                }
+            });
+        }
+    }
+
+    /**
+     * 할당된 파티션의 lag 합계 (컨슈머가 가져온 위치 기준이므로 브로커 조회 없음)
+     * 
+     * @return 아직 위치를 모르는 파티션이 있으면 -1
+     */
+    private static long lag(Consumer<?, ?> consumer) {
+        long total = 0;
+        for (TopicPartition partition : consumer.assignment()) {
+            OptionalLong lag = consumer.currentLag(partition);
+            if (lag.isEmpty()) {
+                return -1;
+            }
+            total += lag.getAsLong();
+        }
+        return total;
+    }
+
+    /**
+     * 리스너 컨테이너의 poll 사이 대기 시간(idleBetweenPolls) 변경
+     * 
+     * 컨슈머 스레드는 자식 컨테이너마다 있고 각자 설정을 복사해 두므로 자식 컨테이너에 적용합니다.
+     * (다음 poll부터 반영됨)
+     */
+    private void applyFetchWait(Duration fetchWait) {
+        MessageListenerContainer container = listenerRegistry.getListenerContainer(KafkaConsumerConfig.BATCH_LISTENER_ID);
+        if (container instanceof ConcurrentMessageListenerContainer<?, ?> concurrent) {
+            concurrent.getContainers().forEach(child -> child.getContainerProperties().setIdleBetweenPolls(fetchWait.toMillis()));
+        } else if (container != null) {
+            container.getContainerProperties().setIdleBetweenPolls(fetchWait.toMillis());
+        }
+    }
+
+    /**
+     * 배치 리스너 컨테이너 idle 이벤트 처리
+     * 
+     * 새 레코드가 없는 동안에도 디스패처가 완료된 offset을 커밋할 수 있도록 합니다.
+     * idle 이벤트는 컨슈머 스레드에서 발행되므로 이벤트의 Consumer를 그대로 사용합니다.
+     * 
+     * @param event 리스너 컨테이너 idle 이벤트 (자식 컨테이너 ID는 batchListener-N)
+     */
+    @EventListener(condition = "event.listenerId.startsWith('batchListener-')")
+    public void onIdle(ListenerContainerIdleEvent event) {
+        dispatcher.onIdle(event.getConsumer());
     }
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+package kr.or.exmaple.kafkaConsume.listener;
+
+import kr.or.exmaple.kafkaCommon.retry.RetryAutoConfiguration;
+import kr.or.exmaple.kafkaCommon.retry.RetryTopics;
+import kr.or.exmaple.kafkaConsume.config.KafkaConsumerConfig;
+import kr.or.exmaple.kafkaConsume.service.MessageReceiveService;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * 재시도 토픽 리스너 (app.retry.enabled=true)
+ * 
+ * MessageReceiveService가 처리에 실패한 메시지를 보낸 재시도 토픽(sample.batch.topic.retry.N)을 구독하여,
+ * 단계별 대기 시간(retry-due-at)이 지난 메시지를 같은 서비스로 한 건씩 다시 처리합니다.
+ * 다시 실패하면 서비스가 다음 단계의 재시도 토픽으로, 마지막 단계에서는 DLT로 보냅니다.
+ * 
+ * 재시도 메시지는 적으므로 배치 리스너와 달리 레코드 리스너로 받습니다 (spring.kafka.listener.type: batch와 무관).
+ * 원본 토픽과 컨테이너가 분리되어 있으므로 재시도를 기다리는 동안에도 sample.batch.topic은 계속 처리됩니다.
+ * 아직 처리할 때가 아닌 메시지는 RetryNotDueException을 던져 그 재시도 파티션만 남은 시간 동안 멈춥니다
+ * (RetryListenerErrorHandler, 컨슈머 스레드는 잠들지 않음).
+ * 
+ * 설정 정보:
+ * - 토픽: app.retry.topics의 모든 재시도 토픽 (RetryTopics.retryTopics)
+ * - Consumer Group: sample-consumer
+ * - 컨테이너 팩토리: retryListenerContainerFactory (컨슈머 스레드 수는 app.retry.concurrency)
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.retry", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class KafkaRetryListener {
+
+    private final MessageReceiveService messageReceiveService;
+
+    private final RetryTopics retryTopics;
+
+    /**
+     * 재시도 토픽 메시지 수신
+     * 
+     * @param message 재시도 토픽의 레코드 (키, 본문, 헤더는 원본 레코드와 같고 retry-*, failure-*, original-* 헤더가 추가됨)
+     * @throws kr.or.exmaple.kafkaCommon.retry.RetryNotDueException 아직 처리할 시각 전인 경우
+     */
+    @KafkaListener(id = KafkaConsumerConfig.RETRY_LISTENER_ID, topics = "#{@retryTopics.retryTopics()}", groupId = "sample-consumer",
+            containerFactory = RetryAutoConfiguration.CONTAINER_FACTORY)
+    public void listen(ConsumerRecord<String, byte[]> message) {
+        retryTopics.checkDue(message, System.currentTimeMillis());
+        messageReceiveService.processMessage(message);
+    }
+}
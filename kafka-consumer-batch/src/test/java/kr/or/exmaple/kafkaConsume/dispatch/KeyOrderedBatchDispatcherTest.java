@@ -0,0 +1,234 @@
+package kr.or.exmaple.kafkaConsume.dispatch;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.or.exmaple.kafkaConsume.config.ConsumerProperties;
+import kr.or.exmaple.kafkaConsume.service.MessageReceiveService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.KafkaMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class KeyOrderedBatchDispatcherTest {
+
+	private static final TopicPartition P0 = new TopicPartition("sample.batch.topic", 0);
+
+	/**
+	 * 레인 8개에서 서로 다른 레인에 배정되는 Key
+	 */
+	private static final String SLOW_KEY = "slow";
+
+	private static final List<String> FAST_KEYS = List.of("key-a", "key-b", "key-c");
+
+	private final MockConsumer<String, byte[]> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+
+	private final KafkaMessageListenerContainer<String, byte[]> container = new KafkaMessageListenerContainer<>(
+			new DefaultKafkaConsumerFactory<>(Map.of()), new ContainerProperties("sample.batch.topic"));
+
+	private final KafkaListenerEndpointRegistry registry = new KafkaListenerEndpointRegistry() {
+		@Override
+		public MessageListenerContainer getListenerContainer(String id) {
+			return container;
+		}
+	};
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final Map<String, List<Long>> processed = new ConcurrentHashMap<>();
+
+	private final CountDownLatch releaseSlow = new CountDownLatch(1);
+
+	private KeyOrderedBatchDispatcher dispatcher;
+
+	@BeforeEach
+	void setUp() {
+		consumer.assign(List.of(P0));
+	}
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		releaseSlow.countDown();
+		dispatcher.destroy();
+	}
+
+	@Test
+	void keepsPerKeyOrderWhileSlowKeyDoesNotBlockOthers() {
+		dispatcher = dispatcher(1000, 500, record -> {
+			if (SLOW_KEY.equals(record.key()) && record.offset() == 0) {
+				block(releaseSlow);
+			}
+		});
+
+		// slow, key-a, key-b, key-c 순서로 번갈아 40개 (slow의 첫 레코드가 offset 0)
+		List<ConsumerRecord<String, byte[]>> records = new ArrayList<>();
+		for (int offset = 0; offset < 40; offset++) {
+			String key = offset % 4 == 0 ? SLOW_KEY : FAST_KEYS.get(offset % 4 - 1);
+			records.add(record(offset, key));
+		}
+		dispatcher.dispatch(records, consumer);
+
+		// slow의 첫 레코드가 멈춰 있어도 다른 Key는 모두 처리됨
+		await().atMost(5, TimeUnit.SECONDS).until(() -> FAST_KEYS.stream()
+				.allMatch(key -> processed.getOrDefault(key, List.of()).size() == 10));
+		assertThat(processed.get(SLOW_KEY)).isNull();
+
+		// offset 0이 끝나지 않았으므로 그 뒤로는 커밋되지 않음
+		dispatcher.onIdle(consumer);
+		assertThat(consumer.committed(Set.of(P0))).containsEntry(P0, new OffsetAndMetadata(0));
+
+		releaseSlow.countDown();
+		await().atMost(5, TimeUnit.SECONDS).until(() -> processed.getOrDefault(SLOW_KEY, List.of()).size() == 10);
+
+		// Key마다 offset 순서대로 처리됨
+		processed.values().forEach(offsets -> assertThat(offsets).isSorted());
+		assertThat(processed.get(SLOW_KEY)).containsExactly(0L, 4L, 8L, 12L, 16L, 20L, 24L, 28L, 32L, 36L);
+
+		awaitCommitted(40);
+	}
+
+	@Test
+	void pausesInsteadOfBlockingWhenMaxInFlightIsReached() {
+		dispatcher = dispatcher(4, 1, record -> block(releaseSlow));
+
+		List<ConsumerRecord<String, byte[]>> records = new ArrayList<>();
+		for (int offset = 0; offset < 6; offset++) {
+			records.add(record(offset, SLOW_KEY));
+		}
+		// 처리 슬롯을 기다리지 않고 바로 반환하며 컨테이너를 일시 정지
+		dispatcher.dispatch(records, consumer);
+		assertThat(container.isPauseRequested()).isTrue();
+
+		releaseSlow.countDown();
+		await().atMost(5, TimeUnit.SECONDS).until(() -> !container.isPauseRequested());
+		awaitCommitted(6);
+		assertThat(processed.get(SLOW_KEY)).containsExactly(0L, 1L, 2L, 3L, 4L, 5L);
+	}
+
+	@Test
+	void seeksBackToAFailedRecordInsteadOfCommittingPastIt() {
+		AtomicBoolean failOnce = new AtomicBoolean(true);
+		dispatcher = dispatcher(1000, 500, record -> {
+			if (record.offset() == 2 && failOnce.getAndSet(false)) {
+				throw new KafkaException("DLT publish failed");
+			}
+		});
+		consumer.updateBeginningOffsets(Map.of(P0, 0L));
+		consumer.seek(P0, 5);
+
+		dispatcher.dispatch(records(0, 5), consumer);
+
+		// 실패한 offset 2로 seek하고 그 앞까지만 커밋, 레인에 남은 3, 4는 처리하지 않음
+		await().atMost(5, TimeUnit.SECONDS).until(() -> {
+			dispatcher.onIdle(consumer);
+			return consumer.position(P0) == 2;
+		});
+		awaitCommitted(2);
+		await().atMost(5, TimeUnit.SECONDS).until(() -> inFlight() == 0);
+		assertThat(processed.get("key-a")).containsExactly(0L, 1L);
+
+		// 다시 받은 레코드부터 Key 순서대로 처리하고 끝까지 커밋
+		dispatcher.dispatch(records(2, 5), consumer);
+		awaitCommitted(5);
+		assertThat(processed.get("key-a")).containsExactly(0L, 1L, 2L, 3L, 4L);
+	}
+
+	@Test
+	void skipsQueuedRecordsOfRevokedPartitions() {
+		dispatcher = dispatcher(1000, 500, record -> {
+			if (record.offset() == 0) {
+				block(releaseSlow);
+			}
+		});
+
+		dispatcher.dispatch(records(0, 6), consumer);
+		await().atMost(5, TimeUnit.SECONDS).until(() -> inFlight() == 6);
+
+		// offset 0이 처리 중인 채로 revoke-timeout이 지나면 처리한 구간(없음)까지만 커밋
+		dispatcher.onPartitionsRevoked(consumer, List.of(P0));
+		assertThat(consumer.committed(Set.of(P0))).containsEntry(P0, new OffsetAndMetadata(0));
+
+		// 레인에 남아 있던 1~5는 새 소유자가 처리하므로 건너뜀
+		releaseSlow.countDown();
+		await().atMost(5, TimeUnit.SECONDS).until(() -> inFlight() == 0);
+		assertThat(processed.get("key-a")).containsExactly(0L);
+	}
+
+	/**
+	 * 워커가 완료 표시를 마칠 때까지 idle 이벤트처럼 커밋을 반복
+	 */
+	private void awaitCommitted(long offset) {
+		await().atMost(5, TimeUnit.SECONDS).until(() -> {
+			dispatcher.onIdle(consumer);
+			return new OffsetAndMetadata(offset).equals(consumer.committed(Set.of(P0)).get(P0));
+		});
+	}
+
+	private double inFlight() {
+		return meterRegistry.get("custom-kafka-inflight-records").gauge().value();
+	}
+
+	private static List<ConsumerRecord<String, byte[]>> records(long from, long to) {
+		List<ConsumerRecord<String, byte[]>> records = new ArrayList<>();
+		for (long offset = from; offset < to; offset++) {
+			records.add(record(offset, "key-a"));
+		}
+		return records;
+	}
+
+	private KeyOrderedBatchDispatcher dispatcher(int maxInFlight, int resumeInFlight,
+												 Consumer<ConsumerRecord<String, byte[]>> handler) {
+		ConsumerProperties properties = new ConsumerProperties();
+		properties.getParallel().setWorkers(4);
+		properties.getParallel().setLanes(8);
+		properties.getParallel().setMaxInFlight(maxInFlight);
+		properties.getParallel().setResumeInFlight(resumeInFlight);
+		properties.setRevokeTimeout(Duration.ofMillis(200));
+		MessageReceiveService service = new MessageReceiveService(null, null, null, null, null, null, null) {
+			@Override
+			public void processMessage(ConsumerRecord<String, byte[]> message) {
+				handler.accept(message);
+				processed.computeIfAbsent(message.key(), key -> new CopyOnWriteArrayList<>()).add(message.offset());
+			}
+		};
+		return new KeyOrderedBatchDispatcher(service, properties, registry, meterRegistry, new StandardEnvironment());
+	}
+
+	private static void block(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static ConsumerRecord<String, byte[]> record(long offset, String key) {
+		return new ConsumerRecord<>(P0.topic(), P0.partition(), offset, key,
+				("{\"api_tran_id\":\"" + offset + "\"}").getBytes(StandardCharsets.UTF_8));
+	}
+}
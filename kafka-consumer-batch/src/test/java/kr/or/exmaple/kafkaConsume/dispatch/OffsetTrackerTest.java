@@ -0,0 +1,109 @@
+package kr.or.exmaple.kafkaConsume.dispatch;
+
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OffsetTrackerTest {
+
+	private final TopicPartition p0 = new TopicPartition("sample.batch.topic", 0);
+
+	private final TopicPartition p1 = new TopicPartition("sample.batch.topic", 1);
+
+	private final OffsetTracker tracker = new OffsetTracker();
+
+	@Test
+	void commitsOnlyUpToLowestPendingOffset() {
+		for (long offset = 10; offset < 15; offset++) {
+			tracker.register(p0, offset);
+		}
+
+		tracker.complete(p0, 11);
+		tracker.complete(p0, 12);
+		assertThat(tracker.takeCommittable()).containsExactly(Map.entry(p0, new OffsetAndMetadata(10)));
+
+		tracker.complete(p0, 10);
+		assertThat(tracker.takeCommittable()).containsExactly(Map.entry(p0, new OffsetAndMetadata(13)));
+
+		tracker.complete(p0, 14);
+		tracker.complete(p0, 13);
+		assertThat(tracker.takeCommittable()).containsExactly(Map.entry(p0, new OffsetAndMetadata(15)));
+	}
+
+	@Test
+	void returnsNothingWhenCommittableOffsetHasNotAdvanced() {
+		tracker.register(p0, 0);
+		tracker.register(p0, 1);
+
+		assertThat(tracker.takeCommittable()).containsExactly(Map.entry(p0, new OffsetAndMetadata(0)));
+		assertThat(tracker.takeCommittable()).isEmpty();
+
+		tracker.complete(p0, 1);
+		assertThat(tracker.takeCommittable()).isEmpty();
+	}
+
+	@Test
+	void tracksPartitionsIndependently() {
+		tracker.register(p0, 5);
+		tracker.register(p1, 7);
+		tracker.complete(p1, 7);
+
+		assertThat(tracker.hasPending(List.of(p0))).isTrue();
+		assertThat(tracker.hasPending(List.of(p1))).isFalse();
+		assertThat(tracker.takeCommittable(List.of(p1))).containsExactly(Map.entry(p1, new OffsetAndMetadata(8)));
+
+		tracker.remove(List.of(p0));
+		tracker.complete(p0, 5);
+		assertThat(tracker.hasPending(List.of(p0))).isFalse();
+		assertThat(tracker.takeCommittable()).isEmpty();
+	}
+
+	@Test
+	void rewindCommitsUpToTheRewoundOffsetOnly() {
+		for (long offset = 0; offset < 5; offset++) {
+			tracker.register(p0, offset);
+		}
+		tracker.complete(p0, 1);
+		tracker.complete(p0, 3);
+
+		// offset 2에서 실패하여 되돌림: 2 이후는 다시 전달되므로 추적하지 않고 0이 끝나면 2까지만 커밋
+		tracker.rewind(p0, 2);
+		assertThat(tracker.takeCommittable()).containsExactly(Map.entry(p0, new OffsetAndMetadata(0)));
+		tracker.complete(p0, 0);
+		assertThat(tracker.takeCommittable()).containsExactly(Map.entry(p0, new OffsetAndMetadata(2)));
+
+		// 다시 전달된 레코드를 등록하면 이어서 추적
+		tracker.register(p0, 2);
+		tracker.complete(p0, 2);
+		assertThat(tracker.takeCommittable()).containsExactly(Map.entry(p0, new OffsetAndMetadata(3)));
+	}
+
+	@Test
+	void advancesPastRecordsTheListenerNeverReceived() {
+		MockConsumer<String, byte[]> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+		consumer.assign(List.of(p0, p1));
+		consumer.updateBeginningOffsets(Map.of(p0, 0L, p1, 0L));
+		// poll로 p0의 0~9, p1의 0~4를 받았지만 헤더 필터가 p0의 3, 4만 남기고 모두 걸러냄
+		consumer.seek(p0, 10);
+		consumer.seek(p1, 5);
+		tracker.register(p0, 3);
+		tracker.register(p0, 4);
+
+		tracker.advanceToPositions(consumer);
+		tracker.complete(p0, 4);
+
+		// p0은 처리 중인 3에서 멈추고, 걸러진 레코드만 받은 p1은 poll 위치까지 커밋
+		assertThat(tracker.takeCommittable()).containsOnly(
+				Map.entry(p0, new OffsetAndMetadata(3)), Map.entry(p1, new OffsetAndMetadata(5)));
+
+		tracker.complete(p0, 3);
+		assertThat(tracker.takeCommittable()).containsExactly(Map.entry(p0, new OffsetAndMetadata(10)));
+	}
+}
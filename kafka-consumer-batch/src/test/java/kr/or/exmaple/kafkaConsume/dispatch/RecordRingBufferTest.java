@@ -0,0 +1,94 @@
+package kr.or.exmaple.kafkaConsume.dispatch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecordRingBufferTest {
+
+	@Test
+	void roundsCapacityUpToPowerOfTwo() {
+		assertThat(new RecordRingBuffer<>(1000).capacity()).isEqualTo(1024);
+		assertThat(new RecordRingBuffer<>(1024).capacity()).isEqualTo(1024);
+	}
+
+	@Test
+	void rejectsOfferWhenFullAndReusesSlotsInOrder() {
+		RecordRingBuffer<Integer> buffer = new RecordRingBuffer<>(4);
+		for (int i = 0; i < 4; i++) {
+			assertThat(buffer.offer(i)).isTrue();
+		}
+		assertThat(buffer.offer(4)).isFalse();
+		assertThat(buffer.size()).isEqualTo(4);
+
+		assertThat(buffer.poll()).isZero();
+		assertThat(buffer.offer(4)).isTrue();
+
+		List<Integer> drained = new ArrayList<>();
+		Integer element;
+		while ((element = buffer.poll()) != null) {
+			drained.add(element);
+		}
+		assertThat(drained).containsExactly(1, 2, 3, 4);
+		assertThat(buffer.isEmpty()).isTrue();
+	}
+
+	@Test
+	void deliversEveryElementExactlyOnceAcrossThreads() throws Exception {
+		RecordRingBuffer<Integer> buffer = new RecordRingBuffer<>(64);
+		int producers = 2;
+		int perProducer = 20_000;
+		Set<Integer> received = ConcurrentHashMap.newKeySet();
+		AtomicInteger duplicates = new AtomicInteger();
+		AtomicInteger remaining = new AtomicInteger(producers * perProducer);
+
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> tasks = new ArrayList<>();
+			for (int p = 0; p < producers; p++) {
+				int base = p * perProducer;
+				tasks.add(pool.submit(() -> {
+					for (int i = 0; i < perProducer; i++) {
+						while (!buffer.offer(base + i)) {
+							Thread.yield();
+						}
+					}
+				}));
+			}
+			for (int c = 0; c < 2; c++) {
+				tasks.add(pool.submit(() -> {
+					while (remaining.get() > 0) {
+						Integer element = buffer.poll();
+						if (element == null) {
+							Thread.yield();
+						} else {
+							if (!received.add(element)) {
+								duplicates.incrementAndGet();
+							}
+							remaining.decrementAndGet();
+						}
+					}
+				}));
+			}
+			for (Future<?> task : tasks) {
+				task.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+
+		assertThat(duplicates).hasValue(0);
+		assertThat(received).hasSize(producers * perProducer);
+		assertThat(buffer.isEmpty()).isTrue();
+	}
+}
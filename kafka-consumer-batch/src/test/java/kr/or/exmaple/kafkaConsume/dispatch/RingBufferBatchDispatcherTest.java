@@ -0,0 +1,175 @@
+package kr.or.exmaple.kafkaConsume.dispatch;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.or.exmaple.kafkaConsume.config.ConsumerProperties;
+import kr.or.exmaple.kafkaConsume.service.MessageReceiveService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.KafkaMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class RingBufferBatchDispatcherTest {
+
+	private static final TopicPartition P0 = new TopicPartition("sample.batch.topic", 0);
+
+	private static final TopicPartition P1 = new TopicPartition("sample.batch.topic", 1);
+
+	private final MockConsumer<String, byte[]> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+
+	private final KafkaMessageListenerContainer<String, byte[]> container = new KafkaMessageListenerContainer<>(
+			new DefaultKafkaConsumerFactory<>(Map.of()), new ContainerProperties("sample.batch.topic"));
+
+	private final KafkaListenerEndpointRegistry registry = new KafkaListenerEndpointRegistry() {
+		@Override
+		public MessageListenerContainer getListenerContainer(String id) {
+			return container;
+		}
+	};
+
+	private final List<ConsumerRecord<String, byte[]>> processed = new CopyOnWriteArrayList<>();
+
+	private final CountDownLatch slowStarted = new CountDownLatch(1);
+
+	private final CountDownLatch releaseSlow = new CountDownLatch(1);
+
+	private RingBufferBatchDispatcher dispatcher;
+
+	@BeforeEach
+	void setUp() {
+		consumer.assign(List.of(P0, P1));
+	}
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		releaseSlow.countDown();
+		dispatcher.destroy();
+	}
+
+	@Test
+	void seeksBackToAFailedRecordInsteadOfCompletingIt() {
+		AtomicBoolean failOnce = new AtomicBoolean(true);
+		dispatcher = dispatcher(record -> {
+			if (record.offset() == 2 && failOnce.getAndSet(false)) {
+				throw new KafkaException("DLT publish failed");
+			}
+		});
+		consumer.updateBeginningOffsets(Map.of(P0, 0L));
+		consumer.seek(P0, 5);
+
+		dispatcher.dispatch(records(P0, 0, 5), consumer);
+
+		// 실패한 offset 2로 seek하고 그 앞까지만 커밋
+		await().atMost(5, TimeUnit.SECONDS).until(() -> {
+			dispatcher.onIdle(consumer);
+			return consumer.position(P0) == 2;
+		});
+		awaitCommitted(P0, 2);
+
+		// 다시 받은 레코드부터 처리하고 끝까지 커밋 (버퍼에 남아 있던 3, 4는 처리하지 않았으므로 중복 없음)
+		dispatcher.dispatch(records(P0, 2, 5), consumer);
+		awaitCommitted(P0, 5);
+		assertThat(offsets(P0)).containsExactly(0L, 1L, 2L, 3L, 4L);
+	}
+
+	@Test
+	void skipsBufferedRecordsOfRevokedPartitions() {
+		dispatcher = dispatcher(record -> {
+			if (record.partition() == P0.partition() && record.offset() == 0) {
+				slowStarted.countDown();
+				block(releaseSlow);
+			}
+		});
+
+		dispatcher.dispatch(records(P0, 0, 6), consumer);
+		block(slowStarted);
+
+		// offset 0이 처리 중인 채로 revoke-timeout이 지나면 처리한 구간(없음)까지만 커밋
+		dispatcher.onPartitionsRevoked(consumer, List.of(P0));
+		assertThat(consumer.committed(Set.of(P0))).containsEntry(P0, new OffsetAndMetadata(0));
+
+		// 버퍼에 남아 있던 1~5는 새 소유자가 처리하므로 건너뛰고, 뒤에 넣은 다른 파티션의 레코드는 처리
+		releaseSlow.countDown();
+		dispatcher.dispatch(records(P1, 0, 1), consumer);
+		awaitCommitted(P1, 1);
+		assertThat(offsets(P0)).containsExactly(0L);
+	}
+
+	/**
+	 * 처리 스레드가 완료 표시를 마칠 때까지 idle 이벤트처럼 커밋을 반복
+	 */
+	private void awaitCommitted(TopicPartition partition, long offset) {
+		await().atMost(5, TimeUnit.SECONDS).until(() -> {
+			dispatcher.onIdle(consumer);
+			return new OffsetAndMetadata(offset).equals(consumer.committed(Set.of(partition)).get(partition));
+		});
+	}
+
+	private List<Long> offsets(TopicPartition partition) {
+		return processed.stream()
+				.filter(record -> record.partition() == partition.partition())
+				.map(ConsumerRecord::offset)
+				.toList();
+	}
+
+	private static List<ConsumerRecord<String, byte[]>> records(TopicPartition partition, long from, long to) {
+		List<ConsumerRecord<String, byte[]>> records = new ArrayList<>();
+		for (long offset = from; offset < to; offset++) {
+			records.add(new ConsumerRecord<>(partition.topic(), partition.partition(), offset, "key-a",
+					("{\"api_tran_id\":\"" + offset + "\"}").getBytes(StandardCharsets.UTF_8)));
+		}
+		return records;
+	}
+
+	/**
+	 * 처리 스레드 1개 - 버퍼에 넣은 순서대로 처리되므로 건너뛴 레코드를 순서로 확인할 수 있음
+	 */
+	private RingBufferBatchDispatcher dispatcher(Consumer<ConsumerRecord<String, byte[]>> handler) {
+		ConsumerProperties properties = new ConsumerProperties();
+		properties.getRingBuffer().setCapacity(64);
+		properties.getRingBuffer().setHighWatermark(32);
+		properties.getRingBuffer().setLowWatermark(8);
+		properties.getRingBuffer().setWorkers(1);
+		properties.setRevokeTimeout(Duration.ofMillis(200));
+		MessageReceiveService service = new MessageReceiveService(null, null, null, null, null, null, null) {
+			@Override
+			public void processMessage(ConsumerRecord<String, byte[]> message) {
+				handler.accept(message);
+				processed.add(message);
+			}
+		};
+		return new RingBufferBatchDispatcher(service, properties, registry, new SimpleMeterRegistry());
+	}
+
+	private static void block(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
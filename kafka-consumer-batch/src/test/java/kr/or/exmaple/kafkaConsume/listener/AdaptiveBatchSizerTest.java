@@ -0,0 +1,83 @@
+package kr.or.exmaple.kafkaConsume.listener;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.or.exmaple.kafkaConsume.config.ConsumerProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveBatchSizerTest {
+
+	private static final long FAST_RECORD_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(new ConsumerProperties(), meterRegistry);
+
+	@Test
+	void growsDuringBacklogAndShrinksInSteadyState() {
+		assertThat(sizer.batchSize()).isEqualTo(10);
+		assertThat(sizer.fetchWait()).isEqualTo(Duration.ofMillis(20));
+
+		// 백로그: lag이 lag-threshold를 넘는 동안 두 배씩 max-batch-size까지
+		long lag = 50_000;
+		for (int poll = 0; poll < 10; poll++) {
+			int size = sizer.batchSize();
+			lag -= size;
+			sizer.update(size, size * FAST_RECORD_NANOS, lag);
+		}
+		assertThat(sizer.batchSize()).isEqualTo(500);
+		assertThat(sizer.fetchWait()).isZero();
+		assertThat(meterRegistry.get("custom-kafka-adaptive-batch-size").gauge().value()).isEqualTo(500);
+
+		// 정상 상태: lag이 사라지면 min-batch-size로 줄고 대기 시간은 max-fetch-wait로
+		for (int poll = 0; poll < 10; poll++) {
+			sizer.update(3, 3 * FAST_RECORD_NANOS, 0);
+		}
+		assertThat(sizer.batchSize()).isEqualTo(10);
+		assertThat(sizer.fetchWait()).isEqualTo(Duration.ofMillis(20));
+		assertThat(meterRegistry.get("custom-kafka-adaptive-lag").gauge().value()).isZero();
+	}
+
+	@Test
+	void capsBatchSizeByTargetBatchTime() {
+		// 레코드당 5ms면 target-batch-time(500ms) 안에 100개까지
+		long slowRecordNanos = TimeUnit.MILLISECONDS.toNanos(5);
+		for (int poll = 0; poll < 20; poll++) {
+			int size = sizer.batchSize();
+			sizer.update(size, size * slowRecordNanos, 50_000);
+		}
+		assertThat(sizer.batchSize()).isEqualTo(100);
+	}
+
+	@Test
+	void growsBelowLagThresholdWhileLagExceedsOneBatch() {
+		// lag(300)이 lag-threshold 미만이어도 현재 배치 크기보다 크면 줄이지 않고 키움
+		sizer.update(10, 10 * FAST_RECORD_NANOS, 300);
+		assertThat(sizer.batchSize()).isEqualTo(20);
+		sizer.update(20, 20 * FAST_RECORD_NANOS, 280);
+		assertThat(sizer.batchSize()).isEqualTo(40);
+
+		// 한 배치로 비울 수 있으면 다시 줄임
+		sizer.update(40, 40 * FAST_RECORD_NANOS, 30);
+		assertThat(sizer.batchSize()).isEqualTo(20);
+	}
+
+	@Test
+	void interpolatesFetchWaitBelowLagThreshold() {
+		sizer.update(10, 10 * FAST_RECORD_NANOS, 500);
+		assertThat(sizer.fetchWait()).isEqualTo(Duration.ofMillis(10));
+	}
+
+	@Test
+	void keepsSizeWhenLagIsUnknown() {
+		sizer.update(10, 10 * FAST_RECORD_NANOS, 50_000);
+		assertThat(sizer.batchSize()).isEqualTo(20);
+
+		sizer.update(20, 20 * FAST_RECORD_NANOS, -1);
+		assertThat(sizer.batchSize()).isEqualTo(20);
+	}
+}
@@ -0,0 +1,107 @@
+package kr.or.exmaple.kafkaConsume.listener;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.or.exmaple.kafkaCommon.metrics.KafkaMetrics;
+import kr.or.exmaple.kafkaCommon.metrics.KafkaMetricsProperties;
+import kr.or.exmaple.kafkaConsume.config.ConsumerProperties;
+import kr.or.exmaple.kafkaConsume.dispatch.BatchDispatcher;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KafkaBatchListenerTest {
+
+	private static final TopicPartition P0 = new TopicPartition("sample.batch.topic", 0);
+
+	private static final TopicPartition P1 = new TopicPartition("sample.batch.topic", 1);
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final List<ConsumerRecord<String, byte[]>> dispatched = new ArrayList<>();
+
+	private final List<Integer> chunkSizes = new ArrayList<>();
+
+	private final MockConsumer<String, byte[]> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+
+	@Test
+	void dispatchesThePollInChunksOfTheChosenBatchSizeAndCommitsEachChunk() {
+		ConsumerProperties properties = new ConsumerProperties();
+		properties.getAdaptive().setEnabled(true);
+		KafkaBatchListener listener = listener(properties);
+		consumer.assign(List.of(P0, P1));
+		consumer.updateBeginningOffsets(Map.of(P0, 0L, P1, 0L));
+		for (int offset = 0; offset < 8; offset++) {
+			consumer.addRecord(record(P0, offset));
+			consumer.addRecord(record(P1, offset));
+		}
+
+		// 16개를 poll하면 현재 배치 크기(min-batch-size = 10)씩 나눠 모두 처리 (버리거나 seek하지 않음)
+		List<ConsumerRecord<String, byte[]>> polled = poll();
+		assertThat(polled).hasSize(16);
+		listener.listen(polled, consumer);
+
+		assertThat(chunkSizes).containsExactly(10, 6);
+		assertThat(dispatched).containsExactlyElementsOf(polled);
+		assertThat(consumer.position(P0)).isEqualTo(8);
+		assertThat(consumer.position(P1)).isEqualTo(8);
+
+		// 첫 배치는 리스너가 파티션별 마지막 레코드의 다음 offset까지 커밋, 마지막 배치는 컨테이너가 커밋
+		Map<TopicPartition, Long> firstChunkEnd = new HashMap<>();
+		for (ConsumerRecord<String, byte[]> record : polled.subList(0, 10)) {
+			firstChunkEnd.put(new TopicPartition(record.topic(), record.partition()), record.offset() + 1);
+		}
+		Map<TopicPartition, OffsetAndMetadata> committed = consumer.committed(Set.of(P0, P1));
+		assertThat(committed).hasSize(firstChunkEnd.size());
+		firstChunkEnd.forEach((partition, offset) -> assertThat(committed.get(partition).offset()).isEqualTo(offset));
+	}
+
+	@Test
+	void dispatchesWholePollWhenAdaptiveSizingIsDisabled() {
+		KafkaBatchListener listener = listener(new ConsumerProperties());
+		consumer.assign(List.of(P0));
+		consumer.updateBeginningOffsets(Map.of(P0, 0L));
+		for (int offset = 0; offset < 16; offset++) {
+			consumer.addRecord(record(P0, offset));
+		}
+
+		listener.listen(poll(), consumer);
+
+		assertThat(chunkSizes).containsExactly(16);
+		// 커밋은 리스너 컨테이너가 담당
+		assertThat(consumer.committed(Set.of(P0))).isEmpty();
+	}
+
+	private KafkaBatchListener listener(ConsumerProperties properties) {
+		BatchDispatcher dispatcher = (records, ignored) -> {
+			chunkSizes.add(records.size());
+			dispatched.addAll(records);
+		};
+		return new KafkaBatchListener(dispatcher, new KafkaMetrics(meterRegistry, new KafkaMetricsProperties()),
+				new AdaptiveBatchSizer(properties, meterRegistry), new KafkaListenerEndpointRegistry());
+	}
+
+	private List<ConsumerRecord<String, byte[]>> poll() {
+		List<ConsumerRecord<String, byte[]>> records = new ArrayList<>();
+		consumer.poll(Duration.ZERO).forEach(records::add);
+		return records;
+	}
+
+	private static ConsumerRecord<String, byte[]> record(TopicPartition partition, long offset) {
+		return new ConsumerRecord<>(partition.topic(), partition.partition(), offset, "key-" + offset,
+				("{\"api_tran_id\":\"" + partition.partition() + "-" + offset + "\"}").getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,132 @@
+package kr.or.exmaple.kafkaConsume.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.or.exmaple.kafkaCommon.codec.FieldProjection;
+import kr.or.exmaple.kafkaCommon.codec.PayloadCodecs;
+import kr.or.exmaple.kafkaCommon.dedup.DedupProperties;
+import kr.or.exmaple.kafkaCommon.dedup.IdempotencyCache;
+import kr.or.exmaple.kafkaCommon.logging.PayloadLogProperties;
+import kr.or.exmaple.kafkaCommon.logging.PayloadLogSampler;
+import kr.or.exmaple.kafkaCommon.metrics.KafkaMetrics;
+import kr.or.exmaple.kafkaCommon.metrics.KafkaMetricsProperties;
+import kr.or.exmaple.kafkaCommon.retry.FailedRecordPublisher;
+import kr.or.exmaple.kafkaCommon.retry.RetryHeaders;
+import kr.or.exmaple.kafkaCommon.retry.RetryTopics;
+import kr.or.exmaple.kafkaConsume.config.ConsumerProperties;
+import kr.or.exmaple.kafkaConsume.config.ConsumerProperties.ParseMode;
+import kr.or.exmaple.kafkaConsume.config.ConsumerProperties.PayloadMode;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.kafka.mock.MockProducerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MessageReceiveServiceTest {
+
+	private static final String TOPIC = "sample.batch.topic";
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	/**
+	 * KafkaTemplate이 전송마다 닫는 프로듀서를 여러 번 쓰기 위해 close를 무시
+	 */
+	private final MockProducer<String, byte[]> producer = new MockProducer<>(true, new StringSerializer(), new ByteArraySerializer()) {
+		@Override
+		public void close(Duration timeout) {
+		}
+	};
+
+	private final IdempotencyCache idempotencyCache = new IdempotencyCache(dedupProperties(), meterRegistry);
+
+	private final AtomicBoolean failing = new AtomicBoolean(true);
+
+	private final MessageReceiveService service = service(new ConsumerProperties());
+
+	@Test
+	void sendsProcessingFailureToTheFirstRetryTier() {
+		service.processMessage(record(0, "tran-1"));
+
+		assertThat(producer.history()).hasSize(1);
+		ProducerRecord<String, byte[]> sent = producer.history().get(0);
+		assertThat(sent.topic()).isEqualTo("sample.batch.topic.retry.0");
+		assertThat(sent.key()).isEqualTo("user-1");
+		assertThat(new String(sent.headers().lastHeader(RetryHeaders.ORIGINAL_OFFSET).value(), StandardCharsets.UTF_8))
+				.isEqualTo("0");
+		assertThat(new String(sent.headers().lastHeader(RetryHeaders.FAILURE_EXCEPTION).value(), StandardCharsets.UTF_8))
+				.isEqualTo(IllegalStateException.class.getName());
+	}
+
+	@Test
+	void redeliveryIsNotSkippedAsDuplicateWhenTheRetryPublishFails() {
+		producer.sendException = new RuntimeException("broker unavailable");
+
+		// 재시도 토픽으로 보내지 못하면 컨테이너가 같은 레코드를 다시 전달하도록 예외를 던짐
+		assertThatThrownBy(() -> service.processMessage(record(0, "tran-1"))).hasMessageContaining("broker unavailable");
+
+		// 다시 받은 레코드는 중복으로 건너뛰지 않고 처리
+		producer.sendException = null;
+		failing.set(false);
+		service.processMessage(record(0, "tran-1"));
+		assertThat(idempotencyCache.isDuplicate("tran-1")).isTrue();
+		assertThat(producer.history()).isEmpty();
+	}
+
+	@Test
+	void sendsTombstoneToTheDltWithoutRetryInStringMode() {
+		for (ParseMode parseMode : ParseMode.values()) {
+			ConsumerProperties properties = new ConsumerProperties();
+			properties.setPayloadMode(PayloadMode.STRING);
+			properties.setParseMode(parseMode);
+
+			service(properties).processMessage(new ConsumerRecord<>(TOPIC, 0, 0, "user-1", null));
+		}
+
+		// 다시 처리해도 읽을 본문이 없으므로 재시도 토픽을 거치지 않음
+		assertThat(producer.history()).hasSize(2).allSatisfy(sent -> {
+			assertThat(sent.topic()).isEqualTo("sample.batch.topic.dlt");
+			assertThat(sent.value()).isNull();
+			assertThat(new String(sent.headers().lastHeader(RetryHeaders.FAILURE_EXCEPTION).value(), StandardCharsets.UTF_8))
+					.isEqualTo(IllegalArgumentException.class.getName());
+		});
+	}
+
+	private MessageReceiveService service(ConsumerProperties properties) {
+		FailedRecordPublisher publisher = new FailedRecordPublisher(
+				new RetryTopics(List.of(TOPIC), List.of(Duration.ofSeconds(1), Duration.ofSeconds(10))),
+				new MockProducerFactory<>(() -> producer), 256, Duration.ofSeconds(5), meterRegistry);
+		return new MessageReceiveService(properties, new KafkaMetrics(meterRegistry, new KafkaMetricsProperties()),
+				new PayloadLogSampler(new PayloadLogProperties()), idempotencyCache, new PayloadCodecs(),
+				FieldProjection.of("api_tran_id", "key"),
+				new StaticListableBeanFactory(Map.of("failedRecordPublisher", publisher)).getBeanProvider(FailedRecordPublisher.class)) {
+			@Override
+			protected void handle(ConsumerRecord<String, byte[]> message, Object parsed) {
+				if (failing.get()) {
+					throw new IllegalStateException("database unavailable");
+				}
+			}
+		};
+	}
+
+	private static DedupProperties dedupProperties() {
+		DedupProperties properties = new DedupProperties();
+		properties.setEnabled(true);
+		return properties;
+	}
+
+	private static ConsumerRecord<String, byte[]> record(long offset, String apiTranId) {
+		String json = "{\"api_tran_id\":\"" + apiTranId + "\",\"key\":\"user-1\"}";
+		return new ConsumerRecord<>(TOPIC, 0, offset, "user-1", json.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,319 @@
+package kr.or.exmaple.kafkaConsume.autoscale;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import kr.or.exmaple.kafkaCommon.lag.ConsumerLagReader;
+import kr.or.exmaple.kafkaCommon.metrics.KafkaMetrics;
+import kr.or.exmaple.kafkaConsume.config.ConsumerProperties;
+import kr.or.exmaple.kafkaConsume.config.KafkaConsumerConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 레코드 리스너 컨테이너의 동시성(컨슈머 스레드 수)을 lag과 처리 시간에 따라 조정하는 컨트롤러
+ * 
+ * interval마다 다음을 관측하여 ScalingPolicy로 동시성을 정합니다.
+ * - 파티션별 lag: ConsumerLagReader로 컨슈머 그룹의 커밋 offset과 파티션 끝 offset을 조회 (컨슈머 스레드와 무관)
+ * - 처리 시간: 리스너가 기록하는 custom-kafka-process 타이머의 직전 관측 이후 건수와 시간 합계
+ * 
+ * concurrency는 컨테이너를 시작할 때만 반영되므로, 바꿀 때는 컨테이너를 멈추고(처리 중인 레코드 완료와 offset 커밋까지)
+ * concurrency를 바꾼 뒤 다시 시작합니다. 이때 컨슈머 그룹 리밸런스가 일어나므로 줄이는 쪽은 ScalingPolicy가 감쇠합니다.
+ * 제한 시간 안에 멈추지 않으면 조정을 취소하고, 완전히 멈춘 뒤 기존 concurrency로 다시 시작하여 다음 관측에서 다시 시도합니다.
+ * 운영자가 컨테이너를 멈췄거나(actuator, 재시작 중) pause한 동안에는 관측만 건너뜁니다.
+ * 
+ * 자동 조정을 끈 경우(app.consumer.autoscale.enabled: false) 스케줄러를 돌리지 않으며,
+ * 상태 조회와 동시성 메트릭은 현재 컨테이너 값으로 계속 제공합니다.
+ * 
+ * 메트릭:
+ * - custom-kafka-autoscale-concurrency: 현재 리스너 컨테이너 동시성
+ * - custom-kafka-autoscale-desired: 마지막 관측에서 필요하다고 계산한 동시성
+ * - custom-kafka-autoscale-lag: 컨슈머 그룹 lag 합계
+ * - custom-kafka-autoscale-utilization: 컨슈머 스레드 평균 사용률
+ * - custom-kafka-autoscale-decisions (direction): 동시성을 늘리거나(up) 줄인(down) 횟수
+ * (파티션별 lag은 app.lag의 custom-kafka-consumer-lag, 상태 조회에도 포함)
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@Component
+@Slf4j
+public class ConcurrencyAutoscaler implements DisposableBean {
+
+    /**
+     * 컨테이너를 멈출 때 shutdown-timeout에 더해 기다리는 시간
+     */
+    private static final Duration STOP_GRACE = Duration.ofSeconds(5);
+
+    private final ConsumerProperties.Autoscale properties;
+
+    private final ScalingPolicy policy;
+
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+
+    private final ConsumerLagReader lagReader;
+
+    private final KafkaMetrics kafkaMetrics;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final Counter scaledUp;
+
+    private final Counter scaledDown;
+
+    /**
+     * 최근 동시성 변경 기록 (최대 history개)
+     */
+    private final Deque<ScalingEvent> history = new ArrayDeque<>();
+
+    /**
+     * 직전 관측 시점의 처리 타이머 누적값과 lag (스케줄러 스레드에서만 사용)
+     */
+    private long lastCount;
+
+    private double lastTotalNanos;
+
+    private long lastEvaluatedNanos = System.nanoTime();
+
+    private long lastLag = -1;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public ConcurrencyAutoscaler(ConsumerProperties consumerProperties, KafkaListenerEndpointRegistry listenerRegistry,
+                                 ConsumerLagReader lagReader, KafkaMetrics kafkaMetrics, MeterRegistry meterRegistry) {
+        this.properties = consumerProperties.getAutoscale();
+        this.policy = new ScalingPolicy(properties);
+        this.listenerRegistry = listenerRegistry;
+        this.lagReader = lagReader;
+        this.kafkaMetrics = kafkaMetrics;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("custom-kafka-autoscale-concurrency", this, ConcurrencyAutoscaler::concurrency)
+                .description("Consumer threads of the record listener container")
+                .register(meterRegistry);
+        Gauge.builder("custom-kafka-autoscale-desired", this, autoscaler -> autoscaler.snapshot.desired())
+                .description("Concurrency the last evaluation asked for before hysteresis")
+                .register(meterRegistry);
+        Gauge.builder("custom-kafka-autoscale-lag", this, autoscaler -> autoscaler.snapshot.lag())
+                .description("Committed-offset lag of the record listener's consumer group")
+                .register(meterRegistry);
+        Gauge.builder("custom-kafka-autoscale-utilization", this, autoscaler -> autoscaler.snapshot.utilization())
+                .description("Average share of time each consumer thread spent processing in the last interval")
+                .register(meterRegistry);
+        this.scaledUp = decisions("up");
+        this.scaledDown = decisions("down");
+
+        if (properties.isEnabled()) {
+            long interval = properties.getInterval().toMillis();
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("concurrency-autoscaler-"));
+            scheduler.scheduleWithFixedDelay(this::evaluate, interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    /**
+     * 현재 상태 (actuator /actuator/concurrency)
+     */
+    public Status status() {
+        List<ScalingEvent> decisions;
+        synchronized (history) {
+            decisions = List.copyOf(history);
+        }
+        Snapshot current = snapshot;
+        return new Status(properties.isEnabled(), KafkaConsumerConfig.RECORD_LISTENER_ID, concurrency(), current.partitions(),
+                current.desired(), current.reason(), current.lag(), current.partitionLag(), current.utilization(),
+                current.evaluatedAt(), decisions);
+    }
+
+    /**
+     * 관측 한 번: lag과 처리 시간을 모아 정책에 묻고, 동시성이 바뀌면 컨테이너 재시작
+     */
+    private void evaluate() {
+        try {
+            if (!(listenerRegistry.getListenerContainer(KafkaConsumerConfig.RECORD_LISTENER_ID)
+                    instanceof ConcurrentMessageListenerContainer<?, ?> container)
+                    || !container.isRunning() || container.isPauseRequested()) {
+                return;
+            }
+            List<String> topics = Arrays.asList(container.getContainerProperties().getTopics());
+            Map<TopicPartition, ConsumerLagReader.PartitionLag> partitionLag = lagReader.read(container.getGroupId(), topics);
+            long lag = partitionLag.values().stream().mapToLong(ConsumerLagReader.PartitionLag::lag).sum();
+
+            long count = 0;
+            double totalNanos = 0;
+            for (String topic : topics) {
+                Timer process = kafkaMetrics.consumer(topic).process();
+                count += process.count();
+                totalNanos += process.totalTime(TimeUnit.NANOSECONDS);
+            }
+            long now = System.nanoTime();
+            ScalingPolicy.Observation observation = new ScalingPolicy.Observation(container.getConcurrency(), partitionLag.size(),
+                    lag, lastLag < 0 ? 0 : lag - lastLag, count - lastCount, (long) (totalNanos - lastTotalNanos),
+                    now - lastEvaluatedNanos);
+            lastCount = count;
+            lastTotalNanos = totalNanos;
+            lastEvaluatedNanos = now;
+            lastLag = lag;
+
+            ScalingPolicy.Decision decision = policy.decide(observation, now);
+            publish(observation, decision, partitionLag);
+            if (decision.target() != observation.concurrency()) {
+                resize(container, observation, decision);
+            }
+        } catch (Exception e) {
+            log.warn("Concurrency autoscaler evaluation failed, keeping current concurrency", e);
+        }
+    }
+
+    /**
+     * 컨테이너를 멈추고 concurrency를 바꾼 뒤 다시 시작
+     * 
+     * stop은 모든 컨슈머 스레드가 처리 중인 레코드를 끝내고 offset을 커밋한 뒤 콜백을 호출합니다.
+     * 제한 시간 안에 멈추지 않으면 아직 이전 컨슈머가 남아 있으므로 바로 다시 시작하지 않습니다.
+     * 조정을 취소하고, 멈춘 뒤 기존 concurrency로 다시 시작하여 컨테이너가 멈춘 채로 남지 않게 합니다.
+     */
+    private void resize(ConcurrentMessageListenerContainer<?, ?> container, ScalingPolicy.Observation observation,
+                        ScalingPolicy.Decision decision) throws InterruptedException {
+        int from = observation.concurrency();
+        int to = decision.target();
+        log.info("Scaling {} concurrency {} -> {} ({}, lag {}, utilization {})", KafkaConsumerConfig.RECORD_LISTENER_ID,
+                from, to, decision.reason(), observation.lag(), String.format("%.2f", observation.utilization()));
+
+        CompletableFuture<Void> stopped = new CompletableFuture<>();
+        container.stop(() -> stopped.complete(null));
+        long wait = container.getContainerProperties().getShutdownTimeout() + STOP_GRACE.toMillis();
+        try {
+            stopped.get(wait, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            log.warn("{} did not stop within {} ms, aborting resize to {} and restarting with concurrency {} once stopped",
+                    KafkaConsumerConfig.RECORD_LISTENER_ID, wait, to, from);
+            stopped.thenRunAsync(() -> restartAfterAbortedResize(container, from), scheduler);
+            return;
+        }
+        container.setConcurrency(to);
+        container.start();
+
+        (to > from ? scaledUp : scaledDown).increment();
+        ScalingEvent event = new ScalingEvent(Instant.now(), from, to, decision.desired(), decision.reason(),
+                observation.lag(), observation.utilization());
+        synchronized (history) {
+            history.addFirst(event);
+            while (history.size() > Math.max(0, properties.getHistory())) {
+                history.removeLast();
+            }
+        }
+    }
+
+    /**
+     * 취소한 조정의 컨테이너가 멈춘 뒤 기존 concurrency로 다시 시작 (그 사이 운영자가 시작했으면 그대로 둠)
+     */
+    private void restartAfterAbortedResize(ConcurrentMessageListenerContainer<?, ?> container, int concurrency) {
+        if (container.isRunning()) {
+            return;
+        }
+        log.info("{} stopped after aborted resize, restarting with concurrency {}", KafkaConsumerConfig.RECORD_LISTENER_ID,
+                concurrency);
+        container.setConcurrency(concurrency);
+        container.start();
+    }
+
+    /**
+     * 관측 결과를 메트릭과 상태 조회에 반영
+     */
+    private void publish(ScalingPolicy.Observation observation, ScalingPolicy.Decision decision,
+                         Map<TopicPartition, ConsumerLagReader.PartitionLag> partitionLag) {
+        Map<String, Long> byPartition = new TreeMap<>();
+        partitionLag.forEach((partition, position) -> byPartition.put(partition.toString(), position.lag()));
+        snapshot = new Snapshot(observation.partitions(), decision.desired(), decision.reason(), observation.lag(),
+                byPartition, observation.utilization(), Instant.now());
+    }
+
+    private Counter decisions(String direction) {
+        return Counter.builder("custom-kafka-autoscale-decisions")
+                .description("Concurrency changes applied to the record listener container")
+                .tag("direction", direction)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 현재 리스너 컨테이너 동시성 (컨테이너가 아직 없으면 0)
+     */
+    private int concurrency() {
+        MessageListenerContainer container = listenerRegistry.getListenerContainer(KafkaConsumerConfig.RECORD_LISTENER_ID);
+        return container instanceof ConcurrentMessageListenerContainer<?, ?> concurrent ? concurrent.getConcurrency() : 0;
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * 마지막 관측 결과
+     */
+    private record Snapshot(int partitions, int desired, String reason, long lag, Map<String, Long> partitionLag,
+                            double utilization, Instant evaluatedAt) {
+
+        private static final Snapshot EMPTY = new Snapshot(0, 0, null, 0, Map.of(), 0, null);
+    }
+
+    /**
+     * 동시성 변경 기록
+     * 
+     * @param time 변경 시각
+     * @param from 변경 전 동시성
+     * @param to 변경 후 동시성
+     * @param desired 필요하다고 계산한 동시성
+     * @param reason 변경 이유 (lag, utilization, idle)
+     * @param lag 당시 lag 합계
+     * @param utilization 당시 컨슈머 스레드 평균 사용률
+     */
+    public record ScalingEvent(Instant time, int from, int to, int desired, String reason, long lag, double utilization) {
+    }
+
+    /**
+     * 상태 조회 결과
+     * 
+     * @param enabled 자동 조정 사용 여부
+     * @param listenerId 조정 대상 리스너 컨테이너 ID
+     * @param concurrency 현재 동시성
+     * @param partitions 구독 토픽의 파티션 수 (동시성 상한)
+     * @param desired 마지막 관측에서 필요하다고 계산한 동시성
+     * @param reason 마지막 관측의 결정 이유
+     * @param lag 컨슈머 그룹 lag 합계
+     * @param partitionLag 파티션별 lag (토픽-파티션 → lag)
+     * @param utilization 컨슈머 스레드 평균 사용률
+     * @param evaluatedAt 마지막 관측 시각 (관측 전이면 null)
+     * @param decisions 최근 동시성 변경 (최신순)
+     */
+    public record Status(boolean enabled, String listenerId, int concurrency, int partitions, int desired, String reason,
+                         long lag, Map<String, Long> partitionLag, double utilization, Instant evaluatedAt,
+                         List<ScalingEvent> decisions) {
+    }
+}
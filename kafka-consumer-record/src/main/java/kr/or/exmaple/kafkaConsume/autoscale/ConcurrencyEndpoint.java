@@ -0,0 +1,27 @@
+package kr.or.exmaple.kafkaConsume.autoscale;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * 리스너 동시성 자동 조정 상태 조회 (GET /actuator/concurrency)
+ * 
+ * 현재 동시성, 파티션별 lag, 마지막 결정과 최근 동시성 변경 기록을 보여줍니다.
+ * management.endpoints.web.exposure.include에 concurrency를 추가해야 웹으로 노출됩니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@Component
+@Endpoint(id = "concurrency")
+@RequiredArgsConstructor
+public class ConcurrencyEndpoint {
+
+    private final ConcurrencyAutoscaler autoscaler;
+
+    @ReadOperation
+    public ConcurrencyAutoscaler.Status concurrency() {
+        return autoscaler.status();
+    }
+}
@@ -0,0 +1,151 @@
+package kr.or.exmaple.kafkaConsume.autoscale;
+
+import kr.or.exmaple.kafkaConsume.config.ConsumerProperties;
+
+/**
+ * 관측값으로 리스너 컨테이너에 필요한 컨슈머 스레드 수를 정하는 정책
+ * 
+ * 필요 스레드 수 = (들어오는 속도 + 비울 lag / drain-time) × 레코드당 처리 시간 / target-utilization
+ * - 들어오는 속도: 처리한 속도 + lag 증가 속도 (lag이 줄고 있으면 그만큼 덜 들어오는 것)
+ * - lag이 lag-threshold 미만이면 lag을 비우는 몫은 더하지 않음
+ * - 처리한 레코드가 없으면 처리 시간을 알 수 없으므로, lag이 lag-threshold 이상이면 하나 늘리고 아니면 하한으로
+ * - 결과는 min-concurrency ~ min(max-concurrency, 파티션 수)로 제한 (파티션보다 많은 스레드는 할 일이 없음)
+ * 
+ * 동시성을 바꾸면 컨테이너를 다시 시작하여 컨슈머 그룹 리밸런스가 일어나므로:
+ * - 늘릴 때: scale-up-cooldown이 지났으면 필요한 만큼 한 번에
+ * - 줄일 때: scale-down-stable-intervals번 연속으로 필요 수가 현재보다 적고 scale-down-cooldown이 지났을 때 하나만
+ * 
+ * 스케줄러 스레드 하나에서만 호출하므로 동기화하지 않습니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+public class ScalingPolicy {
+
+    private final ConsumerProperties.Autoscale properties;
+
+    /**
+     * 마지막으로 동시성을 바꾼 시각 (System.nanoTime 기준, 바꾼 적 없으면 null)
+     */
+    private Long lastScaleNanos;
+
+    /**
+     * 필요 스레드 수가 현재보다 적었던 연속 횟수
+     */
+    private int belowCount;
+
+    public ScalingPolicy(ConsumerProperties.Autoscale properties) {
+        if (properties.getMinConcurrency() < 1
+                || (properties.getMaxConcurrency() > 0 && properties.getMaxConcurrency() < properties.getMinConcurrency())) {
+            throw new IllegalArgumentException("Autoscale bounds must satisfy 1 <= min-concurrency <= max-concurrency (or max-concurrency <= 0): "
+                    + properties.getMinConcurrency() + ", " + properties.getMaxConcurrency());
+        }
+        if (properties.getTargetUtilization() <= 0 || properties.getTargetUtilization() > 1) {
+            throw new IllegalArgumentException("Autoscale target-utilization must be in (0, 1]: " + properties.getTargetUtilization());
+        }
+        this.properties = properties;
+    }
+
+    /**
+     * 한 interval의 관측값으로 다음 동시성 결정
+     * 
+     * @param observation interval 동안의 관측값
+     * @param nowNanos 현재 시각 (System.nanoTime 기준)
+     * @return 적용할 동시성과 이유 (바꾸지 않으면 target이 현재 동시성)
+     */
+    public Decision decide(Observation observation, long nowNanos) {
+        int current = observation.concurrency();
+        int upper = upperBound(observation.partitions(), current);
+        int desired = Math.max(properties.getMinConcurrency(), Math.min(desired(observation, current), upper));
+
+        if (desired > current) {
+            belowCount = 0;
+            if (!cooledDown(nowNanos, properties.getScaleUpCooldown().toNanos())) {
+                return new Decision(current, desired, "up-cooldown");
+            }
+            lastScaleNanos = nowNanos;
+            return new Decision(desired, desired, observation.lag() >= properties.getLagThreshold() ? "lag" : "utilization");
+        }
+        if (desired < current) {
+            belowCount++;
+            if (belowCount < properties.getScaleDownStableIntervals()
+                    || !cooledDown(nowNanos, properties.getScaleDownCooldown().toNanos())) {
+                return new Decision(current, desired, "down-pending");
+            }
+            belowCount = 0;
+            lastScaleNanos = nowNanos;
+            return new Decision(current - 1, desired, observation.processed() == 0 ? "idle" : "utilization");
+        }
+        belowCount = 0;
+        return new Decision(current, desired, "steady");
+    }
+
+    /**
+     * 제한하기 전의 필요 스레드 수
+     */
+    private int desired(Observation observation, int current) {
+        boolean lagging = observation.lag() >= properties.getLagThreshold();
+        if (observation.processed() == 0 || observation.busyNanos() <= 0) {
+            return lagging ? current + 1 : properties.getMinConcurrency();
+        }
+        double seconds = observation.intervalNanos() / 1e9;
+        double processedPerSecond = observation.processed() / seconds;
+        double arrivalPerSecond = Math.max(0, processedPerSecond + observation.lagGrowth() / seconds);
+        double demand = arrivalPerSecond;
+        if (lagging) {
+            demand += observation.lag() / Math.max(1e-3, properties.getDrainTime().toNanos() / 1e9);
+        }
+        double secondsPerRecord = observation.busyNanos() / 1e9 / observation.processed();
+        double threads = demand * secondsPerRecord / properties.getTargetUtilization();
+        return (int) Math.min(Integer.MAX_VALUE, Math.ceil(threads));
+    }
+
+    /**
+     * 동시성 상한 (파티션 수를 모르면 현재 값 이상으로 늘리지 않음)
+     */
+    private int upperBound(int partitions, int current) {
+        int upper = partitions > 0 ? partitions : current;
+        if (properties.getMaxConcurrency() > 0) {
+            upper = Math.min(upper, properties.getMaxConcurrency());
+        }
+        return Math.max(upper, properties.getMinConcurrency());
+    }
+
+    private boolean cooledDown(long nowNanos, long cooldownNanos) {
+        return lastScaleNanos == null || nowNanos - lastScaleNanos >= cooldownNanos;
+    }
+
+    /**
+     * interval 하나의 관측값
+     * 
+     * @param concurrency 현재 동시성
+     * @param partitions 구독 토픽의 파티션 수 합계 (모르면 0)
+     * @param lag 컨슈머 그룹의 lag 합계 (커밋 offset 기준)
+     * @param lagGrowth 직전 관측보다 늘어난 lag (줄었으면 음수)
+     * @param processed interval 동안 처리한 레코드 수
+     * @param busyNanos interval 동안 리스너가 처리에 쓴 시간 합계 (모든 스레드)
+     * @param intervalNanos 직전 관측부터 경과 시간
+     */
+    public record Observation(int concurrency, int partitions, long lag, long lagGrowth,
+                              long processed, long busyNanos, long intervalNanos) {
+
+        /**
+         * 스레드당 평균 사용률 (처리 시간 / (경과 시간 × 동시성))
+         */
+        public double utilization() {
+            if (intervalNanos <= 0 || concurrency <= 0) {
+                return 0;
+            }
+            return (double) busyNanos / intervalNanos / concurrency;
+        }
+    }
+
+    /**
+     * 결정 결과
+     * 
+     * @param target 적용할 동시성
+     * @param desired 필요하다고 계산한 동시성 (상한/하한 적용, 감쇠 전)
+     * @param reason lag, utilization, idle (바꿈) 또는 steady, up-cooldown, down-pending (유지)
+     */
+    public record Decision(int target, int desired, String reason) {
+    }
+}
@@ -0,0 +1,145 @@
+package kr.or.exmaple.kafkaConsume.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 컨슈머 애플리케이션 설정
+ * 
+ * application.yml의 app.consumer 하위 설정을 바인딩합니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@ConfigurationProperties(prefix = "app.consumer")
+@Getter
+@Setter
+public class ConsumerProperties {
+
+    /**
+     * 메시지 본문 파싱 방식
+     * 
+     * 리스너는 항상 ByteArrayDeserializer로 받은 byte[]를 전달받으며,
+     * 이 설정에 따라 MessageReceiveService의 파싱 방식이 달라집니다.
+     * 부하 상황에서 두 방식을 A/B 비교할 수 있도록 설정으로 전환합니다.
+     */
+    private PayloadMode payloadMode = PayloadMode.BYTES;
+
+    /**
+     * 메시지 본문에서 필드를 읽는 방식
+     */
+    private ParseMode parseMode = ParseMode.PROJECTION;
+
+    /**
+     * parse-mode: projection에서 읽을 필드 경로 (하위 객체의 필드는 점으로 연결, 예: address.city)
+     * 중복 판정에 사용하는 api_tran_id는 선언하지 않아도 항상 포함됨
+     */
+    private List<String> projectionFields = List.of("api_tran_id", "key");
+
+    /**
+     * lag과 처리 시간에 따른 리스너 컨테이너 동시성(concurrency) 자동 조정 설정
+     */
+    private Autoscale autoscale = new Autoscale();
+
+    /**
+     * 메시지 본문 파싱 방식
+     */
+    public enum PayloadMode {
+
+        /**
+         * UTF-8 문자열로 디코딩한 뒤 파싱 (기존 StringDeserializer와 동일한 비용)
+         */
+        STRING,
+
+        /**
+         * 문자열 디코딩 없이 byte[]에서 바로 파싱
+         */
+        BYTES
+    }
+
+    /**
+     * 메시지 본문에서 필드를 읽는 방식
+     */
+    public enum ParseMode {
+
+        /**
+         * 본문 전체를 JsonNode 트리로 파싱 (readTree)
+         */
+        TREE,
+
+        /**
+         * projection-fields에 선언한 필드만 스트리밍 파서로 읽고 나머지는 건너뜀 (FieldProjection)
+         */
+        PROJECTION
+    }
+
+    /**
+     * 리스너 컨테이너 동시성(concurrency) 자동 조정 설정
+     * 
+     * interval마다 컨슈머 그룹의 파티션별 lag과 레코드당 처리 시간을 보고 필요한 컨슈머 스레드 수를 계산하여,
+     * 달라지면 리스너 컨테이너를 멈추고 concurrency를 바꾼 뒤 다시 시작합니다 (리밸런스 발생).
+     * 늘릴 때는 바로 필요한 만큼, 줄일 때는 여러 번 연속으로 필요가 줄었을 때만 하나씩 줄입니다.
+     */
+    @Getter
+    @Setter
+    public static class Autoscale {
+
+        /**
+         * 자동 조정 사용 여부 (false면 spring.kafka.listener.concurrency 그대로, 상태 조회와 메트릭은 계속 제공)
+         */
+        private boolean enabled = false;
+
+        /**
+         * 동시성 하한
+         */
+        private int minConcurrency = 1;
+
+        /**
+         * 동시성 상한 (0 이하면 토픽의 파티션 수, 파티션 수보다 크게 지정해도 파티션 수까지만)
+         */
+        private int maxConcurrency = 0;
+
+        /**
+         * lag과 처리 시간을 확인하고 동시성을 결정하는 주기
+         */
+        private Duration interval = Duration.ofSeconds(10);
+
+        /**
+         * 컨슈머 스레드 하나의 목표 사용률 (처리 시간 / 경과 시간, 0~1)
+         */
+        private double targetUtilization = 0.7;
+
+        /**
+         * lag이 이 값 이상이면 들어오는 만큼에 더해 drain-time 안에 lag을 비울 만큼의 스레드를 확보
+         */
+        private long lagThreshold = 1000;
+
+        /**
+         * 쌓인 lag을 비우는 목표 시간
+         */
+        private Duration drainTime = Duration.ofSeconds(30);
+
+        /**
+         * 마지막 조정 후 다시 늘리기까지 최소 간격 (리밸런스가 끝나고 처리량이 반영될 시간)
+         */
+        private Duration scaleUpCooldown = Duration.ofSeconds(30);
+
+        /**
+         * 마지막 조정 후 다시 줄이기까지 최소 간격
+         */
+        private Duration scaleDownCooldown = Duration.ofMinutes(2);
+
+        /**
+         * 연속으로 이 횟수만큼 필요 스레드 수가 현재보다 적어야 하나 줄임 (잦은 리밸런스 방지)
+         */
+        private int scaleDownStableIntervals = 3;
+
+        /**
+         * actuator(/actuator/concurrency)에 보여줄 최근 조정 기록 수
+         */
+        private int history = 20;
+    }
+}
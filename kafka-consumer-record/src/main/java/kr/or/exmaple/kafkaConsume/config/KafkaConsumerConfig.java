@@ -0,0 +1,47 @@
+package kr.or.exmaple.kafkaConsume.config;
+
+import kr.or.exmaple.kafkaCommon.codec.FieldProjection;
+import kr.or.exmaple.kafkaConsume.service.MessageReceiveService;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Kafka 컨슈머 설정
+ * 
+ * 컨슈머 애플리케이션 설정(app.consumer)을 활성화합니다.
+ * Kafka 컨슈머 자체 설정은 application.yml의 spring.kafka.consumer를 사용합니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@Configuration
+@EnableConfigurationProperties(ConsumerProperties.class)
+public class KafkaConsumerConfig {
+
+    /**
+     * 레코드 리스너 컨테이너 ID (KafkaRecordListener의 @KafkaListener id)
+     */
+    public static final String RECORD_LISTENER_ID = "recordListener";
+
+    /**
+     * 재시도 리스너 컨테이너 ID (KafkaRetryListener의 @KafkaListener id, app.retry.enabled=true일 때만 등록)
+     */
+    public static final String RETRY_LISTENER_ID = "retryListener";
+
+    /**
+     * parse-mode: projection에서 메시지 본문을 읽을 필드 프로젝션 (app.consumer.projection-fields)
+     * 
+     * 중복 판정에 쓰는 api_tran_id는 설정에 빠져 있어도 포함합니다.
+     */
+    @Bean
+    public FieldProjection fieldProjection(ConsumerProperties consumerProperties) {
+        List<String> fields = new ArrayList<>(consumerProperties.getProjectionFields());
+        if (!fields.contains(MessageReceiveService.API_TRAN_ID)) {
+            fields.add(0, MessageReceiveService.API_TRAN_ID);
+        }
+        return FieldProjection.of(fields);
+    }
+}
@@ -1,9 +1,14 @@
 package kr.or.exmaple.kafkaConsume.listener;
 
-import io.micrometer.core.instrument.MeterRegistry;
+import kr.or.exmaple.kafkaCommon.header.MessageHeaders;
+import kr.or.exmaple.kafkaCommon.metrics.ConsumerMeters;
+import kr.or.exmaple.kafkaCommon.metrics.KafkaMetrics;
+import kr.or.exmaple.kafkaCommon.metrics.PartitionMeters;
+import kr.or.exmaple.kafkaConsume.config.KafkaConsumerConfig;
 import kr.or.exmaple.kafkaConsume.service.MessageReceiveService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
@@ -19,7 +24,8 @@ import org.springframework.stereotype.Component;
  * 
  * 레코드 리스너의 특징:
  * - 기본 리스너 모드 (application.yml에 listener.type 설정 없음)
- * - String 형태로 개별 메시지를 하나씩 수신
+ * - ConsumerRecord<String, byte[]> 형태로 개별 메시지를 하나씩 수신
+ *   (ByteArrayDeserializer 사용 - 문자열 디코딩 없이 원본 바이트 전달)
  * - 실시간 처리: 메시지 도착 즉시 처리
  * - 낮은 지연시간 (Low Latency)
  * - 스트리밍 처리에 최적화
@@ -33,6 +39,7 @@ import org.springframework.stereotype.Component;
  * - 토픽: sample.record.topic
  * - Consumer Group: sample-consumer
  * - 처리 방식: 개별 메시지 즉시 처리
+ * - 컨슈머 스레드 수: lag에 따라 자동 조정 가능 (app.consumer.autoscale, ConcurrencyAutoscaler)
  * 
  * @author Spring Boot Kafka Demo
  */
@@ -48,10 +55,10 @@ public class KafkaRecordListener {
     private final MessageReceiveService messageReceiveService;
     
     /**
-     * Micrometer 메트릭 레지스트리
+     * 토픽별로 미리 등록된 Kafka 메트릭
      * Prometheus 메트릭 수집을 위해 사용
      */
-    private final MeterRegistry meterRegistry;
+    private final KafkaMetrics kafkaMetrics;
 
     /**
      * Kafka 레코드별 메시지 수신 리스너 메서드
@@ -60,10 +67,10 @@ public class KafkaRecordListener {
      * 메시지가 도착하면 Spring Kafka가 자동으로 이 메서드를 호출합니다.
      * 
      * 레코드별 처리 과정:
-     * 1. Kafka에서 개별 메시지 수신 (String 형태)
-     * 2. 메시지 수신을 로깅
+     * 1. Kafka에서 개별 메시지 수신 (ConsumerRecord<String, byte[]> 형태)
+     * 2. 메시지 수신을 로깅(DEBUG), 전송 요청 → 수신 지연 기록
      * 3. MessageReceiveService에 개별 메시지 처리 위임
-     * 4. 처리 완료 즉시 다음 메시지 대기
+     * 4. 수신 → 처리 완료 시간 기록 후 다음 메시지 대기
      * 
      * 실시간 처리의 장점:
      * - 즉시성: 메시지 도착 즉시 처리로 낮은 지연시간
@@ -75,22 +82,31 @@ public class KafkaRecordListener {
      * - Consumer offset은 개별 메시지 처리 완료 후 커밋됨
      * - 예외 발생 시 Spring Kafka의 에러 핸들링 정책에 따라 처리됨
      * - 높은 처리량이 필요한 경우 배치 처리 방식을 고려해야 함
+     * - 헤더 필터(app.filter)와 일치한 레코드는 이 메서드까지 오지 않음 (HeaderRecordFilter)
      * 
-     * @param message Kafka에서 수신한 개별 메시지 (JSON 문자열)
+     * @param message Kafka에서 수신한 개별 레코드 (값은 JSON 바이트)
      */
-    @KafkaListener(topics = "sample.record.topic", groupId = "sample-consumer")
-    public void listen(String message) {
-        // 개별 메시지 수신 로깅 - 처리 시작을 알림
-        log.info("Received single message from topic: sample.record.topic");
+    @KafkaListener(id = KafkaConsumerConfig.RECORD_LISTENER_ID, topics = "sample.record.topic", groupId = "sample-consumer")
+    public void listen(ConsumerRecord<String, byte[]> message) {
+        // 개별 메시지 수신 로깅 - 메시지마다 남으므로 DEBUG (본문 로그는 MessageReceiveService에서 샘플링)
+        log.debug("Received single message from topic: sample.record.topic");
         
         // 메트릭 카운트 - 개별 메시지 1개씩 증가
-        meterRegistry.counter("custom-kafka-consume", "topic", "sample.record.topic").increment();
+        ConsumerMeters meters = kafkaMetrics.consumer("sample.record.topic");
+        meters.consumed().increment();
         
+        // 파티션별 지연 시간 - 전송 요청 → 수신 (produced-at-micros 헤더 기준)
+        long start = System.nanoTime();
+        PartitionMeters latency = kafkaMetrics.partition(message.topic(), message.partition());
+        latency.recordProduceToConsume(message, MessageHeaders.currentTimeMicros());
+
         // 실제 비즈니스 로직은 서비스 레이어에 위임
         // 관심사 분리(Separation of Concerns) 원칙 적용
         messageReceiveService.processMessage(message);
+        meters.recordProcess(start);
+        latency.recordConsumeToProcessed(start);
         
         // 개별 메시지 처리 완료 로깅
-        log.info("Completed processing single message from sample.record.topic");
+        log.debug("Completed processing single message from sample.record.topic");
     }
 }
\ No newline at end of file
@@ -1,10 +1,31 @@
 package kr.or.exmaple.kafkaConsume.service;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import kr.or.exmaple.kafkaCommon.codec.FieldProjection;
+import kr.or.exmaple.kafkaCommon.codec.PayloadCodec;
+import kr.or.exmaple.kafkaCommon.codec.PayloadCodecs;
+import kr.or.exmaple.kafkaCommon.codec.PayloadFormat;
+import kr.or.exmaple.kafkaCommon.codec.ProjectedRecord;
+import kr.or.exmaple.kafkaCommon.dedup.IdempotencyCache;
+import kr.or.exmaple.kafkaCommon.logging.PayloadLogSampler;
+import kr.or.exmaple.kafkaCommon.metrics.KafkaMetrics;
+import kr.or.exmaple.kafkaCommon.retry.FailedRecordPublisher;
+import kr.or.exmaple.kafkaCommon.retry.RetryHeaders;
+import kr.or.exmaple.kafkaConsume.config.ConsumerProperties;
+import kr.or.exmaple.kafkaConsume.config.ConsumerProperties.ParseMode;
+import kr.or.exmaple.kafkaConsume.config.ConsumerProperties.PayloadMode;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
 /**
  * 레코드별 메시지 수신 처리 서비스
  * 
@@ -12,9 +33,15 @@ import org.springframework.stereotype.Service;
  * 처리하는 비즈니스 로직을 담당합니다.
  * 
  * 주요 기능:
- * - String 형태의 개별 메시지 처리
- * - JSON 파싱 및 구조화된 로그 출력
- * - JSON 파싱 실패 시 에러 로깅
+ * - ConsumerRecord<String, byte[]> 형태의 개별 메시지 처리
+ * - payload-codec 헤더의 형식(json, cbor, smile)으로 디코딩 및 구조화된 로그 출력
+ *   (JSON은 app.consumer.payload-mode에 따라 byte[]에서 바로 파싱하거나
+ *   UTF-8 문자열로 디코딩한 뒤 파싱)
+ * - parse-mode: projection(기본값)이면 projection-fields에 선언한 필드만 스트리밍 파서로 읽음
+ *   (본문 전체를 JsonNode 트리로 만들지 않아 큰 메시지의 할당량이 크게 줄어듦)
+ * - api_tran_id 기준 중복 메시지 건너뛰기 (리밸런스 후 재전달 대비)
+ * - 실패한 메시지는 재시도 토픽이나 DLT로 보내고 다음 메시지 처리 (app.retry, FailedRecordPublisher)
+ *   (파싱 실패는 다시 처리해도 실패하므로 바로 DLT, 파싱 이후의 처리 실패는 단계별 재시도 토픽)
  * - 실시간 메시지 처리
  * 
  * 레코드별 처리의 특징:
@@ -30,15 +57,60 @@ import org.springframework.stereotype.Service;
  * @author Spring Boot Kafka Demo
  */
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class MessageReceiveService {
 
     /**
-     * Jackson ObjectMapper - JSON 파싱용
-     * 문자열로 전달받은 메시지를 JsonNode 객체로 변환
+     * 프로듀서가 모든 메시지에 추가하는 거래 ID 필드 (중복 판정 키)
+     */
+    public static final String API_TRAN_ID = "api_tran_id";
+
+    /**
+     * Jackson ObjectMapper - STRING 파싱 방식에서 JSON 문자열을 JsonNode로 변환
      */
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    /**
+     * 컨슈머 설정 (본문 파싱 방식)
+     */
+    private final ConsumerProperties consumerProperties;
+
+    /**
+     * 토픽별로 미리 등록된 Kafka 메트릭 (파싱 시간 기록용)
+     */
+    private final KafkaMetrics kafkaMetrics;
+
+    /**
+     * 본문 로깅 샘플러 (초당 로그 수 제한 및 본문 길이 제한)
+     */
+    private final PayloadLogSampler payloadLog;
+
+    /**
+     * api_tran_id 기반 중복 메시지 판정 캐시 (리밸런스 후 재전달된 메시지 건너뛰기)
+     */
+    private final IdempotencyCache idempotencyCache;
+
+    /**
+     * 형식별 본문 코덱 (레코드의 payload-codec 헤더로 선택)
+     */
+    private final PayloadCodecs payloadCodecs;
+
+    /**
+     * parse-mode: projection에서 읽을 필드 (app.consumer.projection-fields)
+     */
+    private final FieldProjection fieldProjection;
+
+    /**
+     * 처리에 실패한 메시지를 재시도 토픽이나 DLT로 보내는 퍼블리셔 (app.retry.enabled=false면 없음)
+     */
+    private final ObjectProvider<FailedRecordPublisher> failedRecordPublisher;
+
+    /**
+     * 스레드별로 재사용하는 프로젝션 결과 (메시지마다 새로 만들지 않음)
+     */
+    private final ThreadLocal<ProjectedRecord> projectedRecords = new ThreadLocal<>();
+
     /**
      * 개별 메시지 처리
      * 
@@ -55,23 +127,167 @@ public class MessageReceiveService {
      * 1. 개별 메시지 수신
      * 2. JSON 파싱 시도
      * 3. 성공: 구조화된 JSON 로그 출력
-     * 4. 실패: 에러 로그 출력
+     * 4. 실패: 재시도 토픽이나 DLT로 보냄 (retry가 꺼져 있으면 에러 로그 출력)
      * 
-     * @param message Kafka에서 수신한 개별 메시지 (JSON 문자열)
+     * @param message Kafka에서 수신한 개별 레코드 (값은 JSON 바이트)
      */
-    public void processMessage(String message) {
+    public void processMessage(ConsumerRecord<String, byte[]> message) {
+        if (message.value() == null) {
+            // 값이 없는 레코드(tombstone)는 다시 처리해도 읽을 본문이 없으므로 재시도 없이 DLT로 보냄
+            handleFailure(message, new IllegalArgumentException("Record value is null"), false);
+            return;
+        }
+
+        // 본문에서 필요한 필드만 읽거나(projection) 전체를 JsonNode 객체로 파싱(tree)
+        long start = System.nanoTime();
+        Object parsed;
+        String apiTranId;
+        try {
+            if (consumerProperties.getParseMode() == ParseMode.PROJECTION) {
+                ProjectedRecord projected = project(message);
+                parsed = projected;
+                apiTranId = projected.text(API_TRAN_ID);
+            } else {
+                JsonNode jsonNode = parse(message);
+                parsed = jsonNode;
+                apiTranId = jsonNode.path(API_TRAN_ID).textValue();
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // 본문이 형식에 맞지 않으면 다시 처리해도 실패하므로 재시도 없이 DLT로 보냄
+            handleFailure(message, e, false);
+            return;
+        }
+        kafkaMetrics.consumer(message.topic()).recordParse(start);
+        
+        // 재시도 토픽이나 DLT 재주입으로 다시 온 메시지는 원본 토픽에서 이미 판정을 거쳤으므로 판정하지 않음
+        boolean redelivery = RetryHeaders.isRedelivery(message);
         try {
-            // JSON 문자열을 JsonNode 객체로 파싱
-            JsonNode jsonNode = objectMapper.readTree(message);
-            
-            // 파싱된 JSON을 구조화된 형태로 로깅
-            // logback-spring.xml 설정에 의해 JSON 형태로 출력됨
-            log.info("Processed single message: {}", jsonNode.toString());
-            
-        } catch (Exception e) {
-            // JSON 파싱 실패 시 에러 로깅
-            // 레코드별 처리에서는 개별 메시지 실패가 전체 처리를 중단시키지 않음
-            log.error("Failed to parse JSON message: {}", message, e);
+            // 이미 처리한 api_tran_id면 건너뜀 (api_tran_id가 없는 메시지는 항상 처리)
+            if (!redelivery && idempotencyCache.isDuplicate(apiTranId)) {
+                log.debug("Skipping duplicate message {}-{}@{}", message.topic(), message.partition(), message.offset());
+                return;
+            }
+            handle(message, parsed);
+        } catch (RuntimeException e) {
+            // 파싱 이후의 처리 실패는 일시적일 수 있으므로 재시도 토픽으로 보냄
+            // 재시도는 재시도 토픽에서 따로 기다렸다가 처리되므로 이 파티션의 다음 메시지는 바로 처리됨
+            try {
+                handleFailure(message, e, true);
+            } catch (RuntimeException publishFailure) {
+                // 재시도 토픽으로도 보내지 못하면 원본 토픽에서 다시 받으므로 중복으로 걸러지지 않도록 기록을 지움
+                if (!redelivery) {
+                    idempotencyCache.forget(apiTranId);
+                }
+                throw publishFailure;
+            }
+        }
+    }
+
+    /**
+     * 파싱된 메시지의 비즈니스 처리
+     * 
+     * 파싱된 JSON을 구조화된 형태로 로깅합니다 (logback-spring.xml 설정에 의해 JSON 형태로 출력됨).
+     * 샘플링된 메시지만 출력하며, 본문 문자열 변환은 출력할 때만 수행됩니다.
+     * (프로젝션 결과는 다음 메시지에서 재사용되므로 비동기 로거가 나중에 읽지 않도록 문자열로 고정)
+     * 
+     * 여기서 던진 예외는 처리 실패로 보고 재시도 토픽으로 보냅니다.
+     * 
+     * @param message Kafka에서 수신한 레코드
+     * @param parsed 프로젝션 결과(ProjectedRecord, 이 메서드 안에서만 유효) 또는 JsonNode
+     */
+    protected void handle(ConsumerRecord<String, byte[]> message, Object parsed) {
+        if (payloadLog.sample()) {
+            log.info("Processed single message: {}", payloadLog.preview(parsed instanceof ProjectedRecord ? parsed.toString() : parsed));
+        }
+    }
+
+    /**
+     * 처리에 실패한 메시지를 재시도 토픽이나 DLT로 보냄 (app.retry.enabled=false면 에러 로그만 남기고 건너뜀)
+     * 
+     * 본문은 에러 로그에 남기지 않습니다 (DLT에 그대로 보관되며, 미리보기는 DEBUG 레벨에서만 출력).
+     * 
+     * @param retryable 다시 처리하면 성공할 수 있는 실패인지 여부 (false면 바로 DLT)
+     * @throws org.springframework.kafka.KafkaException 재시도 토픽이나 DLT로 보내지 못한 경우 (컨테이너의 에러 핸들러가 처리)
+     */
+    private void handleFailure(ConsumerRecord<String, byte[]> message, Exception e, boolean retryable) {
+        log.debug("Failed message body {}-{}@{}: {}", message.topic(), message.partition(), message.offset(),
+                payloadLog.preview(message.value()));
+        FailedRecordPublisher publisher = failedRecordPublisher.getIfAvailable();
+        if (publisher == null) {
+            log.error("Failed to process message {}-{}@{}", message.topic(), message.partition(), message.offset(), e);
+            return;
+        }
+        publisher.publish(message, e, retryable);
+    }
+
+    /**
+     * 레코드의 payload-codec 헤더와 설정된 파싱 방식으로 메시지 본문을 JsonNode로 변환
+     * 
+     * 헤더가 없으면 JSON으로 간주하므로 코덱 도입 전 메시지와 섞여 있어도 처리됩니다.
+     * 
+     * JSON 본문의 파싱 방식:
+     * - BYTES: byte[]에서 바로 파싱하여 문자열 디코딩 복사를 생략
+     * - STRING: 기존 StringDeserializer와 동일하게 UTF-8 문자열로 디코딩한 뒤 파싱
+     * 
+     * CBOR, Smile 본문은 텍스트가 아니므로 파싱 방식과 관계없이 바이트에서 디코딩합니다.
+     * 
+     * @param message Kafka에서 수신한 레코드
+     * @return 파싱된 JsonNode
+     * @throws IOException 본문이 헤더의 형식에 맞지 않는 경우
+     * @throws IllegalArgumentException 헤더의 코덱 이름을 알 수 없는 경우
+     */
+    private JsonNode parse(ConsumerRecord<String, byte[]> message) throws IOException {
+        PayloadCodec codec = codecFor(message);
+        if (decodesAsString(codec)) {
+            return objectMapper.readTree(new String(message.value(), StandardCharsets.UTF_8));
+        }
+        return codec.decode(message.value());
+    }
+
+    /**
+     * 메시지 본문에서 projection-fields에 선언한 필드만 읽음
+     * 
+     * 코덱과 파싱 방식의 선택은 parse()와 같으며, 결과는 스레드별로 재사용하는 ProjectedRecord에
+     * 담기므로 다음 메시지를 처리하기 전까지만 유효합니다.
+     * 
+     * @param message Kafka에서 수신한 레코드
+     * @return 선언한 필드 값이 담긴 ProjectedRecord
+     * @throws IOException 본문이 헤더의 형식에 맞지 않거나 객체가 아닌 경우
+     * @throws IllegalArgumentException 헤더의 코덱 이름을 알 수 없는 경우
+     */
+    private ProjectedRecord project(ConsumerRecord<String, byte[]> message) throws IOException {
+        PayloadCodec codec = codecFor(message);
+        try (JsonParser parser = decodesAsString(codec)
+                ? objectMapper.createParser(new String(message.value(), StandardCharsets.UTF_8))
+                : codec.createParser(message.value())) {
+            return fieldProjection.read(parser, projectedRecord());
         }
     }
+
+    /**
+     * 현재 스레드의 ProjectedRecord (처음 사용할 때 생성)
+     */
+    private ProjectedRecord projectedRecord() {
+        ProjectedRecord record = projectedRecords.get();
+        if (record == null) {
+            record = fieldProjection.newRecord();
+            projectedRecords.set(record);
+        }
+        return record;
+    }
+
+    /**
+     * 레코드의 payload-codec 헤더로 코덱 선택 (헤더가 없으면 JSON)
+     */
+    private PayloadCodec codecFor(ConsumerRecord<String, byte[]> message) {
+        Header codecHeader = message.headers().lastHeader(PayloadCodecs.HEADER);
+        return payloadCodecs.forHeaderValue(codecHeader != null ? codecHeader.value() : null);
+    }
+
+    /**
+     * STRING 파싱 방식의 JSON 본문이면 UTF-8 문자열로 디코딩한 뒤 파싱
+     */
+    private boolean decodesAsString(PayloadCodec codec) {
+        return consumerProperties.getPayloadMode() == PayloadMode.STRING && codec == payloadCodecs.get(PayloadFormat.JSON);
+    }
 }
\ No newline at end of file
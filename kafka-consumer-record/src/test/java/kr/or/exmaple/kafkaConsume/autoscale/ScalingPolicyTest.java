@@ -0,0 +1,94 @@
+package kr.or.exmaple.kafkaConsume.autoscale;
+
+import kr.or.exmaple.kafkaConsume.config.ConsumerProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ScalingPolicyTest {
+
+	private static final long INTERVAL = Duration.ofSeconds(10).toNanos();
+
+	private final ConsumerProperties.Autoscale properties = new ConsumerProperties.Autoscale();
+
+	@Test
+	void scalesUpToDrainLagButNotBeyondPartitions() {
+		ScalingPolicy policy = new ScalingPolicy(properties);
+
+		// 10초에 1,000건 처리, 레코드당 10ms, lag 30,000 → (100 + 30,000 / 30) × 0.01 / 0.7 ≈ 16 → 파티션 6개로 제한
+		ScalingPolicy.Decision decision = policy.decide(observation(1, 6, 30_000, 0, 1_000, 10), 0);
+
+		assertThat(decision.target()).isEqualTo(6);
+		assertThat(decision.reason()).isEqualTo("lag");
+	}
+
+	@Test
+	void scalesUpForUtilizationAndRespectsCooldown() {
+		properties.setMaxConcurrency(4);
+		ScalingPolicy policy = new ScalingPolicy(properties);
+
+		// 들어오는 만큼만 처리 (lag 없음): 초당 100건 × 레코드당 20ms / 0.7 ≈ 2.9 → 3
+		assertThat(policy.decide(observation(1, 12, 0, 0, 1_000, 20), 0).target()).isEqualTo(3);
+
+		// 직후 부하가 더 늘어도 scale-up-cooldown 동안은 유지, 지나면 max-concurrency까지
+		ScalingPolicy.Decision cooling = policy.decide(observation(3, 12, 0, 0, 2_000, 20), INTERVAL);
+		assertThat(cooling.target()).isEqualTo(3);
+		assertThat(cooling.reason()).isEqualTo("up-cooldown");
+		assertThat(cooling.desired()).isEqualTo(4);
+		assertThat(policy.decide(observation(3, 12, 0, 0, 2_000, 20), properties.getScaleUpCooldown().toNanos()).target()).isEqualTo(4);
+	}
+
+	@Test
+	void scalesDownOneStepAfterStableIntervalsAndCooldown() {
+		properties.setScaleDownCooldown(Duration.ofSeconds(30));
+		ScalingPolicy policy = new ScalingPolicy(properties);
+		long now = 0;
+
+		// 유휴 상태가 scale-down-stable-intervals(3)번 이어져야 하나 줄임
+		assertThat(policy.decide(idle(4), now += INTERVAL).reason()).isEqualTo("down-pending");
+		assertThat(policy.decide(idle(4), now += INTERVAL).target()).isEqualTo(4);
+		ScalingPolicy.Decision down = policy.decide(idle(4), now += INTERVAL);
+		assertThat(down.target()).isEqualTo(3);
+		assertThat(down.desired()).isEqualTo(1);
+		assertThat(down.reason()).isEqualTo("idle");
+
+		// 중간에 한 번이라도 필요가 다시 늘면 연속 횟수를 처음부터 셈
+		assertThat(policy.decide(idle(3), now += INTERVAL).target()).isEqualTo(3);
+		assertThat(policy.decide(observation(3, 6, 0, 0, 3_000, 6), now += INTERVAL).reason()).isEqualTo("steady");
+		assertThat(policy.decide(idle(3), now += INTERVAL).target()).isEqualTo(3);
+		assertThat(policy.decide(idle(3), now += INTERVAL).target()).isEqualTo(3);
+		assertThat(policy.decide(idle(3), now += INTERVAL).target()).isEqualTo(2);
+	}
+
+	@Test
+	void addsThreadWhenLaggingWithoutProcessedRecords() {
+		ScalingPolicy policy = new ScalingPolicy(properties);
+
+		assertThat(policy.decide(observation(2, 6, 5_000, 5_000, 0, 0), 0).target()).isEqualTo(3);
+		assertThat(policy.decide(observation(2, 0, 5_000, 5_000, 0, 0), 0).target()).as("unknown partitions").isEqualTo(2);
+	}
+
+	@Test
+	void rejectsInvalidBounds() {
+		properties.setMinConcurrency(4);
+		properties.setMaxConcurrency(2);
+
+		assertThatThrownBy(() -> new ScalingPolicy(properties)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static ScalingPolicy.Observation idle(int concurrency) {
+		return observation(concurrency, 6, 0, 0, 0, 0);
+	}
+
+	/**
+	 * 10초 interval 관측값
+	 */
+	private static ScalingPolicy.Observation observation(int concurrency, int partitions, long lag, long lagGrowth,
+			long processed, long millisPerRecord) {
+		return new ScalingPolicy.Observation(concurrency, partitions, lag, lagGrowth, processed,
+				Duration.ofMillis(millisPerRecord).toNanos() * processed, INTERVAL);
+	}
+}
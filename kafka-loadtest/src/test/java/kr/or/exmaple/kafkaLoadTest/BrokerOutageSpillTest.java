@@ -0,0 +1,166 @@
+package kr.or.exmaple.kafkaLoadTest;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 브로커 장애 중 전송한 메시지가 로컬 저널(app.producer.spill)에 보관되었다가
+ * 브로커가 복구되면 재전송되는지 확인하는 테스트
+ * 
+ * 임베디드 브로커는 재시작하면 포트가 바뀌므로, 브로커 앞에 TCP 프록시(BrokerProxy)를 두고
+ * 프록시를 닫아 장애를 만든 뒤 장애 중에 /putdata 요청을 보내고, 프록시를 다시 열어
+ * 장애 중 응답한 api_tran_id가 모두 토픽에 도착하는지 확인합니다.
+ * 
+ * 일반 빌드에서는 실행되지 않으며 -Dloadtest=true로 실행합니다.
+ * <pre>
+ * ./mvnw test -pl kafka-loadtest -Dloadtest=true -Dtest=BrokerOutageSpillTest
+ * </pre>
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class BrokerOutageSpillTest {
+
+	private static final String BATCH_TOPIC = "sample.batch.topic";
+
+	private static final String RECORD_TOPIC = "sample.record.topic";
+
+	private static final Pattern API_TRAN_ID = Pattern.compile("api_tran_id: ([0-9a-f-]+)");
+
+	private static final int OUTAGE_REQUESTS = 200;
+
+	@TempDir
+	Path spillDir;
+
+	@Test
+	void spillsDuringOutageAndReplaysAfterRecovery() throws Exception {
+		System.setProperty("org.springframework.boot.logging.LoggingSystem", "none");
+
+		IsolatedApplication producer = null;
+		try (BrokerProxy proxy = new BrokerProxy();
+				HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()) {
+			// 클라이언트가 메타데이터로 받은 브로커 주소도 프록시를 가리키도록 advertised.listeners 지정
+			// (브로커도 시작 중에 이 주소로 자신에게 연결하므로 프록시를 먼저 열어 둠)
+			EmbeddedKafkaKraftBroker broker = new EmbeddedKafkaKraftBroker(1, 3, BATCH_TOPIC, RECORD_TOPIC);
+			broker.brokerProperty("advertised.listeners", "EXTERNAL://localhost:" + proxy.port());
+			IntSupplier brokerPort = () -> {
+				String brokers = broker.getCluster().bootstrapServers();
+				return Integer.parseInt(brokers.substring(brokers.lastIndexOf(':') + 1));
+			};
+			proxy.start(brokerPort);
+			broker.afterPropertiesSet();
+			try {
+				String bootstrap = "localhost:" + proxy.port();
+				producer = IsolatedApplication.start("kafka-producer", "kr.or.exmaple.kafkaProducer.KafkaProducerApplication",
+						Map.of("server.port", 0,
+								"spring.kafka.bootstrap-servers", bootstrap,
+								"app.producer.spill.dir", spillDir),
+						null);
+				String url = "http://localhost:" + producer.port() + "/putdata";
+				assertThat(post(client, url, 0).join().statusCode()).isEqualTo(200);
+
+				proxy.stop();
+
+				// 장애 중 요청: 처음 몇 건은 전송 시간 초과(delivery.timeout.ms) 후 저널로, 이후는 바로 저널로 보관
+				List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+				for (int i = 1; i <= OUTAGE_REQUESTS; i++) {
+					responses.add(post(client, url, i));
+				}
+				Set<String> spilledIds = new HashSet<>();
+				for (CompletableFuture<HttpResponse<String>> response : responses) {
+					HttpResponse<String> result = response.join();
+					assertThat(result.statusCode()).as(result.body()).isEqualTo(200);
+					assertThat(result.body()).contains("@spilled");
+					Matcher matcher = API_TRAN_ID.matcher(result.body());
+					assertThat(matcher.find()).isTrue();
+					spilledIds.add(matcher.group(1));
+				}
+				assertThat(prometheusValue(client, producer.port(), "custom_kafka_spill_depth")).isPositive();
+
+				proxy.start(brokerPort);
+				awaitDrained(client, producer.port(), Duration.ofSeconds(90));
+
+				for (String topic : List.of(BATCH_TOPIC, RECORD_TOPIC)) {
+					assertThat(consumeApiTranIds(bootstrap, topic, spilledIds.size())).containsAll(spilledIds);
+				}
+				assertThat(prometheusValue(client, producer.port(), "custom_kafka_spill_replayed_total"))
+						.isGreaterThanOrEqualTo(2.0 * OUTAGE_REQUESTS);
+			} finally {
+				if (producer != null) {
+					producer.close();
+				}
+				broker.destroy();
+			}
+		}
+	}
+
+	private static CompletableFuture<HttpResponse<String>> post(HttpClient client, String url, int n) {
+		HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString("{\"name\": \"outage\", \"n\": " + n + "}"))
+				.build();
+		return client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+	}
+
+	private static void awaitDrained(HttpClient client, int port, Duration timeout) throws Exception {
+		long deadline = System.nanoTime() + timeout.toNanos();
+		while (prometheusValue(client, port, "custom_kafka_spill_active") > 0) {
+			assertThat(System.nanoTime()).as("spill journal drained").isLessThan(deadline);
+			Thread.sleep(500);
+		}
+	}
+
+	private static double prometheusValue(HttpClient client, int port, String name) throws Exception {
+		String body = client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/prometheus")).build(),
+				HttpResponse.BodyHandlers.ofString()).body();
+		return body.lines()
+				.filter(line -> line.startsWith(name + "{") || line.startsWith(name + " "))
+				.mapToDouble(line -> Double.parseDouble(line.substring(line.lastIndexOf(' ') + 1)))
+				.sum();
+	}
+
+	private static Set<String> consumeApiTranIds(String bootstrap, String topic, int expected) {
+		Map<String, Object> config = Map.of(
+				ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrap,
+				ConsumerConfig.GROUP_ID_CONFIG, "outage-check-" + topic,
+				ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+		Set<String> ids = new HashSet<>();
+		try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(config, new StringDeserializer(), new StringDeserializer())) {
+			consumer.subscribe(List.of(topic));
+			long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+			while (ids.size() < expected && System.nanoTime() < deadline) {
+				for (ConsumerRecord<String, String> record : consumer.poll(Duration.ofMillis(500))) {
+					Matcher matcher = Pattern.compile("\"api_tran_id\":\"([0-9a-f-]+)\"").matcher(record.value());
+					if (matcher.find()) {
+						ids.add(matcher.group(1));
+					}
+				}
+			}
+		}
+		return ids;
+	}
+}
@@ -0,0 +1,121 @@
+package kr.or.exmaple.kafkaLoadTest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntSupplier;
+
+/**
+ * 브로커 앞에 두는 TCP 프록시 (브로커 장애 흉내)
+ * 
+ * 브로커의 advertised.listeners를 프록시 주소로 지정하면 클라이언트의 모든 연결이 프록시를 거치므로,
+ * stop()으로 연결을 끊고 포트를 닫았다가 start()로 같은 포트를 다시 열어
+ * 브로커 프로세스를 재시작하지 않고도 장애와 복구를 재현할 수 있습니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+final class BrokerProxy implements AutoCloseable {
+
+    private final int port;
+
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+
+    private volatile IntSupplier targetPort;
+
+    private volatile ServerSocket server;
+
+    BrokerProxy() throws IOException {
+        try (ServerSocket probe = new ServerSocket(0)) {
+            this.port = probe.getLocalPort();
+        }
+    }
+
+    /**
+     * 프록시 포트 (advertised.listeners에 지정)
+     */
+    int port() {
+        return port;
+    }
+
+    /**
+     * 연결 수락 시작 (같은 포트를 다시 열어 복구)
+     * 
+     * @param targetPort 실제 브로커 포트 (연결할 때마다 조회하므로 브로커 시작 전에 프록시를 열 수 있음)
+     */
+    void start(IntSupplier targetPort) throws IOException {
+        this.targetPort = targetPort;
+        ServerSocket socket = new ServerSocket();
+        socket.setReuseAddress(true);
+        socket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        this.server = socket;
+        Thread.ofVirtual().name("broker-proxy-accept").start(() -> accept(socket));
+    }
+
+    /**
+     * 포트를 닫고 모든 연결을 끊음 (브로커 장애)
+     */
+    void stop() throws IOException {
+        ServerSocket socket = server;
+        if (socket != null) {
+            socket.close();
+        }
+        for (Socket connection : connections) {
+            connection.close();
+        }
+        connections.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        stop();
+    }
+
+    private void accept(ServerSocket socket) {
+        while (!socket.isClosed()) {
+            Socket client;
+            try {
+                client = socket.accept();
+            } catch (IOException e) {
+                // 포트를 닫으면 accept가 실패하며 종료
+                continue;
+            }
+            try {
+                Socket broker = new Socket(InetAddress.getLoopbackAddress(), targetPort.getAsInt());
+                connections.add(client);
+                connections.add(broker);
+                Thread.ofVirtual().start(() -> pipe(client, broker));
+                Thread.ofVirtual().start(() -> pipe(broker, client));
+            } catch (IOException | RuntimeException e) {
+                // 브로커가 아직 포트를 열지 않았으면 연결만 끊음
+                closeQuietly(client);
+            }
+        }
+    }
+
+    private void pipe(Socket from, Socket to) {
+        try (InputStream in = from.getInputStream(); OutputStream out = to.getOutputStream()) {
+            in.transferTo(out);
+        } catch (IOException e) {
+            // 연결 종료
+        } finally {
+            closeQuietly(from);
+            closeQuietly(to);
+            connections.remove(from);
+            connections.remove(to);
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // 무시
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package kr.or.exmaple.kafkaLoadTest;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * 모듈 하나를 별도 클래스로더에서 실행하는 Spring Boot 애플리케이션
+ * 
+ * kafka-consumer-batch와 kafka-consumer-record는 같은 패키지와 클래스 이름을 사용하므로
+ * 한 JVM에서 함께 띄우려면 애플리케이션 클래스(target/classes)를 모듈별 클래스로더로
+ * 분리해야 합니다. 라이브러리(Spring, Kafka 등)는 부모 클래스로더를 공유합니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+final class IsolatedApplication implements AutoCloseable {
+
+    private final String module;
+
+    private final URLClassLoader classLoader;
+
+    private final ConfigurableApplicationContext context;
+
+    private IsolatedApplication(String module, URLClassLoader classLoader, ConfigurableApplicationContext context) {
+        this.module = module;
+        this.classLoader = classLoader;
+        this.context = context;
+    }
+
+    /**
+     * 모듈의 target/classes에서 애플리케이션 시작
+     * 
+     * @param module 모듈 디렉토리 이름 (예: kafka-producer)
+     * @param mainClass 애플리케이션 클래스 이름
+     * @param properties 추가 설정 (명령행 인수로 전달되어 application.yml보다 우선)
+     * @param initializer 컨텍스트 초기화 콜백 (측정용 빈 등록 등, null 가능)
+     */
+    static IsolatedApplication start(String module, String mainClass, Map<String, Object> properties,
+                                     ApplicationContextInitializer<ConfigurableApplicationContext> initializer)
+            throws Exception {
+        Path classes = Path.of("..", module, "target", "classes").toAbsolutePath().normalize();
+        if (!Files.isDirectory(classes)) {
+            throw new IllegalStateException(classes + " not found - build the modules first (./mvnw install -DskipTests)");
+        }
+
+        URLClassLoader classLoader = new URLClassLoader(module, new URL[] {classes.toUri().toURL()},
+                IsolatedApplication.class.getClassLoader());
+        Thread thread = Thread.currentThread();
+        ClassLoader previous = thread.getContextClassLoader();
+        thread.setContextClassLoader(classLoader);
+        try {
+            SpringApplicationBuilder builder = new SpringApplicationBuilder(classLoader.loadClass(mainClass))
+                    .resourceLoader(new DefaultResourceLoader(classLoader));
+            if (initializer != null) {
+                builder.initializers(initializer);
+            }
+            String[] args = properties.entrySet().stream()
+                    .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                    .toArray(String[]::new);
+            return new IsolatedApplication(module, classLoader, builder.run(args));
+        } catch (Exception | Error e) {
+            classLoader.close();
+            throw e;
+        } finally {
+            thread.setContextClassLoader(previous);
+        }
+    }
+
+    /**
+     * 웹 서버 포트 (server.port=0으로 시작한 경우 실제 할당된 포트)
+     */
+    int port() {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    String module() {
+        return module;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            context.close();
+        } finally {
+            classLoader.close();
+        }
+    }
+}
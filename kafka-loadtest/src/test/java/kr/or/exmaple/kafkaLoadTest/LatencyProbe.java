@@ -0,0 +1,157 @@
+package kr.or.exmaple.kafkaLoadTest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.springframework.kafka.listener.BatchInterceptor;
+import org.springframework.kafka.listener.RecordInterceptor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 생산-소비 지연 시간 측정용 리스너 인터셉터
+ * 
+ * 컨슈머 애플리케이션에 RecordInterceptor/BatchInterceptor 빈으로 등록되어,
+ * 리스너가 메시지 처리를 마친 시점(success)에 본문의 lt_sent_ns 필드와
+ * 현재 System.nanoTime()의 차이를 기록합니다. 부하 생성기와 애플리케이션이
+ * 같은 JVM에서 실행되므로 nanoTime을 그대로 비교할 수 있습니다.
+ * 
+ * 워밍업 구간(측정 시작 전에 보낸 메시지)은 개수만 세고 지연 시간은 기록하지 않습니다.
+ * 처리량은 측정 구간 동안 소비를 마친 메시지 수로 계산합니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+final class LatencyProbe implements RecordInterceptor<Object, Object>, BatchInterceptor<Object, Object> {
+
+    static final String SENT_FIELD = "lt_sent_ns";
+
+    private static final byte[] SENT_FIELD_PREFIX = ("\"" + SENT_FIELD + "\":").getBytes(StandardCharsets.UTF_8);
+
+    private final String topic;
+
+    private final Recorder recorder = new Recorder(3);
+
+    private final AtomicLong consumed = new AtomicLong();
+
+    private final AtomicLong measured = new AtomicLong();
+
+    private final AtomicLong consumedInWindow = new AtomicLong();
+
+    private volatile boolean inWindow;
+
+    private volatile long measureFromNanos = Long.MAX_VALUE;
+
+    private volatile long lastConsumedNanos;
+
+    LatencyProbe(String topic) {
+        this.topic = topic;
+    }
+
+    @Override
+    public ConsumerRecord<Object, Object> intercept(ConsumerRecord<Object, Object> record, Consumer<Object, Object> consumer) {
+        return record;
+    }
+
+    @Override
+    public void success(ConsumerRecord<Object, Object> record, Consumer<Object, Object> consumer) {
+        observe(record, System.nanoTime());
+    }
+
+    @Override
+    public ConsumerRecords<Object, Object> intercept(ConsumerRecords<Object, Object> records, Consumer<Object, Object> consumer) {
+        return records;
+    }
+
+    @Override
+    public void success(ConsumerRecords<Object, Object> records, Consumer<Object, Object> consumer) {
+        long now = System.nanoTime();
+        for (ConsumerRecord<Object, Object> record : records) {
+            observe(record, now);
+        }
+    }
+
+    private void observe(ConsumerRecord<Object, Object> record, long now) {
+        if (!topic.equals(record.topic()) || !(record.value() instanceof byte[] value)) {
+            return;
+        }
+        consumed.incrementAndGet();
+        lastConsumedNanos = now;
+        if (inWindow) {
+            consumedInWindow.incrementAndGet();
+        }
+
+        long sentNanos = sentNanos(value);
+        if (sentNanos >= measureFromNanos) {
+            recorder.recordValue(Math.max(0, now - sentNanos));
+            measured.incrementAndGet();
+        }
+    }
+
+    /**
+     * 본문에서 "lt_sent_ns":<숫자> 값 추출 (없으면 Long.MIN_VALUE)
+     */
+    static long sentNanos(byte[] value) {
+        outer:
+        for (int i = 0; i <= value.length - SENT_FIELD_PREFIX.length; i++) {
+            for (int j = 0; j < SENT_FIELD_PREFIX.length; j++) {
+                if (value[i + j] != SENT_FIELD_PREFIX[j]) {
+                    continue outer;
+                }
+            }
+            int k = i + SENT_FIELD_PREFIX.length;
+            boolean negative = k < value.length && value[k] == '-';
+            if (negative) {
+                k++;
+            }
+            long result = 0;
+            for (; k < value.length && value[k] >= '0' && value[k] <= '9'; k++) {
+                result = result * 10 + (value[k] - '0');
+            }
+            return negative ? -result : result;
+        }
+        return Long.MIN_VALUE;
+    }
+
+    /**
+     * 측정 구간 시작 (이 시각 이후에 보낸 메시지의 지연 시간을 기록)
+     */
+    void startWindow(long nanos) {
+        measureFromNanos = nanos;
+        recorder.reset();
+        inWindow = true;
+    }
+
+    /**
+     * 측정 구간 종료 (처리량 집계 중단, 이미 보낸 메시지의 지연 시간은 계속 기록)
+     */
+    void endWindow() {
+        inWindow = false;
+    }
+
+    String topic() {
+        return topic;
+    }
+
+    long consumed() {
+        return consumed.get();
+    }
+
+    long measured() {
+        return measured.get();
+    }
+
+    long consumedInWindow() {
+        return consumedInWindow.get();
+    }
+
+    long lastConsumedNanos() {
+        return lastConsumedNanos;
+    }
+
+    Histogram histogram() {
+        return recorder.getIntervalHistogram();
+    }
+}
@@ -0,0 +1,164 @@
+package kr.or.exmaple.kafkaLoadTest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 프로듀서 REST API 부하 생성기
+ * 
+ * 초당 rate개 요청을 일정한 간격으로 보내는 open-loop 방식입니다.
+ * 동시 요청 수가 concurrency에 도달하면 다음 요청은 자리가 날 때까지 기다리며,
+ * 응답 시간은 실제 전송 시각이 아닌 예정 전송 시각부터 측정하여
+ * 대기로 인한 지연도 결과에 포함됩니다 (coordinated omission 보정).
+ * 
+ * 요청 본문에는 lt_sent_ns(예정 전송 시각, System.nanoTime)를 넣어
+ * 컨슈머 쪽 LatencyProbe가 생산-소비 지연 시간을 계산할 수 있게 합니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+final class LoadGenerator implements AutoCloseable {
+
+    private final LoadTestConfig config;
+
+    private final String baseUrl;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final HttpClient httpClient;
+
+    private final Semaphore inFlight;
+
+    private final Recorder httpLatency = new Recorder(3);
+
+    private final AtomicLong succeeded = new AtomicLong();
+
+    private final AtomicLong totalSucceeded = new AtomicLong();
+
+    private final AtomicLong failed = new AtomicLong();
+
+    private final String filler;
+
+    LoadGenerator(LoadTestConfig config, int producerPort) {
+        this.config = config;
+        this.baseUrl = "http://localhost:" + producerPort;
+        // Tomcat은 h2c 업그레이드를 지원하지 않으므로 HTTP/1.1 고정
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(executor)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.inFlight = new Semaphore(config.concurrency());
+        // 기본 필드(약 120바이트)를 제외한 나머지를 채워 요청 본문 크기를 맞춤
+        this.filler = "x".repeat(Math.max(0, config.payloadBytes() - 120));
+    }
+
+    /**
+     * 지정한 시간 동안 부하 전송 (호출 스레드에서 실행)
+     * 
+     * @param duration 전송 시간
+     * @param record true면 HTTP 응답 시간을 기록 (워밍업 구간은 false)
+     */
+    void run(Duration duration, boolean record) throws InterruptedException {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / config.rate();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        if (record) {
+            httpLatency.reset();
+            succeeded.set(0);
+            failed.set(0);
+        }
+
+        for (long i = 0; ; i++) {
+            long scheduled = start + i * intervalNanos;
+            if (scheduled >= end) {
+                break;
+            }
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            inFlight.acquire();
+            send(scheduled, record);
+        }
+    }
+
+    private void send(long scheduled, boolean record) {
+        boolean keyed = ThreadLocalRandom.current().nextDouble() < config.keyedRatio();
+        String body = keyed
+                ? "{\"key\":\"user-" + ThreadLocalRandom.current().nextInt(config.keys()) + "\"," + fields(scheduled) + "}"
+                : "{" + fields(scheduled) + "}";
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + (keyed ? "/putdata-with-key" : "/putdata")))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, e) -> {
+                    inFlight.release();
+                    if (e == null && response.statusCode() == 200) {
+                        totalSucceeded.incrementAndGet();
+                        if (record) {
+                            succeeded.incrementAndGet();
+                            httpLatency.recordValue(System.nanoTime() - scheduled);
+                        }
+                    } else if (record) {
+                        failed.incrementAndGet();
+                    }
+                });
+    }
+
+    private String fields(long scheduled) {
+        return "\"" + LatencyProbe.SENT_FIELD + "\":" + scheduled
+                + ",\"name\":\"김철수\",\"age\":30,\"address\":{\"city\":\"서울\",\"district\":\"강남구\"},\"memo\":\"" + filler + "\"";
+    }
+
+    /**
+     * 보낸 요청이 모두 응답을 받을 때까지 대기
+     */
+    void awaitResponses(Duration timeout) throws InterruptedException {
+        if (inFlight.tryAcquire(config.concurrency(), timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            inFlight.release(config.concurrency());
+        }
+    }
+
+    /**
+     * 측정 구간에 보내서 성공한 요청 수
+     */
+    long succeeded() {
+        return succeeded.get();
+    }
+
+    /**
+     * 워밍업을 포함해 성공한 전체 요청 수 (요청마다 두 토픽에 한 건씩 전송됨)
+     */
+    long totalSucceeded() {
+        return totalSucceeded.get();
+    }
+
+    long failed() {
+        return failed.get();
+    }
+
+    Histogram httpLatency() {
+        return httpLatency.getIntervalHistogram();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
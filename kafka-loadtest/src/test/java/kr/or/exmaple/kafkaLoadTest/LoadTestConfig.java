@@ -0,0 +1,39 @@
+package kr.or.exmaple.kafkaLoadTest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+
+/**
+ * 부하 테스트 설정 (시스템 프로퍼티 loadtest.*)
+ * 
+ * @param rate 초당 HTTP 요청 수 (목표치, open-loop)
+ * @param concurrency 동시에 처리 중일 수 있는 최대 HTTP 요청 수
+ * @param warmup 측정에서 제외할 워밍업 시간
+ * @param duration 측정 시간
+ * @param keyedRatio /putdata-with-key로 보낼 요청 비율 (0~1, 나머지는 /putdata)
+ * @param keys Key 요청에 사용할 서로 다른 Key 개수
+ * @param payloadBytes 요청 본문 크기 (대략)
+ * @param partitions 토픽 파티션 수
+ * @param virtualThreads 애플리케이션을 가상 스레드 모드(spring.threads.virtual.enabled)로 실행할지 여부
+ * @param report 결과 보고서(JSON) 경로
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+record LoadTestConfig(int rate, int concurrency, Duration warmup, Duration duration, double keyedRatio,
+                      int keys, int payloadBytes, int partitions, boolean virtualThreads, String report) {
+
+    static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                Integer.getInteger("loadtest.rate", 500),
+                Integer.getInteger("loadtest.concurrency", 64),
+                DurationStyle.detectAndParse(System.getProperty("loadtest.warmup", "10s")),
+                DurationStyle.detectAndParse(System.getProperty("loadtest.duration", "30s")),
+                Double.parseDouble(System.getProperty("loadtest.keyed-ratio", "0.5")),
+                Integer.getInteger("loadtest.keys", 1000),
+                Integer.getInteger("loadtest.payload-bytes", 300),
+                Integer.getInteger("loadtest.partitions", 3),
+                Boolean.getBoolean("loadtest.virtual-threads"),
+                System.getProperty("loadtest.report", "target/loadtest-report.json"));
+    }
+}
@@ -0,0 +1,87 @@
+package kr.or.exmaple.kafkaLoadTest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 부하 테스트 결과 보고서
+ * 
+ * 콘솔 표와 JSON 파일(loadtest.report)로 출력합니다.
+ * 지연 시간 단위는 밀리초입니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+record LoadTestReport(Instant finishedAt, LoadTestConfig config, Http http, List<Topic> topics, Pinning pinning) {
+
+    /**
+     * HTTP 요청 결과 (예정 전송 시각부터 응답까지)
+     */
+    record Http(long succeeded, long failed, double throughputPerSecond, Latency latencyMs) {
+    }
+
+    /**
+     * 토픽별 생산-소비 결과 (예정 전송 시각부터 리스너 처리 완료까지)
+     */
+    record Topic(String topic, long consumed, long measured, double throughputPerSecond, Latency latencyMs) {
+    }
+
+    /**
+     * 가상 스레드 carrier 고정(pinning) 집계 (jvm.threads.virtual.pinned)
+     * 
+     * JFR 이벤트는 JVM 단위이므로 한 JVM에서 실행된 세 애플리케이션의 합계입니다.
+     */
+    record Pinning(long count, double totalMs) {
+    }
+
+    record Latency(double p50, double p99, double p999, double max) {
+
+        static Latency of(Histogram histogram) {
+            return new Latency(
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()));
+        }
+
+        private static double millis(long nanos) {
+            return Math.round(nanos / 1_000.0) / 1_000.0;
+        }
+    }
+
+    void print() {
+        System.out.printf(Locale.ROOT, "%nLoad test: rate=%d/s concurrency=%d duration=%s keyed-ratio=%.2f payload=%dB partitions=%d threads=%s%n",
+                config.rate(), config.concurrency(), config.duration(), config.keyedRatio(), config.payloadBytes(), config.partitions(),
+                config.virtualThreads() ? "virtual" : "platform");
+        System.out.printf(Locale.ROOT, "%-22s %10s %12s %10s %10s %10s %10s%n", "", "count", "throughput/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        row("http (putdata*)", http.succeeded(), http.throughputPerSecond(), http.latencyMs());
+        for (Topic topic : topics) {
+            row(topic.topic(), topic.measured(), topic.throughputPerSecond(), topic.latencyMs());
+        }
+        if (http.failed() > 0) {
+            System.out.printf("failed http requests: %d%n", http.failed());
+        }
+        System.out.printf(Locale.ROOT, "virtual thread pinned: %d events, %.3f ms total%n", pinning.count(), pinning.totalMs());
+    }
+
+    private static void row(String name, long count, double throughput, Latency latency) {
+        System.out.printf(Locale.ROOT, "%-22s %10d %12.1f %10.3f %10.3f %10.3f %10.3f%n",
+                name, count, throughput, latency.p50(), latency.p99(), latency.p999(), latency.max());
+    }
+
+    void write(Path path) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(path.toFile(), this);
+        System.out.println("Report written to " + path.toAbsolutePath());
+    }
+}
@@ -0,0 +1,157 @@
+package kr.or.exmaple.kafkaLoadTest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 프로듀서 + 배치 컨슈머 + 레코드 컨슈머 end-to-end 부하 테스트
+ * 
+ * 임베디드 Kafka 브로커 위에서 세 애플리케이션을 한 JVM에 띄우고
+ * /putdata, /putdata-with-key에 설정한 속도로 요청을 보내
+ * 토픽별 생산-소비 지연 시간(p50/p99/p99.9)과 처리량을 측정합니다.
+ * 
+ * 일반 빌드에서는 실행되지 않으며 -Dloadtest=true로 실행합니다.
+ * <pre>
+ * ./mvnw install -DskipTests
+ * ./mvnw test -pl kafka-loadtest -Dloadtest=true -Dloadtest.rate=1000 -Dloadtest.duration=60s
+ * 
+ * # 가상 스레드 모드와 비교
+ * ./mvnw test -pl kafka-loadtest -Dloadtest=true -Dloadtest.rate=1000 -Dloadtest.duration=60s -Dloadtest.virtual-threads=true
+ * </pre>
+ * 
+ * 애플리케이션 로그는 측정에 영향을 주지 않도록 WARN 이상만 출력합니다 (logback-test.xml).
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class ProduceConsumeLoadTest {
+
+	private static final String BATCH_TOPIC = "sample.batch.topic";
+
+	private static final String RECORD_TOPIC = "sample.record.topic";
+
+	@Test
+	void produceConsumeLoad() throws Exception {
+		LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+
+		// 애플리케이션별 logback-spring.xml 대신 이 모듈의 logback-test.xml 사용
+		System.setProperty("org.springframework.boot.logging.LoggingSystem", "none");
+
+		EmbeddedKafkaKraftBroker broker = new EmbeddedKafkaKraftBroker(1, config.partitions(), BATCH_TOPIC, RECORD_TOPIC);
+		// 브로커가 하나이므로 트랜잭션 로그도 복제본 하나로 생성 (-Dapp.producer.fan-out.transactional=true)
+		broker.brokerProperty("transaction.state.log.replication.factor", "1");
+		broker.brokerProperty("transaction.state.log.min.isr", "1");
+		broker.afterPropertiesSet();
+		List<IsolatedApplication> applications = new ArrayList<>();
+		try {
+			Map<String, Object> common = Map.of(
+					"server.port", 0,
+					"spring.kafka.bootstrap-servers", broker.getBrokersAsString(),
+					"spring.kafka.consumer.auto-offset-reset", "earliest",
+					"spring.threads.virtual.enabled", config.virtualThreads());
+
+			LatencyProbe batchProbe = new LatencyProbe(BATCH_TOPIC);
+			LatencyProbe recordProbe = new LatencyProbe(RECORD_TOPIC);
+			applications.add(IsolatedApplication.start("kafka-consumer-batch",
+					"kr.or.exmaple.kafkaConsume.KafkaConsumerBatchApplication", common, probe(batchProbe)));
+			applications.add(IsolatedApplication.start("kafka-consumer-record",
+					"kr.or.exmaple.kafkaConsume.KafkaConsumerRecordApplication", common, probe(recordProbe)));
+			IsolatedApplication producer = IsolatedApplication.start("kafka-producer",
+					"kr.or.exmaple.kafkaProducer.KafkaProducerApplication", common, null);
+			applications.add(producer);
+
+			try (LoadGenerator generator = new LoadGenerator(config, producer.port())) {
+				generator.run(config.warmup(), false);
+
+				long windowStart = System.nanoTime();
+				batchProbe.startWindow(windowStart);
+				recordProbe.startWindow(windowStart);
+				generator.run(config.duration(), true);
+				batchProbe.endWindow();
+				recordProbe.endWindow();
+				double seconds = (System.nanoTime() - windowStart) / 1e9;
+
+				// 측정 구간에 보낸 메시지가 모두 소비될 때까지 대기
+				generator.awaitResponses(Duration.ofSeconds(30));
+				awaitConsumed(generator.totalSucceeded(), Duration.ofSeconds(60), batchProbe, recordProbe);
+
+				LoadTestReport report = new LoadTestReport(Instant.now(), config,
+						new LoadTestReport.Http(generator.succeeded(), generator.failed(), generator.succeeded() / seconds,
+								LoadTestReport.Latency.of(generator.httpLatency())),
+						List.of(topicResult(batchProbe, seconds), topicResult(recordProbe, seconds)),
+						scrapePinning(producer.port()));
+				report.print();
+				report.write(Path.of(config.report()));
+
+				assertThat(generator.succeeded()).isPositive();
+				assertThat(batchProbe.consumed()).isEqualTo(generator.totalSucceeded());
+				assertThat(recordProbe.consumed()).isEqualTo(generator.totalSucceeded());
+			}
+		} finally {
+			for (int i = applications.size() - 1; i >= 0; i--) {
+				applications.get(i).close();
+			}
+			broker.destroy();
+		}
+	}
+
+	/**
+	 * 컨슈머 애플리케이션에 LatencyProbe를 리스너 인터셉터 빈으로 등록
+	 * (Spring Boot가 kafkaListenerContainerFactory에 RecordInterceptor/BatchInterceptor로 적용)
+	 */
+	private static ApplicationContextInitializer<ConfigurableApplicationContext> probe(LatencyProbe probe) {
+		return context -> context.getBeanFactory().registerSingleton("latencyProbe", probe);
+	}
+
+	private static void awaitConsumed(long expected, Duration timeout, LatencyProbe... probes) throws InterruptedException {
+		long deadline = System.nanoTime() + timeout.toNanos();
+		for (LatencyProbe probe : probes) {
+			while (probe.consumed() < expected && System.nanoTime() < deadline) {
+				Thread.sleep(50);
+			}
+		}
+	}
+
+	/**
+	 * 프로듀서의 Prometheus 엔드포인트에서 가상 스레드 pinning 타이머 조회
+	 * (미터가 없으면 0)
+	 */
+	private static LoadTestReport.Pinning scrapePinning(int port) throws IOException, InterruptedException {
+		try (HttpClient client = HttpClient.newHttpClient()) {
+			String body = client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/prometheus")).build(),
+					HttpResponse.BodyHandlers.ofString()).body();
+			return new LoadTestReport.Pinning(
+					(long) prometheusValue(body, "jvm_threads_virtual_pinned_seconds_count"),
+					prometheusValue(body, "jvm_threads_virtual_pinned_seconds_sum") * 1_000);
+		}
+	}
+
+	private static double prometheusValue(String body, String name) {
+		return body.lines()
+				.filter(line -> line.startsWith(name + "{") || line.startsWith(name + " "))
+				.mapToDouble(line -> Double.parseDouble(line.substring(line.lastIndexOf(' ') + 1)))
+				.sum();
+	}
+
+	private static LoadTestReport.Topic topicResult(LatencyProbe probe, double seconds) {
+		return new LoadTestReport.Topic(probe.topic(), probe.consumed(), probe.measured(),
+				probe.consumedInWindow() / seconds, LoadTestReport.Latency.of(probe.histogram()));
+	}
+}
@@ -0,0 +1,70 @@
+package kr.or.exmaple.kafkaProducer.config;
+
+import kr.or.exmaple.kafkaProducer.service.AcksMode;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * acks 모드별 KafkaTemplate 묶음
+ * 
+ * Kafka의 acks 설정은 레코드 단위가 아닌 프로듀서 단위 설정이므로,
+ * 요청별로 acks 모드를 선택하려면 모드마다 별도의 프로듀서가 필요합니다.
+ * 이 클래스는 공통 ProducerFactory 설정에 acks 값만 덮어쓴
+ * KafkaTemplate을 모드별로 하나씩 보관합니다.
+ * 
+ * acks=all 이외의 모드는 멱등성 프로듀서(enable.idempotence)를 사용할 수 없으므로
+ * 명시적으로 비활성화합니다.
+ * 
+ * @param <V> 메시지 값(Value) 타입
+ * @author Spring Boot Kafka Demo
+ */
+public class AcksKafkaTemplates<V> implements DisposableBean {
+
+    private final Map<AcksMode, KafkaTemplate<String, V>> templates = new EnumMap<>(AcksMode.class);
+
+    /**
+     * @param producerFactory 공통 프로듀서 설정을 가진 ProducerFactory
+     */
+    public AcksKafkaTemplates(ProducerFactory<String, V> producerFactory) {
+        this(producerFactory, Map.of());
+    }
+
+    /**
+     * @param producerFactory 공통 프로듀서 설정을 가진 ProducerFactory
+     * @param configOverrides acks 외에 추가로 덮어쓸 프로듀서 설정 (예: value.serializer)
+     */
+    public AcksKafkaTemplates(ProducerFactory<String, V> producerFactory, Map<String, Object> configOverrides) {
+        for (AcksMode mode : AcksMode.values()) {
+            Map<String, Object> overrides = new HashMap<>(configOverrides);
+            overrides.put(ProducerConfig.ACKS_CONFIG, mode.kafkaValue());
+            if (mode != AcksMode.ALL) {
+                overrides.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, false);
+            }
+            templates.put(mode, new KafkaTemplate<>(producerFactory, overrides));
+        }
+    }
+
+    /**
+     * acks 모드에 해당하는 KafkaTemplate 조회
+     * 
+     * @param mode acks 모드
+     * @return 해당 모드의 KafkaTemplate
+     */
+    public KafkaTemplate<String, V> get(AcksMode mode) {
+        return templates.get(mode);
+    }
+
+    /**
+     * 모드별로 생성한 프로듀서 종료
+     */
+    @Override
+    public void destroy() {
+        templates.values().forEach(KafkaTemplate::destroy);
+    }
+}
@@ -0,0 +1,22 @@
+package kr.or.exmaple.kafkaProducer.config;
+
+import kr.or.exmaple.kafkaProducer.service.AcksMode;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+/**
+ * 요청 파라미터(acks)를 AcksMode로 변환하는 컨버터
+ * 
+ * Spring Boot가 Converter 빈을 MVC 변환 서비스에 자동 등록하므로
+ * 컨트롤러에서 @RequestParam AcksMode 형태로 바로 받을 수 있습니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@Component
+public class AcksModeConverter implements Converter<String, AcksMode> {
+
+    @Override
+    public AcksMode convert(String source) {
+        return AcksMode.from(source);
+    }
+}
@@ -0,0 +1,150 @@
+package kr.or.exmaple.kafkaProducer.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import kr.or.exmaple.kafkaCommon.compression.ZstdDictionarySerializer;
+import kr.or.exmaple.kafkaProducer.partition.HotKeyPartitioner;
+import kr.or.exmaple.kafkaProducer.service.AcksMode;
+import kr.or.exmaple.kafkaProducer.service.AdmissionControl;
+import kr.or.exmaple.kafkaProducer.service.TransactionBatcher;
+import kr.or.exmaple.kafkaProducer.support.ApiTranIdInjector;
+import kr.or.exmaple.kafkaProducer.support.RandomUuidGenerator;
+import kr.or.exmaple.kafkaProducer.support.TimeOrderedUuidGenerator;
+import kr.or.exmaple.kafkaProducer.support.TransactionIdGenerator;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Kafka 프로듀서 설정
+ * 
+ * Spring Boot가 application.yml의 spring.kafka.producer 설정으로 생성한
+ * ProducerFactory를 기반으로 acks 모드별 KafkaTemplate을 구성합니다.
+ * 
+ * - byte[] 값 템플릿: 인코딩된 본문과 패스스루(pass-through) 본문을 전송하는 경로 (사전 압축 선택)
+ * - 트랜잭션 전송기: app.producer.fan-out.transactional=true일 때 byte[] 값 경로를 트랜잭션으로 전송
+ * - hot key 파티션 선택기: app.producer.hot-key.enabled=true일 때 트래픽이 몰리는 Key를 여러 파티션으로 분산
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@Configuration
+@EnableConfigurationProperties(ProducerProperties.class)
+public class KafkaProducerConfig {
+
+    /**
+     * 트랜잭션 프로듀서의 max.block.ms (InitProducerId, 커밋 대기)
+     */
+    private static final int TRANSACTIONAL_MAX_BLOCK_MS = 30_000;
+
+    /**
+     * acks 모드별 KafkaTemplate (Key는 String, Value는 byte[])
+     * 
+     * 공통 프로듀서 설정에서 value.serializer만 ByteArraySerializer로 덮어써
+     * 요청 본문 바이트를 추가 변환 없이 전송합니다.
+     * 
+     * app.compression.enabled=true면 ByteArraySerializer 대신 ZstdDictionarySerializer로
+     * 학습한 사전을 사용해 메시지마다 압축합니다.
+     * 
+     * @param producerFactory Spring Boot 자동 설정 ProducerFactory
+     * @param dictionarySerializer 사전 압축 Serializer (압축을 켠 경우에만 존재)
+     * @return acks 모드별 KafkaTemplate 묶음
+     */
+    @Bean
+    public AcksKafkaTemplates<byte[]> rawAcksKafkaTemplates(ProducerFactory<String, String> producerFactory,
+                                                           ObjectProvider<ZstdDictionarySerializer> dictionarySerializer) {
+        return new AcksKafkaTemplates<>(rawProducerFactory(producerFactory, dictionarySerializer, Map.of()));
+    }
+
+    /**
+     * 엔드포인트별 fan-out 레코드를 트랜잭션으로 묶어 보내는 전송기
+     * 
+     * app.producer.fan-out.transactional=true면 byte[] 값 템플릿과 같은 Serializer에
+     * acks=all, 멱등성, transactional.id 접두사를 적용한 프로듀서를 만듭니다.
+     * 이 프로듀서는 요청 스레드가 아닌 커밋 스레드만 사용하므로, 첫 트랜잭션의 InitProducerId가
+     * 트랜잭션 로그 토픽 생성을 기다릴 수 있도록 max.block.ms를 공통 설정(2초)보다 길게 둡니다.
+     * 비활성화하면 프로듀서와 커밋 스레드 없이 등록됩니다 (isEnabled() == false).
+     */
+    @Bean
+    public TransactionBatcher transactionBatcher(ProducerProperties producerProperties, ProducerFactory<String, String> producerFactory,
+                                                 ObjectProvider<ZstdDictionarySerializer> dictionarySerializer,
+                                                 MeterRegistry meterRegistry) {
+        ProducerProperties.FanOut fanOut = producerProperties.getFanOut();
+        DefaultKafkaProducerFactory<String, byte[]> transactionalProducerFactory = null;
+        if (fanOut.isTransactional()) {
+            transactionalProducerFactory = rawProducerFactory(producerFactory, dictionarySerializer, Map.of(
+                    ProducerConfig.ACKS_CONFIG, AcksMode.ALL.kafkaValue(),
+                    ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true,
+                    ProducerConfig.MAX_BLOCK_MS_CONFIG, TRANSACTIONAL_MAX_BLOCK_MS));
+            transactionalProducerFactory.setTransactionIdPrefix(fanOut.getTransaction().getIdPrefix());
+        }
+        return new TransactionBatcher(fanOut, transactionalProducerFactory, meterRegistry);
+    }
+
+    /**
+     * hot key를 여러 파티션으로 나누어 보내는 파티션 선택기 (app.producer.hot-key)
+     * 
+     * 파티션 수는 byte[] 값 템플릿(acks=all)의 프로듀서 메타데이터에서 읽습니다.
+     * (partitionsFor는 메타데이터가 없으면 대기하므로 HotKeyPartitioner는 salt를 붙인 요청에서 토픽마다 한 번만 호출)
+     */
+    @Bean
+    public HotKeyPartitioner hotKeyPartitioner(ProducerProperties producerProperties,
+                                               AcksKafkaTemplates<byte[]> rawAcksKafkaTemplates, MeterRegistry meterRegistry) {
+        KafkaTemplate<String, byte[]> template = rawAcksKafkaTemplates.get(AcksMode.ALL);
+        return new HotKeyPartitioner(producerProperties.getHotKey(), topic -> template.partitionsFor(topic).size(),
+                meterRegistry);
+    }
+
+    /**
+     * 공통 프로듀서 설정에서 value.serializer를 ByteArraySerializer(압축 시 ZstdDictionarySerializer)로 바꾼 복사본
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static DefaultKafkaProducerFactory<String, byte[]> rawProducerFactory(ProducerFactory<String, String> producerFactory,
+                                                                                 ObjectProvider<ZstdDictionarySerializer> dictionarySerializer,
+                                                                                 Map<String, Object> overrides) {
+        Map<String, Object> configs = new HashMap<>(overrides);
+        configs.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        DefaultKafkaProducerFactory<String, byte[]> rawProducerFactory =
+                (DefaultKafkaProducerFactory) producerFactory.copyWithConfigurationOverride(configs);
+        dictionarySerializer.ifAvailable(rawProducerFactory::setValueSerializer);
+        return rawProducerFactory;
+    }
+
+    /**
+     * 프로듀서가 생성/종료될 때 AdmissionControl에 알려 버퍼 여유를 추적하도록 등록
+     * 
+     * acks 모드별 KafkaTemplate은 이 ProducerFactory를 복사해 만들며, 복사본도 리스너를 물려받습니다.
+     */
+    @Bean
+    @SuppressWarnings("unchecked")
+    public DefaultKafkaProducerFactoryCustomizer admissionControlProducerFactoryCustomizer(AdmissionControl admissionControl) {
+        return producerFactory -> ((DefaultKafkaProducerFactory<Object, Object>) producerFactory).addListener(admissionControl);
+    }
+
+    /**
+     * 패스스루 경로에서 사용할 api_tran_id 삽입기
+     */
+    @Bean
+    public ApiTranIdInjector apiTranIdInjector() {
+        return new ApiTranIdInjector();
+    }
+
+    /**
+     * app.producer.tran-id-format에 따른 api_tran_id 생성기
+     */
+    @Bean
+    public TransactionIdGenerator transactionIdGenerator(ProducerProperties producerProperties) {
+        return switch (producerProperties.getTranIdFormat()) {
+            case UUID_V4 -> new RandomUuidGenerator();
+            case UUID_V7 -> new TimeOrderedUuidGenerator();
+        };
+    }
+}
@@ -0,0 +1,282 @@
+package kr.or.exmaple.kafkaProducer.config;
+
+import kr.or.exmaple.kafkaProducer.service.AcksMode;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 프로듀서 애플리케이션 설정
+ * 
+ * application.yml의 app.producer 하위 설정을 바인딩합니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@ConfigurationProperties(prefix = "app.producer")
+@Getter
+@Setter
+public class ProducerProperties {
+
+    /**
+     * 요청에 acks 파라미터가 없을 때 사용할 기본 acks 모드
+     */
+    private AcksMode defaultAcks = AcksMode.ALL;
+
+    /**
+     * api_tran_id 생성 방식
+     */
+    private TranIdFormat tranIdFormat = TranIdFormat.UUID_V7;
+
+    /**
+     * 전송 요청 수락(admission control) 설정
+     */
+    private Admission admission = new Admission();
+
+    /**
+     * 브로커 장애 시 로컬 저널 보관(spill) 설정
+     */
+    private Spill spill = new Spill();
+
+    /**
+     * 엔드포인트별 전송 토픽(fan-out)과 트랜잭션 전송 설정
+     */
+    private FanOut fanOut = new FanOut();
+
+    /**
+     * 트래픽이 몰리는 Key(hot key)를 여러 파티션으로 분산하는 설정
+     */
+    private HotKey hotKey = new HotKey();
+
+    /**
+     * api_tran_id 생성 방식
+     */
+    public enum TranIdFormat {
+
+        /**
+         * UUID.randomUUID() (무작위, 공유 SecureRandom 사용)
+         */
+        UUID_V4,
+
+        /**
+         * 시간 순서 UUID (발급 시각 순 정렬 가능, 스레드별 상태로 경합 없음)
+         */
+        UUID_V7
+    }
+
+    /**
+     * 전송 요청 수락(admission control) 설정
+     * 
+     * 브로커가 느려지면 ack를 기다리는 전송이 쌓이고 프로듀서 버퍼가 차서
+     * send가 max.block.ms 동안 요청 스레드를 붙잡습니다. 아래 한도를 넘으면
+     * 요청을 기다리게 하지 않고 바로 429 Too Many Requests로 거절합니다.
+     */
+    @Getter
+    @Setter
+    public static class Admission {
+
+        /**
+         * 수락 제어 사용 여부
+         */
+        private boolean enabled = true;
+
+        /**
+         * ack를 받지 못한 전송의 최대 개수 (요청 하나는 두 토픽으로 2건 전송)
+         */
+        private int maxInFlight = 5_000;
+
+        /**
+         * 프로듀서 버퍼(buffer.memory)의 최소 여유 비율 (0~1, 가장 여유가 적은 프로듀서 기준)
+         */
+        private double minBufferAvailable = 0.2;
+
+        /**
+         * 거절 응답의 Retry-After 값
+         */
+        private Duration retryAfter = Duration.ofSeconds(1);
+    }
+
+    /**
+     * 브로커 장애 시 로컬 저널 보관(spill) 설정
+     * 
+     * 브로커에 전송하지 못한 메시지를 메모리 맵 세그먼트 파일에 추가하고,
+     * 브로커가 복구되면 저장한 순서대로 재전송합니다.
+     */
+    @Getter
+    @Setter
+    public static class Spill {
+
+        /**
+         * 저널 보관 사용 여부 (false면 전송 실패를 그대로 응답)
+         */
+        private boolean enabled = true;
+
+        /**
+         * 세그먼트 파일(&lt;번호&gt;.seg)과 체크포인트 디렉터리 (기본값: ${java.io.tmpdir}/kafka-demo/spill-journal)
+         */
+        private Path dir = Path.of(System.getProperty("java.io.tmpdir"), "kafka-demo", "spill-journal");
+
+        /**
+         * 세그먼트 파일 하나의 크기 (가득 차면 다음 세그먼트로 교체)
+         */
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+        /**
+         * 세그먼트 파일 전체 크기 한도 (넘으면 새 메시지를 보관하지 않고 전송 실패로 응답)
+         */
+        private DataSize maxDiskUsage = DataSize.ofGigabytes(1);
+
+        /**
+         * 저널을 디스크에 동기화(fsync)하는 주기
+         * 보관한 메시지의 응답은 다음 동기화 이후에 반환되며, 그동안 추가된 메시지를 한 번에 동기화
+         */
+        private Duration flushInterval = Duration.ofMillis(50);
+
+        /**
+         * 재전송할 때 한 번에 보내고 ack를 기다리는 메시지 수
+         */
+        private int replayBatchSize = 500;
+
+        /**
+         * 재전송이 실패했거나 재전송할 메시지가 없을 때 다시 확인하기까지의 간격
+         */
+        private Duration replayInterval = Duration.ofSeconds(1);
+    }
+
+    /**
+     * 트래픽이 몰리는 Key(hot key) 분산 설정
+     * 
+     * Key별 전송 수를 count-min sketch로 추정하여, 한 window 동안 전체 전송 중 threshold 이상을 차지한 Key는
+     * Key의 기본 파티션부터 이어지는 spread개 파티션에 나누어 보냅니다.
+     * 분산한 레코드에는 key-salt 헤더가 붙으므로 순서가 중요한 컨슈머는 이를 보고 구분할 수 있습니다.
+     */
+    @Getter
+    @Setter
+    public static class HotKey {
+
+        /**
+         * hot key 분산 사용 여부 (false면 모든 Key를 기본 파티셔너로 전송, 파티션 편중 메트릭은 계속 기록)
+         */
+        private boolean enabled = false;
+
+        /**
+         * Key 빈도를 집계하는 구간 (구간이 바뀌면 집계를 초기화하고 파티션 편중도를 갱신)
+         */
+        private Duration window = Duration.ofSeconds(10);
+
+        /**
+         * hot key로 판단할 구간 내 전송 비율 (0~1)
+         */
+        private double threshold = 0.1;
+
+        /**
+         * 구간 내 Key의 추정 전송 수가 이 값보다 적으면 비율과 관계없이 분산하지 않음 (적은 트래픽에서 순서 유지)
+         */
+        private long minCount = 1_000;
+
+        /**
+         * hot key 하나를 나누어 보낼 파티션 수 (Key의 기본 파티션부터 연속, 토픽의 파티션 수를 넘지 않음)
+         */
+        private int spread = 4;
+
+        /**
+         * 동시에 분산할 수 있는 hot key 최대 수
+         */
+        private int maxHotKeys = 32;
+
+        /**
+         * count-min sketch의 행별 카운터 수 (과대 추정 오차는 대략 구간 전송 수 × 2.7 / sketch-width)
+         */
+        private int sketchWidth = 2048;
+
+        /**
+         * count-min sketch의 행(해시 함수) 수 (클수록 오차가 한도를 넘을 확률이 낮음)
+         */
+        private int sketchDepth = 4;
+    }
+
+    /**
+     * 엔드포인트별 전송 토픽(fan-out)과 트랜잭션 전송 설정
+     * 
+     * 엔드포인트는 한 번 인코딩한 본문과 헤더를 routes에 등록된 모든 토픽으로 보냅니다.
+     * transactional=true면 한 요청의 레코드를 하나의 Kafka 트랜잭션으로 보내 토픽 간 불일치가 생기지 않으며,
+     * 동시에 들어온 요청들은 한 트랜잭션으로 묶어 커밋합니다.
+     */
+    @Getter
+    @Setter
+    public static class FanOut {
+
+        public static final String PUTDATA = "putdata";
+
+        public static final String PUTDATA_WITH_KEY = "putdata-with-key";
+
+        public static final String PUTDATA_BULK = "putdata-bulk";
+
+        /**
+         * 엔드포인트(putdata, putdata-with-key, putdata-bulk)별 전송 토픽 (/raw/* 경로도 같은 이름 사용)
+         */
+        private Map<String, List<String>> routes = defaultRoutes();
+
+        /**
+         * 요청의 레코드를 하나의 트랜잭션으로 전송할지 여부
+         * 켜면 acks 파라미터와 관계없이 acks=all(멱등성 프로듀서)로 보내고, 실패해도 저널에 보관하지 않음
+         */
+        private boolean transactional = false;
+
+        /**
+         * 트랜잭션 전송 설정 (transactional=true일 때만 사용)
+         */
+        private Transaction transaction = new Transaction();
+
+        /**
+         * 엔드포인트의 전송 토픽
+         * 
+         * @throws IllegalStateException 등록되지 않은 엔드포인트이거나 토픽이 없는 경우
+         */
+        public List<String> topics(String route) {
+            List<String> topics = routes.get(route);
+            if (topics == null || topics.isEmpty()) {
+                throw new IllegalStateException("No topics configured for app.producer.fan-out.routes." + route);
+            }
+            return topics;
+        }
+
+        private static Map<String, List<String>> defaultRoutes() {
+            List<String> topics = List.of("sample.batch.topic", "sample.record.topic");
+            Map<String, List<String>> routes = new LinkedHashMap<>();
+            routes.put(PUTDATA, topics);
+            routes.put(PUTDATA_WITH_KEY, topics);
+            routes.put(PUTDATA_BULK, topics);
+            return routes;
+        }
+    }
+
+    /**
+     * 트랜잭션 전송 설정
+     */
+    @Getter
+    @Setter
+    public static class Transaction {
+
+        /**
+         * transactional.id 접두사 (인스턴스마다 달라야 함, 같으면 서로의 프로듀서를 fencing)
+         */
+        private String idPrefix = "kafka-producer-tx-";
+
+        /**
+         * 트랜잭션 하나에 담는 최대 레코드 수
+         */
+        private int maxBatchSize = 1000;
+
+        /**
+         * 첫 요청이 도착한 뒤 같은 트랜잭션에 담을 요청을 더 기다리는 시간 (0이면 커밋 중에 쌓인 요청만 묶음)
+         */
+        private Duration linger = Duration.ofMillis(2);
+    }
+}
@@ -0,0 +1,147 @@
+package kr.or.exmaple.kafkaProducer.controller;
+
+import kr.or.exmaple.kafkaProducer.config.ProducerProperties;
+import kr.or.exmaple.kafkaProducer.service.AcksMode;
+import kr.or.exmaple.kafkaProducer.service.AdmissionControl;
+import kr.or.exmaple.kafkaProducer.service.KafkaProducerService;
+import kr.or.exmaple.kafkaProducer.support.ApiTranIdInjector;
+import kr.or.exmaple.kafkaProducer.support.TransactionIdGenerator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 패스스루(pass-through) 수집 REST API 컨트롤러
+ * 
+ * ProducerController와 같은 기능을 제공하지만, 요청 본문을 Map으로 바인딩한 뒤
+ * 다시 JSON 문자열로 직렬화하는 대신 원본 바이트를 그대로 사용합니다.
+ * 
+ * 처리 과정:
+ * 1. 요청 본문을 byte[]로 수신
+ * 2. 스트리밍 토큰 스캔으로 JSON 유효성 검증 (객체 트리 생성 없음)
+ * 3. 최상위 객체 끝에 "api_tran_id" 필드를 바이트 단위로 삽입
+ * 4. ByteArraySerializer로 엔드포인트에 등록된 토픽(app.producer.fan-out.routes)에 그대로 전송 (api_tran_id, key 등은 헤더에도 기록)
+ * 
+ * 제공하는 엔드포인트:
+ * 1. POST /raw/putdata - Key 없이 메시지 전송
+ * 2. POST /raw/putdata-with-key - 최상위 "key" 필드 값을 Key로 전송
+ * 
+ * 응답 형식과 검증 규칙, 과부하 시 429 응답은 ProducerController의 /putdata, /putdata-with-key와 동일합니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@RestController
+@RequestMapping("/raw")
+@RequiredArgsConstructor
+@Slf4j
+public class PassThroughProducerController {
+
+    /**
+     * Kafka 메시지 전송을 담당하는 서비스
+     */
+    private final KafkaProducerService kafkaProducerService;
+
+    /**
+     * 원본 JSON 바이트에 api_tran_id를 삽입하는 유틸리티
+     */
+    private final ApiTranIdInjector apiTranIdInjector;
+
+    /**
+     * api_tran_id 생성기 (app.producer.tran-id-format)
+     */
+    private final TransactionIdGenerator transactionIdGenerator;
+
+    /**
+     * 프로듀서 설정 (acks 파라미터 생략 시 기본 acks 모드)
+     */
+    private final ProducerProperties producerProperties;
+
+    /**
+     * 요청 수락 제어 - 프로듀서 과부하 시 429로 바로 거절
+     */
+    private final AdmissionControl admissionControl;
+
+    /**
+     * JSON 바이트를 Key 없이 Kafka로 전송하는 패스스루 엔드포인트
+     * 
+     * @param body 요청 본문 바이트 (JSON 객체)
+     * @param acks 전송 확인(acks) 모드 (생략 시 app.producer.default-acks)
+     * @return 처리 결과 메시지와 HTTP 상태 코드를 담은 Future
+     */
+    @PostMapping(value = "/putdata", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<ResponseEntity<String>> putData(@RequestBody byte[] body,
+                                                             @RequestParam(name = "acks", required = false) AcksMode acks) {
+        // 과부하면 본문을 검사하기 전에 ProducerOverloadedException (429)
+        admissionControl.admit();
+        String apiTranId = transactionIdGenerator.nextId();
+        ApiTranIdInjector.Result enhanced;
+        try {
+            enhanced = apiTranIdInjector.inject(body, apiTranId);
+        } catch (ApiTranIdInjector.InvalidPayloadException e) {
+            log.warn("Rejected raw data: {}", e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage()));
+        }
+
+        return send(ProducerProperties.FanOut.PUTDATA, null, apiTranId, enhanced.payload(), acks, "Data sent successfully with api_tran_id: " + apiTranId);
+    }
+
+    /**
+     * JSON 바이트를 Key와 함께 Kafka로 전송하는 패스스루 엔드포인트
+     * 
+     * 최상위 "key" 필드 값을 Kafka 메시지 키로 사용하며,
+     * 필드가 없거나 null이면 400 Bad Request를 반환합니다.
+     * 
+     * @param body 요청 본문 바이트 (반드시 최상위 "key" 필드 포함)
+     * @param acks 전송 확인(acks) 모드 (생략 시 app.producer.default-acks)
+     * @return 처리 결과 메시지와 HTTP 상태 코드를 담은 Future
+     */
+    @PostMapping(value = "/putdata-with-key", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<ResponseEntity<String>> putDataWithKey(@RequestBody byte[] body,
+                                                                    @RequestParam(name = "acks", required = false) AcksMode acks) {
+        // 과부하면 본문을 검사하기 전에 ProducerOverloadedException (429)
+        admissionControl.admit();
+        String apiTranId = transactionIdGenerator.nextId();
+        ApiTranIdInjector.Result enhanced;
+        try {
+            enhanced = apiTranIdInjector.inject(body, apiTranId);
+        } catch (ApiTranIdInjector.InvalidPayloadException e) {
+            log.warn("Rejected raw data with key requirement: {}", e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage()));
+        }
+
+        // Kafka 메시지 키로 사용될 필수 필드 검증
+        if (enhanced.key() == null) {
+            log.warn("Missing required 'key' field in raw JSON data");
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Missing required 'key' field in JSON data"));
+        }
+
+        return send(ProducerProperties.FanOut.PUTDATA_WITH_KEY, enhanced.key(), apiTranId, enhanced.payload(), acks,
+                "Data sent successfully with key: " + enhanced.key() + " and api_tran_id: " + apiTranId);
+    }
+
+    /**
+     * 엔드포인트에 등록된 모든 토픽에 바이트를 전송하고 모두 브로커 응답을 받으면 응답 생성
+     */
+    private CompletableFuture<ResponseEntity<String>> send(String route, String key, String apiTranId, byte[] payload,
+                                                           AcksMode acks, String message) {
+        AcksMode acksMode = acks != null ? acks : producerProperties.getDefaultAcks();
+
+        return kafkaProducerService.publishRaw(route, key, apiTranId, payload, acksMode)
+                .thenApply(receipts -> ResponseEntity.ok(message + " (acks=" + acksMode + ", results=" + receipts + ")"))
+                .exceptionally(e -> {
+                    log.error("Error sending raw data to Kafka with key: {}", key, e);
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body("Error processing data: " + (e.getCause() != null ? e.getCause().getMessage() : e.getMessage()));
+                });
+    }
+}
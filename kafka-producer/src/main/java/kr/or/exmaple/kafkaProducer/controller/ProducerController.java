@@ -1,17 +1,35 @@
 package kr.or.exmaple.kafkaProducer.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import kr.or.exmaple.kafkaCommon.logging.PayloadLogSampler;
+import kr.or.exmaple.kafkaProducer.config.ProducerProperties;
+import kr.or.exmaple.kafkaProducer.dto.BulkSendResult;
+import kr.or.exmaple.kafkaProducer.dto.SendReceipt;
+import kr.or.exmaple.kafkaProducer.exception.ProducerOverloadedException;
+import kr.or.exmaple.kafkaProducer.service.AcksMode;
+import kr.or.exmaple.kafkaProducer.service.AdmissionControl;
 import kr.or.exmaple.kafkaProducer.service.KafkaProducerService;
+import kr.or.exmaple.kafkaProducer.support.TransactionIdGenerator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Kafka Producer REST API 컨트롤러
@@ -22,12 +40,19 @@ import java.util.UUID;
  * 제공하는 엔드포인트:
  * 1. POST /putdata - Key 없이 메시지 전송
  * 2. POST /putdata-with-key - Key와 함께 메시지 전송
+ * 3. POST /putdata-bulk - NDJSON 또는 JSON 배열을 스트리밍으로 읽어 대량 전송
  * 
  * 공통 기능:
  * - JSON 유효성 검증 (Spring Boot 자동 처리)
- * - api_tran_id UUID 자동 생성 및 추가
- * - 두 토픽 모두에 동시 전송
- * - JSON 형태 로깅
+ * - api_tran_id 자동 생성 및 추가 (app.producer.tran-id-format)
+ * - 설정된 코덱(app.codec.format: json, cbor, smile)으로 본문 인코딩, payload-codec 헤더로 형식 표시
+ * - api_tran_id, produced-at, content-type, key를 레코드 헤더에도 기록 (컨슈머의 헤더 기반 필터링용)
+ * - 엔드포인트별로 설정된 모든 토픽에 동시 전송 (app.producer.fan-out.routes, 기본은 두 토픽)
+ * - 트랜잭션 모드(app.producer.fan-out.transactional)에서는 모든 토픽에 한 트랜잭션으로 기록
+ * - 브로커 응답(ack)을 받은 뒤 비동기로 HTTP 응답 (Tomcat 요청 스레드를 점유하지 않음)
+ * - 요청별 acks 모드 선택 (?acks=none|leader|all)
+ * - 프로듀서 과부하(ack 대기 전송 수, 버퍼 여유) 시 대기 없이 429 Too Many Requests + Retry-After
+ * - JSON 형태 로깅 (본문 로그는 초당 개수와 길이를 제한)
  * - 에러 처리 및 적절한 HTTP 상태 코드 반환
  * 
  * @author Spring Boot Kafka Demo
@@ -42,13 +67,38 @@ public class ProducerController {
      * 생성자 주입을 통해 의존성 주입됨
      */
     private final KafkaProducerService kafkaProducerService;
+
+    /**
+     * 프로듀서 설정 (acks 파라미터 생략 시 기본 acks 모드)
+     */
+    private final ProducerProperties producerProperties;
+
+    /**
+     * 본문 로깅 샘플러 (초당 로그 수 제한 및 본문 길이 제한)
+     */
+    private final PayloadLogSampler payloadLog;
+
+    /**
+     * api_tran_id 생성기 (app.producer.tran-id-format)
+     */
+    private final TransactionIdGenerator transactionIdGenerator;
+
+    /**
+     * 요청 수락 제어 - 프로듀서 과부하 시 429로 바로 거절
+     */
+    private final AdmissionControl admissionControl;
     
     /**
-     * Jackson ObjectMapper - JSON 직렬화/역직렬화 담당
-     * Map 객체를 JSON 문자열로 변환할 때 사용
+     * Jackson ObjectMapper - 대량 요청 본문(NDJSON/JSON 배열) 읽기용
+     * 전송 본문 인코딩은 KafkaProducerService의 코덱(app.codec.format)이 담당
      */
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    /**
+     * NDJSON(Newline Delimited JSON) 미디어 타입
+     */
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
     /**
      * JSON 데이터를 Key 없이 Kafka로 전송하는 REST API 엔드포인트
      * 
@@ -58,46 +108,61 @@ public class ProducerController {
      * 
      * Key가 없으므로 Kafka는 라운드 로빈 방식으로 파티션을 선택합니다.
      * 
+     * 응답은 두 토픽 모두 브로커 응답(ack)을 받은 뒤 비동기로 반환되며,
+     * 토픽별로 저장된 파티션과 offset(topic-partition@offset)을 포함합니다.
+     * 
      * 요청 예시:
-     * POST /putdata
+     * POST /putdata?acks=leader
      * Content-Type: application/json
      * {"name": "김철수", "age": 30}
      * 
      * 응답 예시:
-     * "Data sent successfully with api_tran_id: 550e8400-e29b-41d4-a716-446655440000"
+     * "Data sent successfully with api_tran_id: 0199ef3a-6c2b-7a41-9d3e-5f1b2c7e8a90 (acks=LEADER, results=[sample.batch.topic-0@42, sample.record.topic-0@42])"
      * 
      * @param jsonData 클라이언트에서 전송한 JSON 데이터 (Map으로 자동 변환)
-     * @return ResponseEntity<String> 처리 결과 메시지와 HTTP 상태 코드
+     * @param acks 전송 확인(acks) 모드 (생략 시 app.producer.default-acks)
+     * @return 처리 결과 메시지와 HTTP 상태 코드를 담은 Future
      */
     @PostMapping("/putdata")
-    public ResponseEntity<String> putData(@RequestBody Map<String, Object> jsonData) {
-        log.info("Received data: {}", jsonData);
+    public CompletableFuture<ResponseEntity<String>> putData(@RequestBody Map<String, Object> jsonData,
+                                                             @RequestParam(name = "acks", required = false) AcksMode acks) {
+        // 과부하면 ProducerOverloadedException (429)
+        admissionControl.admit();
+        if (payloadLog.sample()) {
+            log.info("Received data: {}", payloadLog.preview(jsonData));
+        }
         
         // 입력 데이터 유효성 검증
         if (jsonData == null || jsonData.isEmpty()) {
             log.warn("Received empty JSON data");
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("JSON data is required");
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.status(HttpStatus.BAD_REQUEST).body("JSON data is required"));
         }
+        AcksMode acksMode = acks != null ? acks : producerProperties.getDefaultAcks();
         
         try {
             // 고유한 API 트랜잭션 ID 생성 및 추가
-            String apiTranId = UUID.randomUUID().toString();
+            String apiTranId = transactionIdGenerator.nextId();
             jsonData.put("api_tran_id", apiTranId);
             
-            // Map 객체를 JSON 문자열로 직렬화
-            String enhancedJsonData = objectMapper.writeValueAsString(jsonData);
-            log.info("Enhanced data with api_tran_id: {}", enhancedJsonData);
+            // 설정된 코덱(app.codec.format)으로 한 번만 인코딩하여 두 토픽에 같은 본문 사용
+            byte[] payload = kafkaProducerService.encode(jsonData);
+            if (payloadLog.sample()) {
+                log.info("Enhanced data with api_tran_id: {}", payloadLog.preview(jsonData));
+            }
             
-            // 두 개의 Kafka 토픽 모두에 메시지 전송 (Key 없음)
-            kafkaProducerService.sendToBatchTopic(enhancedJsonData);
-            kafkaProducerService.sendToRecordTopic(enhancedJsonData);
-            
-            return ResponseEntity.ok("Data sent successfully with api_tran_id: " + apiTranId);
+            // 엔드포인트에 등록된 모든 Kafka 토픽에 메시지 전송 (Key 없음)
+            // 모든 전송이 브로커 응답을 받으면 응답 완료 (요청 스레드는 즉시 반환됨)
+            return kafkaProducerService.publishEncoded(ProducerProperties.FanOut.PUTDATA, null, apiTranId, payload, acksMode)
+                    .thenApply(receipts -> ResponseEntity.ok(
+                            "Data sent successfully with api_tran_id: " + apiTranId + describe(acksMode, receipts)))
+                    .exceptionally(e -> sendFailed(jsonData, e));
             
         } catch (Exception e) {
-            // JSON 직렬화 오류 또는 Kafka 전송 오류 처리
-            log.error("Error processing data: {}", jsonData, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error processing data: " + e.getMessage());
+            // 본문 인코딩 오류 또는 Kafka 전송 오류 처리
+            log.error("Error processing data: {}", payloadLog.preview(jsonData), e);
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error processing data: " + e.getMessage()));
         }
     }
 
@@ -118,51 +183,231 @@ public class ProducerController {
      * {"key": "user123", "name": "김철수", "age": 30}
      * 
      * 응답 예시:
-     * "Data sent successfully with key: user123 and api_tran_id: 550e8400-e29b-41d4-a716-446655440000"
+     * "Data sent successfully with key: user123 and api_tran_id: 0199ef3a-6c2b-7a41-9d3e-5f1b2c7e8a90 (acks=ALL, results=[sample.batch.topic-1@7, sample.record.topic-1@7])"
      * 
      * @param jsonData 클라이언트에서 전송한 JSON 데이터 (반드시 "key" 필드 포함)
-     * @return ResponseEntity<String> 처리 결과 메시지와 HTTP 상태 코드
+     * @param acks 전송 확인(acks) 모드 (생략 시 app.producer.default-acks)
+     * @return 처리 결과 메시지와 HTTP 상태 코드를 담은 Future
      */
     @PostMapping("/putdata-with-key")
-    public ResponseEntity<String> putDataWithKey(@RequestBody Map<String, Object> jsonData) {
-        log.info("Received data with key requirement: {}", jsonData);
+    public CompletableFuture<ResponseEntity<String>> putDataWithKey(@RequestBody Map<String, Object> jsonData,
+                                                                    @RequestParam(name = "acks", required = false) AcksMode acks) {
+        // 과부하면 ProducerOverloadedException (429)
+        admissionControl.admit();
+        if (payloadLog.sample()) {
+            log.info("Received data with key requirement: {}", payloadLog.preview(jsonData));
+        }
         
         // 입력 데이터 유효성 검증
         if (jsonData == null || jsonData.isEmpty()) {
             log.warn("Received empty JSON data");
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("JSON data is required");
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.status(HttpStatus.BAD_REQUEST).body("JSON data is required"));
         }
         
         // "key" 필드 존재 여부 및 null 값 검증
         // Kafka 메시지 키로 사용될 필수 필드임
         if (!jsonData.containsKey("key") || jsonData.get("key") == null) {
-            log.warn("Missing required 'key' field in JSON data: {}", jsonData);
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Missing required 'key' field in JSON data");
+            log.warn("Missing required 'key' field in JSON data: {}", payloadLog.preview(jsonData));
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Missing required 'key' field in JSON data"));
         }
+        AcksMode acksMode = acks != null ? acks : producerProperties.getDefaultAcks();
         
         try {
             // JSON에서 key 값 추출 및 문자열 변환
             String key = jsonData.get("key").toString();
             
             // 고유한 API 트랜잭션 ID 생성 및 추가
-            String apiTranId = UUID.randomUUID().toString();
+            String apiTranId = transactionIdGenerator.nextId();
             jsonData.put("api_tran_id", apiTranId);
             
-            // Map 객체를 JSON 문자열로 직렬화
-            String enhancedJsonData = objectMapper.writeValueAsString(jsonData);
-            log.info("Enhanced data with api_tran_id and key {}: {}", key, enhancedJsonData);
+            // 설정된 코덱(app.codec.format)으로 한 번만 인코딩하여 두 토픽에 같은 본문 사용
+            byte[] payload = kafkaProducerService.encode(jsonData);
+            if (payloadLog.sample()) {
+                log.info("Enhanced data with api_tran_id and key {}: {}", key, payloadLog.preview(jsonData));
+            }
             
-            // 두 개의 Kafka 토픽 모두에 Key와 함께 메시지 전송
+            // 엔드포인트에 등록된 모든 Kafka 토픽에 Key와 함께 메시지 전송
             // 동일한 Key를 가진 메시지들은 같은 파티션으로 전송됨
-            kafkaProducerService.sendToBatchTopic(key, enhancedJsonData);
-            kafkaProducerService.sendToRecordTopic(key, enhancedJsonData);
-            
-            return ResponseEntity.ok("Data sent successfully with key: " + key + " and api_tran_id: " + apiTranId);
+            // 모든 전송이 브로커 응답을 받으면 응답 완료 (요청 스레드는 즉시 반환됨)
+            return kafkaProducerService.publishEncoded(ProducerProperties.FanOut.PUTDATA_WITH_KEY, key, apiTranId, payload, acksMode)
+                    .thenApply(receipts -> ResponseEntity.ok(
+                            "Data sent successfully with key: " + key + " and api_tran_id: " + apiTranId
+                                    + describe(acksMode, receipts)))
+                    .exceptionally(e -> sendFailed(jsonData, e));
             
         } catch (Exception e) {
-            // JSON 직렬화 오류 또는 Kafka 전송 오류 처리
-            log.error("Error processing data with key: {}", jsonData, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error processing data: " + e.getMessage());
+            // 본문 인코딩 오류 또는 Kafka 전송 오류 처리
+            log.error("Error processing data with key: {}", payloadLog.preview(jsonData), e);
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error processing data: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 여러 건의 JSON 데이터를 한 번의 요청으로 Kafka에 전송하는 REST API 엔드포인트
+     * 
+     * 요청 본문은 NDJSON(한 줄에 JSON 객체 하나) 또는 JSON 배열 형식을 지원합니다.
+     * 본문 전체를 메모리에 올리지 않고 Jackson 스트리밍 파서로 항목을 하나씩 읽으면서
+     * api_tran_id를 추가하고 즉시 두 토픽(sample.batch.topic, sample.record.topic)으로 전송합니다.
+     * 
+     * 항목에 "key" 필드가 있으면 /putdata-with-key와 동일하게 해당 값을 Kafka 메시지 키로 사용하고,
+     * 없으면 /putdata와 동일하게 Key 없이 전송합니다.
+     * 
+     * 응답은 모든 전송의 브로커 응답(ack)을 받은 뒤에 항목별 성공/실패 요약으로 반환됩니다.
+     * acks 파라미터는 단건 엔드포인트와 동일하게 모든 항목에 적용됩니다.
+     * 
+     * 요청 예시 (NDJSON):
+     * POST /putdata-bulk
+     * Content-Type: application/x-ndjson
+     * {"name": "김철수", "age": 30}
+     * {"key": "user123", "name": "이영희", "age": 25}
+     * 
+     * 응답 예시:
+     * {"total":2,"accepted":2,"failed":0,"acceptedIndices":[0,1],"failures":[]}
+     * 
+     * 주의사항:
+     * - JSON 객체가 아니거나 비어 있는 항목은 실패로 기록하고 다음 항목을 계속 처리
+     * - JSON 구문 오류가 발생하면 이후 본문을 신뢰할 수 없으므로 해당 위치에서 읽기를 중단
+     * - 시작 시 과부하면 429, 처리 도중 과부하가 되면 해당 항목을 실패로 기록하고 읽기를 중단
+     * 
+     * @param body 요청 본문 스트림 (NDJSON 또는 JSON 배열)
+     * @param acks 전송 확인(acks) 모드 (생략 시 app.producer.default-acks)
+     * @return 모든 전송 완료 후 항목별 결과 요약을 담은 Future
+     * @throws IOException 요청 본문을 읽는 중 I/O 오류가 발생한 경우
+     */
+    @PostMapping(value = "/putdata-bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE})
+    public CompletableFuture<ResponseEntity<BulkSendResult>> putDataBulk(InputStream body,
+                                                                         @RequestParam(name = "acks", required = false) AcksMode acks)
+            throws IOException {
+        // 과부하면 ProducerOverloadedException (429)
+        admissionControl.admit();
+        AcksMode acksMode = acks != null ? acks : producerProperties.getDefaultAcks();
+
+        // 항목별 처리 결과 Future - 성공 시 null, 실패 시 실패 사유로 완료됨
+        List<CompletableFuture<String>> outcomes = new ArrayList<>();
+
+        // readValues는 최상위 값의 연속(NDJSON)과 최상위 배열의 요소를 모두 하나씩 읽어들임
+        try (MappingIterator<JsonNode> items = objectMapper.readerFor(JsonNode.class).readValues(body)) {
+            while (true) {
+                JsonNode item;
+                try {
+                    if (!items.hasNextValue()) {
+                        break;
+                    }
+                    item = items.nextValue();
+                } catch (JsonProcessingException e) {
+                    // 구문 오류 이후의 스트림은 복구할 수 없으므로 실패로 기록하고 읽기 중단
+                    log.warn("Invalid JSON at bulk item index {}: {}", outcomes.size(), e.getOriginalMessage());
+                    outcomes.add(CompletableFuture.completedFuture("Invalid JSON format: " + e.getOriginalMessage()));
+                    break;
+                }
+                try {
+                    admissionControl.admit();
+                } catch (ProducerOverloadedException e) {
+                    // 도중에 과부하가 되면 나머지 항목은 읽지 않고 중단 (클라이언트는 실패 항목부터 재시도)
+                    log.warn("Bulk request stopped at item index {}: {}", outcomes.size(), e.getMessage());
+                    outcomes.add(CompletableFuture.completedFuture(e.getMessage() + ", retry later"));
+                    break;
+                }
+                outcomes.add(sendBulkItem(item, acksMode));
+            }
+        }
+
+        log.info("Received bulk request with {} items", outcomes.size());
+
+        // 모든 항목의 전송 결과(ack)를 기다린 뒤 요약 응답 생성
+        return CompletableFuture.allOf(outcomes.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> ResponseEntity.ok(summarize(outcomes)));
+    }
+
+    /**
+     * 대량 요청의 개별 항목을 검증하고 두 토픽으로 전송
+     * 
+     * @param item 요청 본문에서 읽어들인 항목
+     * @param acksMode 전송 확인(acks) 모드
+     * @return 성공 시 null, 실패 시 실패 사유로 완료되는 Future
+     */
+    private CompletableFuture<String> sendBulkItem(JsonNode item, AcksMode acksMode) {
+        // 입력 데이터 유효성 검증 - 단건 엔드포인트와 동일하게 비어있지 않은 JSON 객체만 허용
+        if (!(item instanceof ObjectNode jsonData) || jsonData.isEmpty()) {
+            return CompletableFuture.completedFuture("JSON object is required");
+        }
+
+        try {
+            // 고유한 API 트랜잭션 ID 생성 및 추가
+            String apiTranId = transactionIdGenerator.nextId();
+            jsonData.put("api_tran_id", apiTranId);
+            byte[] payload = kafkaProducerService.encode(jsonData);
+
+            // "key" 필드가 있으면 Key와 함께, 없으면 Key 없이 엔드포인트에 등록된 모든 토픽에 전송
+            JsonNode keyNode = jsonData.get("key");
+            String key = null;
+            if (keyNode != null && !keyNode.isNull()) {
+                key = keyNode.isValueNode() ? keyNode.asText() : keyNode.toString();
+            }
+
+            return kafkaProducerService.publishEncoded(ProducerProperties.FanOut.PUTDATA_BULK, key, apiTranId, payload, acksMode)
+                    .handle((ignored, e) -> e == null ? null : "Kafka send failed: " + rootCauseMessage(e));
+
+        } catch (Exception e) {
+            // 본문 인코딩 오류 또는 Kafka 전송 요청 자체의 오류
+            log.error("Error processing bulk item", e);
+            return CompletableFuture.completedFuture("Error processing data: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 항목별 처리 결과를 인덱스 순서대로 요약
+     * 
+     * @param outcomes 항목별 처리 결과 (모두 완료된 상태)
+     * @return 대량 전송 결과 요약
+     */
+    private BulkSendResult summarize(List<CompletableFuture<String>> outcomes) {
+        List<Integer> acceptedIndices = new ArrayList<>();
+        List<BulkSendResult.ItemFailure> failures = new ArrayList<>();
+        for (int index = 0; index < outcomes.size(); index++) {
+            String failureReason = outcomes.get(index).join();
+            if (failureReason == null) {
+                acceptedIndices.add(index);
+            } else {
+                failures.add(new BulkSendResult.ItemFailure(index, failureReason));
+            }
+        }
+
+        log.info("Completed bulk request: {} accepted, {} failed", acceptedIndices.size(), failures.size());
+        return new BulkSendResult(outcomes.size(), acceptedIndices.size(), failures.size(), acceptedIndices, failures);
+    }
+
+    /**
+     * 응답 메시지에 덧붙일 acks 모드와 토픽별 전송 결과(topic-partition@offset) 표현
+     */
+    private static String describe(AcksMode acksMode, List<SendReceipt> receipts) {
+        return " (acks=" + acksMode + ", results=" + receipts + ")";
+    }
+
+    /**
+     * 브로커 전송 실패 시 500 응답 생성
+     * 
+     * @param jsonData 전송하려던 데이터 (로깅용)
+     * @param e 전송 실패 예외
+     * @return 500 Internal Server Error 응답
+     */
+    private ResponseEntity<String> sendFailed(Map<String, Object> jsonData, Throwable e) {
+        log.error("Error sending data to Kafka: {}", payloadLog.preview(jsonData), e);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("Error processing data: " + rootCauseMessage(e));
+    }
+
+    /**
+     * CompletionException 등으로 감싸진 예외의 최초 원인 메시지 추출
+     */
+    private static String rootCauseMessage(Throwable e) {
+        Throwable cause = e;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
         }
+        return cause.getMessage();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,35 @@
+package kr.or.exmaple.kafkaProducer.dto;
+
+import java.util.List;
+
+/**
+ * 대량(Bulk) 전송 결과 요약
+ * 
+ * /putdata-bulk 요청에 포함된 각 항목(element)의 처리 결과를 요약합니다.
+ * 모든 전송에 대한 브로커 응답(ack)을 받은 뒤에 생성됩니다.
+ * 
+ * 인덱스는 요청 본문에서 항목이 등장한 순서(0부터 시작)입니다.
+ * 
+ * @param total 읽어들인 전체 항목 수
+ * @param accepted 두 토픽 모두 전송에 성공한 항목 수
+ * @param failed 검증 또는 전송에 실패한 항목 수
+ * @param acceptedIndices 성공한 항목의 인덱스 목록
+ * @param failures 실패한 항목의 인덱스와 실패 사유 목록
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+public record BulkSendResult(int total,
+                             int accepted,
+                             int failed,
+                             List<Integer> acceptedIndices,
+                             List<ItemFailure> failures) {
+
+    /**
+     * 개별 항목 실패 정보
+     * 
+     * @param index 요청 본문 내 항목 인덱스
+     * @param reason 실패 사유
+     */
+    public record ItemFailure(int index, String reason) {
+    }
+}
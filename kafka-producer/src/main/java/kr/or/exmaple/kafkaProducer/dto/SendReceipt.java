@@ -0,0 +1,41 @@
+package kr.or.exmaple.kafkaProducer.dto;
+
+import org.apache.kafka.clients.producer.RecordMetadata;
+
+/**
+ * 브로커 응답(ack)을 받은 전송 결과
+ * 
+ * acks=0(NONE) 모드에서는 브로커가 offset을 돌려주지 않으므로 offset이 -1입니다.
+ * 브로커 장애로 로컬 저널에 보관한 메시지는 파티션과 offset이 모두 -1입니다.
+ * 
+ * @param topic 전송된 토픽
+ * @param partition 저장된 파티션 (저널에 보관했으면 -1)
+ * @param offset 저장된 offset (알 수 없으면 -1)
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+public record SendReceipt(String topic, int partition, long offset) {
+
+    public static SendReceipt from(RecordMetadata metadata) {
+        return new SendReceipt(metadata.topic(), metadata.partition(), metadata.hasOffset() ? metadata.offset() : -1L);
+    }
+
+    /**
+     * 브로커 대신 로컬 저널에 보관한 전송 결과 (브로커가 복구되면 재전송됨)
+     */
+    public static SendReceipt spilled(String topic) {
+        return new SendReceipt(topic, -1, -1L);
+    }
+
+    public boolean isSpilled() {
+        return partition < 0;
+    }
+
+    /**
+     * 응답 메시지용 표현 (예: sample.batch.topic-0@42, 저널 보관 시 sample.batch.topic@spilled)
+     */
+    @Override
+    public String toString() {
+        return isSpilled() ? topic + "@spilled" : topic + "-" + partition + "@" + offset;
+    }
+}
@@ -1,11 +1,14 @@
 package kr.or.exmaple.kafkaProducer.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 /**
  * 전역 예외 처리기 (Global Exception Handler)
@@ -16,7 +19,10 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
  * 
  * 처리하는 예외 유형:
  * 1. HttpMessageNotReadableException - JSON 파싱 오류
- * 2. Exception - 기타 예상치 못한 모든 예외
+ * 2. MethodArgumentTypeMismatchException - 잘못된 요청 파라미터 값 (예: acks)
+ * 3. AsyncRequestTimeoutException - 비동기 응답 대기 시간 초과
+ * 4. ProducerOverloadedException - 프로듀서 과부하로 요청 거절 (429)
+ * 5. Exception - 기타 예상치 못한 모든 예외
  * 
  * 이를 통해 일관된 에러 응답 형식을 제공하고 로깅을 통해
  * 문제 추적을 용이하게 합니다.
@@ -48,6 +54,58 @@ public class GlobalExceptionHandler {
                 .body("Invalid JSON format: " + e.getMostSpecificCause().getMessage());
     }
 
+    /**
+     * 요청 파라미터 변환 오류 처리
+     * 
+     * 요청 파라미터 값을 지정된 타입으로 변환할 수 없을 때 발생합니다.
+     * 
+     * 발생 상황:
+     * - 지원하지 않는 acks 모드 (예: ?acks=2)
+     * 
+     * @param e MethodArgumentTypeMismatchException 예외 객체
+     * @return ResponseEntity<String> 400 Bad Request와 에러 메시지
+     */
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<String> handleParameterTypeMismatch(MethodArgumentTypeMismatchException e) {
+        log.warn("Invalid request parameter '{}': {}", e.getName(), e.getValue());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("Invalid value for parameter '" + e.getName() + "': " + e.getValue());
+    }
+
+    /**
+     * 비동기 응답 시간 초과 처리
+     * 
+     * 브로커 응답(ack)을 spring.mvc.async.request-timeout 안에 받지 못한 경우 발생합니다.
+     * 전송 자체는 계속 진행 중일 수 있으므로 503 Service Unavailable을 반환합니다.
+     * 
+     * @param e AsyncRequestTimeoutException 예외 객체
+     * @return ResponseEntity<String> 503 Service Unavailable과 에러 메시지
+     */
+    @ExceptionHandler(AsyncRequestTimeoutException.class)
+    public ResponseEntity<String> handleAsyncTimeout(AsyncRequestTimeoutException e) {
+        log.warn("Timed out waiting for Kafka acknowledgement");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body("Timed out waiting for Kafka acknowledgement");
+    }
+
+    /**
+     * 프로듀서 과부하 처리
+     * 
+     * ack를 기다리는 전송이 너무 많거나 프로듀서 버퍼가 거의 찼을 때 AdmissionControl이 발생시킵니다.
+     * 요청 스레드를 대기시키는 대신 429 Too Many Requests와 Retry-After(초)를 바로 반환합니다.
+     * 
+     * @param e ProducerOverloadedException 예외 객체
+     * @return ResponseEntity<String> 429 Too Many Requests와 에러 메시지
+     */
+    @ExceptionHandler(ProducerOverloadedException.class)
+    public ResponseEntity<String> handleOverloaded(ProducerOverloadedException e) {
+        log.debug("Rejected request: {}", e.getMessage());
+        long retryAfterSeconds = Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(e.getMessage() + ", retry later");
+    }
+
     /**
      * 일반적인 예외 처리
      * 
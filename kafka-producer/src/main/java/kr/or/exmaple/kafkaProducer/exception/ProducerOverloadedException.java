@@ -0,0 +1,27 @@
+package kr.or.exmaple.kafkaProducer.exception;
+
+import java.time.Duration;
+
+/**
+ * 프로듀서가 과부하 상태라 전송 요청을 받지 않을 때 발생하는 예외
+ * 
+ * GlobalExceptionHandler가 429 Too Many Requests와 Retry-After 헤더로 변환합니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+public class ProducerOverloadedException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public ProducerOverloadedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * 클라이언트가 다시 시도하기 전에 기다릴 시간
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,506 @@
+package kr.or.exmaple.kafkaProducer.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * 메모리 맵 세그먼트 파일 기반 추가 전용(append-only) 저널
+ * 
+ * 브로커에 전송하지 못한 메시지를 순서대로 보관했다가 재전송할 수 있도록 합니다.
+ * 
+ * 파일 구성:
+ * - &lt;번호&gt;.seg: 고정 크기 세그먼트. 항목은 [길이 4바이트][CRC32C 4바이트][본문] 형식으로 이어서 기록하고,
+ *   길이를 마지막에 기록하므로 쓰다 만 항목은 길이 0으로 남음. 가득 차면 끝 표시(-1)를 남기고 다음 번호로 교체
+ * - checkpoint: 재전송을 마친 위치 (세그먼트 번호 8바이트 + 세그먼트 내 위치 4바이트)
+ * 
+ * 디스크 동기화(fsync)는 append마다 하지 않고 flush()를 주기적으로 호출해 그동안 추가된 항목을 한 번에 동기화합니다.
+ * append가 돌려준 Future는 해당 항목이 동기화된 뒤 완료됩니다.
+ * 
+ * 재시작하면 체크포인트 이후 항목부터 다시 읽으며, 마지막 세그먼트의 쓰다 만 항목(CRC 불일치)은 버립니다.
+ * 체크포인트는 동기화하지 않으므로 비정상 종료 후에는 이미 재전송한 항목을 다시 보낼 수 있습니다 (at-least-once).
+ * 
+ * 스레드 모델: append, flush는 여러 스레드에서 호출할 수 있고, read, commit은 재전송 스레드 하나만 호출합니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@Slf4j
+public class SpillJournal implements Closeable {
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private static final String CHECKPOINT = "checkpoint";
+
+    /**
+     * 세그먼트 끝 표시 (이후 항목은 다음 세그먼트에 있음)
+     */
+    private static final int END_OF_SEGMENT = -1;
+
+    /**
+     * 항목 머리 크기 (길이 + CRC)
+     */
+    private static final int ENTRY_HEADER = 8;
+
+    private final Path dir;
+
+    private final int segmentSize;
+
+    private final long maxDiskUsage;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * 재전송이 끝나지 않은 세그먼트 (오래된 순, 마지막이 쓰기 세그먼트)
+     */
+    private final Deque<Segment> segments = new ArrayDeque<>();
+
+    /**
+     * 동기화를 기다리는 append Future
+     */
+    private List<CompletableFuture<Void>> pendingFlush = new ArrayList<>();
+
+    /**
+     * 쓰기 세그먼트에서 동기화를 마친 위치
+     */
+    private int flushedPosition;
+
+    private long nextSegmentId;
+
+    /**
+     * 재전송을 마친 위치 (다음 read 시작 위치)
+     */
+    private Position committed;
+
+    /**
+     * 재전송하지 않은 항목 수
+     */
+    private final AtomicLong depth = new AtomicLong();
+
+    /**
+     * 세그먼트 파일 전체 크기
+     */
+    private final AtomicLong diskUsage = new AtomicLong();
+
+    /**
+     * @param dir 세그먼트 디렉터리 (없으면 생성)
+     * @param segmentSize 새로 만들 세그먼트 크기
+     * @param maxDiskUsage 세그먼트 파일 전체 크기 한도
+     * @throws IOException 디렉터리나 기존 세그먼트를 열 수 없는 경우
+     */
+    public SpillJournal(Path dir, int segmentSize, long maxDiskUsage) throws IOException {
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+        this.maxDiskUsage = maxDiskUsage;
+        Files.createDirectories(dir);
+        recover();
+    }
+
+    /**
+     * 항목 추가
+     * 
+     * @param record 보관할 전송 요청
+     * @return 항목이 디스크에 동기화되면 완료되는 Future
+     * @throws SpillJournalFullException 디스크 사용량 한도를 넘거나 항목이 세그먼트보다 큰 경우
+     */
+    public CompletableFuture<Void> append(SpilledRecord record) {
+        byte[] entry = record.encode();
+        // 끝 표시를 남길 자리(4바이트)를 항상 확보
+        int required = ENTRY_HEADER + entry.length + Integer.BYTES;
+        if (required > segmentSize) {
+            throw new SpillJournalFullException("Record of " + entry.length + " bytes does not fit in a " + segmentSize + " byte segment");
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(entry);
+
+        CompletableFuture<Void> flushed = new CompletableFuture<>();
+        lock.lock();
+        try {
+            Segment segment = segments.peekLast();
+            if (segment == null || segment.sealed || segment.writePosition + required > segment.capacity) {
+                segment = rotate(segment);
+            }
+            int position = segment.writePosition;
+            segment.buffer.putInt(position + Integer.BYTES, (int) crc.getValue());
+            segment.buffer.put(position + ENTRY_HEADER, entry);
+            // 길이를 마지막에 기록하여 중간에 중단되면 항목이 없는 것으로 보이게 함
+            segment.buffer.putInt(position, entry.length);
+            segment.writePosition = position + ENTRY_HEADER + entry.length;
+            depth.incrementAndGet();
+            pendingFlush.add(flushed);
+        } finally {
+            lock.unlock();
+        }
+        return flushed;
+    }
+
+    /**
+     * 마지막 flush 이후 추가된 항목을 디스크에 동기화하고 해당 append Future 완료
+     */
+    public void flush() {
+        List<CompletableFuture<Void>> flushing;
+        Segment segment;
+        int from;
+        int to;
+        lock.lock();
+        try {
+            if (pendingFlush.isEmpty()) {
+                return;
+            }
+            flushing = pendingFlush;
+            pendingFlush = new ArrayList<>();
+            segment = segments.peekLast();
+            from = flushedPosition;
+            to = segment.writePosition;
+            flushedPosition = to;
+        } finally {
+            lock.unlock();
+        }
+
+        // 이전 세그먼트는 교체할 때 이미 동기화했으므로 쓰기 세그먼트의 새 구간만 동기화
+        try {
+            if (to > from) {
+                segment.buffer.force(from, to - from);
+            }
+            flushing.forEach(future -> future.complete(null));
+        } catch (UncheckedIOException e) {
+            log.error("Failed to sync spill journal segment {}", segment.file, e);
+            flushing.forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    /**
+     * 마지막 commit 위치부터 최대 maxEntries개 항목 읽기 (commit하지 않으면 다음 read에서 다시 읽음)
+     * 
+     * @param maxEntries 읽을 최대 항목 수
+     * @return 읽은 항목 (없으면 빈 목록)
+     */
+    public List<Entry> read(int maxEntries) {
+        List<Segment> readable;
+        int[] limits;
+        Position position;
+        lock.lock();
+        try {
+            if (committed == null) {
+                return List.of();
+            }
+            readable = new ArrayList<>(segments);
+            limits = readable.stream().mapToInt(segment -> segment.writePosition).toArray();
+            position = committed;
+        } finally {
+            lock.unlock();
+        }
+
+        List<Entry> entries = new ArrayList<>(Math.min(maxEntries, 1024));
+        int index = 0;
+        while (index < readable.size() && readable.get(index).id != position.segmentId()) {
+            index++;
+        }
+        int offset = position.offset();
+        while (index < readable.size() && entries.size() < maxEntries) {
+            Segment segment = readable.get(index);
+            if (offset >= limits[index]) {
+                // 이 세그먼트를 다 읽었으면 다음 세그먼트로 (쓰기 세그먼트면 종료)
+                if (++index < readable.size()) {
+                    offset = 0;
+                }
+                continue;
+            }
+            int length = segment.buffer.getInt(offset);
+            byte[] entry = new byte[length];
+            segment.buffer.get(offset + ENTRY_HEADER, entry);
+            offset += ENTRY_HEADER + length;
+            entries.add(new Entry(SpilledRecord.decode(entry), new Position(segment.id, offset)));
+        }
+        return entries;
+    }
+
+    /**
+     * 재전송을 마친 위치 기록
+     * 
+     * 위치 이전의 세그먼트 파일은 삭제하고 체크포인트 파일을 갱신합니다.
+     * 
+     * @param position 마지막으로 재전송한 항목의 Entry.next()
+     * @param entries 이번에 재전송을 마친 항목 수
+     */
+    public void commit(Position position, int entries) {
+        List<Segment> replayed = new ArrayList<>();
+        lock.lock();
+        try {
+            committed = position;
+            depth.addAndGet(-entries);
+            while (segments.size() > 1 && segments.peekFirst().id < position.segmentId()) {
+                replayed.add(segments.pollFirst());
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        writeCheckpoint(position);
+        for (Segment segment : replayed) {
+            segment.delete();
+            diskUsage.addAndGet(-segment.capacity);
+        }
+    }
+
+    /**
+     * 재전송하지 않은 항목 수
+     */
+    public long depth() {
+        return depth.get();
+    }
+
+    /**
+     * 세그먼트 파일 전체 크기 (바이트)
+     */
+    public long diskUsage() {
+        return diskUsage.get();
+    }
+
+    /**
+     * 남은 항목을 동기화하고 세그먼트 파일 닫기 (파일은 다음 시작 시 이어서 사용)
+     */
+    @Override
+    public void close() {
+        flush();
+        lock.lock();
+        try {
+            segments.forEach(Segment::close);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 새 쓰기 세그먼트로 교체 (lock 보유 상태에서 호출)
+     */
+    private Segment rotate(Segment current) {
+        if (diskUsage.get() + segmentSize > maxDiskUsage) {
+            throw new SpillJournalFullException("Spill journal is full (" + diskUsage.get() + " of " + maxDiskUsage + " bytes)");
+        }
+        if (current != null && !current.sealed) {
+            current.buffer.putInt(current.writePosition, END_OF_SEGMENT);
+            current.sealed = true;
+            current.buffer.force();
+        }
+        Segment next;
+        try {
+            next = Segment.create(dir.resolve(segmentFileName(nextSegmentId)), nextSegmentId, segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create spill journal segment in " + dir, e);
+        }
+        nextSegmentId++;
+        segments.addLast(next);
+        diskUsage.addAndGet(next.capacity);
+        flushedPosition = 0;
+        if (committed == null) {
+            committed = new Position(next.id, 0);
+        }
+        return next;
+    }
+
+    /**
+     * 기존 세그먼트와 체크포인트로 상태 복원
+     */
+    private void recover() throws IOException {
+        Position checkpoint = readCheckpoint();
+        List<Path> files;
+        try (Stream<Path> list = Files.list(dir)) {
+            files = list.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX)).sorted().toList();
+        }
+
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            long id = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+            nextSegmentId = id + 1;
+            if (checkpoint != null && id < checkpoint.segmentId()) {
+                // 재전송을 마친 세그먼트 (삭제 전에 종료된 경우)
+                Files.delete(file);
+                continue;
+            }
+            Segment segment = Segment.open(file, id);
+            int start = checkpoint != null && id == checkpoint.segmentId() ? checkpoint.offset() : 0;
+            depth.addAndGet(segment.scan(start));
+            segments.addLast(segment);
+            diskUsage.addAndGet(segment.capacity);
+        }
+
+        if (checkpoint != null) {
+            // 재전송을 마친 세그먼트를 모두 지웠더라도 새 세그먼트 번호는 체크포인트 이후로
+            nextSegmentId = Math.max(nextSegmentId, checkpoint.segmentId() + 1);
+        }
+        if (!segments.isEmpty()) {
+            Segment first = segments.peekFirst();
+            committed = checkpoint != null && checkpoint.segmentId() == first.id ? checkpoint : new Position(first.id, 0);
+            flushedPosition = segments.peekLast().writePosition;
+        }
+        if (depth.get() > 0) {
+            log.info("Recovered {} unsent records from spill journal {}", depth.get(), dir);
+        }
+    }
+
+    private Position readCheckpoint() throws IOException {
+        Path file = dir.resolve(CHECKPOINT);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        return new Position(buffer.getLong(), buffer.getInt());
+    }
+
+    /**
+     * 체크포인트 갱신 (임시 파일을 쓰고 교체)
+     */
+    private void writeCheckpoint(Position position) {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES + Integer.BYTES)
+                .putLong(position.segmentId())
+                .putInt(position.offset());
+        Path temp = dir.resolve(CHECKPOINT + ".tmp");
+        try {
+            Files.write(temp, buffer.array());
+            Files.move(temp, dir.resolve(CHECKPOINT), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // 다음 commit에서 다시 기록하며, 재시작 시 일부 항목을 다시 보낼 뿐 유실은 없음
+            log.warn("Failed to write spill journal checkpoint {}", position, e);
+        }
+    }
+
+    private static String segmentFileName(long id) {
+        return String.format("%020d%s", id, SEGMENT_SUFFIX);
+    }
+
+    /**
+     * 저널 내 위치
+     * 
+     * @param segmentId 세그먼트 번호
+     * @param offset 세그먼트 내 바이트 위치
+     */
+    public record Position(long segmentId, int offset) {
+    }
+
+    /**
+     * 읽은 항목
+     * 
+     * @param record 보관한 전송 요청
+     * @param next 이 항목 다음 위치 (재전송 후 commit에 전달)
+     */
+    public record Entry(SpilledRecord record, Position next) {
+    }
+
+    /**
+     * 메모리 맵 세그먼트 파일 하나
+     */
+    private static final class Segment {
+
+        private final Path file;
+
+        private final long id;
+
+        private final FileChannel channel;
+
+        private final MappedByteBuffer buffer;
+
+        private final int capacity;
+
+        /**
+         * 다음 항목을 기록할 위치 (lock 보유 상태에서 변경)
+         */
+        private int writePosition;
+
+        /**
+         * 끝 표시를 남겨 더 기록하지 않는 세그먼트
+         */
+        private boolean sealed;
+
+        private Segment(Path file, long id, FileChannel channel) throws IOException {
+            this.file = file;
+            this.id = id;
+            this.channel = channel;
+            this.capacity = (int) channel.size();
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        }
+
+        static Segment create(Path file, long id, int size) throws IOException {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                // 빈 공간은 0으로 채워진 희소 파일 (실제 디스크는 기록한 만큼만 사용)
+                channel.write(ByteBuffer.allocate(1), size - 1);
+                return new Segment(file, id, channel);
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        static Segment open(Path file, long id) throws IOException {
+            return new Segment(file, id, FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE));
+        }
+
+        /**
+         * 기록된 항목을 확인하여 쓰기 위치를 찾고, start 이후 항목 수 반환
+         */
+        int scan(int start) {
+            int position = 0;
+            int count = 0;
+            while (position + ENTRY_HEADER <= capacity) {
+                int length = buffer.getInt(position);
+                if (length == END_OF_SEGMENT) {
+                    sealed = true;
+                    break;
+                }
+                if (length <= 0 || position + ENTRY_HEADER + length > capacity || !crcMatches(position, length)) {
+                    // 기록되지 않았거나 쓰다 만 항목
+                    break;
+                }
+                if (position >= start) {
+                    count++;
+                }
+                position += ENTRY_HEADER + length;
+            }
+            writePosition = position;
+            return count;
+        }
+
+        private boolean crcMatches(int position, int length) {
+            byte[] entry = new byte[length];
+            buffer.get(position + ENTRY_HEADER, entry);
+            CRC32C crc = new CRC32C();
+            crc.update(entry);
+            return (int) crc.getValue() == buffer.getInt(position + Integer.BYTES);
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Failed to close spill journal segment {}", file, e);
+            }
+        }
+
+        void delete() {
+            close();
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Failed to delete replayed spill journal segment {}", file, e);
+            }
+        }
+    }
+}
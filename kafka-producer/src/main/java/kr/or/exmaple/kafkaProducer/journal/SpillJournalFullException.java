@@ -0,0 +1,13 @@
+package kr.or.exmaple.kafkaProducer.journal;
+
+/**
+ * 디스크 사용량 한도(max-disk-usage) 때문에 저널에 더 보관할 수 없을 때 발생하는 예외
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+public class SpillJournalFullException extends RuntimeException {
+
+    public SpillJournalFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,90 @@
+package kr.or.exmaple.kafkaProducer.journal;
+
+import kr.or.exmaple.kafkaProducer.service.AcksMode;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeader;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 저널에 보관하는 전송 요청 하나
+ * 
+ * 재전송 시 원래 요청과 같은 토픽, Key, 헤더, acks 모드로 보낼 수 있도록 모두 기록합니다.
+ * 값은 직렬화된 바이트로 보관하며 byte[] 템플릿으로 재전송합니다.
+ * 
+ * @param topic 전송할 토픽
+ * @param key 메시지 키 (null 가능)
+ * @param headers 레코드 헤더
+ * @param value 직렬화된 값
+ * @param acks 전송 확인(acks) 모드
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+public record SpilledRecord(String topic, String key, List<Header> headers, byte[] value, AcksMode acks) {
+
+    /**
+     * 저널 항목 본문으로 인코딩
+     */
+    public byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + value.length);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeBytes(out, topic.getBytes(StandardCharsets.UTF_8));
+            writeBytes(out, key == null ? null : key.getBytes(StandardCharsets.UTF_8));
+            out.writeByte(acks.ordinal());
+            out.writeShort(headers.size());
+            for (Header header : headers) {
+                writeBytes(out, header.key().getBytes(StandardCharsets.UTF_8));
+                writeBytes(out, header.value());
+            }
+            writeBytes(out, value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * encode()로 인코딩한 저널 항목 본문을 복원
+     */
+    public static SpilledRecord decode(byte[] entry) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(entry))) {
+            String topic = new String(readBytes(in), StandardCharsets.UTF_8);
+            byte[] key = readBytes(in);
+            AcksMode acks = AcksMode.values()[in.readByte()];
+            int headerCount = in.readUnsignedShort();
+            List<Header> headers = new ArrayList<>(headerCount);
+            for (int i = 0; i < headerCount; i++) {
+                headers.add(new RecordHeader(new String(readBytes(in), StandardCharsets.UTF_8), readBytes(in)));
+            }
+            return new SpilledRecord(topic, key == null ? null : new String(key, StandardCharsets.UTF_8), headers,
+                    readBytes(in), acks);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 길이(4바이트, null이면 -1)와 바이트 기록
+     */
+    private static void writeBytes(DataOutputStream out, byte[] data) throws IOException {
+        if (data == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(data.length);
+        out.write(data);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        return length < 0 ? null : in.readNBytes(length);
+    }
+}
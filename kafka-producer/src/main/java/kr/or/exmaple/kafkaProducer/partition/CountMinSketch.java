@@ -0,0 +1,90 @@
+package kr.or.exmaple.kafkaProducer.partition;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Key별 출현 횟수를 고정 크기 메모리로 추정하는 count-min sketch
+ * 
+ * depth개 행마다 서로 다른 해시로 width개 카운터 중 하나를 올리고, 추정치는 그중 최솟값입니다.
+ * 해시 충돌로 과대 추정만 일어나고 과소 추정은 없으므로, 추정치가 한도 미만이면 실제로도 한도 미만입니다.
+ * Key 수와 관계없이 메모리가 width × depth개 카운터로 고정되어 요청마다 Key를 가리지 않고 기록할 수 있습니다.
+ * 
+ * 카운터는 원자적으로 올리므로 여러 요청 스레드가 동시에 기록해도 됩니다.
+ * reset()은 기록과 동시에 호출될 수 있으며, 이때 일부 기록이 이전 구간에 남는 정도의 오차만 생깁니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+public class CountMinSketch {
+
+    private final int width;
+
+    private final int depth;
+
+    /**
+     * depth개 행을 이어 붙인 카운터 (행 i의 j번째 카운터는 i * width + j)
+     */
+    private final AtomicLongArray counters;
+
+    /**
+     * @param width 행별 카운터 수
+     * @param depth 행(해시 함수) 수
+     */
+    public CountMinSketch(int width, int depth) {
+        if (width < 1 || depth < 1) {
+            throw new IllegalArgumentException("Sketch width and depth must be positive: " + width + "x" + depth);
+        }
+        this.width = width;
+        this.depth = depth;
+        this.counters = new AtomicLongArray(width * depth);
+    }
+
+    /**
+     * Key의 출현을 기록하고 기록 후의 추정 횟수를 반환
+     */
+    public long add(String key) {
+        int hash1 = mix(key.hashCode());
+        int hash2 = mix(hash1) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            // Kirsch-Mitzenmacher: 두 해시의 선형 조합으로 행별 독립 해시를 대신함
+            int column = Math.floorMod(hash1 + row * hash2, width);
+            estimate = Math.min(estimate, counters.incrementAndGet(row * width + column));
+        }
+        return estimate;
+    }
+
+    /**
+     * Key의 추정 횟수 (기록하지 않음)
+     */
+    public long estimate(String key) {
+        int hash1 = mix(key.hashCode());
+        int hash2 = mix(hash1) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int column = Math.floorMod(hash1 + row * hash2, width);
+            estimate = Math.min(estimate, counters.get(row * width + column));
+        }
+        return estimate;
+    }
+
+    /**
+     * 모든 카운터를 0으로 초기화 (다음 집계 구간 시작)
+     */
+    public void reset() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, 0);
+        }
+    }
+
+    /**
+     * String.hashCode의 하위 비트 편중을 없애는 비트 섞기 (murmur3 finalizer)
+     */
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+}
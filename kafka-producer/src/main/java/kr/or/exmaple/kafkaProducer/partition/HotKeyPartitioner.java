@@ -0,0 +1,277 @@
+package kr.or.exmaple.kafkaProducer.partition;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import kr.or.exmaple.kafkaProducer.config.ProducerProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.utils.Utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToIntFunction;
+
+/**
+ * 트래픽이 몰리는 Key(hot key)를 여러 파티션으로 나누어 보내는 파티션 선택기
+ * 
+ * 같은 Key는 같은 파티션으로 가므로, 일부 테넌트가 대부분의 트래픽을 보내면 파티션 하나
+ * (그리고 그 파티션을 맡은 컨슈머 스레드 하나)만 바쁘고 나머지는 놉니다.
+ * Key별 전송 수를 count-min sketch로 추정하여 window 동안 전체 전송의 threshold 이상을 차지한 Key는
+ * 요청마다 salt(0 ~ spread-1)를 골라 Key의 기본 파티션부터 이어지는 spread개 파티션 중 하나로 보냅니다.
+ * salt 0은 기본 파티션이므로 hot key가 아닐 때와 같은 파티션도 계속 사용합니다.
+ * 
+ * Kafka Partitioner(partitioner.class)는 헤더를 보거나 붙일 수 없고, 지정하면 Key 없는 레코드의
+ * 내장 sticky 파티셔닝도 대신하게 되므로, 전송 전에 파티션을 정해 레코드에 직접 지정합니다.
+ * Key는 바꾸지 않고 salt를 key-salt 헤더로 기록하여, 순서가 중요한 컨슈머가 분산된 레코드를 구분할 수 있게 합니다.
+ * 
+ * - Key가 한 번 hot key가 되면 다음 window가 끝날 때까지 유지 (window가 바뀌어 집계가 초기화되어도 바로 되돌아가지 않음)
+ * - hot key는 max-hot-keys개까지만 분산 (나머지는 기본 파티션)
+ * - 파티션 수는 salt를 붙인 레코드를 처음 보낼 때 요청 스레드(partition())에서 프로듀서 메타데이터로 한 번만 읽음
+ *   (파티션을 늘리면 재시작 후 반영, 조회에 실패하면 기본 파티셔너를 사용하고 다음 요청에서 다시 조회)
+ * - hot key가 아닌 레코드와 ack 콜백(recordAck, 프로듀서 I/O 스레드)은 메타데이터를 조회하지 않으므로,
+ *   브로커 장애 중에도 전송이 메타데이터 대기(max.block.ms)에 묶이지 않고 저널 보관으로 넘어감
+ * 
+ * 메트릭:
+ * - custom-kafka-hot-keys: 현재 분산 중인 hot key 수
+ * - custom-kafka-hot-key-salted: salt를 붙여 분산한 요청 수
+ * - custom-kafka-partition-records (topic, partition): 파티션별 ack 받은 전송 수
+ * - custom-kafka-partition-skew (topic): 직전 window의 파티션 편중도 (최대 파티션 전송 수 / 파티션 평균, 1이면 균등)
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@Slf4j
+public class HotKeyPartitioner {
+
+    /**
+     * salt를 붙이지 않음 (hot key가 아니거나 Key가 없음)
+     */
+    public static final int NO_SALT = -1;
+
+    private final ProducerProperties.HotKey properties;
+
+    /**
+     * 토픽 → 파티션 수 (프로듀서 메타데이터 조회, 메타데이터가 없으면 max.block.ms까지 대기하므로 요청 스레드에서만 호출)
+     */
+    private final ToIntFunction<String> partitionCounts;
+
+    private final MeterRegistry meterRegistry;
+
+    private final CountMinSketch sketch;
+
+    private final long windowNanos;
+
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+
+    /**
+     * 현재 window의 Key 있는 요청 수
+     */
+    private final LongAdder windowRequests = new LongAdder();
+
+    /**
+     * hot key → 분산을 유지할 기한 (System.nanoTime 기준)
+     */
+    private final Map<String, Long> hotKeys = new ConcurrentHashMap<>();
+
+    /**
+     * 토픽 → 파티션 수 캐시 (salt를 붙인 partition() 호출에서 채움)
+     */
+    private final Map<String, Integer> partitions = new ConcurrentHashMap<>();
+
+    private final Map<String, PartitionLoad> loads = new ConcurrentHashMap<>();
+
+    private final Counter salted;
+
+    public HotKeyPartitioner(ProducerProperties.HotKey properties, ToIntFunction<String> partitionCounts,
+                             MeterRegistry meterRegistry) {
+        if (properties.getSpread() < 1 || properties.getMaxHotKeys() < 0) {
+            throw new IllegalArgumentException("Hot key spread must be positive and max-hot-keys non-negative");
+        }
+        this.properties = properties;
+        this.partitionCounts = partitionCounts;
+        this.meterRegistry = meterRegistry;
+        this.sketch = new CountMinSketch(properties.getSketchWidth(), properties.getSketchDepth());
+        this.windowNanos = properties.getWindow().toNanos();
+        this.salted = Counter.builder("custom-kafka-hot-key-salted")
+                .description("Requests spread over several partitions because their key is hot")
+                .register(meterRegistry);
+        Gauge.builder("custom-kafka-hot-keys", hotKeys, Map::size)
+                .description("Keys currently spread over several partitions")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 요청의 Key를 집계하고, hot key면 이번 요청에 쓸 salt 선택
+     * 
+     * 요청 하나에서 한 번만 호출하여 fan-out하는 모든 토픽에 같은 salt를 사용합니다.
+     * 
+     * @param key 메시지 키 (null이면 집계하지 않음)
+     * @return 0 ~ spread-1의 salt, 분산하지 않으면 NO_SALT
+     */
+    public int salt(String key) {
+        if (!properties.isEnabled() || key == null) {
+            return NO_SALT;
+        }
+        long now = System.nanoTime();
+        rotateIfDue(now);
+        long count = sketch.add(key);
+        windowRequests.increment();
+
+        boolean qualifies = count >= properties.getMinCount()
+                && count >= properties.getThreshold() * windowRequests.sum();
+        Long until = hotKeys.get(key);
+        if (qualifies) {
+            // 다음 window가 끝날 때까지 유지 (기한이 늘어날 때만 갱신하여 같은 Key의 쓰기 경합 방지)
+            long extended = windowStart.get() + 2 * windowNanos;
+            if (until == null) {
+                if (hotKeys.size() >= properties.getMaxHotKeys()) {
+                    return NO_SALT;
+                }
+                if (hotKeys.putIfAbsent(key, extended) == null) {
+                    log.info("Hot key {} detected (~{} of {} keyed requests in window), spreading over {} partitions",
+                            key, count, windowRequests.sum(), properties.getSpread());
+                }
+            } else if (until < extended) {
+                hotKeys.put(key, extended);
+            }
+        } else if (until == null) {
+            return NO_SALT;
+        }
+
+        salted.increment();
+        return ThreadLocalRandom.current().nextInt(properties.getSpread());
+    }
+
+    /**
+     * salt를 붙인 레코드의 파티션
+     * 
+     * Key의 기본 파티션(murmur2, Kafka 기본 파티셔너와 같은 값)에 salt를 더한 파티션입니다.
+     * 전송하는 모든 토픽에 대해 요청 스레드에서 호출하며, salt가 없으면 메타데이터를 조회하지 않습니다.
+     * 
+     * @return 지정할 파티션, salt가 없거나 파티션이 하나뿐이거나 파티션 수를 읽지 못하면 null (기본 파티셔너 사용)
+     */
+    public Integer partition(String topic, String key, int salt) {
+        if (salt == NO_SALT) {
+            return null;
+        }
+        Integer count = partitionCount(topic);
+        if (count == null || count <= 1) {
+            return null;
+        }
+        int home = Utils.toPositive(Utils.murmur2(key.getBytes(StandardCharsets.UTF_8))) % count;
+        return (home + salt % Math.min(properties.getSpread(), count)) % count;
+    }
+
+    /**
+     * 토픽의 파티션 수 (처음 한 번만 메타데이터 조회, 실패하면 캐시하지 않고 null)
+     */
+    private Integer partitionCount(String topic) {
+        Integer count = partitions.get(topic);
+        if (count != null) {
+            return count;
+        }
+        try {
+            return partitions.computeIfAbsent(topic, partitionCounts::applyAsInt);
+        } catch (RuntimeException e) {
+            log.debug("Cannot read partition count of {}, using the default partitioner: {}", topic, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * ack 받은 전송의 파티션 기록 (파티션 편중 메트릭)
+     * 
+     * 프로듀서 I/O 스레드의 전송 완료 콜백에서 호출되므로 메타데이터를 조회하지 않습니다.
+     * 
+     * @param partition 저장된 파티션 (저널에 보관한 전송은 -1이므로 기록하지 않음)
+     */
+    public void recordAck(String topic, int partition) {
+        if (partition < 0) {
+            return;
+        }
+        rotateIfDue(System.nanoTime());
+        loads.computeIfAbsent(topic, PartitionLoad::new).record(partition);
+    }
+
+    /**
+     * window가 지났으면 한 스레드만 집계를 초기화하고 파티션 편중도를 갱신
+     */
+    private void rotateIfDue(long now) {
+        long start = windowStart.get();
+        if (now - start < windowNanos || !windowStart.compareAndSet(start, now)) {
+            return;
+        }
+        sketch.reset();
+        windowRequests.reset();
+        hotKeys.entrySet().removeIf(entry -> {
+            boolean expired = entry.getValue() - now <= 0;
+            if (expired) {
+                log.info("Hot key {} cooled down, back to its default partition", entry.getKey());
+            }
+            return expired;
+        });
+        loads.values().forEach(PartitionLoad::roll);
+    }
+
+    /**
+     * 토픽 하나의 파티션별 전송 수
+     */
+    private final class PartitionLoad {
+
+        private final String topic;
+
+        private final Map<Integer, Counter> counters = new ConcurrentHashMap<>();
+
+        /**
+         * 현재 window의 파티션별 전송 수
+         */
+        private final Map<Integer, LongAdder> window = new ConcurrentHashMap<>();
+
+        private volatile double skew;
+
+        private PartitionLoad(String topic) {
+            this.topic = topic;
+            Gauge.builder("custom-kafka-partition-skew", this, load -> load.skew)
+                    .description("Busiest partition's share of acknowledged sends over the partition average in the last window")
+                    .tag("topic", topic)
+                    .register(meterRegistry);
+        }
+
+        private void record(int partition) {
+            counters.computeIfAbsent(partition, this::counter).increment();
+            window.computeIfAbsent(partition, ignored -> new LongAdder()).increment();
+        }
+
+        /**
+         * 끝난 window의 편중도를 계산하고 다음 window 시작
+         * 
+         * 전송이 없던 파티션도 평균에 포함하며, 파티션 수를 아직 읽지 않은 토픽은 ack 받은 파티션 수로 계산합니다.
+         */
+        private void roll() {
+            long total = 0;
+            long max = 0;
+            for (LongAdder count : window.values()) {
+                long sent = count.sumThenReset();
+                total += sent;
+                max = Math.max(max, sent);
+            }
+            if (total == 0) {
+                skew = 0;
+                return;
+            }
+            int count = Math.max(partitions.getOrDefault(topic, 0), window.size());
+            skew = (double) max * count / total;
+        }
+
+        private Counter counter(int partition) {
+            return Counter.builder("custom-kafka-partition-records")
+                    .description("Acknowledged sends per partition")
+                    .tag("topic", topic)
+                    .tag("partition", Integer.toString(partition))
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package kr.or.exmaple.kafkaProducer.service;
+
+import java.util.Locale;
+
+/**
+ * 요청별 Kafka 전송 확인(acks) 모드
+ * 
+ * Kafka 프로듀서의 acks 설정은 지연시간(latency)과 내구성(durability)을
+ * 맞바꾸는 설정입니다. 요청마다 아래 모드 중 하나를 선택할 수 있습니다.
+ * 
+ * - NONE (acks=0): Fire-and-forget. 소켓에 기록되면 완료로 간주하며 offset을 알 수 없음
+ * - LEADER (acks=1): 리더 파티션이 기록하면 완료. 리더 장애 시 유실 가능
+ * - ALL (acks=all): 모든 ISR 복제본이 기록해야 완료. 가장 느리지만 가장 안전함
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+public enum AcksMode {
+
+    NONE("0"),
+    LEADER("1"),
+    ALL("all");
+
+    /**
+     * Kafka 프로듀서 acks 설정에 사용되는 값
+     */
+    private final String kafkaValue;
+
+    AcksMode(String kafkaValue) {
+        this.kafkaValue = kafkaValue;
+    }
+
+    public String kafkaValue() {
+        return kafkaValue;
+    }
+
+    /**
+     * 요청 파라미터 문자열을 AcksMode로 변환
+     * 
+     * 모드 이름(none, leader, all), 별칭(fire-and-forget)과
+     * Kafka 설정값(0, 1, all, -1)을 대소문자 구분 없이 허용합니다.
+     * 
+     * @param value 요청 파라미터 값
+     * @return 변환된 AcksMode
+     * @throws IllegalArgumentException 지원하지 않는 값인 경우
+     */
+    public static AcksMode from(String value) {
+        return switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "none", "fire-and-forget", "0" -> NONE;
+            case "leader", "1" -> LEADER;
+            case "all", "-1" -> ALL;
+            default -> throw new IllegalArgumentException("Unsupported acks mode: " + value);
+        };
+    }
+}
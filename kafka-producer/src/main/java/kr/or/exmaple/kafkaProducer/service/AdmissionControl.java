@@ -0,0 +1,168 @@
+package kr.or.exmaple.kafkaProducer.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import kr.or.exmaple.kafkaProducer.config.ProducerProperties;
+import kr.or.exmaple.kafkaProducer.exception.ProducerOverloadedException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 전송 요청 수락 제어 (admission control)
+ * 
+ * 브로커가 느려지면 ack를 기다리는 전송이 쌓이고 프로듀서 버퍼(buffer.memory)가 차서,
+ * KafkaTemplate.send가 max.block.ms 동안 Tomcat 요청 스레드를 붙잡습니다.
+ * 그러면 요청이 계속 쌓여 지연 시간이 폭증하므로, 한도를 넘으면 요청을 기다리게 하지 않고
+ * 바로 429 Too Many Requests(Retry-After)로 거절합니다.
+ * 
+ * 판단 기준:
+ * - ack를 받지 못한 전송 수가 max-in-flight 이상
+ * - 가장 여유가 적은 프로듀서의 버퍼 여유 비율이 min-buffer-available 미만
+ *   (ProducerFactory 리스너로 생성된 프로듀서를 추적하고 buffer-available-bytes 메트릭을 읽음)
+ * 
+ * 판단은 요청 단위로 한 번만 하므로 동시에 들어온 요청 수만큼 한도를 조금 넘을 수 있지만,
+ * 요청 하나의 두 토픽 전송 중 하나만 거절되는 일은 없습니다.
+ * 
+ * 메트릭:
+ * - custom-kafka-produce-inflight: ack를 기다리는 전송 수
+ * - custom-kafka-produce-buffer-available: 가장 여유가 적은 프로듀서의 버퍼 여유 비율 (0~1)
+ * - custom-kafka-produce-rejected (reason=inflight|buffer): 거절한 요청 수
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@Component
+@Slf4j
+public class AdmissionControl implements ProducerFactory.Listener<Object, Object> {
+
+    private static final String METRIC_GROUP = "producer-metrics";
+
+    private final ProducerProperties.Admission properties;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * 프로듀서 ID → 버퍼 메트릭
+     */
+    private final Map<String, BufferMetrics> buffers = new ConcurrentHashMap<>();
+
+    private final Counter inFlightRejections;
+
+    private final Counter bufferRejections;
+
+    public AdmissionControl(ProducerProperties producerProperties, MeterRegistry meterRegistry) {
+        this.properties = producerProperties.getAdmission();
+        this.inFlightRejections = rejectionCounter("inflight", meterRegistry);
+        this.bufferRejections = rejectionCounter("buffer", meterRegistry);
+        Gauge.builder("custom-kafka-produce-inflight", inFlight, AtomicInteger::get)
+                .description("Sends waiting for a broker acknowledgement")
+                .register(meterRegistry);
+        Gauge.builder("custom-kafka-produce-buffer-available", this, AdmissionControl::bufferAvailableRatio)
+                .description("Lowest free fraction of buffer.memory across producers")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 새 요청을 받아도 되는지 확인
+     * 
+     * @throws ProducerOverloadedException 한도를 넘은 경우 (429로 응답)
+     */
+    public void admit() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (inFlight.get() >= properties.getMaxInFlight()) {
+            inFlightRejections.increment();
+            throw new ProducerOverloadedException("Too many unacknowledged sends", properties.getRetryAfter());
+        }
+        if (bufferAvailableRatio() < properties.getMinBufferAvailable()) {
+            bufferRejections.increment();
+            throw new ProducerOverloadedException("Producer buffer is nearly full", properties.getRetryAfter());
+        }
+    }
+
+    /**
+     * 전송 시작 (ack 또는 실패 시 sendCompleted 호출 필요)
+     */
+    public void sendStarted() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * 전송 완료 (성공, 실패 모두)
+     */
+    public void sendCompleted() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * ack를 기다리는 전송 수
+     */
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * 가장 여유가 적은 프로듀서의 버퍼 여유 비율 (프로듀서가 없으면 1)
+     */
+    public double bufferAvailableRatio() {
+        double lowest = 1.0;
+        for (BufferMetrics buffer : buffers.values()) {
+            lowest = Math.min(lowest, buffer.availableRatio());
+        }
+        return lowest;
+    }
+
+    @Override
+    public void producerAdded(String id, Producer<Object, Object> producer) {
+        Metric available = null;
+        Metric total = null;
+        for (Map.Entry<MetricName, ? extends Metric> metric : producer.metrics().entrySet()) {
+            if (!METRIC_GROUP.equals(metric.getKey().group())) {
+                continue;
+            }
+            switch (metric.getKey().name()) {
+                case "buffer-available-bytes" -> available = metric.getValue();
+                case "buffer-total-bytes" -> total = metric.getValue();
+                default -> {
+                }
+            }
+        }
+        if (available == null || total == null) {
+            log.warn("Producer {} has no buffer metrics; buffer admission check skipped for it", id);
+            return;
+        }
+        buffers.put(id, new BufferMetrics(available, total));
+    }
+
+    @Override
+    public void producerRemoved(String id, Producer<Object, Object> producer) {
+        buffers.remove(id);
+    }
+
+    private static Counter rejectionCounter(String reason, MeterRegistry meterRegistry) {
+        return Counter.builder("custom-kafka-produce-rejected")
+                .description("Requests rejected with 429 because the producer is overloaded")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 프로듀서 하나의 버퍼 메트릭 (Kafka 메트릭 객체는 값을 읽을 때마다 현재 값을 계산)
+     */
+    private record BufferMetrics(Metric available, Metric total) {
+
+        double availableRatio() {
+            double totalBytes = ((Number) total.metricValue()).doubleValue();
+            return totalBytes > 0 ? ((Number) available.metricValue()).doubleValue() / totalBytes : 1.0;
+        }
+    }
+}
@@ -1,11 +1,31 @@
 package kr.or.exmaple.kafkaProducer.service;
 
-import io.micrometer.core.instrument.MeterRegistry;
+import kr.or.exmaple.kafkaCommon.codec.PayloadCodec;
+import kr.or.exmaple.kafkaCommon.codec.PayloadCodecs;
+import kr.or.exmaple.kafkaCommon.codec.PayloadFormat;
+import kr.or.exmaple.kafkaCommon.header.MessageHeaders;
+import kr.or.exmaple.kafkaCommon.logging.PayloadLogSampler;
+import kr.or.exmaple.kafkaCommon.metrics.KafkaMetrics;
+import kr.or.exmaple.kafkaCommon.metrics.ProducerMeters;
+import kr.or.exmaple.kafkaProducer.config.AcksKafkaTemplates;
+import kr.or.exmaple.kafkaProducer.config.ProducerProperties;
+import kr.or.exmaple.kafkaProducer.dto.SendReceipt;
+import kr.or.exmaple.kafkaProducer.journal.SpilledRecord;
+import kr.or.exmaple.kafkaProducer.partition.HotKeyPartitioner;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeader;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 /**
  * Kafka 메시지 전송을 담당하는 서비스 클래스
  * 
@@ -17,6 +37,20 @@ import org.springframework.stereotype.Service;
  * 1. Key 없는 메시지 전송 - 파티션은 라운드 로빈 방식으로 배정
  * 2. Key 포함 메시지 전송 - 동일한 Key는 같은 파티션으로 전송됨
  * 
+ * 모든 메시지에는 본문 형식을 알리는 payload-codec 헤더(json, cbor, smile)가 붙으며,
+ * 컨슈머는 이 헤더로 디코딩 방식을 고릅니다.
+ * 또한 본문을 디코딩하지 않고 필터링/라우팅할 수 있도록 메타데이터 헤더(MessageHeaders)를 붙입니다:
+ * api_tran_id(호출자가 알려준 경우), produced-at, produced-at-micros, content-type, key(Key와 함께 전송한 경우).
+ * 
+ * 모든 전송 메서드는 블로킹 없이 즉시 반환되며, 브로커 응답(ack)을 받으면
+ * 파티션과 offset을 담은 SendReceipt로 완료되는 Future를 돌려줍니다.
+ * 전송 실패 시 Future는 예외로 완료되므로 호출자가 실패를 확인할 수 있습니다.
+ * 단, 브로커 장애(재시도 가능한 오류)로 실패하면 로컬 저널에 보관하고 파티션 -1인 결과로 완료하며,
+ * 브로커가 복구되면 SpillCoordinator가 순서대로 재전송합니다.
+ * 
+ * 인코딩한 본문은 엔드포인트별로 설정한 토픽(app.producer.fan-out.routes)에 모두 전송하며,
+ * 트랜잭션 모드(app.producer.fan-out.transactional)에서는 TransactionBatcher로 한 트랜잭션에 기록합니다.
+ * 
  * 토픽 정보:
  * - sample.batch.topic: 배치 컨슈머에서 소비
  * - sample.record.topic: 레코드별 컨슈머에서 소비
@@ -29,75 +63,256 @@ import org.springframework.stereotype.Service;
 public class KafkaProducerService {
 
     /**
-     * Spring Kafka에서 제공하는 KafkaTemplate
-     * Key와 Value 모두 String 타입으로 설정됨
-     * application.yml의 kafka.producer 설정을 사용
+     * acks 모드별 KafkaTemplate (인코딩된 본문과 패스스루 본문의 fan-out 전송용)
+     * Key는 String, Value는 byte[] 타입으로 설정됨 (ByteArraySerializer)
      */
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    
+    private final AcksKafkaTemplates<byte[]> rawKafkaTemplates;
+
     /**
-     * Micrometer 메트릭 레지스트리
+     * 토픽별로 미리 등록된 Kafka 메트릭
      * Prometheus 메트릭 수집을 위해 사용
      */
-    private final MeterRegistry meterRegistry;
+    private final KafkaMetrics kafkaMetrics;
+
+    /**
+     * 프로듀서 설정 (기본 acks 모드)
+     */
+    private final ProducerProperties producerProperties;
+
+    /**
+     * 본문 로깅 샘플러 (초당 로그 수 제한 및 본문 길이 제한)
+     */
+    private final PayloadLogSampler payloadLog;
+
+    /**
+     * 설정된 본문 코덱 (app.codec.format) - encode 결과를 전송할 때 헤더에 기록
+     */
+    private final PayloadCodec payloadCodec;
+
+    /**
+     * 코덱별 헤더 값
+     */
+    private final PayloadCodecs payloadCodecs;
+
+    /**
+     * 요청 수락 제어 - ack를 기다리는 전송 수 집계
+     */
+    private final AdmissionControl admissionControl;
+
+    /**
+     * 브로커 장애 시 로컬 저널 보관 및 재전송
+     */
+    private final SpillCoordinator spillCoordinator;
+
+    /**
+     * 트랜잭션 fan-out 전송기 (app.producer.fan-out.transactional)
+     */
+    private final TransactionBatcher transactionBatcher;
+
+    /**
+     * hot key 파티션 선택기 (app.producer.hot-key)
+     */
+    private final HotKeyPartitioner hotKeyPartitioner;
 
     /**
-     * sample.batch.topic으로 Key 없이 메시지 전송
+     * 값을 설정된 코덱(app.codec.format)으로 인코딩
      * 
-     * Key가 없는 경우 Kafka는 기본적으로 라운드 로빈 방식으로
-     * 파티션을 선택하여 메시지를 분산 저장합니다.
+     * 같은 본문을 여러 토픽에 보낼 때 한 번만 인코딩하도록 전송과 분리되어 있습니다.
+     * 
+     * @param value 인코딩할 값 (Map, JsonNode 등)
+     * @return 인코딩된 본문
+     * @throws IOException 인코딩 실패 시
+     */
+    public byte[] encode(Object value) throws IOException {
+        return payloadCodec.encode(value);
+    }
+
+    /**
+     * encode()로 인코딩한 본문을 엔드포인트에 등록된 모든 토픽으로 전송 (fan-out)
      * 
-     * @param message 전송할 JSON 문자열 메시지
+     * @param route 엔드포인트 이름 (app.producer.fan-out.routes의 키)
+     * @param key 메시지 키 (null이면 Key 없이 전송)
+     * @param apiTranId 본문에 추가한 api_tran_id (헤더에 기록)
+     * @param payload encode()로 인코딩한 본문 (모든 토픽의 레코드가 같은 배열을 공유)
+     * @param acks 전송 확인(acks) 모드 (트랜잭션 모드에서는 항상 all)
+     * @return 모든 토픽의 브로커 응답(ack) 시 토픽 순서대로의 전송 결과로 완료되는 Future
      */
-    public void sendToBatchTopic(String message) {
-        kafkaTemplate.send("sample.batch.topic", message);
-        meterRegistry.counter("custom-kafka-produce", "topic", "sample.batch.topic").increment();
-        log.info("Message sent to sample.batch.topic: {}", message);
+    public CompletableFuture<List<SendReceipt>> publishEncoded(String route, String key, String apiTranId, byte[] payload,
+                                                               AcksMode acks) {
+        CompletableFuture<List<SendReceipt>> future = publish(route, key, apiTranId, payload, payloadCodec, acks);
+        if (payloadLog.sample()) {
+            log.info("Message published to {} with key {} (acks={}): {} bytes of {}", route, key, acks, payload.length,
+                    payloadCodec.name());
+        }
+        return future;
     }
 
     /**
-     * sample.record.topic으로 Key 없이 메시지 전송
+     * JSON 바이트를 변환 없이 엔드포인트에 등록된 모든 토픽으로 전송 (패스스루 fan-out)
      * 
-     * Key가 없는 경우 Kafka는 기본적으로 라운드 로빈 방식으로
-     * 파티션을 선택하여 메시지를 분산 저장합니다.
+     * 바이트를 문자열로 되돌리는 비용을 피하기 위해 본문 대신 크기만 로깅하며, 로그는 PayloadLogSampler로 샘플링합니다.
      * 
-     * @param message 전송할 JSON 문자열 메시지
+     * @param route 엔드포인트 이름 (app.producer.fan-out.routes의 키)
+     * @param key 메시지 키 (null이면 Key 없이 전송)
+     * @param apiTranId 본문에 삽입한 api_tran_id (헤더에 기록)
+     * @param payload 전송할 JSON 바이트 (UTF-8)
+     * @param acks 전송 확인(acks) 모드 (트랜잭션 모드에서는 항상 all)
+     * @return 모든 토픽의 브로커 응답(ack) 시 토픽 순서대로의 전송 결과로 완료되는 Future
      */
-    public void sendToRecordTopic(String message) {
-        kafkaTemplate.send("sample.record.topic", message);
-        meterRegistry.counter("custom-kafka-produce", "topic", "sample.record.topic").increment();
-        log.info("Message sent to sample.record.topic: {}", message);
+    public CompletableFuture<List<SendReceipt>> publishRaw(String route, String key, String apiTranId, byte[] payload,
+                                                           AcksMode acks) {
+        CompletableFuture<List<SendReceipt>> future = publish(route, key, apiTranId, payload,
+                payloadCodecs.get(PayloadFormat.JSON), acks);
+        if (payloadLog.sample()) {
+            log.info("Raw message published to {} with key {} (acks={}): {} bytes", route, key, acks, payload.length);
+        }
+        return future;
     }
 
     /**
-     * sample.batch.topic으로 Key와 함께 메시지 전송 (오버로딩 메서드)
+     * fan-out 전송 처리
      * 
-     * Key가 있는 경우 Kafka는 해시 함수를 사용하여 동일한 Key를
-     * 가진 메시지들을 같은 파티션으로 전송합니다.
-     * 이를 통해 메시지 순서 보장과 파티션별 처리가 가능합니다.
+     * 헤더는 한 번만 만들어 모든 토픽의 레코드가 본문 배열과 함께 공유합니다
+     * (ProducerRecord가 헤더를 복사하므로 Serializer가 레코드별 헤더를 추가해도 서로 영향 없음).
+     * hot key의 salt는 토픽마다 파티션을 지정한 경우에만 key-salt 헤더로 덧붙입니다 (saltedHeaders).
+     * 트랜잭션 모드면 TransactionBatcher로 보내 한 트랜잭션에 기록하고,
+     * 아니면 토픽마다 독립적으로 전송합니다 (한 토픽만 실패할 수 있음).
+     */
+    private CompletableFuture<List<SendReceipt>> publish(String route, String key, String apiTranId, byte[] payload,
+                                                         PayloadCodec codec, AcksMode acks) {
+        List<String> topics = producerProperties.getFanOut().topics(route);
+        int salt = hotKeyPartitioner.salt(key);
+        List<Header> headers = headers(key, apiTranId, codec);
+        if (transactionBatcher.isEnabled()) {
+            return publishTransactional(topics, key, salt, headers, payload);
+        }
+
+        List<CompletableFuture<SendReceipt>> futures = new ArrayList<>(topics.size());
+        for (String topic : topics) {
+            futures.add(send(rawKafkaTemplates.get(acks), acks, topic, key, hotKeyPartitioner.partition(topic, key, salt), salt,
+                    headers, payload));
+        }
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> futures.stream().map(CompletableFuture::join).toList());
+    }
+
+    /**
+     * 요청의 레코드를 다음 트랜잭션에 추가 (acks=all, 저널 보관 없음)
+     * 
+     * 트랜잭션이 커밋되면 모든 토픽의 ack 시간을 기록하고, 중단되면 모든 토픽의 실패로 집계합니다.
+     */
+    private CompletableFuture<List<SendReceipt>> publishTransactional(List<String> topics, String key, int salt,
+                                                                      List<Header> headers, byte[] payload) {
+        List<ProducerRecord<String, byte[]>> records = new ArrayList<>(topics.size());
+        for (String topic : topics) {
+            kafkaMetrics.producer(topic).produced().increment();
+            Integer partition = hotKeyPartitioner.partition(topic, key, salt);
+            records.add(new ProducerRecord<>(topic, partition, key, payload, saltedHeaders(headers, partition, salt)));
+        }
+
+        long start = System.nanoTime();
+        topics.forEach(ignored -> admissionControl.sendStarted());
+        return transactionBatcher.submit(records).handle((results, e) -> {
+            topics.forEach(ignored -> admissionControl.sendCompleted());
+            if (e != null) {
+                topics.forEach(topic -> kafkaMetrics.producer(topic).failed().increment());
+                throw e instanceof CompletionException completion ? completion : new CompletionException(e);
+            }
+            topics.forEach(topic -> kafkaMetrics.producer(topic).recordAck(start));
+            results.forEach(result -> hotKeyPartitioner.recordAck(result.getRecordMetadata().topic(),
+                    result.getRecordMetadata().partition()));
+            return results.stream().map(result -> SendReceipt.from(result.getRecordMetadata())).toList();
+        });
+    }
+
+    /**
+     * KafkaTemplate 전송, 메트릭 집계, 실패 로깅 공통 처리
+     * 
+     * 전송 요청부터 브로커 응답(ack)까지의 시간을 custom-kafka-send-ack 타이머에 기록하고,
+     * 헤더는 호출자가 headers()로 만든 본문 형식(payload-codec)과 메타데이터(MessageHeaders)입니다.
+     * ack(또는 실패)를 받을 때까지 AdmissionControl의 처리 중 전송 수에 포함됩니다.
+     * 
+     * 저널 보관 모드이면 브로커로 보내지 않고 저널에 추가하며,
+     * 브로커 장애로 전송이 실패하면 저널에 보관한 결과로 대신 완료합니다.
+     * 지정한 파티션(hot key 분산)은 저널에 기록하지 않으므로 재전송은 Key의 기본 파티션으로 가며,
+     * 저널에는 key-salt 헤더도 남기지 않습니다.
+     * 
+     * @param partition 전송할 파티션 (null이면 기본 파티셔너가 선택)
+     * @param salt 파티션을 고른 hot key salt (partition이 있을 때만 key-salt 헤더로 기록)
+     */
+    private CompletableFuture<SendReceipt> send(KafkaTemplate<String, byte[]> template, AcksMode acks, String topic, String key,
+                                                Integer partition, int salt, List<Header> headers, byte[] value) {
+        ProducerMeters meters = kafkaMetrics.producer(topic);
+        meters.produced().increment();
+        if (spillCoordinator.isSpilling()) {
+            return spillCoordinator.spill(new SpilledRecord(topic, key, headers, value, acks));
+        }
+
+        long start = System.nanoTime();
+        admissionControl.sendStarted();
+        CompletableFuture<SendReceipt> future;
+        try {
+            future = template.send(new ProducerRecord<>(topic, partition, key, value, saltedHeaders(headers, partition, salt)))
+                    .thenApply(result -> SendReceipt.from(result.getRecordMetadata()));
+        } catch (RuntimeException e) {
+            admissionControl.sendCompleted();
+            throw e;
+        }
+
+        future.whenComplete((receipt, e) -> {
+            admissionControl.sendCompleted();
+            if (e != null) {
+                meters.failed().increment();
+                // 저널에 보관할 실패는 SpillCoordinator가 보관 모드 전환 시 한 번만 로깅
+                if (!spillCoordinator.canSpill(e)) {
+                    log.error("Failed to send message to {} with key {}", topic, key, e);
+                }
+            } else {
+                meters.recordAck(start);
+                hotKeyPartitioner.recordAck(topic, receipt.partition());
+            }
+        });
+        return future.exceptionallyCompose(e -> spillCoordinator.canSpill(e)
+                ? spillCoordinator.spill(new SpilledRecord(topic, key, headers, value, acks))
+                : CompletableFuture.failedFuture(e));
+    }
+
+    /**
+     * 레코드에 붙일 헤더 (본문 형식 + 컨슈머가 본문 없이 필터링/라우팅할 때 쓰는 메타데이터)
      * 
-     * @param key 메시지 키 (파티션 선택에 사용)
-     * @param message 전송할 JSON 문자열 메시지
+     * 코덱 이름과 미디어 타입은 미리 인코딩해 둔 공유 바이트를 사용합니다.
      */
-    public void sendToBatchTopic(String key, String message) {
-        kafkaTemplate.send("sample.batch.topic", key, message);
-        meterRegistry.counter("custom-kafka-produce", "topic", "sample.batch.topic").increment();
-        log.info("Message sent to sample.batch.topic with key {}: {}", key, message);
+    private List<Header> headers(String key, String apiTranId, PayloadCodec codec) {
+        List<Header> headers = new ArrayList<>(6);
+        headers.add(new RecordHeader(PayloadCodecs.HEADER, payloadCodecs.headerValue(codec)));
+        headers.add(new RecordHeader(MessageHeaders.CONTENT_TYPE, payloadCodecs.contentTypeValue(codec)));
+        long producedAtMicros = MessageHeaders.currentTimeMicros();
+        headers.add(MessageHeaders.header(MessageHeaders.PRODUCED_AT, Long.toString(producedAtMicros / 1_000)));
+        headers.add(MessageHeaders.header(MessageHeaders.PRODUCED_AT_MICROS, Long.toString(producedAtMicros)));
+        if (apiTranId != null) {
+            headers.add(MessageHeaders.header(MessageHeaders.API_TRAN_ID, apiTranId));
+        }
+        if (key != null) {
+            headers.add(MessageHeaders.header(MessageHeaders.KEY, key));
+        }
+        return headers;
     }
 
     /**
-     * sample.record.topic으로 Key와 함께 메시지 전송 (오버로딩 메서드)
+     * hot key 분산으로 파티션을 지정한 레코드의 헤더 (공통 헤더 + key-salt)
      * 
-     * Key가 있는 경우 Kafka는 해시 함수를 사용하여 동일한 Key를
-     * 가진 메시지들을 같은 파티션으로 전송합니다.
-     * 이를 통해 메시지 순서 보장과 파티션별 처리가 가능합니다.
+     * salt가 있어도 파티션이 하나뿐인 토픽처럼 파티션을 지정하지 않으면 기본 파티션으로 가므로,
+     * 순서에 민감한 컨슈머가 분산된 레코드로 오해하지 않도록 key-salt 헤더를 붙이지 않습니다.
      * 
-     * @param key 메시지 키 (파티션 선택에 사용)
-     * @param message 전송할 JSON 문자열 메시지
+     * @param partition hotKeyPartitioner.partition()이 고른 파티션 (null이면 공통 헤더 그대로)
      */
-    public void sendToRecordTopic(String key, String message) {
-        kafkaTemplate.send("sample.record.topic", key, message);
-        meterRegistry.counter("custom-kafka-produce", "topic", "sample.record.topic").increment();
-        log.info("Message sent to sample.record.topic with key {}: {}", key, message);
+    private static List<Header> saltedHeaders(List<Header> headers, Integer partition, int salt) {
+        if (partition == null) {
+            return headers;
+        }
+        List<Header> salted = new ArrayList<>(headers.size() + 1);
+        salted.addAll(headers);
+        salted.add(MessageHeaders.header(MessageHeaders.KEY_SALT, Integer.toString(salt)));
+        return salted;
     }
-}
\ No newline at end of file
+}
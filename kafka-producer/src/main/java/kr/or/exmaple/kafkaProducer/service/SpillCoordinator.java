@@ -0,0 +1,323 @@
+package kr.or.exmaple.kafkaProducer.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import kr.or.exmaple.kafkaCommon.header.MessageHeaders;
+import kr.or.exmaple.kafkaProducer.config.AcksKafkaTemplates;
+import kr.or.exmaple.kafkaProducer.config.ProducerProperties;
+import kr.or.exmaple.kafkaProducer.dto.SendReceipt;
+import kr.or.exmaple.kafkaProducer.journal.SpillJournal;
+import kr.or.exmaple.kafkaProducer.journal.SpillJournalFullException;
+import kr.or.exmaple.kafkaProducer.journal.SpilledRecord;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.RetriableException;
+import org.apache.kafka.common.header.Header;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 브로커 장애 시 전송을 로컬 저널(SpillJournal)로 돌리고, 복구되면 순서대로 재전송
+ * 
+ * 동작:
+ * 1. 전송이 재시도 가능한 오류(브로커 연결 실패, 메타데이터/전송 시간 초과 등)로 실패하면
+ *    해당 메시지를 저널에 추가하고 저널 보관 모드로 전환
+ * 2. 저널 보관 모드에서는 새 메시지도 브로커로 보내지 않고 저널 뒤에 추가하여
+ *    먼저 실패한 메시지를 앞지르지 않게 함 (응답은 저널 동기화 후 파티션 -1로 반환)
+ * 3. 재전송 스레드가 저널 앞에서부터 replay-batch-size개씩 보내고 ack를 받은 위치까지 commit
+ * 4. 저널이 비면 다시 브로커로 직접 전송
+ * 
+ * 이미 전송 중이던 메시지가 동시에 실패하면 실패한 순서대로 저널에 들어가므로,
+ * 장애 직전 메시지끼리는 원래 순서와 다를 수 있습니다.
+ * 재시도할 수 없는 오류(메시지 크기 초과 등)는 저널에 보관하지 않고 그대로 실패로 응답하며,
+ * 재전송 중 이런 오류가 나면 해당 메시지를 버리고(custom-kafka-spill-dropped) 다음 메시지로 넘어갑니다.
+ * 버린 메시지는 토픽, Key, api_tran_id를 ERROR 로그로 남기고, 같은 형식의 dead-letter 저널(&lt;dir&gt;/dead-letter)에
+ * 원본 그대로 보관하므로 원인을 고친 뒤 확인하거나 다시 보낼 수 있습니다 (재전송하지 않으며 자동으로 지우지 않음).
+ * 
+ * 메트릭:
+ * - custom-kafka-spill-active: 저널 보관 모드 여부 (1이면 보관 중)
+ * - custom-kafka-spill-depth: 재전송을 기다리는 메시지 수
+ * - custom-kafka-spill-disk-usage: 세그먼트 파일 전체 크기 (바이트)
+ * - custom-kafka-spill-dead-letters: dead-letter 저널에 보관한 메시지 수
+ * - custom-kafka-spill-appended / replayed / dropped / rejected: 보관, 재전송, 버림, 보관 거절(디스크 한도) 메시지 수
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@Component
+@Slf4j
+public class SpillCoordinator implements DisposableBean {
+
+    private final ProducerProperties.Spill properties;
+
+    private final AcksKafkaTemplates<byte[]> rawKafkaTemplates;
+
+    /**
+     * 저널 (비활성화하면 null)
+     */
+    private final SpillJournal journal;
+
+    /**
+     * 재전송 중 버린 메시지를 보관하는 저널 (비활성화하면 null, 재전송 스레드에서만 추가)
+     */
+    private final SpillJournal deadLetters;
+
+    private final ScheduledExecutorService executor;
+
+    /**
+     * 보관 모드 전환과 저널 추가를 원자적으로 처리하기 위한 락
+     */
+    private final ReentrantLock modeLock = new ReentrantLock();
+
+    private volatile boolean spilling;
+
+    private final Counter appended;
+
+    private final Counter replayed;
+
+    private final Counter dropped;
+
+    private final Counter rejected;
+
+    public SpillCoordinator(ProducerProperties producerProperties, AcksKafkaTemplates<byte[]> rawKafkaTemplates,
+                            MeterRegistry meterRegistry) throws IOException {
+        this.properties = producerProperties.getSpill();
+        this.rawKafkaTemplates = rawKafkaTemplates;
+        this.appended = counter("custom-kafka-spill-appended", "Records written to the spill journal", meterRegistry);
+        this.replayed = counter("custom-kafka-spill-replayed", "Spilled records delivered to Kafka", meterRegistry);
+        this.dropped = counter("custom-kafka-spill-dropped", "Spilled records dropped after a non-retriable replay failure", meterRegistry);
+        this.rejected = counter("custom-kafka-spill-rejected", "Records not spilled because the journal is full", meterRegistry);
+        if (!properties.isEnabled()) {
+            this.journal = null;
+            this.deadLetters = null;
+            this.executor = null;
+            return;
+        }
+
+        this.journal = new SpillJournal(properties.getDir(), (int) properties.getSegmentSize().toBytes(),
+                properties.getMaxDiskUsage().toBytes());
+        this.deadLetters = new SpillJournal(deadLetterDir(), (int) properties.getSegmentSize().toBytes(),
+                properties.getMaxDiskUsage().toBytes());
+        // 이전 실행에서 재전송하지 못한 메시지가 있으면 보관 모드로 시작하여 순서 유지
+        this.spilling = journal.depth() > 0;
+        Gauge.builder("custom-kafka-spill-active", this, coordinator -> coordinator.spilling ? 1 : 0)
+                .description("1 while sends are redirected to the spill journal")
+                .register(meterRegistry);
+        Gauge.builder("custom-kafka-spill-depth", journal, SpillJournal::depth)
+                .description("Spilled records waiting to be replayed")
+                .register(meterRegistry);
+        Gauge.builder("custom-kafka-spill-disk-usage", journal, SpillJournal::diskUsage)
+                .description("Total size of spill journal segment files")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("custom-kafka-spill-dead-letters", deadLetters, SpillJournal::depth)
+                .description("Spilled records dropped on replay and kept in the dead-letter journal")
+                .register(meterRegistry);
+
+        this.executor = Executors.newScheduledThreadPool(2, new CustomizableThreadFactory("spill-journal-"));
+        long flushMillis = properties.getFlushInterval().toMillis();
+        executor.scheduleWithFixedDelay(journal::flush, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+        long replayMillis = properties.getReplayInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::replay, replayMillis, replayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 새 메시지를 브로커 대신 저널에 보관해야 하는지 여부 (재전송이 끝나지 않음)
+     */
+    public boolean isSpilling() {
+        return spilling;
+    }
+
+    /**
+     * 전송 실패를 저널 보관으로 처리할 수 있는지 여부 (재시도 가능한 Kafka 오류)
+     */
+    public boolean canSpill(Throwable failure) {
+        if (journal == null) {
+            return false;
+        }
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RetriableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 메시지를 저널에 보관하고 보관 모드로 전환
+     * 
+     * @param record 보관할 전송 요청
+     * @return 저널이 디스크에 동기화되면 파티션 -1인 결과로 완료되는 Future
+     *         (디스크 한도를 넘으면 SpillJournalFullException으로 실패)
+     */
+    public CompletableFuture<SendReceipt> spill(SpilledRecord record) {
+        CompletableFuture<Void> flushed;
+        modeLock.lock();
+        try {
+            flushed = journal.append(record);
+            if (!spilling) {
+                spilling = true;
+                log.warn("Kafka is unavailable, spilling records to {} until it recovers", properties.getDir());
+            }
+        } catch (SpillJournalFullException | UncheckedIOException e) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(e);
+        } finally {
+            modeLock.unlock();
+        }
+        appended.increment();
+        return flushed.thenApply(ignored -> SendReceipt.spilled(record.topic()));
+    }
+
+    /**
+     * 저널이 빌 때까지 replay-batch-size개씩 재전송 (실패하면 다음 주기에 실패한 메시지부터 다시)
+     */
+    private void replay() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                List<SpillJournal.Entry> entries = journal.read(properties.getReplayBatchSize());
+                if (entries.isEmpty()) {
+                    finishSpilling();
+                    return;
+                }
+                int delivered = resend(entries);
+                if (delivered > 0) {
+                    journal.commit(entries.get(delivered - 1).next(), delivered);
+                }
+                if (delivered < entries.size()) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Spill journal replay failed", e);
+        }
+    }
+
+    /**
+     * 묶음 전체를 전송하고 앞에서부터 연속으로 처리된 메시지 수 반환
+     */
+    private int resend(List<SpillJournal.Entry> entries) throws InterruptedException {
+        List<CompletableFuture<SendResult<String, byte[]>>> futures = new ArrayList<>(entries.size());
+        for (SpillJournal.Entry entry : entries) {
+            SpilledRecord record = entry.record();
+            try {
+                futures.add(rawKafkaTemplates.get(record.acks())
+                        .send(new ProducerRecord<>(record.topic(), null, record.key(), record.value(), record.headers())));
+            } catch (RuntimeException e) {
+                // 크기 초과, 메타데이터 대기 시간 초과 등 즉시 실패한 전송은 KafkaTemplate이 바로 던지므로 실패한 전송으로 처리
+                futures.add(CompletableFuture.failedFuture(e));
+            }
+        }
+
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                futures.get(i).get();
+                replayed.increment();
+            } catch (ExecutionException e) {
+                if (canSpill(e)) {
+                    log.warn("Spill journal replay paused, Kafka is still unavailable: {}", rootCauseMessage(e));
+                    return i;
+                }
+                dropped.increment();
+                SpilledRecord record = entries.get(i).record();
+                log.error("Dropping spilled record for {} with key {} and api_tran_id {}, keeping it in {}", record.topic(),
+                        record.key(), apiTranId(record), deadLetterDir(), e.getCause());
+                keepDeadLetter(record);
+            }
+        }
+        return futures.size();
+    }
+
+    /**
+     * 버린 메시지를 dead-letter 저널에 추가하고 바로 디스크에 동기화 (재전송 묶음의 commit보다 먼저)
+     */
+    private void keepDeadLetter(SpilledRecord record) {
+        try {
+            deadLetters.append(record);
+            deadLetters.flush();
+        } catch (SpillJournalFullException | UncheckedIOException e) {
+            log.error("Could not keep dropped record for {} with key {} and api_tran_id {} in the dead-letter journal, it is lost",
+                    record.topic(), record.key(), apiTranId(record), e);
+        }
+    }
+
+    private Path deadLetterDir() {
+        return properties.getDir().resolve("dead-letter");
+    }
+
+    /**
+     * 저널에 보관한 레코드의 api_tran_id 헤더 값 (없으면 null)
+     */
+    private static String apiTranId(SpilledRecord record) {
+        String apiTranId = null;
+        for (Header header : record.headers()) {
+            if (MessageHeaders.API_TRAN_ID.equals(header.key()) && header.value() != null) {
+                apiTranId = new String(header.value(), StandardCharsets.UTF_8);
+            }
+        }
+        return apiTranId;
+    }
+
+    /**
+     * 저널이 비었으면 직접 전송 모드로 복귀
+     */
+    private void finishSpilling() {
+        modeLock.lock();
+        try {
+            if (spilling && journal.depth() == 0) {
+                spilling = false;
+                log.info("Spill journal drained, sending directly to Kafka again");
+            }
+        } finally {
+            modeLock.unlock();
+        }
+    }
+
+    /**
+     * ExecutionException, KafkaProducerException 등으로 감싸진 예외의 최초 원인 메시지
+     */
+    private static String rootCauseMessage(Throwable e) {
+        Throwable cause = e;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage();
+    }
+
+    private static Counter counter(String name, String description, MeterRegistry meterRegistry) {
+        return Counter.builder(name)
+                .description(description)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 재전송을 멈추고 남은 메시지를 동기화한 뒤 저널 닫기 (재전송하지 못한 메시지는 다음 시작 시 이어서 전송)
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        if (journal == null) {
+            return;
+        }
+        executor.shutdownNow();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+        journal.close();
+        deadLetters.close();
+    }
+}
@@ -0,0 +1,236 @@
+package kr.or.exmaple.kafkaProducer.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import kr.or.exmaple.kafkaProducer.config.ProducerProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 여러 요청의 레코드를 하나의 Kafka 트랜잭션으로 묶어 커밋하는 전송기 (group commit)
+ * 
+ * 트랜잭션 커밋은 브로커 왕복(EndTxn, 트랜잭션 마커 기록)이 필요하므로 요청마다 커밋하면
+ * 커밋 지연이 곧 처리량 한도가 됩니다. 요청 스레드는 레코드 묶음을 큐에 넣고 Future를 받으며,
+ * 커밋 스레드 하나가 큐에 쌓인 요청을 max-batch-size 레코드까지 꺼내 한 트랜잭션으로 보내고 커밋합니다.
+ * 커밋하는 동안 도착한 요청은 다음 트랜잭션에 함께 담기므로, 동시 요청이 많을수록 커밋당 요청 수가 늘어납니다.
+ * 
+ * - 요청의 레코드는 모두 같은 트랜잭션에 들어가므로 토픽 일부에만 기록되는 일이 없음
+ * - 트랜잭션이 중단되면 그 트랜잭션에 담긴 모든 요청이 같은 예외로 실패 (클라이언트가 재시도)
+ * - 커밋이 끝난 뒤에 Future가 완료되므로 응답을 받은 요청은 read_committed 컨슈머에게 보임
+ * 
+ * 메트릭:
+ * - custom-kafka-transaction-commit: 트랜잭션 하나의 전송과 커밋에 걸린 시간
+ * - custom-kafka-transaction-requests: 트랜잭션 하나에 담긴 요청 수
+ * - custom-kafka-transaction-aborted: 중단된 트랜잭션 수
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+@Slf4j
+public class TransactionBatcher implements DisposableBean {
+
+    /**
+     * 커밋 스레드가 종료 여부를 확인하는 주기
+     */
+    private static final long POLL_MILLIS = 100;
+
+    private final ProducerProperties.Transaction properties;
+
+    /**
+     * 트랜잭션 프로듀서 (비활성화하면 null)
+     */
+    private final ProducerFactory<String, byte[]> producerFactory;
+
+    private final KafkaTemplate<String, byte[]> template;
+
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+
+    private final Thread committer;
+
+    private volatile boolean running;
+
+    private final Timer commitTimer;
+
+    private final DistributionSummary requestsPerTransaction;
+
+    private final Counter aborted;
+
+    /**
+     * @param producerFactory 트랜잭션을 지원하는 ProducerFactory (transactional.id 접두사 설정, 비활성화하면 null)
+     */
+    public TransactionBatcher(ProducerProperties.FanOut fanOut, ProducerFactory<String, byte[]> producerFactory,
+                              MeterRegistry meterRegistry) {
+        this.properties = fanOut.getTransaction();
+        this.commitTimer = Timer.builder("custom-kafka-transaction-commit")
+                .description("Time to send and commit one batched producer transaction")
+                .register(meterRegistry);
+        this.requestsPerTransaction = DistributionSummary.builder("custom-kafka-transaction-requests")
+                .description("Requests committed together in one producer transaction")
+                .register(meterRegistry);
+        this.aborted = Counter.builder("custom-kafka-transaction-aborted")
+                .description("Producer transactions aborted after a send or commit failure")
+                .register(meterRegistry);
+        if (!fanOut.isTransactional()) {
+            this.producerFactory = null;
+            this.template = null;
+            this.committer = null;
+            return;
+        }
+        if (producerFactory == null || !producerFactory.transactionCapable()) {
+            throw new IllegalArgumentException("Transactional fan-out requires a producer factory with a transactional.id prefix");
+        }
+        if (properties.getMaxBatchSize() < 1) {
+            throw new IllegalArgumentException("Transaction max-batch-size must be positive: " + properties.getMaxBatchSize());
+        }
+
+        this.producerFactory = producerFactory;
+        this.template = new KafkaTemplate<>(producerFactory);
+        this.running = true;
+        this.committer = new CustomizableThreadFactory("fan-out-transaction-").newThread(this::run);
+        committer.start();
+    }
+
+    /**
+     * 트랜잭션 전송 사용 여부 (app.producer.fan-out.transactional)
+     */
+    public boolean isEnabled() {
+        return template != null;
+    }
+
+    /**
+     * 요청 하나의 레코드를 다음 트랜잭션에 추가
+     * 
+     * @param records 같은 트랜잭션으로 보낼 레코드
+     * @return 트랜잭션이 커밋되면 레코드 순서대로의 전송 결과로 완료되는 Future
+     *         (트랜잭션이 중단되면 예외로 완료)
+     */
+    public CompletableFuture<List<SendResult<String, byte[]>>> submit(List<ProducerRecord<String, byte[]>> records) {
+        if (!isEnabled()) {
+            throw new IllegalStateException("Transactional fan-out is disabled");
+        }
+        Pending pending = new Pending(records);
+        queue.add(pending);
+        if (!running && queue.remove(pending)) {
+            pending.future.completeExceptionally(new IllegalStateException("Transaction batcher is shut down"));
+        }
+        return pending.future;
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>();
+        try {
+            while (running) {
+                Pending first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                collect(first, batch);
+                commit(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 첫 요청 뒤로 linger 동안 도착한(또는 이미 쌓여 있던) 요청을 max-batch-size 레코드까지 모음
+     */
+    private void collect(Pending first, List<Pending> batch) throws InterruptedException {
+        batch.add(first);
+        int records = first.records.size();
+        long lingerNanos = properties.getLinger().toNanos();
+        long deadline = System.nanoTime() + lingerNanos;
+        while (records < properties.getMaxBatchSize()) {
+            long remaining = deadline - System.nanoTime();
+            Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+            records += next.records.size();
+        }
+    }
+
+    /**
+     * 모은 요청을 하나의 트랜잭션으로 전송하고 커밋한 뒤 요청별 Future 완료
+     */
+    private void commit(List<Pending> batch) {
+        long start = System.nanoTime();
+        try {
+            template.executeInTransaction(operations -> {
+                for (Pending pending : batch) {
+                    for (ProducerRecord<String, byte[]> record : pending.records) {
+                        pending.sends.add(operations.send(record));
+                    }
+                }
+                // 전송이 하나라도 실패하면 커밋하지 않고 중단되도록 모든 ack를 트랜잭션 안에서 확인
+                operations.flush();
+                for (Pending pending : batch) {
+                    pending.sends.forEach(CompletableFuture::join);
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            aborted.increment();
+            log.warn("Producer transaction with {} requests aborted: {}", batch.size(), e.getMessage());
+            batch.forEach(pending -> pending.future.completeExceptionally(e));
+            return;
+        }
+        commitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        requestsPerTransaction.record(batch.size());
+
+        // 트랜잭션 안에서 모든 ack를 확인했으므로 전송 Future는 이미 완료된 상태
+        for (Pending pending : batch) {
+            pending.future.complete(pending.sends.stream().map(CompletableFuture::join).toList());
+        }
+    }
+
+    /**
+     * 진행 중인 트랜잭션을 마친 뒤 커밋 스레드를 종료하고, 남은 요청은 실패로 완료
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        if (!isEnabled()) {
+            return;
+        }
+        running = false;
+        committer.join(Duration.ofSeconds(30));
+        Pending pending;
+        while ((pending = queue.poll()) != null) {
+            pending.future.completeExceptionally(new IllegalStateException("Transaction batcher is shut down"));
+        }
+        producerFactory.reset();
+    }
+
+    /**
+     * 트랜잭션을 기다리는 요청 하나
+     */
+    private static final class Pending {
+
+        private final List<ProducerRecord<String, byte[]>> records;
+
+        private final List<CompletableFuture<SendResult<String, byte[]>>> sends;
+
+        private final CompletableFuture<List<SendResult<String, byte[]>>> future = new CompletableFuture<>();
+
+        private Pending(List<ProducerRecord<String, byte[]>> records) {
+            this.records = records;
+            this.sends = new ArrayList<>(records.size());
+        }
+    }
+}
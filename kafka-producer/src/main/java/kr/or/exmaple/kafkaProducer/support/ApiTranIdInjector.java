@@ -0,0 +1,157 @@
+package kr.or.exmaple.kafkaProducer.support;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 원본 JSON 바이트에 api_tran_id를 직접 삽입하는 유틸리티
+ * 
+ * Map 바인딩 → 필드 추가 → writeValueAsString 재직렬화 과정 대신,
+ * Jackson 스트리밍 파서로 토큰만 훑어서 JSON 유효성을 검증하고
+ * 최상위 객체의 닫는 중괄호('}') 바로 앞에 "api_tran_id" 필드를 끼워 넣습니다.
+ * 
+ * 객체 트리나 Map, 중간 String을 만들지 않으므로 요청당 할당량이 크게 줄어듭니다.
+ * 
+ * 검증 규칙 (Map 바인딩 방식과 동일):
+ * - 최상위 값은 비어있지 않은 JSON 객체여야 함
+ * - 최상위 객체 뒤에 다른 내용이 있으면 안 됨
+ * 
+ * 최상위에 api_tran_id 필드가 이미 있으면 새 값을 객체 끝에 추가하므로,
+ * 마지막 값을 사용하는 파서(Jackson 등)에서는 Map 방식과 마찬가지로 덮어쓴 결과가 됩니다.
+ * 
+ * 이 클래스는 상태가 없으므로 스레드 안전합니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+public class ApiTranIdInjector {
+
+    /**
+     * 삽입할 필드 이름 (따옴표와 콜론 포함)
+     */
+    private static final byte[] FIELD_PREFIX = "\"api_tran_id\":\"".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * 스트리밍 파서 생성용 JsonFactory (스레드 안전)
+     */
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    /**
+     * JSON 본문을 검증하고 api_tran_id를 삽입
+     * 
+     * @param body 원본 JSON 바이트 (UTF-8)
+     * @param apiTranId 삽입할 트랜잭션 ID
+     * @return api_tran_id가 삽입된 바이트와 최상위 "key" 필드 값
+     * @throws InvalidPayloadException JSON 형식이 잘못되었거나 비어있는 객체인 경우
+     */
+    public Result inject(byte[] body, String apiTranId) {
+        if (body == null || body.length == 0) {
+            throw new InvalidPayloadException("JSON data is required");
+        }
+
+        int closeBraceOffset;
+        int fieldCount = 0;
+        String key = null;
+
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new InvalidPayloadException("JSON object is required");
+            }
+
+            // 최상위 필드만 순회하고 하위 구조는 토큰 단위로 건너뜀 (검증은 파서가 수행)
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+                fieldCount++;
+                boolean isKeyField = "key".equals(parser.currentName());
+                JsonToken valueToken = parser.nextToken();
+                if (isKeyField) {
+                    key = readKey(parser, body, valueToken);
+                } else if (valueToken.isStructStart()) {
+                    parser.skipChildren();
+                }
+            }
+            if (token != JsonToken.END_OBJECT) {
+                throw new InvalidPayloadException("Invalid JSON format: unexpected token " + token);
+            }
+            closeBraceOffset = (int) parser.currentTokenLocation().getByteOffset();
+
+            if (parser.nextToken() != null) {
+                throw new InvalidPayloadException("Invalid JSON format: unexpected content after JSON object");
+            }
+        } catch (JsonProcessingException e) {
+            throw new InvalidPayloadException("Invalid JSON format: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            // 바이트 배열 입력에서는 발생하지 않음
+            throw new IllegalStateException(e);
+        }
+
+        if (fieldCount == 0) {
+            throw new InvalidPayloadException("JSON data is required");
+        }
+
+        return new Result(splice(body, closeBraceOffset, apiTranId), key);
+    }
+
+    /**
+     * 닫는 중괄호 위치에 ,"api_tran_id":"..." 를 끼워 넣은 새 바이트 배열 생성
+     */
+    private static byte[] splice(byte[] body, int closeBraceOffset, String apiTranId) {
+        byte[] quotedId = JsonStringEncoder.getInstance().quoteAsUTF8(apiTranId);
+        int insertLength = 1 + FIELD_PREFIX.length + quotedId.length + 1;
+
+        byte[] result = new byte[body.length + insertLength];
+        System.arraycopy(body, 0, result, 0, closeBraceOffset);
+        int position = closeBraceOffset;
+        result[position++] = ',';
+        System.arraycopy(FIELD_PREFIX, 0, result, position, FIELD_PREFIX.length);
+        position += FIELD_PREFIX.length;
+        System.arraycopy(quotedId, 0, result, position, quotedId.length);
+        position += quotedId.length;
+        result[position++] = '"';
+        System.arraycopy(body, closeBraceOffset, result, position, body.length - closeBraceOffset);
+        return result;
+    }
+
+    /**
+     * "key" 필드 값을 문자열로 읽음
+     * 
+     * 스칼라 값은 텍스트 그대로, 객체/배열은 원본 JSON 텍스트를 사용하며
+     * null 값은 Key가 없는 것으로 간주합니다.
+     */
+    private static String readKey(JsonParser parser, byte[] body, JsonToken valueToken) throws IOException {
+        if (valueToken == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (!valueToken.isStructStart()) {
+            return parser.getText();
+        }
+        int start = (int) parser.currentTokenLocation().getByteOffset();
+        parser.skipChildren();
+        int end = (int) parser.currentTokenLocation().getByteOffset() + 1;
+        return new String(body, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 삽입 결과
+     * 
+     * @param payload api_tran_id가 삽입된 JSON 바이트
+     * @param key 최상위 "key" 필드 값 (없거나 null이면 null)
+     */
+    public record Result(byte[] payload, String key) {
+    }
+
+    /**
+     * 본문 검증 실패 예외
+     */
+    public static class InvalidPayloadException extends RuntimeException {
+
+        public InvalidPayloadException(String message) {
+            super(message);
+        }
+    }
+}
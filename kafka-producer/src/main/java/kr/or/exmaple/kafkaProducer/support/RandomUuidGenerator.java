@@ -0,0 +1,20 @@
+package kr.or.exmaple.kafkaProducer.support;
+
+import java.util.UUID;
+
+/**
+ * UUID.randomUUID() 기반 api_tran_id 생성기 (UUID 버전 4)
+ * 
+ * 모든 스레드가 JVM 공유 SecureRandom을 사용하므로 동시 요청이 많으면 경합이 생기고,
+ * 값이 무작위라 발급 순서로 정렬하거나 범위 조회할 수 없습니다.
+ * 기존 동작이 필요한 경우를 위해 남겨둔 구현입니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+public class RandomUuidGenerator implements TransactionIdGenerator {
+
+    @Override
+    public String nextId() {
+        return UUID.randomUUID().toString();
+    }
+}
@@ -0,0 +1,89 @@
+package kr.or.exmaple.kafkaProducer.support;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * 시간 순서 api_tran_id 생성기 (UUID 버전 7, RFC 9562)
+ * 
+ * 비트 구성:
+ * - 48비트: Unix epoch 밀리초
+ * - 4비트: 버전(7)
+ * - 12비트: 같은 밀리초 안의 순번 (rand_a 자리)
+ * - 2비트: variant(10)
+ * - 62비트: 무작위 값 (rand_b 자리)
+ * 
+ * 앞부분이 발급 시각이므로 문자열/바이트 정렬 순서가 발급 순서와 같고,
+ * 하위 시스템에서 시간 범위 조회나 인덱스 지역성에 활용할 수 있습니다.
+ * 
+ * 잠금과 공유 상태 없이 동작합니다:
+ * - 무작위 값은 공유 SecureRandom 대신 스레드별 ThreadLocalRandom에서 가져옴
+ * - 마지막 발급 시각과 순번은 스레드별로 보관하여 같은 스레드에서 발급한 ID는
+ *   같은 밀리초 안에서도 항상 증가함 (순번이 다 차면 다음 밀리초로 넘어감)
+ * - 시계가 뒤로 가도 스레드별 마지막 시각보다 작은 값을 쓰지 않음
+ * 
+ * 다른 스레드끼리는 밀리초 단위까지만 순서가 보장되며, 같은 밀리초의 ID는 무작위 62비트로 구분됩니다.
+ * 가상 스레드 모드에서는 요청마다 스레드가 새로 만들어지므로 스레드별 상태도 요청마다 새로 생성됩니다.
+ * 무작위 값은 암호학적으로 안전하지 않으므로 ID를 추측하기 어려워야 하는 용도(토큰 등)에는 쓰지 않습니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+public class TimeOrderedUuidGenerator implements TransactionIdGenerator {
+
+    /**
+     * rand_a 자리 12비트 순번의 최댓값
+     */
+    private static final int MAX_SEQUENCE = 0xfff;
+
+    private final LongSupplier clock;
+
+    private final ThreadLocal<State> state = ThreadLocal.withInitial(State::new);
+
+    public TimeOrderedUuidGenerator() {
+        this(System::currentTimeMillis);
+    }
+
+    TimeOrderedUuidGenerator(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public String nextId() {
+        return nextUuid().toString();
+    }
+
+    /**
+     * 새 UUIDv7 발급
+     */
+    public UUID nextUuid() {
+        State current = state.get();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        long now = clock.getAsLong();
+        if (now > current.millis) {
+            current.millis = now;
+            // 새 밀리초의 순번은 앞쪽 절반에서 무작위로 시작 (증가 여유를 남기고 추측을 어렵게 함)
+            current.sequence = random.nextInt(MAX_SEQUENCE / 2 + 1);
+        } else if (current.sequence < MAX_SEQUENCE) {
+            current.sequence++;
+        } else {
+            current.millis++;
+            current.sequence = 0;
+        }
+
+        long mostSigBits = (current.millis << 16) | 0x7000L | current.sequence;
+        long leastSigBits = (random.nextLong() & 0x3fffffffffffffffL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    /**
+     * 스레드별 마지막 발급 시각(밀리초)과 순번
+     */
+    private static final class State {
+
+        private long millis = Long.MIN_VALUE;
+
+        private int sequence;
+    }
+}
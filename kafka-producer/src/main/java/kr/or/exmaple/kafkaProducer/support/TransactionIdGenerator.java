@@ -0,0 +1,21 @@
+package kr.or.exmaple.kafkaProducer.support;
+
+/**
+ * api_tran_id 생성기
+ * 
+ * 컨트롤러는 요청마다 이 인터페이스로 api_tran_id를 발급받으며,
+ * 구현체는 app.producer.tran-id-format 설정으로 선택합니다.
+ * 
+ * 구현체는 여러 요청 스레드에서 동시에 호출되므로 스레드 안전해야 합니다.
+ * 
+ * @author Spring Boot Kafka Demo
+ */
+public interface TransactionIdGenerator {
+
+    /**
+     * 새 api_tran_id 발급
+     * 
+     * @return 36자 UUID 형식 문자열
+     */
+    String nextId();
+}
@@ -0,0 +1,289 @@
+package kr.or.exmaple.kafkaProducer.controller;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.or.exmaple.kafkaCommon.codec.PayloadCodecs;
+import kr.or.exmaple.kafkaCommon.codec.PayloadFormat;
+import kr.or.exmaple.kafkaCommon.logging.PayloadLogProperties;
+import kr.or.exmaple.kafkaCommon.logging.PayloadLogSampler;
+import kr.or.exmaple.kafkaCommon.metrics.KafkaMetrics;
+import kr.or.exmaple.kafkaCommon.metrics.KafkaMetricsProperties;
+import kr.or.exmaple.kafkaProducer.config.AcksKafkaTemplates;
+import kr.or.exmaple.kafkaProducer.config.AcksModeConverter;
+import kr.or.exmaple.kafkaProducer.config.ProducerProperties;
+import kr.or.exmaple.kafkaProducer.exception.GlobalExceptionHandler;
+import kr.or.exmaple.kafkaProducer.partition.HotKeyPartitioner;
+import kr.or.exmaple.kafkaProducer.service.AcksMode;
+import kr.or.exmaple.kafkaProducer.service.AdmissionControl;
+import kr.or.exmaple.kafkaProducer.service.KafkaProducerService;
+import kr.or.exmaple.kafkaProducer.service.SpillCoordinator;
+import kr.or.exmaple.kafkaProducer.service.TransactionBatcher;
+import kr.or.exmaple.kafkaProducer.support.RandomUuidGenerator;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.format.support.DefaultFormattingConversionService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.mock.MockProducerFactory;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ProducerControllerTest {
+
+	private static final String NDJSON = "application/x-ndjson";
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final ProducerProperties properties = new ProducerProperties();
+
+	/**
+	 * acks 모드별 프로듀서 - 응답(ack)을 테스트가 직접 완료시킴
+	 */
+	private final Map<AcksMode, MockProducer<String, byte[]>> producers = new EnumMap<>(AcksMode.class);
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		for (AcksMode mode : AcksMode.values()) {
+			producers.put(mode, producer());
+		}
+		properties.getSpill().setEnabled(false);
+	}
+
+	@Test
+	void sendsWithTheKafkaTemplateOfTheRequestedAcksMode() throws Exception {
+		start();
+
+		MvcResult result = mockMvc.perform(post("/putdata?acks=leader").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\":\"a\"}"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		assertThat(producers.get(AcksMode.LEADER).history()).hasSize(2);
+		assertThat(producers.get(AcksMode.ALL).history()).isEmpty();
+		assertThat(producers.get(AcksMode.NONE).history()).isEmpty();
+
+		// 브로커 응답(ack)을 받기 전에는 응답하지 않음
+		assertThatThrownBy(() -> result.getAsyncResult(0)).isInstanceOf(IllegalStateException.class);
+		producers.get(AcksMode.LEADER).completeNext();
+		producers.get(AcksMode.LEADER).completeNext();
+
+		mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString(
+						"(acks=LEADER, results=[sample.batch.topic-0@0, sample.record.topic-0@0])")));
+	}
+
+	@Test
+	void sendsWithTheDefaultAcksModeWithoutTheParameter() throws Exception {
+		properties.setDefaultAcks(AcksMode.NONE);
+		start();
+
+		MvcResult result = mockMvc.perform(post("/putdata-with-key").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"key\":\"user-1\",\"name\":\"a\"}"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		assertThat(producers.get(AcksMode.NONE).history()).hasSize(2);
+		producers.get(AcksMode.NONE).completeNext();
+		producers.get(AcksMode.NONE).completeNext();
+
+		mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString("Data sent successfully with key: user-1")))
+				.andExpect(content().string(containsString("acks=NONE")));
+	}
+
+	@Test
+	void rejectsUnsupportedAcksMode() throws Exception {
+		start();
+
+		mockMvc.perform(post("/putdata?acks=2").contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"a\"}"))
+				.andExpect(request().asyncNotStarted())
+				.andExpect(status().isBadRequest())
+				.andExpect(content().string("Invalid value for parameter 'acks': 2"));
+		producers.values().forEach(producer -> assertThat(producer.history()).isEmpty());
+	}
+
+	@Test
+	void respondsWithServerErrorWhenTheBrokerRejectsTheSend() throws Exception {
+		start();
+
+		MvcResult result = mockMvc.perform(post("/putdata-with-key?acks=all").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"key\":\"user-1\",\"name\":\"a\"}"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		producers.get(AcksMode.ALL).completeNext();
+		producers.get(AcksMode.ALL).errorNext(new RecordTooLargeException("record too large"));
+
+		mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isInternalServerError())
+				.andExpect(content().string("Error processing data: record too large"));
+	}
+
+	@Test
+	void respondsTooManyRequestsWithoutSendingWhenOverloaded() throws Exception {
+		properties.getAdmission().setMaxInFlight(0);
+		properties.getAdmission().setRetryAfter(Duration.ofMillis(1500));
+		start();
+
+		mockMvc.perform(post("/putdata").contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"a\"}"))
+				.andExpect(request().asyncNotStarted())
+				.andExpect(status().isTooManyRequests())
+				.andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"));
+		producers.values().forEach(producer -> assertThat(producer.history()).isEmpty());
+	}
+
+	@Test
+	void reportsPerItemResultsWhenSomeSendsFail() throws Exception {
+		start();
+
+		// 항목마다 두 토픽에 전송 (마지막 항목은 JSON 객체가 아니므로 전송하지 않음)
+		MvcResult result = mockMvc.perform(post("/putdata-bulk").contentType(NDJSON)
+						.content("{\"name\":\"a\"}\n{\"key\":\"user-1\",\"name\":\"b\"}\n{\"name\":\"c\"}\n42\n"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		MockProducer<String, byte[]> producer = producers.get(AcksMode.ALL);
+		assertThat(producer.history()).hasSize(6);
+		assertThat(producer.history().get(2).key()).isEqualTo("user-1");
+
+		// 두 번째 항목의 첫 번째 토픽 전송만 실패
+		producer.completeNext();
+		producer.completeNext();
+		producer.errorNext(new RecordTooLargeException("record too large"));
+		producer.completeNext();
+		producer.completeNext();
+		producer.completeNext();
+
+		mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.total").value(4))
+				.andExpect(jsonPath("$.accepted").value(2))
+				.andExpect(jsonPath("$.failed").value(2))
+				.andExpect(jsonPath("$.acceptedIndices", contains(0, 2)))
+				.andExpect(jsonPath("$.failures[0].index").value(1))
+				.andExpect(jsonPath("$.failures[0].reason").value("Kafka send failed: record too large"))
+				.andExpect(jsonPath("$.failures[1].index").value(3))
+				.andExpect(jsonPath("$.failures[1].reason").value("JSON object is required"));
+	}
+
+	@Test
+	void stopsReadingWhenTheProducerBecomesOverloadedMidStream() throws Exception {
+		// 첫 항목의 두 전송이 ack를 기다리는 동안 다음 항목은 거절됨
+		properties.getAdmission().setMaxInFlight(2);
+		start();
+
+		MvcResult result = mockMvc.perform(post("/putdata-bulk").contentType(NDJSON)
+						.content("{\"name\":\"a\"}\n{\"name\":\"b\"}\n{\"name\":\"c\"}\n"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		MockProducer<String, byte[]> producer = producers.get(AcksMode.ALL);
+		assertThat(producer.history()).hasSize(2);
+
+		producer.completeNext();
+		producer.completeNext();
+
+		// 거절된 항목 이후는 읽지 않으므로 전체 항목 수에 포함되지 않음
+		mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.total").value(2))
+				.andExpect(jsonPath("$.acceptedIndices", contains(0)))
+				.andExpect(jsonPath("$.failures[0].index").value(1))
+				.andExpect(jsonPath("$.failures[0].reason").value("Too many unacknowledged sends, retry later"));
+	}
+
+	@Test
+	void keepsItemsSentBeforeMalformedJson() throws Exception {
+		start();
+
+		MvcResult result = mockMvc.perform(post("/putdata-bulk").contentType(NDJSON)
+						.content("{\"name\":\"a\"}\n{\"name\":\"b\"}\n{\"name\": oops}\n{\"name\":\"d\"}\n"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		MockProducer<String, byte[]> producer = producers.get(AcksMode.ALL);
+		assertThat(producer.history()).hasSize(4);
+		for (int i = 0; i < 4; i++) {
+			producer.completeNext();
+		}
+
+		// 구문 오류 위치에서 읽기를 중단하고, 그 전에 보낸 항목은 성공으로 남음
+		mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.total").value(3))
+				.andExpect(jsonPath("$.accepted").value(2))
+				.andExpect(jsonPath("$.acceptedIndices", contains(0, 1)))
+				.andExpect(jsonPath("$.failures[0].index").value(2))
+				.andExpect(jsonPath("$.failures[0].reason", startsWith("Invalid JSON format: ")));
+	}
+
+	/**
+	 * 설정을 마친 뒤 컨트롤러와 MockMvc 생성 (요청 파라미터 변환과 예외 처리는 애플리케이션과 동일)
+	 */
+	private void start() throws Exception {
+		AcksKafkaTemplates<byte[]> templates = new AcksKafkaTemplates<>(producerFactory());
+		PayloadCodecs payloadCodecs = new PayloadCodecs();
+		PayloadLogSampler payloadLog = new PayloadLogSampler(new PayloadLogProperties());
+		AdmissionControl admissionControl = new AdmissionControl(properties, meterRegistry);
+		KafkaProducerService service = new KafkaProducerService(templates,
+				new KafkaMetrics(meterRegistry, new KafkaMetricsProperties()), properties, payloadLog,
+				payloadCodecs.get(PayloadFormat.JSON), payloadCodecs, admissionControl,
+				new SpillCoordinator(properties, templates, meterRegistry),
+				new TransactionBatcher(properties.getFanOut(), null, meterRegistry),
+				new HotKeyPartitioner(properties.getHotKey(), topic -> 1, meterRegistry));
+		ProducerController controller = new ProducerController(service, properties, payloadLog,
+				new RandomUuidGenerator(), admissionControl);
+
+		DefaultFormattingConversionService conversionService = new DefaultFormattingConversionService();
+		conversionService.addConverter(new AcksModeConverter());
+		mockMvc = MockMvcBuilders.standaloneSetup(controller)
+				.setControllerAdvice(new GlobalExceptionHandler())
+				.setConversionService(conversionService)
+				.build();
+	}
+
+	/**
+	 * acks 설정을 덮어쓴 복사본마다 그 모드의 프로듀서를 쓰는 ProducerFactory
+	 */
+	private ProducerFactory<String, byte[]> producerFactory() {
+		return new MockProducerFactory<>(() -> producers.get(AcksMode.ALL)) {
+			@Override
+			public ProducerFactory<String, byte[]> copyWithConfigurationOverride(Map<String, Object> overrides) {
+				MockProducer<String, byte[]> producer = producers.get(AcksMode.from((String) overrides.get(ProducerConfig.ACKS_CONFIG)));
+				return new MockProducerFactory<>(() -> producer);
+			}
+		};
+	}
+
+	/**
+	 * 응답을 자동 완료하지 않는 프로듀서 (KafkaTemplate이 전송마다 닫으므로 close는 무시)
+	 */
+	private static MockProducer<String, byte[]> producer() {
+		return new MockProducer<>(false, new StringSerializer(), new ByteArraySerializer()) {
+			@Override
+			public void close(Duration timeout) {
+			}
+		};
+	}
+}
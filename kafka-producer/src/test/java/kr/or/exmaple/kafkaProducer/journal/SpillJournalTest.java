@@ -0,0 +1,120 @@
+package kr.or.exmaple.kafkaProducer.journal;
+
+import kr.or.exmaple.kafkaProducer.service.AcksMode;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SpillJournalTest {
+
+	private static final int SEGMENT_SIZE = 4096;
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void readsRecordsInAppendOrderAcrossSegments() throws Exception {
+		try (SpillJournal journal = new SpillJournal(dir, SEGMENT_SIZE, 1 << 20)) {
+			for (int i = 0; i < 100; i++) {
+				journal.append(record(i));
+			}
+
+			assertThat(segmentFiles()).hasSizeGreaterThan(1);
+			assertThat(journal.depth()).isEqualTo(100);
+			List<SpillJournal.Entry> entries = journal.read(1_000);
+			assertThat(entries).extracting(entry -> entry.record().key())
+					.containsExactlyElementsOf(Stream.iterate(0, i -> i + 1).limit(100).map(i -> "key-" + i).toList());
+
+			SpilledRecord first = entries.get(0).record();
+			assertThat(first.topic()).isEqualTo("sample.batch.topic");
+			assertThat(first.acks()).isEqualTo(AcksMode.LEADER);
+			assertThat(new String(first.value(), StandardCharsets.UTF_8)).isEqualTo("{\"n\":0}");
+			assertThat(first.headers()).singleElement()
+					.satisfies(header -> assertThat(header.value()).isEqualTo("json".getBytes(StandardCharsets.UTF_8)));
+		}
+	}
+
+	@Test
+	void commitDeletesReplayedSegmentsAndRereadsUncommittedRecords() throws Exception {
+		try (SpillJournal journal = new SpillJournal(dir, SEGMENT_SIZE, 1 << 20)) {
+			for (int i = 0; i < 100; i++) {
+				journal.append(record(i));
+			}
+			int segments = segmentFiles().size();
+
+			List<SpillJournal.Entry> entries = journal.read(60);
+			journal.commit(entries.get(59).next(), 60);
+
+			assertThat(journal.depth()).isEqualTo(40);
+			assertThat(segmentFiles()).hasSizeLessThan(segments);
+			assertThat(journal.read(1).get(0).record().key()).isEqualTo("key-60");
+			assertThat(journal.read(1).get(0).record().key()).isEqualTo("key-60");
+		}
+	}
+
+	@Test
+	void recoversUnreplayedRecordsAfterRestart() throws Exception {
+		try (SpillJournal journal = new SpillJournal(dir, SEGMENT_SIZE, 1 << 20)) {
+			for (int i = 0; i < 50; i++) {
+				journal.append(record(i));
+			}
+			journal.commit(journal.read(20).get(19).next(), 20);
+		}
+
+		try (SpillJournal journal = new SpillJournal(dir, SEGMENT_SIZE, 1 << 20)) {
+			assertThat(journal.depth()).isEqualTo(30);
+			journal.append(record(50));
+
+			assertThat(journal.read(1_000)).extracting(entry -> entry.record().key())
+					.startsWith("key-20", "key-21")
+					.endsWith("key-49", "key-50")
+					.hasSize(31);
+		}
+	}
+
+	@Test
+	void completesAppendAfterFlush() throws Exception {
+		try (SpillJournal journal = new SpillJournal(dir, SEGMENT_SIZE, 1 << 20)) {
+			var flushed = journal.append(record(0));
+			assertThat(flushed).isNotDone();
+
+			journal.flush();
+
+			assertThat(flushed).isCompleted();
+		}
+	}
+
+	@Test
+	void rejectsRecordsBeyondDiskUsageLimit() throws Exception {
+		try (SpillJournal journal = new SpillJournal(dir, SEGMENT_SIZE, 2 * SEGMENT_SIZE)) {
+			assertThatThrownBy(() -> {
+				for (int i = 0; i < 1_000; i++) {
+					journal.append(record(i));
+				}
+			}).isInstanceOf(SpillJournalFullException.class);
+
+			assertThat(segmentFiles()).hasSize(2);
+		}
+	}
+
+	private static SpilledRecord record(int n) {
+		return new SpilledRecord("sample.batch.topic", "key-" + n,
+				List.of(new RecordHeader("payload-codec", "json".getBytes(StandardCharsets.UTF_8))),
+				("{\"n\":" + n + "}").getBytes(StandardCharsets.UTF_8), AcksMode.LEADER);
+	}
+
+	private List<Path> segmentFiles() throws Exception {
+		try (Stream<Path> files = Files.list(dir)) {
+			return files.filter(file -> file.toString().endsWith(".seg")).toList();
+		}
+	}
+}
@@ -0,0 +1,134 @@
+package kr.or.exmaple.kafkaProducer.partition;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.or.exmaple.kafkaProducer.config.ProducerProperties;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.common.utils.Utils;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HotKeyPartitionerTest {
+
+	private static final String TOPIC = "sample.record.topic";
+
+	private static final int PARTITIONS = 6;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final ProducerProperties.HotKey properties = new ProducerProperties.HotKey();
+
+	@Test
+	void spreadsHotKeyOverConsecutivePartitionsFromItsHome() {
+		properties.setEnabled(true);
+		properties.setMinCount(50);
+		properties.setThreshold(0.2);
+		properties.setSpread(3);
+		HotKeyPartitioner partitioner = partitioner();
+		int home = Utils.toPositive(Utils.murmur2("tenant-a".getBytes(StandardCharsets.UTF_8))) % PARTITIONS;
+
+		Set<Integer> hotPartitions = new HashSet<>();
+		for (int i = 0; i < 1_000; i++) {
+			int salt = partitioner.salt("tenant-a");
+			if (salt != HotKeyPartitioner.NO_SALT) {
+				hotPartitions.add(partitioner.partition(TOPIC, "tenant-a", salt));
+			}
+			// 다른 Key는 threshold를 넘지 않으므로 기본 파티셔너 사용
+			int coldSalt = partitioner.salt("user-" + i);
+			assertThat(coldSalt).isEqualTo(HotKeyPartitioner.NO_SALT);
+			assertThat(partitioner.partition(TOPIC, "user-" + i, coldSalt)).isNull();
+		}
+
+		assertThat(hotPartitions).containsExactlyInAnyOrder(home, (home + 1) % PARTITIONS, (home + 2) % PARTITIONS);
+		assertThat(meterRegistry.get("custom-kafka-hot-keys").gauge().value()).isEqualTo(1);
+		assertThat(meterRegistry.get("custom-kafka-hot-key-salted").counter().count()).isGreaterThan(900);
+	}
+
+	@Test
+	void doesNotSaltWhenDisabledOrBelowMinCount() {
+		HotKeyPartitioner disabled = partitioner();
+		properties.setEnabled(true);
+		properties.setMinCount(10_000);
+		HotKeyPartitioner quiet = partitioner();
+
+		for (int i = 0; i < 100; i++) {
+			assertThat(disabled.salt("tenant-a")).isEqualTo(HotKeyPartitioner.NO_SALT);
+			assertThat(quiet.salt("tenant-a")).isEqualTo(HotKeyPartitioner.NO_SALT);
+		}
+		assertThat(quiet.salt(null)).isEqualTo(HotKeyPartitioner.NO_SALT);
+	}
+
+	@Test
+	void reportsPartitionSkewOfLastWindow() throws InterruptedException {
+		properties.setWindow(Duration.ofMillis(500));
+		AtomicInteger lookups = new AtomicInteger();
+		HotKeyPartitioner partitioner = new HotKeyPartitioner(properties, topic -> {
+			lookups.incrementAndGet();
+			return PARTITIONS;
+		}, meterRegistry);
+		// salt가 없는 레코드는 메타데이터를 조회하지 않고, 파티션 수는 salt를 붙인 요청에서 한 번만 읽음
+		assertThat(partitioner.partition(TOPIC, "user-1", HotKeyPartitioner.NO_SALT)).isNull();
+		assertThat(lookups).hasValue(0);
+		assertThat(partitioner.partition(TOPIC, "user-1", 0)).isNotNull();
+		assertThat(lookups).hasValue(1);
+
+		// 6개 파티션 중 0번에 12건, 1번에 6건 → 최대 12 / 평균 3 = 4
+		for (int i = 0; i < 12; i++) {
+			partitioner.recordAck(TOPIC, 0);
+		}
+		for (int i = 0; i < 6; i++) {
+			partitioner.recordAck(TOPIC, 1);
+		}
+		partitioner.recordAck(TOPIC, -1);
+		Thread.sleep(600);
+		partitioner.recordAck(TOPIC, 2);
+
+		assertThat(meterRegistry.get("custom-kafka-partition-skew").tag("topic", TOPIC).gauge().value()).isEqualTo(4.0);
+		assertThat(meterRegistry.get("custom-kafka-partition-records").tag("partition", "0").counter().count()).isEqualTo(12);
+		// ack 경로(프로듀서 I/O 스레드)와 window가 바뀐 뒤의 요청은 메타데이터를 다시 조회하지 않음
+		assertThat(partitioner.partition(TOPIC, "user-1", 1)).isNotNull();
+		assertThat(lookups).hasValue(1);
+	}
+
+	@Test
+	void fallsBackToDefaultPartitionerWhenPartitionCountLookupFails() {
+		AtomicInteger lookups = new AtomicInteger();
+		HotKeyPartitioner partitioner = new HotKeyPartitioner(properties, topic -> {
+			// 브로커 장애로 메타데이터를 받지 못하면 max.block.ms 뒤에 실패
+			if (lookups.incrementAndGet() == 1) {
+				throw new TimeoutException("Topic " + topic + " not present in metadata after 60000 ms.");
+			}
+			return PARTITIONS;
+		}, meterRegistry);
+
+		assertThat(partitioner.partition(TOPIC, "tenant-a", 1)).isNull();
+		// 실패는 캐시하지 않으므로 복구 후 다음 요청에서 다시 조회
+		assertThat(partitioner.partition(TOPIC, "tenant-a", 1)).isNotNull();
+		assertThat(lookups).hasValue(2);
+	}
+
+	@Test
+	void sketchNeverUnderestimates() {
+		CountMinSketch sketch = new CountMinSketch(64, 4);
+		for (int i = 0; i < 500; i++) {
+			sketch.add("key-" + (i % 100));
+		}
+		sketch.add("hot");
+
+		for (int i = 0; i < 100; i++) {
+			assertThat(sketch.estimate("key-" + i)).isGreaterThanOrEqualTo(5);
+		}
+		sketch.reset();
+		assertThat(sketch.estimate("hot")).isZero();
+	}
+
+	private HotKeyPartitioner partitioner() {
+		return new HotKeyPartitioner(properties, topic -> PARTITIONS, meterRegistry);
+	}
+}
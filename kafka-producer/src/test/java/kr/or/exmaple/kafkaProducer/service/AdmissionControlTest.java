@@ -0,0 +1,60 @@
+package kr.or.exmaple.kafkaProducer.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.or.exmaple.kafkaProducer.config.ProducerProperties;
+import kr.or.exmaple.kafkaProducer.exception.ProducerOverloadedException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdmissionControlTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final ProducerProperties properties = new ProducerProperties();
+
+	@Test
+	void rejectsWhenInFlightLimitIsReached() {
+		properties.getAdmission().setMaxInFlight(2);
+		properties.getAdmission().setRetryAfter(Duration.ofSeconds(3));
+		AdmissionControl admission = new AdmissionControl(properties, meterRegistry);
+
+		admission.sendStarted();
+		admission.admit();
+		admission.sendStarted();
+
+		assertThatThrownBy(admission::admit)
+				.isInstanceOfSatisfying(ProducerOverloadedException.class,
+						e -> assertThat(e.getRetryAfter()).isEqualTo(Duration.ofSeconds(3)));
+		assertThat(meterRegistry.get("custom-kafka-produce-rejected").tag("reason", "inflight").counter().count())
+				.isEqualTo(1.0);
+		assertThat(meterRegistry.get("custom-kafka-produce-inflight").gauge().value()).isEqualTo(2.0);
+
+		admission.sendCompleted();
+		admission.admit();
+		assertThat(admission.inFlight()).isEqualTo(1);
+	}
+
+	@Test
+	void admitsEverythingWhenDisabled() {
+		properties.getAdmission().setEnabled(false);
+		properties.getAdmission().setMaxInFlight(0);
+		AdmissionControl admission = new AdmissionControl(properties, meterRegistry);
+
+		admission.admit();
+
+		assertThat(meterRegistry.get("custom-kafka-produce-rejected").tag("reason", "inflight").counter().count())
+				.isZero();
+	}
+
+	@Test
+	void bufferIsFullyAvailableWithoutProducers() {
+		AdmissionControl admission = new AdmissionControl(properties, meterRegistry);
+
+		assertThat(admission.bufferAvailableRatio()).isEqualTo(1.0);
+		assertThat(meterRegistry.get("custom-kafka-produce-buffer-available").gauge().value()).isEqualTo(1.0);
+	}
+}
@@ -0,0 +1,102 @@
+package kr.or.exmaple.kafkaProducer.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.or.exmaple.kafkaCommon.header.MessageHeaders;
+import kr.or.exmaple.kafkaProducer.config.AcksKafkaTemplates;
+import kr.or.exmaple.kafkaProducer.config.ProducerProperties;
+import kr.or.exmaple.kafkaProducer.journal.SpillJournal;
+import kr.or.exmaple.kafkaProducer.journal.SpilledRecord;
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.mock.MockProducerFactory;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class SpillCoordinatorTest {
+
+	private static final int SEGMENT_SIZE = 4096;
+
+	@TempDir
+	Path dir;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	/**
+	 * 모든 전송을 재시도할 수 없는 오류로 실패시키는 프로듀서 (KafkaTemplate이 전송마다 닫으므로 close는 무시)
+	 */
+	private final MockProducer<String, byte[]> producer = new MockProducer<>(false, new StringSerializer(), new ByteArraySerializer()) {
+		@Override
+		public synchronized Future<RecordMetadata> send(ProducerRecord<String, byte[]> record, Callback callback) {
+			Future<RecordMetadata> future = super.send(record, callback);
+			errorNext(new RecordTooLargeException("record too large"));
+			return future;
+		}
+
+		@Override
+		public void close(Duration timeout) {
+		}
+	};
+
+	@Test
+	void keepsRecordsDroppedOnReplayInTheDeadLetterJournal() throws Exception {
+		// 이전 실행에서 재전송하지 못한 메시지
+		try (SpillJournal journal = new SpillJournal(dir, SEGMENT_SIZE, 1 << 20)) {
+			journal.append(new SpilledRecord("sample.batch.topic", "user-1",
+					List.of(MessageHeaders.header(MessageHeaders.API_TRAN_ID, "tran-1")),
+					"{}".getBytes(StandardCharsets.UTF_8), AcksMode.ALL));
+			journal.flush();
+		}
+
+		SpillCoordinator coordinator = new SpillCoordinator(properties(), new AcksKafkaTemplates<>(producerFactory()), meterRegistry);
+		assertThat(coordinator.isSpilling()).isTrue();
+		await().atMost(Duration.ofSeconds(10)).until(() -> !coordinator.isSpilling());
+		coordinator.destroy();
+
+		assertThat(meterRegistry.get("custom-kafka-spill-dropped").counter().count()).isEqualTo(1);
+		try (SpillJournal deadLetters = new SpillJournal(dir.resolve("dead-letter"), SEGMENT_SIZE, 1 << 20)) {
+			SpilledRecord kept = deadLetters.read(10).get(0).record();
+			assertThat(kept.key()).isEqualTo("user-1");
+			assertThat(kept.headers()).singleElement()
+					.satisfies(header -> assertThat(header.value()).isEqualTo("tran-1".getBytes(StandardCharsets.UTF_8)));
+			assertThat(deadLetters.depth()).isEqualTo(1);
+		}
+	}
+
+	private ProducerProperties properties() {
+		ProducerProperties properties = new ProducerProperties();
+		ProducerProperties.Spill spill = properties.getSpill();
+		spill.setDir(dir);
+		spill.setSegmentSize(DataSize.ofBytes(SEGMENT_SIZE));
+		spill.setReplayInterval(Duration.ofMillis(50));
+		return properties;
+	}
+
+	/**
+	 * acks 모드별 설정을 덮어쓴 복사본 대신 같은 MockProducer를 쓰는 ProducerFactory
+	 */
+	private ProducerFactory<String, byte[]> producerFactory() {
+		return new MockProducerFactory<>(() -> producer) {
+			@Override
+			public ProducerFactory<String, byte[]> copyWithConfigurationOverride(Map<String, Object> overrides) {
+				return this;
+			}
+		};
+	}
+}
@@ -0,0 +1,88 @@
+package kr.or.exmaple.kafkaProducer.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.or.exmaple.kafkaProducer.config.ProducerProperties;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.mock.MockProducerFactory;
+import org.springframework.kafka.support.SendResult;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionBatcherTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final MockProducer<String, byte[]> producer =
+			new MockProducer<>(true, null, new StringSerializer(), new ByteArraySerializer());
+
+	private TransactionBatcher batcher;
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		if (batcher != null) {
+			batcher.destroy();
+		}
+	}
+
+	@Test
+	void commitsConcurrentRequestsInOneTransaction() {
+		batcher = batcher(Duration.ofMillis(500));
+		byte[] payload = "{\"name\":\"김철수\"}".getBytes(StandardCharsets.UTF_8);
+
+		List<CompletableFuture<List<SendResult<String, byte[]>>>> futures = List.of(
+				batcher.submit(fanOut("key-1", payload)),
+				batcher.submit(fanOut("key-2", payload)),
+				batcher.submit(fanOut("key-3", payload)));
+
+		for (CompletableFuture<List<SendResult<String, byte[]>>> future : futures) {
+			List<SendResult<String, byte[]>> results = future.orTimeout(10, TimeUnit.SECONDS).join();
+			assertThat(results).extracting(result -> result.getRecordMetadata().topic())
+					.containsExactly("sample.batch.topic", "sample.record.topic");
+		}
+		assertThat(producer.history()).hasSize(6).allSatisfy(record -> assertThat(record.value()).isSameAs(payload));
+		assertThat(producer.commitCount()).isEqualTo(1);
+		assertThat(meterRegistry.get("custom-kafka-transaction-requests").summary().max()).isEqualTo(3);
+	}
+
+	@Test
+	void failsEveryRequestOfAbortedTransaction() {
+		producer.sendException = new RecordTooLargeException("record too large");
+		batcher = batcher(Duration.ofMillis(500));
+		byte[] payload = "{}".getBytes(StandardCharsets.UTF_8);
+
+		CompletableFuture<List<SendResult<String, byte[]>>> first = batcher.submit(fanOut("key-1", payload));
+		CompletableFuture<List<SendResult<String, byte[]>>> second = batcher.submit(fanOut("key-2", payload));
+
+		assertThat(first).failsWithin(Duration.ofSeconds(10));
+		assertThat(second).failsWithin(Duration.ofSeconds(10));
+		assertThat(producer.transactionAborted()).isTrue();
+		assertThat(producer.commitCount()).isZero();
+		assertThat(meterRegistry.get("custom-kafka-transaction-aborted").counter().count()).isEqualTo(1);
+	}
+
+	private TransactionBatcher batcher(Duration linger) {
+		ProducerProperties.FanOut fanOut = new ProducerProperties.FanOut();
+		fanOut.setTransactional(true);
+		fanOut.getTransaction().setLinger(linger);
+		producer.initTransactions();
+		MockProducerFactory<String, byte[]> producerFactory = new MockProducerFactory<>((transactional, id) -> producer, "tx-");
+		return new TransactionBatcher(fanOut, producerFactory, meterRegistry);
+	}
+
+	private static List<ProducerRecord<String, byte[]>> fanOut(String key, byte[] payload) {
+		return List.of(new ProducerRecord<>("sample.batch.topic", key, payload),
+				new ProducerRecord<>("sample.record.topic", key, payload));
+	}
+}
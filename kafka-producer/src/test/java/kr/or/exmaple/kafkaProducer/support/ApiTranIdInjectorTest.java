@@ -0,0 +1,117 @@
+package kr.or.exmaple.kafkaProducer.support;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ApiTranIdInjectorTest {
+
+	private final ApiTranIdInjector injector = new ApiTranIdInjector();
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void injectsApiTranIdBeforeClosingBrace() throws Exception {
+		byte[] body = "{\"name\": \"김철수\", \"nested\": {\"a\": [1, 2, {\"b\": null}]}} \n".getBytes(StandardCharsets.UTF_8);
+
+		ApiTranIdInjector.Result result = injector.inject(body, "tran-1");
+
+		JsonNode node = objectMapper.readTree(result.payload());
+		assertThat(node.get("name").asText()).isEqualTo("김철수");
+		assertThat(node.get("nested").get("a").size()).isEqualTo(3);
+		assertThat(node.get("api_tran_id").asText()).isEqualTo("tran-1");
+		assertThat(result.key()).isNull();
+	}
+
+	@Test
+	void extractsTopLevelKeyOnly() {
+		byte[] body = "{\"nested\": {\"key\": \"inner\"}, \"key\": 123}".getBytes(StandardCharsets.UTF_8);
+
+		assertThat(injector.inject(body, "tran-1").key()).isEqualTo("123");
+	}
+
+	@Test
+	void extractsStructuredKeyAsRawJson() {
+		byte[] body = "{\"key\": {\"tenant\": \"a\"}}".getBytes(StandardCharsets.UTF_8);
+
+		assertThat(injector.inject(body, "tran-1").key()).isEqualTo("{\"tenant\": \"a\"}");
+	}
+
+	@Test
+	void rejectsInvalidPayloads() {
+		assertThatThrownBy(() -> injector.inject("{}".getBytes(StandardCharsets.UTF_8), "t"))
+				.hasMessage("JSON data is required");
+		assertThatThrownBy(() -> injector.inject("[1]".getBytes(StandardCharsets.UTF_8), "t"))
+				.hasMessage("JSON object is required");
+		assertThatThrownBy(() -> injector.inject("{name: \"test\"}".getBytes(StandardCharsets.UTF_8), "t"))
+				.hasMessageStartingWith("Invalid JSON format");
+		assertThatThrownBy(() -> injector.inject("{\"a\": 1} {\"b\": 2}".getBytes(StandardCharsets.UTF_8), "t"))
+				.hasMessageStartingWith("Invalid JSON format");
+		assertThatThrownBy(() -> injector.inject("{\"a\": 1".getBytes(StandardCharsets.UTF_8), "t"))
+				.hasMessageStartingWith("Invalid JSON format");
+	}
+
+	/**
+	 * 요청당 할당량 비교 벤치마크
+	 * 
+	 * Map 바인딩 → writeValueAsString → StringSerializer 경로와
+	 * 패스스루 경로의 스레드 할당 바이트를 비교합니다.
+	 */
+	@Test
+	void passThroughAllocatesLessThanMapRoundTrip() throws Exception {
+		byte[] body = samplePayload();
+		int iterations = 20_000;
+
+		long mapBytes = allocatedPerOp(iterations, () -> {
+			Map<String, Object> jsonData = objectMapper.readValue(body, new TypeReference<Map<String, Object>>() { });
+			jsonData.put("api_tran_id", UUID.randomUUID().toString());
+			String json = objectMapper.writeValueAsString(jsonData);
+			return json.getBytes(StandardCharsets.UTF_8).length;
+		});
+		long passThroughBytes = allocatedPerOp(iterations,
+				() -> injector.inject(body, UUID.randomUUID().toString()).payload().length);
+
+		System.out.printf("payload=%d bytes, map round-trip=%d B/op, pass-through=%d B/op (%.1fx less)%n",
+				body.length, mapBytes, passThroughBytes, (double) mapBytes / passThroughBytes);
+		assertThat(passThroughBytes * 2).isLessThan(mapBytes);
+	}
+
+	private static long allocatedPerOp(int iterations, ThrowingOp op) throws Exception {
+		com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long sink = 0;
+		// JIT 워밍업
+		for (int i = 0; i < iterations; i++) {
+			sink += op.run();
+		}
+		long before = threadMXBean.getCurrentThreadAllocatedBytes();
+		for (int i = 0; i < iterations; i++) {
+			sink += op.run();
+		}
+		long allocated = threadMXBean.getCurrentThreadAllocatedBytes() - before;
+		assertThat(sink).isPositive();
+		return allocated / iterations;
+	}
+
+	private static byte[] samplePayload() {
+		return ("{\"user\": {\"id\": \"user123\", \"name\": \"김철수\", \"department\": \"개발팀\"},"
+				+ " \"order\": {\"orderId\": \"ORD-2025-001\", \"items\": ["
+				+ "{\"product\": \"laptop\", \"quantity\": 1, \"price\": 1500000},"
+				+ "{\"product\": \"mouse\", \"quantity\": 2, \"price\": 25000}], \"totalAmount\": 1550000},"
+				+ " \"metadata\": {\"timestamp\": \"2025-01-01T10:30:00Z\", \"source\": \"web\"}}")
+				.getBytes(StandardCharsets.UTF_8);
+	}
+
+	@FunctionalInterface
+	private interface ThrowingOp {
+		long run() throws Exception;
+	}
+}
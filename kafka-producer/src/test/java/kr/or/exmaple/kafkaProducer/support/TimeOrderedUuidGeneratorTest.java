@@ -0,0 +1,71 @@
+package kr.or.exmaple.kafkaProducer.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimeOrderedUuidGeneratorTest {
+
+	private static final long NOW = 1_760_000_000_000L;
+
+	@Test
+	void encodesVersionVariantAndTimestamp() {
+		UUID uuid = new TimeOrderedUuidGenerator(() -> NOW).nextUuid();
+
+		assertThat(uuid.version()).isEqualTo(7);
+		assertThat(uuid.variant()).isEqualTo(2);
+		assertThat(uuid.getMostSignificantBits() >>> 16).isEqualTo(NOW);
+	}
+
+	@Test
+	void staysMonotonicWithinSameMillisecond() {
+		TimeOrderedUuidGenerator generator = new TimeOrderedUuidGenerator(() -> NOW);
+
+		// 12비트 순번을 넘길 만큼 발급해도 문자열 순서가 발급 순서와 같아야 함
+		List<String> ids = new ArrayList<>();
+		for (int i = 0; i < 10_000; i++) {
+			ids.add(generator.nextId());
+		}
+
+		assertThat(ids).isSorted().doesNotHaveDuplicates();
+	}
+
+	@Test
+	void neverGoesBackwardsWhenClockDoes() {
+		AtomicLong clock = new AtomicLong(NOW);
+		TimeOrderedUuidGenerator generator = new TimeOrderedUuidGenerator(clock::get);
+
+		String before = generator.nextId();
+		clock.set(NOW - 1_000);
+		String after = generator.nextId();
+
+		assertThat(after).isGreaterThan(before);
+	}
+
+	@Test
+	void generatesUniqueIdsAcrossThreads() throws Exception {
+		TimeOrderedUuidGenerator generator = new TimeOrderedUuidGenerator();
+		Set<String> ids = ConcurrentHashMap.newKeySet();
+
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 4; t++) {
+			threads.add(Thread.ofPlatform().start(() -> {
+				for (int i = 0; i < 50_000; i++) {
+					ids.add(generator.nextId());
+				}
+			}));
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertThat(ids).hasSize(200_000);
+	}
+}